@@ -78,9 +78,10 @@ public class ProviderConfigBuilder {
             throw new ServerConfigurationException("Error while retrieving OIDC claim dialect", e);
         }
         try {
-            providerConfig.setIdTokenSigningAlgValuesSupported(new String[]{
-                OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm
-                        (OAuthServerConfiguration.getInstance().getIdTokenSignatureAlgorithm()).getName()});
+            List<String> signingAlgorithms = OAuth2Util.getSupportedIdTokenSigningAlgorithms(
+                    request.getTenantDomain());
+            providerConfig.setIdTokenSigningAlgValuesSupported(signingAlgorithms.toArray(new
+                    String[signingAlgorithms.size()]));
         } catch (IdentityOAuth2Exception e) {
             throw new ServerConfigurationException("Unsupported signature algorithm configured.", e);
         }
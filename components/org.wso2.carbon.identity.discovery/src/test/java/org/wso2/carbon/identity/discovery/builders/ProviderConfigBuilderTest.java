@@ -29,6 +29,7 @@ import org.wso2.carbon.base.ServerConfigurationException;
 import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
 import org.wso2.carbon.identity.claim.metadata.mgt.exception.ClaimMetadataException;
 import org.wso2.carbon.identity.claim.metadata.mgt.model.ExternalClaim;
+import org.wso2.carbon.identity.discovery.OIDProviderConfigResponse;
 import org.wso2.carbon.identity.discovery.OIDProviderRequest;
 import org.wso2.carbon.identity.discovery.internal.OIDCDiscoveryDataHolder;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
@@ -37,6 +38,7 @@ import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.Matchers.anyString;
@@ -45,6 +47,7 @@ import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.spy;
 import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
 @PrepareForTest({OAuth2Util.class, OAuthServerConfiguration.class, OIDCDiscoveryDataHolder.class,
@@ -93,8 +96,12 @@ public class ProviderConfigBuilderTest {
 
         when(mockOAuthServerConfiguration.getIdTokenSignatureAlgorithm()).thenReturn(idTokenSignatureAlgorithm);
 
-        when(OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(idTokenSignatureAlgorithm)).thenReturn(JWSAlgorithm.RS256);
-        assertNotNull(providerConfigBuilder.buildOIDProviderConfig(mockOidProviderRequest));
+        when(OAuth2Util.getSupportedIdTokenSigningAlgorithms(anyString())).thenReturn(
+                Arrays.asList(JWSAlgorithm.RS256.getName(), JWSAlgorithm.ES256.getName()));
+        OIDProviderConfigResponse providerConfig = providerConfigBuilder.buildOIDProviderConfig(mockOidProviderRequest);
+        assertNotNull(providerConfig);
+        assertEquals(providerConfig.getIdTokenSigningAlgValuesSupported(),
+                new String[]{JWSAlgorithm.RS256.getName(), JWSAlgorithm.ES256.getName()});
     }
 
     @Test(expectedExceptions = ServerConfigurationException.class)
@@ -150,7 +157,7 @@ public class ProviderConfigBuilderTest {
         when(mockClaimMetadataManagementService.getExternalClaims(anyString(), anyString())).thenReturn(claims);
 
         when(mockOAuthServerConfiguration.getIdTokenSignatureAlgorithm()).thenReturn(idTokenSignatureAlgorithm);
-        when(OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(idTokenSignatureAlgorithm)).
+        when(OAuth2Util.getSupportedIdTokenSigningAlgorithms(anyString())).
                 thenThrow(new IdentityOAuth2Exception("IdentityOAuth2Exception"));
 
         providerConfigBuilder.buildOIDProviderConfig(mockOidProviderRequest);
@@ -326,6 +326,7 @@ public final class OAuthConstants {
         public static final String ID_TOKEN_ENCRYPTED = "idTokenEncrypted";
         public static final String ID_TOKEN_ENCRYPTION_ALGORITHM = "idTokenEncryptionAlgorithm";
         public static final String ID_TOKEN_ENCRYPTION_METHOD = "idTokenEncryptionMethod";
+        public static final String ID_TOKEN_SIGNATURE_ALGORITHM = "idTokenSignatureAlgorithm";
         public static final String BACK_CHANNEL_LOGOUT_URL = "backChannelLogoutURL";
 
         private OIDCConfigProperties() { }
@@ -20,17 +20,27 @@ package org.wso2.carbon.identity.oauth.endpoint.introspection;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth.endpoint.util.EndpointRequestExecutor;
 import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2IntrospectionResponseDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationRequestDTO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.FormParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -43,6 +53,17 @@ public class OAuth2IntrospectionEndpoint {
     private final static String DEFAULT_TOKEN_TYPE_HINT = "bearer";
     private final static String DEFAULT_TOKEN_TYPE = "Bearer";
     private final static String JWT_TOKEN_TYPE = "JWT";
+    private final static String TOKEN = "token";
+    private final static String TOKEN_TYPE_HINT = "token_type_hint";
+    private final static String TOKENS = "tokens";
+    private final static String RESULTS = "results";
+    private final static String INVALID_INPUT_ERROR = "{\"error\": \"Invalid input\"}";
+    private final static String JSON_ERROR = "{'error': 'Error occured while building the json response.'}";
+    private final static String MAX_BATCH_SIZE = "OAuth.Introspection.MaxBatchSize";
+    private final static int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    @Context
+    private MessageContext messageContext;
 
     /**
      * @param token access token or refresh token
@@ -61,8 +82,11 @@ public class OAuth2IntrospectionEndpoint {
     @POST
     public Response introspect(@FormParam("token") String token, @FormParam("token_type_hint") String tokenTypeHint) {
 
-        OAuth2TokenValidationRequestDTO introspectionRequest;
-        OAuth2IntrospectionResponseDTO introspectionResponse;
+        return EndpointRequestExecutor.getInstance(EndpointRequestExecutor.INTROSPECTION_ENDPOINT)
+                .execute(messageContext, () -> processIntrospection(token, tokenTypeHint));
+    }
+
+    private Response processIntrospection(String token, String tokenTypeHint) {
 
         if (tokenTypeHint == null) {
             tokenTypeHint = DEFAULT_TOKEN_TYPE_HINT;
@@ -73,26 +97,120 @@ public class OAuth2IntrospectionEndpoint {
         }
 
         if (StringUtils.isBlank(token)) {
-            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"Invalid input\"}").build();
+            return Response.status(Response.Status.BAD_REQUEST).entity(INVALID_INPUT_ERROR).build();
         }
 
         // validate the access token against the OAuth2TokenValidationService OSGi service.
-        introspectionRequest = new OAuth2TokenValidationRequestDTO();
+        OAuth2IntrospectionResponseDTO introspectionResponse =
+                getTokenValidationService().buildIntrospectionResponse(buildIntrospectionRequest(token, tokenTypeHint));
+
+        try {
+            return Response.ok(buildResponseBody(introspectionResponse, tokenTypeHint), MediaType.APPLICATION_JSON)
+                    .status(Response.Status.OK).build();
+        } catch (JSONException e) {
+            log.error("Error occured while building the json response.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(JSON_ERROR).build();
+        }
+    }
+
+    /**
+     * Introspects a batch of tokens in a single request. The request body is a JSON object with a {@code tokens}
+     * array, whose entries are either a token or an object with {@code token} and {@code token_type_hint}. The
+     * response holds the introspection result of each token, in the order of the request, under {@code results}.
+     * Each result is the response the introspection endpoint returns for that token on its own.
+     *
+     * @param requestBody JSON request body with the tokens to introspect
+     * @return introspection results of the tokens
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response introspectBatch(String requestBody) {
+
+        return EndpointRequestExecutor.getInstance(EndpointRequestExecutor.INTROSPECTION_ENDPOINT)
+                .execute(messageContext, () -> processBatchIntrospection(requestBody));
+    }
+
+    private Response processBatchIntrospection(String requestBody) {
+
+        JSONArray tokens;
+        try {
+            tokens = new JSONObject(StringUtils.defaultString(requestBody)).getJSONArray(TOKENS);
+        } catch (JSONException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Invalid batch introspection request.", e);
+            }
+            return buildBatchErrorResponse("The request should contain a tokens array.");
+        }
+        int maxBatchSize = getMaxBatchSize();
+        if (tokens.length() > maxBatchSize) {
+            return buildBatchErrorResponse("The request contains more than " + maxBatchSize + " tokens.");
+        }
+
+        String[] tokenTypeHints = new String[tokens.length()];
+        String[] results = new String[tokens.length()];
+        List<OAuth2TokenValidationRequestDTO> introspectionRequests = new ArrayList<>();
+        List<Integer> requestIndexes = new ArrayList<>();
+        for (int i = 0; i < tokens.length(); i++) {
+            JSONObject tokenEntry = tokens.optJSONObject(i);
+            String token = tokenEntry != null ? tokenEntry.optString(TOKEN, null) : tokens.optString(i, null);
+            String tokenTypeHint = tokenEntry != null ? tokenEntry.optString(TOKEN_TYPE_HINT, null) : null;
+            tokenTypeHints[i] = tokenTypeHint == null ? DEFAULT_TOKEN_TYPE_HINT : tokenTypeHint;
+            if (StringUtils.isBlank(token)) {
+                results[i] = INVALID_INPUT_ERROR;
+                continue;
+            }
+            introspectionRequests.add(buildIntrospectionRequest(token, tokenTypeHints[i]));
+            requestIndexes.add(i);
+        }
+
+        if (!introspectionRequests.isEmpty()) {
+            OAuth2IntrospectionResponseDTO[] introspectionResponses = getTokenValidationService()
+                    .buildIntrospectionResponses(introspectionRequests.toArray(
+                            new OAuth2TokenValidationRequestDTO[introspectionRequests.size()]));
+            for (int i = 0; i < introspectionResponses.length; i++) {
+                int index = requestIndexes.get(i);
+                try {
+                    results[index] = buildResponseBody(introspectionResponses[i], tokenTypeHints[index]);
+                } catch (JSONException e) {
+                    log.error("Error occured while building the json response.", e);
+                    results[index] = JSON_ERROR;
+                }
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Introspected a batch of " + tokens.length() + " tokens.");
+        }
+        StringBuilder responseBody = new StringBuilder("{\"").append(RESULTS).append("\":[");
+        for (int i = 0; i < results.length; i++) {
+            if (i > 0) {
+                responseBody.append(',');
+            }
+            responseBody.append(results[i]);
+        }
+        responseBody.append("]}");
+        return Response.ok(responseBody.toString(), MediaType.APPLICATION_JSON).build();
+    }
+
+    private OAuth2TokenValidationRequestDTO buildIntrospectionRequest(String token, String tokenTypeHint) {
+
+        OAuth2TokenValidationRequestDTO introspectionRequest = new OAuth2TokenValidationRequestDTO();
         OAuth2TokenValidationRequestDTO.OAuth2AccessToken accessToken = introspectionRequest.new OAuth2AccessToken();
         accessToken.setIdentifier(token);
         accessToken.setTokenType(tokenTypeHint);
         introspectionRequest.setAccessToken(accessToken);
+        return introspectionRequest;
+    }
 
-        OAuth2TokenValidationService tokenService = (OAuth2TokenValidationService) PrivilegedCarbonContext
-                .getThreadLocalCarbonContext().getOSGiService(OAuth2TokenValidationService.class);
-
-        introspectionResponse = tokenService.buildIntrospectionResponse(introspectionRequest);
+    private String buildResponseBody(OAuth2IntrospectionResponseDTO introspectionResponse, String tokenTypeHint)
+            throws JSONException {
 
         if (introspectionResponse.getError() != null) {
             if (log.isDebugEnabled()) {
                 log.debug("The error why token is made inactive: " + introspectionResponse.getError());
             }
-            return Response.status(Response.Status.OK).entity("{\"active\":false}").build();
+            return "{\"active\":false}";
         }
 
         IntrospectionResponseBuilder respBuilder = new IntrospectionResponseBuilder()
@@ -112,13 +230,23 @@ public class OAuth2IntrospectionEndpoint {
                     .setTokenType(JWT_TOKEN_TYPE)
                     .setIssuer(introspectionResponse.getIss());
         }
+        return respBuilder.build();
+    }
 
-        try {
-            return Response.ok(respBuilder.build(), MediaType.APPLICATION_JSON).status(Response.Status.OK).build();
-        } catch (JSONException e) {
-            log.error("Error occured while building the json response.", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("{'error': 'Error occured while building the json response.'}").build();
-        }
+    private Response buildBatchErrorResponse(String errorDescription) {
+
+        return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + OAuth2ErrorCodes.INVALID_REQUEST +
+                "\", \"error_description\": \"" + errorDescription + "\"}").build();
+    }
+
+    private int getMaxBatchSize() {
+
+        return OAuth2ConfigUtil.getIntProperty(MAX_BATCH_SIZE, 1, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    private OAuth2TokenValidationService getTokenValidationService() {
+
+        return (OAuth2TokenValidationService) PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                .getOSGiService(OAuth2TokenValidationService.class);
     }
 }
@@ -17,96 +17,241 @@
  */
 package org.wso2.carbon.identity.oauth.endpoint.jwks;
 
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.JWK;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.base.ServerConfiguration;
 import org.wso2.carbon.core.util.KeyStoreManager;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyMaterial;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyRegistry;
 import org.wso2.carbon.utils.CarbonUtils;
+import java.io.File;
 import java.io.FileInputStream;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
-import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.jws.WebService;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 
 @WebService
 public class JwksEndpoint {
     private static final Log log = LogFactory.getLog(JwksEndpoint.class);
-    private static final String KEY_USE = "sig";
     private static final String SECURITY_KEY_STORE_LOCATION = "Security.KeyStore.Location";
     private static final String SECURITY_KEY_STORE_PW = "Security.KeyStore.Password";
     private static final String SECURITY_KEY_STORE_KEY_ALIAS = "Security.KeyStore.KeyAlias";
     private static final String KEYS = "keys";
+    private static final String JWKS_CACHE_CONTROL = "OAuth.JWKSEndpoint.CacheControl";
+    private static final String JWKS_ADDITIONAL_KEY_ALIASES = "OAuth.JWKSEndpoint.AdditionalKeyAliases";
+    private static final String DEFAULT_CACHE_CONTROL = "public, max-age=300";
+    private static final String ANY_ENTITY_TAG = "*";
+    private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+
+    // Serialized key set of each tenant, rebuilt only when the published certificates change.
+    private final Map<String, JwksCacheEntry> jwksCache = new ConcurrentHashMap<>();
 
     @GET
     @Path(value = "/jwks")
     @Produces(MediaType.APPLICATION_JSON)
-    public String jwks() {
+    public Response jwks(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
 
         String tenantDomain = getTenantDomain();
-        String keystorePath = CarbonUtils.getServerConfiguration().getFirstProperty(SECURITY_KEY_STORE_LOCATION);
-
-        try (FileInputStream file = new FileInputStream(keystorePath)) {
+        JwksCacheEntry jwks;
+        try {
             int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-            RSAPublicKey publicKey;
             if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equalsIgnoreCase(tenantDomain)) {
-                KeyStore keystore = KeyStore.getInstance(KeyStore.getDefaultType());
-                String password = CarbonUtils.getServerConfiguration().getFirstProperty(SECURITY_KEY_STORE_PW);
-                keystore.load(file, password.toCharArray());
-                String alias = CarbonUtils.getServerConfiguration().getFirstProperty(SECURITY_KEY_STORE_KEY_ALIAS);
-                // Get certificate of public key
-                publicKey = getRsaPublicKey(alias, keystore);
+                jwks = getSuperTenantJwks(tenantDomain, tenantId);
             } else {
                 if (isInvalidTenantId(tenantId)) {
                     String errorMessage = "Invalid Tenant: " + tenantDomain;
                     return logAndReturnError(errorMessage, null);
                 }
-                KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(tenantId);
-                KeyStore keyStore = keyStoreManager.getKeyStore(generateKSNameFromDomainName(tenantDomain));
-                // Get certificate of public key
-                publicKey = getRsaPublicKey(tenantDomain, keyStore);
+                jwks = getTenantJwks(tenantDomain, tenantId);
             }
-            return buildResponse(tenantDomain, tenantId, publicKey);
         } catch (Exception e) {
             String errorMessage = "Error while generating the keyset for " + tenantDomain + " tenant domain.";
             return logAndReturnError(errorMessage, e);
         }
+
+        if (isNotModified(ifNoneMatch, jwks.getETag())) {
+            return Response.status(HttpServletResponse.SC_NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, jwks.getETag())
+                    .header(HttpHeaders.CACHE_CONTROL, getCacheControl())
+                    .build();
+        }
+        return Response.ok(jwks.getJwks())
+                .header(HttpHeaders.ETAG, jwks.getETag())
+                .header(HttpHeaders.CACHE_CONTROL, getCacheControl())
+                .build();
+    }
+
+    /**
+     * Returns the key set of the super tenant. The keystore file is only loaded again when its location, size or
+     * modification time changes.
+     */
+    private JwksCacheEntry getSuperTenantJwks(String tenantDomain, int tenantId) throws Exception {
+
+        ServerConfiguration serverConfiguration = CarbonUtils.getServerConfiguration();
+        File keystoreFile = new File(serverConfiguration.getFirstProperty(SECURITY_KEY_STORE_LOCATION));
+        String version = keystoreFile.getAbsolutePath() + ":" + keystoreFile.lastModified() + ":" +
+                keystoreFile.length();
+
+        JwksCacheEntry cachedJwks = jwksCache.get(tenantDomain);
+        if (cachedJwks != null && cachedJwks.isVersion(version)) {
+            return cachedJwks;
+        }
+
+        KeyStore keystore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try (FileInputStream file = new FileInputStream(keystoreFile)) {
+            String password = serverConfiguration.getFirstProperty(SECURITY_KEY_STORE_PW);
+            keystore.load(file, password.toCharArray());
+        }
+        String alias = serverConfiguration.getFirstProperty(SECURITY_KEY_STORE_KEY_ALIAS);
+        return cacheJwks(tenantDomain, version, buildResponse(tenantDomain, tenantId,
+                getPublishedCertificates(alias, keystore)));
+    }
+
+    /**
+     * Returns the key set of a tenant. Tenant keystores are served from the {@link KeyStoreManager}, so the
+     * published certificates are compared with the cached ones instead of tracking the keystore resource.
+     */
+    private JwksCacheEntry getTenantJwks(String tenantDomain, int tenantId) throws Exception {
+
+        KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(tenantId);
+        KeyStore keyStore = keyStoreManager.getKeyStore(generateKSNameFromDomainName(tenantDomain));
+        List<Certificate> certificates = getPublishedCertificates(tenantDomain, keyStore);
+
+        JwksCacheEntry cachedJwks = jwksCache.get(tenantDomain);
+        if (cachedJwks != null && cachedJwks.isVersion(certificates)) {
+            return cachedJwks;
+        }
+        return cacheJwks(tenantDomain, certificates, buildResponse(tenantDomain, tenantId, certificates));
     }
 
-    private String buildResponse(String tenantDomain, int tenantId, RSAPublicKey publicKey)
-            throws IdentityOAuth2Exception, ParseException {
+    private JwksCacheEntry cacheJwks(String tenantDomain, Object version, String jwks) {
+
+        JwksCacheEntry jwksCacheEntry = new JwksCacheEntry(version, jwks);
+        jwksCache.put(tenantDomain, jwksCacheEntry);
+        if (log.isDebugEnabled()) {
+            log.debug("Cached the key set of tenant: " + tenantDomain + " with ETag: " + jwksCacheEntry.getETag());
+        }
+        return jwksCacheEntry;
+    }
+
+    private String buildResponse(String tenantDomain, int tenantId, List<Certificate> certificates)
+            throws Exception {
         JSONArray jwksArray = new JSONArray();
         JSONObject jwksJson = new JSONObject();
 
-        RSAKey.Builder jwk = new RSAKey.Builder(publicKey);
-        jwk.keyID(OAuth2Util.getThumbPrint(tenantDomain, tenantId));
-        jwk.algorithm(JWSAlgorithm.RS256);
-        jwk.keyUse(KeyUse.parse(KEY_USE));
-        jwksArray.put(jwk.build().toJSONObject());
+        for (Certificate certificate : certificates) {
+            String keyId;
+            if (jwksArray.length() == 0) {
+                // The primary key keeps the key id used when signing tokens of the tenant.
+                keyId = OAuth2Util.getThumbPrint(tenantDomain, tenantId);
+            } else {
+                keyId = OAuth2Util.getThumbPrint(certificate);
+            }
+            JWK jwk = SigningKeyMaterial.toPublicJwk(certificate, keyId);
+            if (jwk != null) {
+                jwksArray.put(jwk.toJSONObject());
+            }
+        }
         jwksJson.put(KEYS, jwksArray);
         return jwksJson.toString();
     }
 
-    private RSAPublicKey getRsaPublicKey(String alias, KeyStore keyStore) throws KeyStoreException {
-        Certificate cert = keyStore.getCertificate(alias);
-        return (RSAPublicKey) cert.getPublicKey();
+    /**
+     * Returns the certificates to publish, starting with the signing certificate of the tenant followed by the
+     * elliptic curve signing certificate, if configured, and the certificates of the additional key aliases
+     * configured to support key rollover.
+     */
+    private List<Certificate> getPublishedCertificates(String alias, KeyStore keyStore)
+            throws KeyStoreException, IdentityOAuth2Exception {
+
+        List<Certificate> certificates = new ArrayList<>();
+        Certificate signingCertificate = keyStore.getCertificate(alias);
+        if (signingCertificate == null) {
+            throw new IdentityOAuth2Exception("Certificate not found for the alias: " + alias);
+        }
+        certificates.add(signingCertificate);
+
+        List<String> additionalAliases = new ArrayList<>();
+        String ecSigningKeyAlias = SigningKeyRegistry.getECSigningKeyAlias();
+        if (ecSigningKeyAlias != null) {
+            additionalAliases.add(ecSigningKeyAlias);
+        }
+        String configuredAliases = IdentityUtil.getProperty(JWKS_ADDITIONAL_KEY_ALIASES);
+        if (StringUtils.isNotBlank(configuredAliases)) {
+            additionalAliases.addAll(Arrays.asList(configuredAliases.split(",")));
+        }
+        for (String additionalAlias : additionalAliases) {
+            additionalAlias = additionalAlias.trim();
+            if (StringUtils.isEmpty(additionalAlias) || additionalAlias.equals(alias)) {
+                continue;
+            }
+            Certificate certificate = keyStore.getCertificate(additionalAlias);
+            if (certificate == null || !(certificate.getPublicKey() instanceof RSAPublicKey ||
+                    certificate.getPublicKey() instanceof ECPublicKey)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("No RSA or EC certificate found for the additional key alias: " + additionalAlias);
+                }
+                continue;
+            }
+            if (!certificates.contains(certificate)) {
+                certificates.add(certificate);
+            }
+        }
+        return certificates;
+    }
+
+    private boolean isNotModified(String ifNoneMatch, String eTag) {
+
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String entityTag : ifNoneMatch.split(",")) {
+            entityTag = entityTag.trim();
+            if (entityTag.startsWith(WEAK_ENTITY_TAG_PREFIX)) {
+                entityTag = entityTag.substring(WEAK_ENTITY_TAG_PREFIX.length());
+            }
+            if (ANY_ENTITY_TAG.equals(entityTag) || eTag.equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getCacheControl() {
+
+        String cacheControl = IdentityUtil.getProperty(JWKS_CACHE_CONTROL);
+        if (StringUtils.isBlank(cacheControl)) {
+            return DEFAULT_CACHE_CONTROL;
+        }
+        return cacheControl.trim();
     }
 
     private boolean isInvalidTenantId(int tenantId) {
@@ -121,13 +266,13 @@ public class JwksEndpoint {
         return MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
     }
 
-    private String logAndReturnError(String errorMesage, Exception e) {
+    private Response logAndReturnError(String errorMesage, Exception e) {
         if (e != null) {
             log.error(errorMesage, e);
         } else {
             log.error(errorMesage);
         }
-        return errorMesage;
+        return Response.ok(errorMesage).build();
     }
 
     /**
@@ -139,4 +284,36 @@ public class JwksEndpoint {
         String ksName = tenantDomain.trim().replace(".", "-");
         return (ksName + ".jks");
     }
+
+    /**
+     * Serialized key set of a tenant along with its entity tag and the version of the keys it was built from.
+     */
+    private static class JwksCacheEntry {
+
+        private final Object version;
+        private final String jwks;
+        private final String eTag;
+
+        JwksCacheEntry(Object version, String jwks) {
+
+            this.version = version;
+            this.jwks = jwks;
+            this.eTag = "\"" + DigestUtils.sha256Hex(jwks) + "\"";
+        }
+
+        boolean isVersion(Object version) {
+
+            return this.version.equals(version);
+        }
+
+        String getJwks() {
+
+            return jwks;
+        }
+
+        String getETag() {
+
+            return eTag;
+        }
+    }
 }
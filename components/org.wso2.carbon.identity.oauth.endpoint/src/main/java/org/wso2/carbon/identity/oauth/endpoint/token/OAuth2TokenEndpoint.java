@@ -22,6 +22,7 @@ import org.apache.commons.collections.MapUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.cxf.interceptor.InInterceptors;
+import org.apache.cxf.jaxrs.ext.MessageContext;
 import org.apache.oltu.oauth2.as.response.OAuthASResponse;
 import org.apache.oltu.oauth2.as.response.OAuthASResponse.OAuthTokenResponseBuilder;
 import org.apache.oltu.oauth2.common.OAuth;
@@ -40,6 +41,7 @@ import org.wso2.carbon.identity.oauth.endpoint.exception.InvalidApplicationClien
 import org.wso2.carbon.identity.oauth.endpoint.exception.InvalidRequestParentException;
 import org.wso2.carbon.identity.oauth.endpoint.exception.TokenEndpointAccessDeniedException;
 import org.wso2.carbon.identity.oauth.endpoint.exception.TokenEndpointBadRequestException;
+import org.wso2.carbon.identity.oauth.endpoint.util.EndpointRequestExecutor;
 import org.wso2.carbon.identity.oauth.endpoint.util.EndpointUtil;
 import org.wso2.carbon.identity.oauth2.ResponseHeader;
 import org.wso2.carbon.identity.oauth2.bean.OAuthClientAuthnContext;
@@ -72,12 +74,28 @@ public class OAuth2TokenEndpoint {
     public static final String BEARER = "Bearer";
     private static final String SQL_ERROR = "sql_error";
 
+    @Context
+    private MessageContext messageContext;
+
     @POST
     @Path("/")
     @Consumes("application/x-www-form-urlencoded")
     @Produces("application/json")
-    public Response issueAccessToken(@Context HttpServletRequest request,
-                                     MultivaluedMap<String, String> paramMap)
+    public Response issueAccessToken(@Context HttpServletRequest request, MultivaluedMap<String, String> paramMap)
+            throws OAuthSystemException, InvalidRequestParentException {
+
+        try {
+            return EndpointRequestExecutor.getInstance(EndpointRequestExecutor.TOKEN_ENDPOINT)
+                    .execute(messageContext, () -> processTokenRequest(request, paramMap));
+        } catch (OAuthSystemException | InvalidRequestParentException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // Token requests do not throw other checked exceptions.
+            throw new OAuthSystemException(e);
+        }
+    }
+
+    private Response processTokenRequest(HttpServletRequest request, MultivaluedMap<String, String> paramMap)
             throws OAuthSystemException, InvalidRequestParentException {
 
         try {
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth.endpoint.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.log4j.MDC;
+import org.apache.oltu.oauth2.as.response.OAuthASResponse;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.message.OAuthResponse;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Executes the requests of an endpoint.
+ * <p>
+ * By default requests are processed on the container thread, as before, and do not depend on the asynchronous
+ * processing support of the container. When {@code OAuth.AsyncEndpoints.<Endpoint>.Enabled} is set, the request is
+ * suspended with a CXF {@link Continuation} and handed over to a pool dedicated to the endpoint, so the container
+ * thread is released immediately. Once the request is processed the continuation is resumed and CXF invokes the
+ * resource method again, which returns the result. Requests are processed on the container thread when the servlet does
+ * not support continuations, e.g. when a filter of the request is not async supported.
+ * <p>
+ * The pool size limits the number of requests processed concurrently and the pool queue is bounded. Requests which
+ * cannot be queued, or which waited in the queue longer than the configured queue timeout, are answered with a
+ * {@code temporarily_unavailable} error and HTTP 503. The tenant, identity thread local properties and logging
+ * context of the request are carried over to the worker, and cleared once the request is processed. Workers are
+ * backed by virtual threads when {@code OAuth.AsyncEndpoints.VirtualThreads} is enabled and the JVM supports them.
+ */
+public class EndpointRequestExecutor {
+
+    private static final Log log = LogFactory.getLog(EndpointRequestExecutor.class);
+
+    public static final String TOKEN_ENDPOINT = "TokenEndpoint";
+    public static final String INTROSPECTION_ENDPOINT = "IntrospectionEndpoint";
+
+    private static final String CONFIG_PREFIX = "OAuth.AsyncEndpoints.";
+    private static final String VIRTUAL_THREADS = CONFIG_PREFIX + "VirtualThreads";
+    private static final int DEFAULT_MAX_CONCURRENCY = 100;
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+    private static final long DEFAULT_QUEUE_TIMEOUT = 5000;
+    private static final String RETRY_AFTER = "Retry-After";
+    // Suspended requests do not time out, they are resumed once the request is processed or rejected.
+    private static final long SUSPEND_TIMEOUT = 0;
+
+    private static final Map<String, EndpointRequestExecutor> executors = new ConcurrentHashMap<>();
+
+    private final String endpointName;
+    private final ThreadPoolExecutor threadPool;
+    private final long queueTimeout;
+
+    /**
+     * Creates an executor which processes the requests on the calling thread.
+     *
+     * @param endpointName name of the endpoint
+     */
+    public EndpointRequestExecutor(String endpointName) {
+
+        this.endpointName = endpointName;
+        this.threadPool = null;
+        this.queueTimeout = 0;
+    }
+
+    /**
+     * Creates an executor which processes the requests on a dedicated pool.
+     *
+     * @param endpointName   name of the endpoint
+     * @param maxConcurrency maximum number of requests processed concurrently
+     * @param queueSize      maximum number of requests waiting to be processed
+     * @param queueTimeout   maximum time in milliseconds a request may wait in the queue
+     * @param threadFactory  factory creating the worker threads
+     */
+    public EndpointRequestExecutor(String endpointName, int maxConcurrency, int queueSize, long queueTimeout,
+                                   ThreadFactory threadFactory) {
+
+        this.endpointName = endpointName;
+        this.queueTimeout = queueTimeout;
+        this.threadPool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.threadPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the executor configured for the given endpoint.
+     *
+     * @param endpointName name of the endpoint
+     * @return request executor of the endpoint
+     */
+    public static EndpointRequestExecutor getInstance(String endpointName) {
+
+        return executors.computeIfAbsent(endpointName, EndpointRequestExecutor::createExecutor);
+    }
+
+    /**
+     * Returns whether the requests are processed on a dedicated pool instead of the calling thread.
+     *
+     * @return true if the requests are processed asynchronously
+     */
+    public boolean isAsync() {
+
+        return threadPool != null;
+    }
+
+    /**
+     * Processes the request, on the endpoint pool if the endpoint is asynchronous. Exceptions thrown by the task are
+     * thrown by this method so that they are handled by the exception mappers.
+     * <p>
+     * For an asynchronous endpoint, this method suspends the request and returns null the first time it is called
+     * for the request. It returns the response of the task when it is called again after the request is processed.
+     *
+     * @param messageContext message context of the request
+     * @param task           task processing the request
+     * @param <E>            type of the exceptions thrown by the task
+     * @return response of the request, or null if the request is suspended
+     * @throws E if the task throws an exception
+     */
+    public <E extends Exception> Response execute(MessageContext messageContext, RequestTask<E> task) throws E {
+
+        if (threadPool == null) {
+            return task.process();
+        }
+        Continuation continuation = getContinuation(messageContext);
+        if (continuation == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Continuations are not supported for the request to the " + endpointName +
+                        ". Processing it on the container thread.");
+            }
+            return task.process();
+        }
+
+        synchronized (continuation) {
+            if (continuation.isNew()) {
+                FutureTask<Response> future = submit(continuation, task);
+                if (future == null) {
+                    log.warn("Request queue of the " + endpointName + " is full. Responding as temporarily " +
+                            "unavailable.");
+                    return buildTemporarilyUnavailableResponse();
+                }
+                continuation.setObject(future);
+                continuation.suspend(SUSPEND_TIMEOUT);
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            FutureTask<Response> future = (FutureTask<Response>) continuation.getObject();
+            if (!future.isDone()) {
+                // Resumed before the request was processed, e.g. by the container.
+                continuation.suspend(SUSPEND_TIMEOUT);
+                return null;
+            }
+            return this.<E>getResult(future);
+        }
+    }
+
+    /**
+     * Submits the task to the endpoint pool, along with the context of the request on the container thread. The
+     * continuation is resumed once the task completes.
+     *
+     * @return future of the task, or null if the pool queue is full
+     */
+    private FutureTask<Response> submit(final Continuation continuation, final RequestTask<?> task) {
+
+        final RequestContext requestContext = new RequestContext();
+        final long queuedAt = System.nanoTime();
+        FutureTask<Response> future = new FutureTask<Response>(() -> {
+            long waitTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+            if (waitTime > queueTimeout) {
+                log.warn("Request to the " + endpointName + " waited " + waitTime + "ms in the queue. " +
+                        "Responding as temporarily unavailable.");
+                return buildTemporarilyUnavailableResponse();
+            }
+            try {
+                requestContext.apply();
+                return task.process();
+            } finally {
+                requestContext.clear();
+            }
+        }) {
+            @Override
+            protected void done() {
+                // Synchronized with the container thread, so that the request is suspended before it is resumed.
+                synchronized (continuation) {
+                    continuation.resume();
+                }
+            }
+        };
+        try {
+            threadPool.execute(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Exception> Response getResult(FutureTask<Response> future) throws E {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return buildTemporarilyUnavailableResponse();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            // The task only throws its own exceptions and unchecked ones.
+            throw (E) cause;
+        }
+    }
+
+    private static Continuation getContinuation(MessageContext messageContext) {
+
+        if (messageContext == null) {
+            return null;
+        }
+        ContinuationProvider provider =
+                (ContinuationProvider) messageContext.get(ContinuationProvider.class.getName());
+        return provider == null ? null : provider.getContinuation();
+    }
+
+    private Response buildTemporarilyUnavailableResponse() {
+
+        String body;
+        try {
+            OAuthResponse response = OAuthASResponse.errorResponse(HttpServletResponse.SC_SERVICE_UNAVAILABLE)
+                    .setError(OAuth2ErrorCodes.TEMPORARY_UNAVAILABLE)
+                    .setErrorDescription("The server is temporarily unable to handle the request.")
+                    .buildJSONMessage();
+            body = response.getBody();
+        } catch (OAuthSystemException e) {
+            body = "{\"error\":\"" + OAuth2ErrorCodes.TEMPORARY_UNAVAILABLE + "\"}";
+        }
+        return Response.status(HttpServletResponse.SC_SERVICE_UNAVAILABLE)
+                .header(RETRY_AFTER, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeout)))
+                .type(MediaType.APPLICATION_JSON)
+                .entity(body).build();
+    }
+
+    /**
+     * Processing of a request to an endpoint.
+     *
+     * @param <E> type of the exceptions thrown while processing the request
+     */
+    public interface RequestTask<E extends Exception> {
+
+        Response process() throws E;
+    }
+
+    /**
+     * Context of a request which is set on the container thread and used while the request is processed, i.e. the
+     * tenant, the identity thread local properties and the logging context such as the correlation id.
+     */
+    private static class RequestContext {
+
+        private final String tenantDomain;
+        private final int tenantId;
+        private final Map<String, Object> threadLocalProperties;
+        private final Map<String, Object> loggingContext;
+
+        @SuppressWarnings("unchecked")
+        RequestContext() {
+
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            tenantDomain = carbonContext.getTenantDomain();
+            tenantId = carbonContext.getTenantId();
+            threadLocalProperties = new HashMap<>(IdentityUtil.threadLocalProperties.get());
+            Hashtable<String, Object> context = MDC.getContext();
+            loggingContext = context == null ? new HashMap<String, Object>() : new HashMap<>(context);
+        }
+
+        void apply() {
+
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+            IdentityUtil.threadLocalProperties.get().putAll(threadLocalProperties);
+            for (Map.Entry<String, Object> entry : loggingContext.entrySet()) {
+                MDC.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        /**
+         * Clears the context from the worker thread, which is reused by other requests.
+         */
+        void clear() {
+
+            try {
+                IdentityUtil.threadLocalProperties.remove();
+                MDC.clear();
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+    }
+
+    private static EndpointRequestExecutor createExecutor(String endpointName) {
+
+        String prefix = CONFIG_PREFIX + endpointName + ".";
+        if (!Boolean.parseBoolean(IdentityUtil.getProperty(prefix + "Enabled"))) {
+            return new EndpointRequestExecutor(endpointName);
+        }
+        int maxConcurrency = OAuth2ConfigUtil.getIntProperty(prefix + "MaxConcurrency", 1, DEFAULT_MAX_CONCURRENCY);
+        int queueSize = OAuth2ConfigUtil.getIntProperty(prefix + "QueueSize", 1, DEFAULT_QUEUE_SIZE);
+        long queueTimeout = OAuth2ConfigUtil.getLongProperty(prefix + "QueueTimeout", 1, DEFAULT_QUEUE_TIMEOUT);
+        if (log.isDebugEnabled()) {
+            log.debug("Requests to the " + endpointName + " are processed asynchronously. Max concurrency: " +
+                    maxConcurrency + ", queue size: " + queueSize + ", queue timeout: " + queueTimeout + "ms");
+        }
+        return new EndpointRequestExecutor(endpointName, maxConcurrency, queueSize, queueTimeout,
+                createThreadFactory(endpointName));
+    }
+
+    private static ThreadFactory createThreadFactory(final String endpointName) {
+
+        if (Boolean.parseBoolean(IdentityUtil.getProperty(VIRTUAL_THREADS))) {
+            ThreadFactory virtualThreadFactory = createVirtualThreadFactory(endpointName + "-");
+            if (virtualThreadFactory != null) {
+                return virtualThreadFactory;
+            }
+            log.warn("Virtual threads are not supported by the JVM. Using platform threads for the " +
+                    endpointName + ".");
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, endpointName + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Creates a virtual thread factory through reflection, since the code is compiled for JVMs without virtual
+     * threads. Returns null if virtual threads are not available.
+     */
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = Class.forName("java.lang.Thread$Builder$OfVirtual")
+                    .getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Virtual threads are not available.", e);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.endpoint.introspection;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
+import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
+import org.wso2.carbon.identity.oauth2.dto.OAuth2IntrospectionResponseDTO;
+import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationRequestDTO;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import javax.ws.rs.core.Response;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@PrepareForTest({PrivilegedCarbonContext.class, IdentityUtil.class})
+public class OAuth2IntrospectionEndpointTest extends PowerMockIdentityBaseTest {
+
+    private static final String ACTIVE_TOKEN = "ca19a540f544777860e44e75f605d927";
+    private static final String INACTIVE_TOKEN = "87n9a540f544777860e44e75f605d435";
+
+    @Mock
+    PrivilegedCarbonContext privilegedCarbonContext;
+
+    @Mock
+    OAuth2TokenValidationService tokenValidationService;
+
+    private OAuth2IntrospectionEndpoint introspectionEndpoint;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockStatic(PrivilegedCarbonContext.class);
+        when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(privilegedCarbonContext);
+        when(privilegedCarbonContext.getOSGiService(OAuth2TokenValidationService.class))
+                .thenReturn(tokenValidationService);
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.getProperty("OAuth.Introspection.MaxBatchSize")).thenReturn("3");
+
+        OAuth2IntrospectionResponseDTO activeResponse = new OAuth2IntrospectionResponseDTO();
+        activeResponse.setActive(true);
+        activeResponse.setClientId("client");
+        OAuth2IntrospectionResponseDTO inactiveResponse = new OAuth2IntrospectionResponseDTO();
+        inactiveResponse.setError("Invalid Access Token. Access token is not ACTIVE.");
+        when(tokenValidationService.buildIntrospectionResponses(any(OAuth2TokenValidationRequestDTO[].class)))
+                .thenReturn(new OAuth2IntrospectionResponseDTO[]{activeResponse, inactiveResponse});
+
+        introspectionEndpoint = new OAuth2IntrospectionEndpoint();
+    }
+
+    @Test
+    public void testIntrospectBatch() throws Exception {
+
+        String requestBody = "{\"tokens\":[\"" + ACTIVE_TOKEN + "\",\"\",{\"token\":\"" + INACTIVE_TOKEN +
+                "\",\"token_type_hint\":\"JWT\"}]}";
+        Response response = introspectionEndpoint.introspectBatch(requestBody);
+        assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+
+        JSONArray results = new JSONObject((String) response.getEntity()).getJSONArray("results");
+        assertEquals(results.length(), 3);
+        assertTrue(results.getJSONObject(0).getBoolean("active"));
+        assertEquals(results.getJSONObject(0).getString("client_id"), "client");
+        assertEquals(results.getJSONObject(1).getString("error"), "Invalid input");
+        assertFalse(results.getJSONObject(2).getBoolean("active"));
+
+        ArgumentCaptor<OAuth2TokenValidationRequestDTO[]> captor =
+                ArgumentCaptor.forClass(OAuth2TokenValidationRequestDTO[].class);
+        verify(tokenValidationService).buildIntrospectionResponses(captor.capture());
+        OAuth2TokenValidationRequestDTO[] requests = captor.getValue();
+        assertEquals(requests.length, 2);
+        assertEquals(requests[0].getAccessToken().getIdentifier(), ACTIVE_TOKEN);
+        assertEquals(requests[0].getAccessToken().getTokenType(), "bearer");
+        assertEquals(requests[1].getAccessToken().getIdentifier(), INACTIVE_TOKEN);
+        assertEquals(requests[1].getAccessToken().getTokenType(), "JWT");
+    }
+
+    @Test
+    public void testIntrospectBatchWithMalformedRequest() throws Exception {
+
+        Response response = introspectionEndpoint.introspectBatch("{\"token\":\"" + ACTIVE_TOKEN + "\"}");
+        assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+        assertEquals(new JSONObject((String) response.getEntity()).getString("error"),
+                OAuth2ErrorCodes.INVALID_REQUEST);
+        verify(tokenValidationService, never())
+                .buildIntrospectionResponses(any(OAuth2TokenValidationRequestDTO[].class));
+    }
+
+    @Test
+    public void testIntrospectBatchExceedingMaxBatchSize() throws Exception {
+
+        Response response = introspectionEndpoint.introspectBatch("{\"tokens\":[\"a\",\"b\",\"c\",\"d\"]}");
+        assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+        verify(tokenValidationService, never())
+                .buildIntrospectionResponses(any(OAuth2TokenValidationRequestDTO[].class));
+    }
+
+    @Test
+    public void testIntrospectBatchWithNonPositiveMaxBatchSize() throws Exception {
+
+        when(IdentityUtil.getProperty("OAuth.Introspection.MaxBatchSize")).thenReturn("0");
+
+        Response response = introspectionEndpoint.introspectBatch("{\"tokens\":[\"" + ACTIVE_TOKEN + "\",\"" +
+                INACTIVE_TOKEN + "\"]}");
+        assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+        verify(tokenValidationService).buildIntrospectionResponses(any(OAuth2TokenValidationRequestDTO[].class));
+    }
+}
@@ -21,6 +21,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.mockito.Mock;
+import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.DataProvider;
@@ -36,6 +37,7 @@ import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.tokenprocessor.TokenPersistenceProcessor;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyRegistry;
 import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
 import org.wso2.carbon.utils.CarbonUtils;
 import java.io.FileInputStream;
@@ -44,19 +46,27 @@ import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.KeyStore;
+import java.security.cert.Certificate;
 import java.util.HashMap;
 import java.util.Map;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 @PrepareForTest({CarbonUtils.class, IdentityTenantUtil.class, IdentityUtil.class, OAuthServerConfiguration.class,
-        KeyStoreManager.class, OAuth2Util.class})
+        KeyStoreManager.class, OAuth2Util.class, SigningKeyRegistry.class})
 public class JwksEndpointTest extends PowerMockIdentityBaseTest {
 
     @Mock
@@ -72,6 +82,8 @@ public class JwksEndpointTest extends PowerMockIdentityBaseTest {
     KeyStoreManager keyStoreManager;
 
     private static final String CERT_THUMB_PRINT = "generatedCertThrumbPrint";
+    private static final String EC_CERT_THUMB_PRINT = "generatedECCertThrumbPrint";
+    private static final String EC_SIGNING_KEY_ALIAS = "ecsigning";
     private static final String ALG = "RS256";
     private static final String USE = "sig";
     private JwksEndpoint jwksEndpoint;
@@ -101,6 +113,111 @@ public class JwksEndpointTest extends PowerMockIdentityBaseTest {
 
     @Test(dataProvider = "provideTenantDomain")
     public void testJwks(String tenantDomain, int tenantId) throws Exception {
+        ThreadLocal<Map<String, Object>> threadLocalProperties = mockKeyStores(tenantDomain, tenantId);
+
+        String result = (String) jwksEndpoint.jwks(null).getEntity();
+
+        try {
+            JSONObject jwksJson = new JSONObject(result);
+            JSONArray objectArray = jwksJson.getJSONArray("keys");
+            JSONObject keyObject = objectArray.getJSONObject(0);
+            assertEquals(keyObject.get("kid"), CERT_THUMB_PRINT, "Incorrect kid value");
+            assertEquals(keyObject.get("alg"), ALG, "Incorrect alg value");
+            assertEquals(keyObject.get("use"), USE, "Incorrect use value");
+            assertEquals(keyObject.get("kty"), "RSA", "Incorrect kty value");
+        } catch (JSONException e) {
+            if ("invalid.com".equals(tenantDomain)) {
+                assertTrue(result.contains("Invalid Tenant"),
+                        "Error message for non existing tenant is not found");
+            } else if (tenantDomain == null) {
+                assertTrue(result.contains("Error while generating the keyset"),
+                        "Error message for thrown exception is not found");
+            } else {
+                fail("Unexpected exception: " + e.getMessage());
+            }
+        }
+
+        threadLocalProperties.get().remove(OAuthConstants.TENANT_NAME_FROM_CONTEXT);
+    }
+
+    @DataProvider(name = "provideCachedTenantDomain")
+    public Object[][] provideCachedTenantDomain() {
+        return new Object[][] {
+                {"", MultitenantConstants.SUPER_TENANT_ID},
+                {"foo.com", 1},
+        };
+    }
+
+    @Test(dataProvider = "provideCachedTenantDomain")
+    public void testJwksIsServedFromCache(String tenantDomain, int tenantId) throws Exception {
+        ThreadLocal<Map<String, Object>> threadLocalProperties = mockKeyStores(tenantDomain, tenantId);
+        JwksEndpoint endpoint = new JwksEndpoint();
+
+        Response response = endpoint.jwks(null);
+        assertEquals(response.getStatus(), HttpServletResponse.SC_OK, "Unexpected status code");
+        String eTag = (String) response.getMetadata().getFirst(HttpHeaders.ETAG);
+        assertNotNull(eTag, "ETag header is not found");
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""), "ETag is not a strong entity tag");
+        assertEquals(response.getMetadata().getFirst(HttpHeaders.CACHE_CONTROL), "public, max-age=300",
+                "Incorrect Cache-Control header");
+
+        Response cachedResponse = endpoint.jwks("\"foo\"");
+        assertEquals(cachedResponse.getStatus(), HttpServletResponse.SC_OK, "Unexpected status code");
+        assertEquals(cachedResponse.getEntity(), response.getEntity(), "Cached key set is different");
+        assertEquals(cachedResponse.getMetadata().getFirst(HttpHeaders.ETAG), eTag, "ETag has changed");
+
+        // The key set is built once and served from the cache afterwards.
+        PowerMockito.verifyStatic(times(1));
+        OAuth2Util.getThumbPrint(anyString(), anyInt());
+
+        threadLocalProperties.get().remove(OAuthConstants.TENANT_NAME_FROM_CONTEXT);
+    }
+
+    @Test
+    public void testJwksNotModified() throws Exception {
+        ThreadLocal<Map<String, Object>> threadLocalProperties =
+                mockKeyStores("", MultitenantConstants.SUPER_TENANT_ID);
+        JwksEndpoint endpoint = new JwksEndpoint();
+
+        String eTag = (String) endpoint.jwks(null).getMetadata().getFirst(HttpHeaders.ETAG);
+        for (String ifNoneMatch : new String[]{eTag, "W/" + eTag, "\"foo\", " + eTag, "*"}) {
+            Response response = endpoint.jwks(ifNoneMatch);
+            assertEquals(response.getStatus(), HttpServletResponse.SC_NOT_MODIFIED,
+                    "Unexpected status code for If-None-Match: " + ifNoneMatch);
+            assertNull(response.getEntity(), "Key set is returned for a matching entity tag");
+            assertEquals(response.getMetadata().getFirst(HttpHeaders.ETAG), eTag, "Incorrect ETag header");
+        }
+
+        threadLocalProperties.get().remove(OAuthConstants.TENANT_NAME_FROM_CONTEXT);
+    }
+
+    @Test
+    public void testJwksWithEllipticCurveKey() throws Exception {
+        ThreadLocal<Map<String, Object>> threadLocalProperties = mockKeyStores("ec.com", 2);
+        when(keyStoreManager.getKeyStore("ec-com.jks")).thenReturn(getKeyStoreFromFile("ec-com.jks", "ec.com"));
+        when(OAuth2Util.getThumbPrint(any(Certificate.class))).thenReturn(EC_CERT_THUMB_PRINT);
+        mockStatic(SigningKeyRegistry.class);
+        when(SigningKeyRegistry.getECSigningKeyAlias()).thenReturn(EC_SIGNING_KEY_ALIAS);
+
+        String result = (String) new JwksEndpoint().jwks(null).getEntity();
+
+        JSONArray keys = new JSONObject(result).getJSONArray("keys");
+        assertEquals(keys.length(), 2, "Both the RSA and the elliptic curve keys should be published");
+        JSONObject rsaKey = keys.getJSONObject(0);
+        assertEquals(rsaKey.get("kty"), "RSA", "Incorrect kty value");
+        assertEquals(rsaKey.get("kid"), CERT_THUMB_PRINT, "Incorrect kid value");
+        JSONObject ecKey = keys.getJSONObject(1);
+        assertEquals(ecKey.get("kty"), "EC", "Incorrect kty value");
+        assertEquals(ecKey.get("crv"), "P-256", "Incorrect crv value");
+        assertEquals(ecKey.get("alg"), "ES256", "Incorrect alg value");
+        assertEquals(ecKey.get("use"), USE, "Incorrect use value");
+        assertEquals(ecKey.get("kid"), EC_CERT_THUMB_PRINT, "Incorrect kid value");
+        assertTrue(ecKey.has("x") && ecKey.has("y"), "Public key coordinates are not found");
+
+        threadLocalProperties.get().remove(OAuthConstants.TENANT_NAME_FROM_CONTEXT);
+    }
+
+    private ThreadLocal<Map<String, Object>> mockKeyStores(String tenantDomain, int tenantId) throws Exception {
         Path keystorePath = Paths.get(System.getProperty(CarbonBaseConstants.CARBON_HOME), "repository", "resources",
                 "security", "wso2carbon.jks");
         mockOAuthServerConfiguration();
@@ -138,30 +255,7 @@ public class JwksEndpointTest extends PowerMockIdentityBaseTest {
         mockStatic(KeyStoreManager.class);
         when(KeyStoreManager.getInstance(anyInt())).thenReturn(keyStoreManager);
         when(keyStoreManager.getKeyStore("foo-com.jks")).thenReturn(getKeyStoreFromFile("foo-com.jks", "foo.com"));
-
-        String result = jwksEndpoint.jwks();
-
-        try {
-            JSONObject jwksJson = new JSONObject(result);
-            JSONArray objectArray = jwksJson.getJSONArray("keys");
-            JSONObject keyObject = objectArray.getJSONObject(0);
-            assertEquals(keyObject.get("kid"), CERT_THUMB_PRINT, "Incorrect kid value");
-            assertEquals(keyObject.get("alg"), ALG, "Incorrect alg value");
-            assertEquals(keyObject.get("use"), USE, "Incorrect use value");
-            assertEquals(keyObject.get("kty"), "RSA", "Incorrect kty value");
-        } catch (JSONException e) {
-            if ("invalid.com".equals(tenantDomain)) {
-                assertTrue(result.contains("Invalid Tenant"),
-                        "Error message for non existing tenant is not found");
-            } else if (tenantDomain == null) {
-                assertTrue(result.contains("Error while generating the keyset"),
-                        "Error message for thrown exception is not found");
-            } else {
-                fail("Unexpected exception: " + e.getMessage());
-            }
-        }
-
-        threadLocalProperties.get().remove(OAuthConstants.TENANT_NAME_FROM_CONTEXT);
+        return threadLocalProperties;
     }
 
     private void mockOAuthServerConfiguration() throws Exception {
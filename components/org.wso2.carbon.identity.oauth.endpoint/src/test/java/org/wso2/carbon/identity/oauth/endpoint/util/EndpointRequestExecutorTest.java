@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth.endpoint.util;
+
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.log4j.MDC;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.CarbonBaseConstants;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.Response;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for EndpointRequestExecutor.
+ */
+public class EndpointRequestExecutorTest {
+
+    private static final String ENDPOINT = "TestEndpoint";
+    private static final String CORRELATION_ID = "Correlation-ID";
+    private static final String THREAD_LOCAL_PROPERTY = "TestProperty";
+
+    @BeforeClass
+    public void setUp() {
+
+        System.setProperty(
+                CarbonBaseConstants.CARBON_HOME,
+                Paths.get(System.getProperty("user.dir"), "src", "test", "resources").toString()
+        );
+    }
+
+    @Test
+    public void testExecuteOnCallingThread() {
+
+        EndpointRequestExecutor executor = new EndpointRequestExecutor(ENDPOINT);
+        Response response = Response.ok().build();
+
+        assertFalse(executor.isAsync());
+        assertSame(executor.execute(null, () -> response), response);
+    }
+
+    @Test
+    public void testExecuteThrowsTaskException() {
+
+        EndpointRequestExecutor executor = new EndpointRequestExecutor(ENDPOINT);
+        final IllegalStateException exception = new IllegalStateException("error");
+
+        try {
+            executor.execute(null, () -> {
+                throw exception;
+            });
+            fail("The exception of the task should be thrown.");
+        } catch (IllegalStateException e) {
+            assertSame(e, exception);
+        }
+    }
+
+    @Test
+    public void testExecuteWithoutContinuations() {
+
+        EndpointRequestExecutor executor = createExecutor(1, 1, 5000);
+        MessageContext messageContext = mock(MessageContext.class);
+        Response response = Response.ok().build();
+        final Thread callingThread = Thread.currentThread();
+
+        assertTrue(executor.isAsync());
+        assertSame(executor.execute(messageContext, () -> {
+            assertSame(Thread.currentThread(), callingThread);
+            return response;
+        }), response);
+    }
+
+    @Test
+    public void testExecuteOnPool() throws Exception {
+
+        EndpointRequestExecutor executor = createExecutor(1, 1, 5000);
+        CountDownLatch resumed = new CountDownLatch(1);
+        Continuation continuation = mockContinuation(resumed);
+        MessageContext messageContext = mockMessageContext(continuation);
+        Response response = Response.ok().build();
+        final Thread callingThread = Thread.currentThread();
+        final boolean[] ranOnPool = new boolean[1];
+        EndpointRequestExecutor.RequestTask<RuntimeException> task = () -> {
+            ranOnPool[0] = Thread.currentThread() != callingThread;
+            return response;
+        };
+
+        assertNull(executor.execute(messageContext, task), "The request should be suspended.");
+        verify(continuation).suspend(anyLong());
+        assertTrue(resumed.await(5, TimeUnit.SECONDS), "The request should be resumed once processed.");
+        assertSame(executor.execute(messageContext, task), response);
+        assertTrue(ranOnPool[0], "Request should be processed on the endpoint pool.");
+    }
+
+    @Test
+    public void testExecuteOnPoolThrowsTaskException() throws Exception {
+
+        EndpointRequestExecutor executor = createExecutor(1, 1, 5000);
+        CountDownLatch resumed = new CountDownLatch(1);
+        MessageContext messageContext = mockMessageContext(mockContinuation(resumed));
+        final IllegalStateException exception = new IllegalStateException("error");
+        EndpointRequestExecutor.RequestTask<RuntimeException> task = () -> {
+            throw exception;
+        };
+
+        assertNull(executor.execute(messageContext, task));
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        try {
+            executor.execute(messageContext, task);
+            fail("The exception of the task should be thrown.");
+        } catch (IllegalStateException e) {
+            assertSame(e, exception);
+        }
+    }
+
+    @Test
+    public void testExecuteRejectedWhenQueueIsFull() throws Exception {
+
+        EndpointRequestExecutor executor = createExecutor(1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(mockMessageContext(mockContinuation(new CountDownLatch(1))), blockingTask(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(mockMessageContext(mockContinuation(new CountDownLatch(1))),
+                blockingTask(new CountDownLatch(1), release));
+
+        Continuation rejectedContinuation = mockContinuation(new CountDownLatch(1));
+        Response response = executor.execute(mockMessageContext(rejectedContinuation),
+                blockingTask(new CountDownLatch(1), release));
+        assertTemporarilyUnavailable(response);
+        verify(rejectedContinuation, never()).suspend(anyLong());
+        release.countDown();
+    }
+
+    @Test
+    public void testExecuteTimesOutInQueue() throws Exception {
+
+        EndpointRequestExecutor executor = createExecutor(1, 1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.execute(mockMessageContext(mockContinuation(new CountDownLatch(1))), blockingTask(started, release));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CountDownLatch resumed = new CountDownLatch(1);
+        MessageContext messageContext = mockMessageContext(mockContinuation(resumed));
+        EndpointRequestExecutor.RequestTask<RuntimeException> task = () -> Response.ok().build();
+        assertNull(executor.execute(messageContext, task));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        assertTemporarilyUnavailable(executor.execute(messageContext, task));
+    }
+
+    @Test
+    public void testRequestContextIsPassedToPoolAndCleared() throws Exception {
+
+        EndpointRequestExecutor executor = createExecutor(1, 2, 5000);
+        final Object[] values = new Object[4];
+        IdentityUtil.threadLocalProperties.get().put(THREAD_LOCAL_PROPERTY, "value");
+        MDC.put(CORRELATION_ID, "correlation-id");
+        CountDownLatch firstResumed = new CountDownLatch(1);
+        try {
+            executor.execute(mockMessageContext(mockContinuation(firstResumed)), () -> {
+                values[0] = IdentityUtil.threadLocalProperties.get().get(THREAD_LOCAL_PROPERTY);
+                values[1] = MDC.get(CORRELATION_ID);
+                return Response.ok().build();
+            });
+        } finally {
+            IdentityUtil.threadLocalProperties.remove();
+            MDC.remove(CORRELATION_ID);
+        }
+        assertTrue(firstResumed.await(5, TimeUnit.SECONDS));
+
+        // The pool has a single thread, which processes the next request without the context of the previous one.
+        CountDownLatch secondResumed = new CountDownLatch(1);
+        executor.execute(mockMessageContext(mockContinuation(secondResumed)), () -> {
+            values[2] = IdentityUtil.threadLocalProperties.get().get(THREAD_LOCAL_PROPERTY);
+            values[3] = MDC.get(CORRELATION_ID);
+            return Response.ok().build();
+        });
+        assertTrue(secondResumed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(values[0], "value");
+        assertEquals(values[1], "correlation-id");
+        assertNull(values[2], "Thread local properties should be cleared after the request.");
+        assertNull(values[3], "Logging context should be cleared after the request.");
+    }
+
+    private EndpointRequestExecutor createExecutor(int maxConcurrency, int queueSize, long queueTimeout) {
+
+        return new EndpointRequestExecutor(ENDPOINT, maxConcurrency, queueSize, queueTimeout,
+                Executors.defaultThreadFactory());
+    }
+
+    private MessageContext mockMessageContext(Continuation continuation) {
+
+        ContinuationProvider continuationProvider = mock(ContinuationProvider.class);
+        when(continuationProvider.getContinuation()).thenReturn(continuation);
+        MessageContext messageContext = mock(MessageContext.class);
+        when(messageContext.get(ContinuationProvider.class.getName())).thenReturn(continuationProvider);
+        return messageContext;
+    }
+
+    /**
+     * Mocks a continuation which is new until it is suspended, and counts down the given latch when resumed.
+     */
+    private Continuation mockContinuation(final CountDownLatch resumed) {
+
+        Continuation continuation = mock(Continuation.class);
+        final boolean[] isNew = {true};
+        final Object[] object = new Object[1];
+        when(continuation.isNew()).thenAnswer(invocation -> isNew[0]);
+        when(continuation.suspend(anyLong())).thenAnswer(invocation -> {
+            isNew[0] = false;
+            return true;
+        });
+        doAnswer(invocation -> {
+            object[0] = invocation.getArguments()[0];
+            return null;
+        }).when(continuation).setObject(any());
+        when(continuation.getObject()).thenAnswer(invocation -> object[0]);
+        doAnswer(invocation -> {
+            resumed.countDown();
+            return null;
+        }).when(continuation).resume();
+        return continuation;
+    }
+
+    private EndpointRequestExecutor.RequestTask<InterruptedException> blockingTask(final CountDownLatch started,
+                                                                                  final CountDownLatch release) {
+
+        return () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Response.ok().build();
+        };
+    }
+
+    private void assertTemporarilyUnavailable(Response response) {
+
+        assertEquals(response.getStatus(), HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertTrue(response.getEntity().toString().contains("temporarily_unavailable"));
+    }
+}
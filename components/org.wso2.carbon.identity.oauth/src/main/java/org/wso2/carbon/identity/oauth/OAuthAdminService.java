@@ -30,9 +30,10 @@ import org.wso2.carbon.identity.application.common.IdentityApplicationManagement
 import org.wso2.carbon.identity.application.common.model.User;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.AppInfoCache;
-import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientAuthenticationCache;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientCredentialCache;
 import org.wso2.carbon.identity.oauth.common.OAuth2ErrorCodes;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.common.exception.InvalidOAuthClientException;
@@ -146,6 +147,7 @@ public class OAuthAdminService extends AbstractAdmin {
                 dto.setIdTokenEncryptionEnabled(app.isIdTokenEncryptionEnabled());
                 dto.setIdTokenEncryptionAlgorithm(app.getIdTokenEncryptionAlgorithm());
                 dto.setIdTokenEncryptionMethod(app.getIdTokenEncryptionMethod());
+                dto.setIdTokenSignatureAlgorithm(app.getIdTokenSignatureAlgorithm());
                 dto.setBackChannelLogoutUrl(app.getBackChannelLogoutUrl());
                 dtos[i] = dto;
             }
@@ -185,6 +187,7 @@ public class OAuthAdminService extends AbstractAdmin {
                 dto.setIdTokenEncryptionEnabled(app.isIdTokenEncryptionEnabled());
                 dto.setIdTokenEncryptionAlgorithm(app.getIdTokenEncryptionAlgorithm());
                 dto.setIdTokenEncryptionMethod(app.getIdTokenEncryptionMethod());
+                dto.setIdTokenSignatureAlgorithm(app.getIdTokenSignatureAlgorithm());
 
                 if (log.isDebugEnabled()) {
                     log.debug("Found App :" + dto.getApplicationName() + " for consumerKey: " + consumerKey);
@@ -229,6 +232,7 @@ public class OAuthAdminService extends AbstractAdmin {
                 dto.setIdTokenEncryptionEnabled(app.isIdTokenEncryptionEnabled());
                 dto.setIdTokenEncryptionAlgorithm(app.getIdTokenEncryptionAlgorithm());
                 dto.setIdTokenEncryptionMethod(app.getIdTokenEncryptionMethod());
+                dto.setIdTokenSignatureAlgorithm(app.getIdTokenSignatureAlgorithm());
                 dto.setBackChannelLogoutUrl(app.getBackChannelLogoutUrl());
             }
             return dto;
@@ -336,6 +340,8 @@ public class OAuthAdminService extends AbstractAdmin {
                     app.setIdTokenEncryptionEnabled(application.isIdTokenEncryptionEnabled());
                     app.setIdTokenEncryptionAlgorithm(application.getIdTokenEncryptionAlgorithm());
                     app.setIdTokenEncryptionMethod(application.getIdTokenEncryptionMethod());
+                    validateIdTokenSignatureAlgorithm(application.getIdTokenSignatureAlgorithm(), tenantDomain);
+                    app.setIdTokenSignatureAlgorithm(application.getIdTokenSignatureAlgorithm());
                     app.setBackChannelLogoutUrl(application.getBackChannelLogoutUrl());
                 }
                 dao.addOAuthApplication(app);
@@ -463,10 +469,14 @@ public class OAuthAdminService extends AbstractAdmin {
             oauthappdo.setIdTokenEncryptionEnabled(consumerAppDTO.isIdTokenEncryptionEnabled());
             oauthappdo.setIdTokenEncryptionAlgorithm(consumerAppDTO.getIdTokenEncryptionAlgorithm());
             oauthappdo.setIdTokenEncryptionMethod(consumerAppDTO.getIdTokenEncryptionMethod());
+            validateIdTokenSignatureAlgorithm(consumerAppDTO.getIdTokenSignatureAlgorithm(), tenantDomain);
+            oauthappdo.setIdTokenSignatureAlgorithm(consumerAppDTO.getIdTokenSignatureAlgorithm());
             oauthappdo.setBackChannelLogoutUrl(consumerAppDTO.getBackChannelLogoutUrl());
         }
         dao.updateConsumerApplication(oauthappdo);
         AppInfoCache.getInstance().addToCache(oauthappdo.getOauthConsumerKey(), oauthappdo);
+        // the update carries the client secret, so reload the cached client credentials
+        OAuthClientCredentialCache.getInstance().clearCacheEntry(new OAuthCacheKey(oauthappdo.getOauthConsumerKey()));
         if (log.isDebugEnabled()) {
             log.debug("Oauth Application update success : " + consumerAppDTO.getApplicationName() + " in " +
                     "tenant domain: " + tenantDomain);
@@ -503,6 +513,7 @@ public class OAuthAdminService extends AbstractAdmin {
             properties.setProperty(OAuthConstants.ACTION_PROPERTY_KEY, OAuthConstants.ACTION_REVOKE);
             updateAppAndRevokeTokensAndAuthzCodes(consumerKey, properties);
             AppInfoCache.getInstance().addToCache(consumerKey, oAuthAppDO);
+            OAuthClientAuthenticationCache.getInstance().clearVerifiedSecret(consumerKey);
 
             if (log.isDebugEnabled()) {
                 log.debug("App state is updated to:" + newState + " in the AppInfoCache for OAuth App with " +
@@ -536,16 +547,18 @@ public class OAuthAdminService extends AbstractAdmin {
 
         OAuthConsumerAppDTO oAuthConsumerAppDTO = new OAuthConsumerAppDTO();
         String newSecretKey = OAuthUtil.getRandomNumber();
-        CacheEntry clientCredentialDO = new ClientCredentialDO(newSecretKey);
+        ClientCredentialDO clientCredentialDO = new ClientCredentialDO(newSecretKey);
         oAuthConsumerAppDTO.setOauthConsumerKey(consumerKey);
         oAuthConsumerAppDTO.setOauthConsumerSecret(newSecretKey);
         Properties properties = new Properties();
         properties.setProperty(OAuthConstants.OAUTH_APP_NEW_SECRET_KEY, newSecretKey);
         properties.setProperty(OAuthConstants.ACTION_PROPERTY_KEY, OAuthConstants.ACTION_REGENERATE);
         updateAppAndRevokeTokensAndAuthzCodes(consumerKey, properties);
-        OAuthCache.getInstance().addToCache(new OAuthCacheKey(consumerKey), clientCredentialDO);
+        OAuthClientCredentialCache.getInstance().addToCache(new OAuthCacheKey(consumerKey), clientCredentialDO);
+        OAuthClientAuthenticationCache.getInstance().clearVerifiedSecret(consumerKey);
         if (log.isDebugEnabled()) {
-            log.debug("Client Secret for OAuth app with consumerKey: " + consumerKey + " updated in OAuthCache.");
+            log.debug("Client Secret for OAuth app with consumerKey: " + consumerKey + " updated in " +
+                    "OAuthClientCredentialCache.");
         }
         return oAuthConsumerAppDTO;
 
@@ -616,7 +629,8 @@ public class OAuthAdminService extends AbstractAdmin {
         OAuthAppDAO dao = new OAuthAppDAO();
         dao.removeConsumerApplication(consumerKey);
         // remove client credentials from cache
-        OAuthCache.getInstance().clearCacheEntry(new OAuthCacheKey(consumerKey));
+        OAuthClientCredentialCache.getInstance().clearCacheEntry(new OAuthCacheKey(consumerKey));
+        OAuthClientAuthenticationCache.getInstance().clearVerifiedSecret(consumerKey);
         AppInfoCache.getInstance().clearCacheEntry(consumerKey);
         if (log.isDebugEnabled()) {
             log.debug("Client credentials are removed from the cache for OAuth App with consumerKey: " + consumerKey);
@@ -701,6 +715,7 @@ public class OAuthAdminService extends AbstractAdmin {
                                 appDTO.setIdTokenEncryptionEnabled(appDO.isIdTokenEncryptionEnabled());
                                 appDTO.setIdTokenEncryptionAlgorithm(appDO.getIdTokenEncryptionAlgorithm());
                                 appDTO.setIdTokenEncryptionMethod(appDO.getIdTokenEncryptionMethod());
+                                appDTO.setIdTokenSignatureAlgorithm(appDO.getIdTokenSignatureAlgorithm());
                                 appDTOs.add(appDTO);
                                 if (log.isDebugEnabled()) {
                                     log.debug("Found App: " + appDO.getApplicationName() + " for user: " + username);
@@ -989,6 +1004,28 @@ public class OAuthAdminService extends AbstractAdmin {
         }
     }
 
+    /**
+     * Validate the ID token signature algorithm selected for an application against the algorithms the tenant can
+     * sign with. A blank value selects the server default algorithm.
+     */
+    private void validateIdTokenSignatureAlgorithm(String idTokenSignatureAlgorithm, String tenantDomain)
+            throws IdentityOAuthAdminException {
+
+        if (StringUtils.isBlank(idTokenSignatureAlgorithm)) {
+            return;
+        }
+        try {
+            String algorithm = OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(idTokenSignatureAlgorithm).getName();
+            if (!OAuth2Util.getSupportedIdTokenSigningAlgorithms(tenantDomain).contains(algorithm)) {
+                throw new IdentityOAuthAdminException("ID token signature algorithm: " + idTokenSignatureAlgorithm +
+                        " is not supported in tenant: " + tenantDomain);
+            }
+        } catch (IdentityOAuth2Exception e) {
+            throw new IdentityOAuthAdminException("Invalid ID token signature algorithm: " +
+                    idTokenSignatureAlgorithm, e);
+        }
+    }
+
     private void logOnInvalidConfig(String appName, String tokenType, long defaultValue) {
         if (log.isDebugEnabled()) {
             log.debug("Invalid expiry time value '0' set for " + tokenType + " in ServiceProvider: " + appName + ". "
@@ -18,14 +18,17 @@
 
 package org.wso2.carbon.identity.oauth.cache;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.store.SessionDataStore;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
 import org.wso2.carbon.identity.application.common.cache.BaseCache;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
 import org.wso2.carbon.utils.CarbonUtils;
 
 import java.util.concurrent.TimeUnit;
@@ -33,6 +36,11 @@ import java.util.concurrent.TimeUnit;
 /**
  * Stores authenticated user attributes and OpenID Connect specific attributes during OIDC Authorization request
  * processing. Those values are later required to serve OIDC Token request and build IDToken.
+ * <p>
+ * Entries are also kept in the {@link SessionDataStore} against the id of the persisted token or code. The ids are
+ * carried with the cache key, or remembered on this node, so that they are resolved from the database only when
+ * neither knows them. The id cache can be configured with OAuth.AuthorizationGrantCache.IdCache.Enable, Capacity
+ * and Timeout (in seconds) in identity.xml, and is enabled by default.
  */
 public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKey, AuthorizationGrantCacheEntry> {
     private static final String AUTHORIZATION_GRANT_CACHE_NAME = "AuthorizationGrantCache";
@@ -40,11 +48,31 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
     private static volatile AuthorizationGrantCache instance;
     private static final Log log = LogFactory.getLog(AuthorizationGrantCache.class);
 
+    private static final String ID_CACHE_PROPERTY_PREFIX = "OAuth.AuthorizationGrantCache.IdCache.";
+    private static final int DEFAULT_ID_CACHE_CAPACITY = 10000;
+    private static final long DEFAULT_ID_CACHE_TIMEOUT = 3600;
+
+    // Ids of the persisted tokens and codes by their values. The id of a token or code never changes, so the
+    // entries only expire to bound the memory used.
+    private final NearCache<String, String> tokenIdCache;
+    private final NearCache<String, String> codeIdCache;
+
     /**
      * Private constructor which will not allow to create objects of this class from outside
      */
     private AuthorizationGrantCache() {
         super(AUTHORIZATION_GRANT_CACHE_NAME);
+        if (isIdCacheEnabled()) {
+            int capacity = OAuth2ConfigUtil.getIntProperty(ID_CACHE_PROPERTY_PREFIX + "Capacity", 1,
+                    DEFAULT_ID_CACHE_CAPACITY);
+            long timeout = OAuth2ConfigUtil.getLongProperty(ID_CACHE_PROPERTY_PREFIX + "Timeout", 1,
+                    DEFAULT_ID_CACHE_TIMEOUT);
+            tokenIdCache = new NearCache<>(capacity, TimeUnit.SECONDS.toMillis(timeout));
+            codeIdCache = new NearCache<>(capacity, TimeUnit.SECONDS.toMillis(timeout));
+        } else {
+            tokenIdCache = null;
+            codeIdCache = null;
+        }
     }
 
     /**
@@ -73,8 +101,10 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
         super.addToCache(key, entry);
         String tokenId = entry.getTokenId();
         if (tokenId == null) {
-            tokenId = replaceFromTokenId(key.getUserAttributesId());
+            tokenId = getTokenId(key);
             entry.setTokenId(tokenId);
+        } else {
+            rememberTokenId(key, tokenId);
         }
         storeToSessionStore(tokenId, entry);
 
@@ -89,7 +119,9 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
     public AuthorizationGrantCacheEntry getValueFromCacheByToken(AuthorizationGrantCacheKey key) {
         AuthorizationGrantCacheEntry cacheEntry = super.getValueFromCache(key);
         if (cacheEntry == null) {
-            cacheEntry = getFromSessionStore(replaceFromTokenId(key.getUserAttributesId()));
+            cacheEntry = getFromSessionStore(getTokenId(key));
+        } else if (cacheEntry.getTokenId() != null) {
+            rememberTokenId(key, cacheEntry.getTokenId());
         }
         return cacheEntry;
     }
@@ -100,8 +132,18 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
      * @param key Key to clear cache.
      */
     public void clearCacheEntryByToken(AuthorizationGrantCacheKey key) {
+        if (key.getTokenId() == null && getCachedId(tokenIdCache, key) == null) {
+            AuthorizationGrantCacheEntry cacheEntry = super.getValueFromCache(key);
+            if (cacheEntry != null && cacheEntry.getTokenId() != null) {
+                key.setTokenId(cacheEntry.getTokenId());
+            }
+        }
+        String tokenId = getTokenId(key);
         super.clearCacheEntry(key);
-        clearFromSessionStore(replaceFromTokenId(key.getUserAttributesId()));
+        clearFromSessionStore(tokenId);
+        if (tokenIdCache != null) {
+            tokenIdCache.remove(key.getUserAttributesId());
+        }
     }
 
     /**
@@ -115,6 +157,9 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
         long validityPeriodNano = TimeUnit.SECONDS.toNanos(
                 OAuthServerConfiguration.getInstance().getAuthorizationCodeValidityPeriodInSeconds());
         entry.setValidityPeriod(validityPeriodNano);
+        if (entry.getCodeId() != null) {
+            rememberCodeId(key, entry.getCodeId());
+        }
         storeToSessionStore(entry.getCodeId(), entry);
     }
 
@@ -127,7 +172,9 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
     public AuthorizationGrantCacheEntry getValueFromCacheByCode(AuthorizationGrantCacheKey key) {
         AuthorizationGrantCacheEntry cacheEntry = super.getValueFromCache(key);
         if (cacheEntry == null) {
-            cacheEntry = getFromSessionStore(replaceFromCodeId(key.getUserAttributesId()));
+            cacheEntry = getFromSessionStore(getCodeId(key));
+        } else if (cacheEntry.getCodeId() != null) {
+            rememberCodeId(key, cacheEntry.getCodeId());
         }
         return cacheEntry;
     }
@@ -139,19 +186,75 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
      * @param key Key to clear cache.
      */
     public void clearCacheEntryByCode(AuthorizationGrantCacheKey key) {
+        if (key.getCodeId() == null && getCachedId(codeIdCache, key) == null) {
+            AuthorizationGrantCacheEntry cacheEntry = super.getValueFromCache(key);
+            if (cacheEntry != null && cacheEntry.getCodeId() != null) {
+                key.setCodeId(cacheEntry.getCodeId());
+            }
+        }
+        String codeId = getCodeId(key);
         super.clearCacheEntry(key);
-        clearFromSessionStore(replaceFromCodeId(key.getUserAttributesId()));
+        clearFromSessionStore(codeId);
+        if (codeIdCache != null) {
+            codeIdCache.remove(key.getUserAttributesId());
+        }
+    }
+
+    /**
+     * Resolve the access token id of the key, from the key itself, the id cache of the node or, as the last resort,
+     * the database. The resolved id is set on the key so that later calls with the same key do not resolve it again.
+     *
+     * @param key Key of the access token.
+     * @return TOKEN_ID of the access token.
+     */
+    private String getTokenId(AuthorizationGrantCacheKey key) {
+        String tokenId = key.getTokenId();
+        if (tokenId == null) {
+            tokenId = getCachedId(tokenIdCache, key);
+        }
+        if (tokenId == null) {
+            tokenId = replaceFromTokenId(key);
+        } else {
+            key.setTokenId(tokenId);
+        }
+        return tokenId;
+    }
+
+    /**
+     * Resolve the authorization code id of the key, from the key itself, the id cache of the node or, as the last
+     * resort, the database. The resolved id is set on the key so that later calls with the same key do not resolve it
+     * again.
+     *
+     * @param key Key of the authorization code.
+     * @return CODE_ID of the authorization code.
+     */
+    private String getCodeId(AuthorizationGrantCacheKey key) {
+        String codeId = key.getCodeId();
+        if (codeId == null) {
+            codeId = getCachedId(codeIdCache, key);
+        }
+        if (codeId == null) {
+            codeId = replaceFromCodeId(key);
+        } else {
+            key.setCodeId(codeId);
+        }
+        return codeId;
     }
 
     /**
      * Retrieve the authorization code id using the authorization code
-     * @param authzCode Authorization code
+     * @param key Key of the authorization code
      * @return CODE_ID from the database
      */
-    private String replaceFromCodeId(String authzCode) {
+    private String replaceFromCodeId(AuthorizationGrantCacheKey key) {
+        String authzCode = key.getUserAttributesId();
         try {
-            return OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO()
+            String codeId = OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO()
                     .getCodeIdByAuthorizationCode(authzCode);
+            if (codeId != null) {
+                rememberCodeId(key, codeId);
+            }
+            return codeId;
         } catch (IdentityOAuth2Exception e) {
             log.error("Failed to retrieve authorization code id by authorization code from store for - ." + authzCode, e);
         }
@@ -160,18 +263,47 @@ public class AuthorizationGrantCache extends BaseCache<AuthorizationGrantCacheKe
 
     /**
      * Retrieve the access token id using the access token
-     * @param keyValue Access token
+     * @param key Key of the access token
      * @return TOKEN_ID from the database
      */
-    private String replaceFromTokenId(String keyValue) {
+    private String replaceFromTokenId(AuthorizationGrantCacheKey key) {
+        String keyValue = key.getUserAttributesId();
         try {
-            return OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO().getTokenIdByAccessToken(keyValue);
+            String tokenId = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
+                    .getTokenIdByAccessToken(keyValue);
+            if (tokenId != null) {
+                rememberTokenId(key, tokenId);
+            }
+            return tokenId;
         } catch (IdentityOAuth2Exception e) {
             log.error("Failed to retrieve token id by token from store for - ." + keyValue, e);
         }
         return keyValue;
     }
 
+    private void rememberTokenId(AuthorizationGrantCacheKey key, String tokenId) {
+        key.setTokenId(tokenId);
+        if (tokenIdCache != null) {
+            tokenIdCache.put(key.getUserAttributesId(), tokenId);
+        }
+    }
+
+    private void rememberCodeId(AuthorizationGrantCacheKey key, String codeId) {
+        key.setCodeId(codeId);
+        if (codeIdCache != null) {
+            codeIdCache.put(key.getUserAttributesId(), codeId);
+        }
+    }
+
+    private static String getCachedId(NearCache<String, String> idCache, AuthorizationGrantCacheKey key) {
+        return idCache != null ? idCache.get(key.getUserAttributesId()) : null;
+    }
+
+    private static boolean isIdCacheEnabled() {
+        String enabled = IdentityUtil.getProperty(ID_CACHE_PROPERTY_PREFIX + "Enable");
+        return StringUtils.isBlank(enabled) || Boolean.parseBoolean(enabled.trim());
+    }
+
     /**
      * Clears a cache entry from SessionDataStore.
      *
@@ -26,6 +26,10 @@ public class AuthorizationGrantCacheKey extends CacheKey {
     private static final long serialVersionUID = -2846349295093760488L;
     //todo:variable name userAttributesId should be change later because userAttributesId = authorizationCode
     private String userAttributesId;
+    // Ids of the persisted token and code, which key the entry in the session data store. They are not part of the
+    // identity of the key, and are carried with it only to avoid looking them up in the database.
+    private transient String tokenId;
+    private transient String codeId;
 
     public AuthorizationGrantCacheKey(String userAttributesId) {
         this.userAttributesId = userAttributesId;
@@ -35,6 +39,22 @@ public class AuthorizationGrantCacheKey extends CacheKey {
         return userAttributesId;
     }
 
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getCodeId() {
+        return codeId;
+    }
+
+    public void setCodeId(String codeId) {
+        this.codeId = codeId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof AuthorizationGrantCacheKey)) {
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+/**
+ * Reason an access token identifier is invalid and the time until which it is trusted, kept in
+ * {@link OAuthInvalidTokenCache}.
+ */
+public class InvalidTokenCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 6311537236406934211L;
+
+    private String reason;
+
+    private long expiryTime;
+
+    public InvalidTokenCacheEntry(String reason, long expiryTime) {
+
+        this.reason = reason;
+        this.expiryTime = expiryTime;
+    }
+
+    public String getReason() {
+
+        return reason;
+    }
+
+    /**
+     * @return time in milliseconds after which the entry must not be used
+     */
+    public long getExpiryTime() {
+
+        return expiryTime;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Small in memory cache of the current node, which is kept in front of a distributed cache so that hot entries are
+ * served without the cost of the distributed cache. The cache is bounded in size, evicting the least recently used
+ * entries, and entries expire after a short time to live, which bounds how long an entry can be stale if an
+ * invalidation from another node is missed.
+ * <p>
+ * Entries are spread over segments, each with its own lock, so that concurrent lookups of different keys rarely
+ * contend.
+ *
+ * @param <K> cache key type
+ * @param <V> cache value type
+ */
+public class NearCache<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long timeToLiveNanos;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param capacity         maximum number of entries in the cache
+     * @param timeToLiveMillis time in milliseconds after which an entry expires
+     */
+    @SuppressWarnings("unchecked")
+    public NearCache(int capacity, long timeToLiveMillis) {
+
+        int segmentCapacity = Math.max(1, (capacity + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+    }
+
+    /**
+     * @param key cache key
+     * @return cached value, or null if there is no entry for the key or the entry has expired
+     */
+    public V get(K key) {
+
+        Segment<K, V> segment = getSegment(key);
+        Entry<V> entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                segment.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * @param key   cache key
+     * @param value value to cache
+     */
+    public void put(K key, V value) {
+
+        Segment<K, V> segment = getSegment(key);
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + timeToLiveNanos);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * Put the value only if the condition holds. The condition is checked under the same lock as {@link #remove},
+     * so that a removal of the key which happens after the condition was checked is not lost.
+     *
+     * @param key       cache key
+     * @param value     value to cache
+     * @param condition condition which must hold to cache the value
+     * @return true if the value was cached
+     */
+    public boolean putIf(K key, V value, BooleanSupplier condition) {
+
+        Segment<K, V> segment = getSegment(key);
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + timeToLiveNanos);
+        synchronized (segment) {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            segment.put(key, entry);
+            return true;
+        }
+    }
+
+    /**
+     * @param key cache key
+     */
+    public void remove(K key) {
+
+        Segment<K, V> segment = getSegment(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Remove all the entries of the cache.
+     */
+    public void clear() {
+
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return number of entries in the cache, including expired entries which are not removed yet
+     */
+    public int size() {
+
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return number of lookups which found an entry
+     */
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of lookups which did not find an entry
+     */
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    private Segment<K, V> getSegment(K key) {
+
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENT_COUNT - 1)];
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiryTime;
+
+        Entry(V value, long expiryTime) {
+
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+
+        boolean isExpired(long now) {
+
+            return now - expiryTime >= 0;
+        }
+    }
+
+    private static class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+        private static final long serialVersionUID = 4723514178936525391L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+
+            // Access order, so that the eldest entry is the least recently used one.
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+
+            return size() > capacity;
+        }
+    }
+}
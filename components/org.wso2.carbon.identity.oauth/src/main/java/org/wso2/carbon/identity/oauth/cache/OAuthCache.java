@@ -18,12 +18,15 @@
 
 package org.wso2.carbon.identity.oauth.cache;
 
-import org.wso2.carbon.identity.application.common.cache.BaseCache;
 import org.wso2.carbon.identity.oauth.listener.OAuthCacheRemoveListener;
-import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.utils.CarbonUtils;
 
-public class OAuthCache extends BaseCache<OAuthCacheKey, CacheEntry> {
+/**
+ * Cache of access tokens and authorization codes. Client credentials and resource scopes are cached in
+ * {@link OAuthClientCredentialCache} and {@link OAuthResourceScopeCache}, so that a burst of new tokens does not
+ * evict them.
+ */
+public class OAuthCache extends OAuthCacheRegion<CacheEntry> {
 
     private static final String OAUTH_CACHE_NAME = "OAuthCache";
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+import org.wso2.carbon.identity.application.common.listener.AbstractCacheListener;
+import org.wso2.carbon.identity.core.model.IdentityCacheConfig;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+
+/**
+ * Base class of the OAuth caches which hold a single type of entry, keyed by {@link OAuthCacheKey}. Each region is a
+ * separate cache with its own capacity and timeout in the CacheConfig of identity.xml, so that entries of one type
+ * do not evict entries of another. A region without a CacheConfig entry of its own is enabled or disabled together
+ * with OAuthCache, which held its entries before the regions were split out.
+ * <p>
+ * In a cluster, every lookup of the distributed cache has a cost even when the entry rarely changes. A near cache of
+ * the node can be enabled per region in identity.xml to serve hot entries locally, e.g. for OAuthCache:
+ * <pre>
+ * &lt;OAuth&gt;
+ *     &lt;OAuthCache&gt;
+ *         &lt;NearCache&gt;
+ *             &lt;Enable&gt;true&lt;/Enable&gt;
+ *             &lt;Capacity&gt;1000&lt;/Capacity&gt;
+ *             &lt;Timeout&gt;30&lt;/Timeout&gt;
+ *         &lt;/NearCache&gt;
+ *     &lt;/OAuthCache&gt;
+ * &lt;/OAuth&gt;
+ * </pre>
+ * Near cache entries are removed when the entry is added, updated or removed in the distributed cache, on this node
+ * or on another node of the cluster, and expire after the timeout in seconds. The near cache is only filled on
+ * lookups, so a write of this node is read back from the distributed cache once before it is served locally.
+ *
+ * @param <V> type of the cache entries
+ */
+public abstract class OAuthCacheRegion<V extends CacheEntry> extends BaseCache<OAuthCacheKey, V> {
+
+    private static final Log log = LogFactory.getLog(OAuthCacheRegion.class);
+
+    private static final String IDENTITY_CACHE_MANAGER = "IdentityApplicationManagementCacheManager";
+    private static final String OAUTH_CACHE_NAME = "OAuthCache";
+    private static final int DEFAULT_NEAR_CACHE_CAPACITY = 1000;
+    private static final long DEFAULT_NEAR_CACHE_TIMEOUT = 30;
+
+    private final String cacheName;
+    private final NearCache<OAuthCacheKey, V> nearCache;
+    // Incremented on every change, before and after the distributed cache is written, so that an entry read from the
+    // distributed cache is not put in the near cache when it was changed or removed by a concurrent thread.
+    private final AtomicLong modificationCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    protected OAuthCacheRegion(String cacheName) {
+        super(cacheName);
+        this.cacheName = cacheName;
+        nearCache = createNearCache(cacheName);
+        if (nearCache != null) {
+            super.addListener(new NearCacheInvalidationListener());
+        }
+    }
+
+    @Override
+    public void addToCache(OAuthCacheKey key, V entry) {
+        modificationCount.incrementAndGet();
+        super.addToCache(key, entry);
+        // The entry is not put in the near cache here, since concurrent writes of a key may reach the distributed
+        // cache and the near cache in different orders.
+        clearNearCacheEntry(key);
+    }
+
+    @Override
+    public V getValueFromCache(OAuthCacheKey key) {
+        V entry = null;
+        if (nearCache != null && isEnabled()) {
+            entry = nearCache.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        long modificationCountBeforeLookup = modificationCount.get();
+        entry = super.getValueFromCache(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        if (nearCache != null) {
+            nearCache.putIf(key, entry, () -> modificationCount.get() == modificationCountBeforeLookup);
+        }
+        return entry;
+    }
+
+    @Override
+    public void clearCacheEntry(OAuthCacheKey key) {
+        clearNearCacheEntry(key);
+        super.clearCacheEntry(key);
+        clearNearCacheEntry(key);
+    }
+
+    @Override
+    public void clear() {
+        if (nearCache != null) {
+            modificationCount.incrementAndGet();
+            nearCache.clear();
+        }
+        super.clear();
+        if (nearCache != null) {
+            modificationCount.incrementAndGet();
+            nearCache.clear();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        if (!OAUTH_CACHE_NAME.equals(cacheName)
+                && IdentityUtil.getIdentityCacheConfig(IDENTITY_CACHE_MANAGER, cacheName) == null) {
+            IdentityCacheConfig oauthCacheConfig = IdentityUtil.getIdentityCacheConfig(IDENTITY_CACHE_MANAGER,
+                    OAUTH_CACHE_NAME);
+            if (oauthCacheConfig != null) {
+                return oauthCacheConfig.isEnabled();
+            }
+        }
+        return super.isEnabled();
+    }
+
+    /**
+     * Remove an entry from the near cache of this node only. Used when the entry is changed or removed in the
+     * distributed cache.
+     *
+     * @param key cache key
+     */
+    public void clearNearCacheEntry(OAuthCacheKey key) {
+        if (nearCache != null) {
+            modificationCount.incrementAndGet();
+            nearCache.remove(key);
+        }
+    }
+
+    /**
+     * @return number of lookups served by the near cache, or zero if the near cache is disabled
+     */
+    public long getNearCacheHitCount() {
+        return nearCache != null ? nearCache.getHitCount() : 0;
+    }
+
+    /**
+     * @return number of lookups which were not found in the near cache, or zero if the near cache is disabled
+     */
+    public long getNearCacheMissCount() {
+        return nearCache != null ? nearCache.getMissCount() : 0;
+    }
+
+    /**
+     * @return number of lookups, which were not served by the near cache, that found the entry in the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of lookups, which were not served by the near cache, that did not find the entry in the cache
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static <V> NearCache<OAuthCacheKey, V> createNearCache(String cacheName) {
+        String propertyPrefix = "OAuth." + cacheName + ".NearCache.";
+        if (!Boolean.parseBoolean(IdentityUtil.getProperty(propertyPrefix + "Enable"))) {
+            return null;
+        }
+        int capacity = OAuth2ConfigUtil.getIntProperty(propertyPrefix + "Capacity", 1, DEFAULT_NEAR_CACHE_CAPACITY);
+        long timeout = OAuth2ConfigUtil.getLongProperty(propertyPrefix + "Timeout", 1, DEFAULT_NEAR_CACHE_TIMEOUT);
+        if (log.isDebugEnabled()) {
+            log.debug("Near cache of " + cacheName + " is enabled with capacity: " + capacity + " and timeout: " +
+                    timeout + "s");
+        }
+        return new NearCache<>(capacity, timeout * 1000);
+    }
+
+    /**
+     * Removes an entry from the near cache when it is added, updated or removed in the distributed cache, which is
+     * how changes made on other nodes of the cluster reach this node.
+     */
+    private class NearCacheInvalidationListener extends AbstractCacheListener<OAuthCacheKey, V>
+            implements CacheEntryCreatedListener<OAuthCacheKey, V>, CacheEntryUpdatedListener<OAuthCacheKey, V>,
+            CacheEntryRemovedListener<OAuthCacheKey, V> {
+
+        @Override
+        public void entryCreated(CacheEntryEvent<? extends OAuthCacheKey, ? extends V> cacheEntryEvent)
+                throws CacheEntryListenerException {
+
+            invalidate(cacheEntryEvent);
+        }
+
+        @Override
+        public void entryUpdated(CacheEntryEvent<? extends OAuthCacheKey, ? extends V> cacheEntryEvent)
+                throws CacheEntryListenerException {
+
+            invalidate(cacheEntryEvent);
+        }
+
+        @Override
+        public void entryRemoved(CacheEntryEvent<? extends OAuthCacheKey, ? extends V> cacheEntryEvent)
+                throws CacheEntryListenerException {
+
+            invalidate(cacheEntryEvent);
+        }
+
+        private void invalidate(CacheEntryEvent<? extends OAuthCacheKey, ? extends V> cacheEntryEvent) {
+
+            // Caches which share the name of this cache may use other key types.
+            Object changedKey = cacheEntryEvent.getKey();
+            if (changedKey instanceof OAuthCacheKey) {
+                clearNearCacheEntry((OAuthCacheKey) changedKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyRegistry;
+import org.wso2.carbon.utils.CarbonUtils;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cache of the last client secret which was successfully authenticated for each client, used when client secrets are
+ * stored hashed and can not be kept in {@link OAuthClientCredentialCache}. The secret itself is never cached. The
+ * cache keeps an HMAC-SHA256 of the client id and the secret, so that a later request with the same secret is
+ * verified in memory instead of in the database.
+ * <p>
+ * The HMAC key is derived from the private key of the super tenant, which is shared by the nodes of a cluster and is
+ * not known to clients, so that the cache entries can not be used to guess secrets offline. If the key store can not
+ * be read a random key of the node is used, in which case entries added by other nodes are verified in the database
+ * again.
+ * <p>
+ * Entries are cleared when the secret of the client is regenerated, the state of the client changes or the client is
+ * removed.
+ */
+public class OAuthClientAuthenticationCache extends OAuthCacheRegion<ClientSecretVerifierCacheEntry> {
+
+    private static final Log log = LogFactory.getLog(OAuthClientAuthenticationCache.class);
+
+    private static final String OAUTH_CLIENT_AUTHENTICATION_CACHE_NAME = "OAuthClientAuthenticationCache";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String SHA256 = "SHA-256";
+    private static final String VERIFIER_KEY_LABEL = "OAuthClientAuthenticationCache";
+    private static final int VERIFIER_KEY_LENGTH = 32;
+
+    private static volatile OAuthClientAuthenticationCache instance;
+
+    private final ThreadLocal<Mac> verifierMac = ThreadLocal.withInitial(this::createVerifierMac);
+    private volatile SecretKeySpec verifierKey;
+
+    private OAuthClientAuthenticationCache() {
+        super(OAUTH_CLIENT_AUTHENTICATION_CACHE_NAME);
+    }
+
+    /**
+     * Returns OAuthClientAuthenticationCache instance
+     *
+     * @return instance of OAuthClientAuthenticationCache
+     */
+    public static OAuthClientAuthenticationCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OAuthClientAuthenticationCache.class) {
+                if (instance == null) {
+                    instance = new OAuthClientAuthenticationCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Remember the client secret as successfully authenticated.
+     *
+     * @param clientId     client id
+     * @param clientSecret client secret which was authenticated against the database
+     */
+    public void addVerifiedSecret(String clientId, String clientSecret) {
+        String verifier = getVerifier(clientId, clientSecret);
+        if (verifier != null) {
+            super.addToCache(new OAuthCacheKey(clientId), new ClientSecretVerifierCacheEntry(verifier));
+        }
+    }
+
+    /**
+     * @param clientId     client id
+     * @param clientSecret client secret presented by the client
+     * @return true if the same client secret was authenticated for the client before
+     */
+    public boolean isVerifiedSecret(String clientId, String clientSecret) {
+        ClientSecretVerifierCacheEntry entry = super.getValueFromCache(new OAuthCacheKey(clientId));
+        if (entry == null || entry.getVerifier() == null) {
+            return false;
+        }
+        String verifier = getVerifier(clientId, clientSecret);
+        return verifier != null && MessageDigest.isEqual(entry.getVerifier().getBytes(StandardCharsets.UTF_8),
+                verifier.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forget the authenticated client secret of the client, on all the nodes of the cluster.
+     *
+     * @param clientId client id
+     */
+    public void clearVerifiedSecret(String clientId) {
+        super.clearCacheEntry(new OAuthCacheKey(clientId));
+    }
+
+    private String getVerifier(String clientId, String clientSecret) {
+        if (StringUtils.isEmpty(clientId) || clientSecret == null) {
+            return null;
+        }
+        Mac mac = verifierMac.get();
+        if (mac == null) {
+            return null;
+        }
+        mac.update(clientId.getBytes(StandardCharsets.UTF_8));
+        // Separates the client id from the secret, so that the boundary between them can not be moved.
+        mac.update((byte) 0);
+        return HashingUtil.toHex(mac.doFinal(clientSecret.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac createVerifierMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(getVerifierKey());
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            log.error("Error while initializing the client secret verifier.", e);
+            return null;
+        }
+    }
+
+    private SecretKeySpec getVerifierKey() throws NoSuchAlgorithmException {
+        if (verifierKey == null) {
+            synchronized (this) {
+                if (verifierKey == null) {
+                    verifierKey = new SecretKeySpec(createVerifierKeyMaterial(), HMAC_SHA256);
+                }
+            }
+        }
+        return verifierKey;
+    }
+
+    private static byte[] createVerifierKeyMaterial() throws NoSuchAlgorithmException {
+        byte[] privateKey = null;
+        try {
+            Key key = SigningKeyRegistry.getInstance().getSigningKey(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME,
+                    MultitenantConstants.SUPER_TENANT_ID).getPrivateKey();
+            privateKey = key != null ? key.getEncoded() : null;
+        } catch (IdentityOAuth2Exception | RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while reading the private key of the super tenant.", e);
+            }
+        }
+        if (privateKey == null) {
+            log.warn("The client secret verifier key could not be derived from the key store. A random key of this " +
+                    "node is used, so secrets authenticated on other nodes are verified in the database again.");
+            byte[] randomKey = new byte[VERIFIER_KEY_LENGTH];
+            new SecureRandom().nextBytes(randomKey);
+            return randomKey;
+        }
+        MessageDigest digest = MessageDigest.getInstance(SHA256);
+        digest.update(VERIFIER_KEY_LABEL.getBytes(StandardCharsets.UTF_8));
+        return digest.digest(privateKey);
+    }
+}
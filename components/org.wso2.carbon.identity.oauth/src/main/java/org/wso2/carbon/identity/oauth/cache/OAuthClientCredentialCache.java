@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.identity.oauth2.model.ClientCredentialDO;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache of client secrets, keyed by the client id, which is used to authenticate clients without a database lookup.
+ */
+public class OAuthClientCredentialCache extends OAuthCacheRegion<ClientCredentialDO> {
+
+    private static final String OAUTH_CLIENT_CREDENTIAL_CACHE_NAME = "OAuthClientCredentialCache";
+
+    private static volatile OAuthClientCredentialCache instance;
+
+    private OAuthClientCredentialCache() {
+        super(OAUTH_CLIENT_CREDENTIAL_CACHE_NAME);
+    }
+
+    /**
+     * Returns OAuthClientCredentialCache instance
+     *
+     * @return instance of OAuthClientCredentialCache
+     */
+    public static OAuthClientCredentialCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OAuthClientCredentialCache.class) {
+                if (instance == null) {
+                    instance = new OAuthClientCredentialCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
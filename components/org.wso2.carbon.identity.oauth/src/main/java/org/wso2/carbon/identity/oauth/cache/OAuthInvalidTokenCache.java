@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OAuthInvalidTokenCache remembers access token identifiers which are known to be unknown, revoked or otherwise not
+ * active, so that repeated validation requests with such tokens do not hit the database. Keys are the SHA-256 hash of
+ * the persisted token identifier and values are the reason the token is invalid.
+ * <p>
+ * Size of the cache is configured in identity.xml. Since a token may be issued with an identifier which was looked up
+ * before, entries are only trusted for a short time, OAuth.OAuthInvalidTokenCache.Timeout seconds (60 by default),
+ * irrespective of the timeout of the cache. Entries are also cleared when a token with the same identifier is issued,
+ * and since cache invalidation is propagated in a cluster, the entry is cleared on every node.
+ */
+public class OAuthInvalidTokenCache extends BaseCache<String, InvalidTokenCacheEntry> {
+
+    /**
+     * Reason recorded for tokens which are unknown or not in the ACTIVE state in the database.
+     */
+    public static final String TOKEN_NOT_ACTIVE = "NOT_ACTIVE";
+
+    private static final String OAUTH_INVALID_TOKEN_CACHE_NAME = "OAuthInvalidTokenCache";
+    private static final String TIMEOUT_PROPERTY = "OAuth.OAuthInvalidTokenCache.Timeout";
+    private static final long DEFAULT_TIMEOUT = 60;
+
+    private static volatile OAuthInvalidTokenCache instance;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final long timeout;
+
+    private OAuthInvalidTokenCache() {
+        super(OAUTH_INVALID_TOKEN_CACHE_NAME);
+        timeout = OAuth2ConfigUtil.getLongProperty(TIMEOUT_PROPERTY, 1, DEFAULT_TIMEOUT) * 1000;
+    }
+
+    /**
+     * Returns OAuthInvalidTokenCache instance
+     *
+     * @return instance of OAuthInvalidTokenCache
+     */
+    public static OAuthInvalidTokenCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OAuthInvalidTokenCache.class) {
+                if (instance == null) {
+                    instance = new OAuthInvalidTokenCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Mark the token identifier as invalid.
+     *
+     * @param tokenIdentifier persisted access token identifier
+     * @param reason          token state or reason the token is invalid
+     */
+    public void addInvalidToken(String tokenIdentifier, String reason) {
+        super.addToCache(getKey(tokenIdentifier), new InvalidTokenCacheEntry(reason,
+                System.currentTimeMillis() + timeout));
+    }
+
+    /**
+     * @param tokenIdentifier persisted access token identifier
+     * @return true if the token identifier is known to be invalid
+     */
+    public boolean isInvalidToken(String tokenIdentifier) {
+        String key = getKey(tokenIdentifier);
+        InvalidTokenCacheEntry entry = super.getValueFromCache(key);
+        if (entry != null && entry.getExpiryTime() > System.currentTimeMillis()) {
+            hitCount.incrementAndGet();
+            return true;
+        }
+        if (entry != null) {
+            super.clearCacheEntry(key);
+        }
+        missCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Remove the token identifier from the cache, on all the nodes of the cluster.
+     *
+     * @param tokenIdentifier persisted access token identifier
+     */
+    public void clearInvalidToken(String tokenIdentifier) {
+        super.clearCacheEntry(getKey(tokenIdentifier));
+    }
+
+    /**
+     * @return number of lookups which found the token identifier in the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of lookups which did not find the token identifier in the cache
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private String getKey(String tokenIdentifier) {
+        return HashingUtil.sha256Hex(tokenIdentifier);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.identity.oauth2.model.ResourceScopeCacheEntry;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache of the scopes which protect resources, keyed by the resource. Resources without a scope are cached as well,
+ * with a null scope.
+ */
+public class OAuthResourceScopeCache extends OAuthCacheRegion<ResourceScopeCacheEntry> {
+
+    private static final String OAUTH_RESOURCE_SCOPE_CACHE_NAME = "OAuthResourceScopeCache";
+
+    private static volatile OAuthResourceScopeCache instance;
+
+    private OAuthResourceScopeCache() {
+        super(OAUTH_RESOURCE_SCOPE_CACHE_NAME);
+    }
+
+    /**
+     * Returns OAuthResourceScopeCache instance
+     *
+     * @return instance of OAuthResourceScopeCache
+     */
+    public static OAuthResourceScopeCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OAuthResourceScopeCache.class) {
+                if (instance == null) {
+                    instance = new OAuthResourceScopeCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache of the compiled claim mappings of the service providers, keyed by the client id of the OAuth application and
+ * the tenant domain of the service provider. Entries are removed when the service provider is updated or deleted.
+ */
+public class OAuthSPClaimMappingCache extends OAuthCacheRegion<SPClaimMappingCacheEntry> {
+
+    private static final String OAUTH_SP_CLAIM_MAPPING_CACHE_NAME = "OAuthSPClaimMappingCache";
+
+    private static volatile OAuthSPClaimMappingCache instance;
+
+    private OAuthSPClaimMappingCache() {
+        super(OAUTH_SP_CLAIM_MAPPING_CACHE_NAME);
+    }
+
+    /**
+     * Returns OAuthSPClaimMappingCache instance
+     *
+     * @return instance of OAuthSPClaimMappingCache
+     */
+    public static OAuthSPClaimMappingCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OAuthSPClaimMappingCache.class) {
+                if (instance == null) {
+                    instance = new OAuthSPClaimMappingCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param clientId     client id of the OAuth application
+     * @param tenantDomain tenant domain of the service provider
+     * @return claim mappings of the service provider, or null if they are not cached
+     */
+    public SPClaimMappingCacheEntry getClaimMappings(String clientId, String tenantDomain) {
+        return super.getValueFromCache(getCacheKey(clientId, tenantDomain));
+    }
+
+    /**
+     * @param clientId     client id of the OAuth application
+     * @param tenantDomain tenant domain of the service provider
+     * @param entry        claim mappings of the service provider
+     */
+    public void addClaimMappings(String clientId, String tenantDomain, SPClaimMappingCacheEntry entry) {
+        super.addToCache(getCacheKey(clientId, tenantDomain), entry);
+    }
+
+    /**
+     * @param clientId     client id of the OAuth application
+     * @param tenantDomain tenant domain of the service provider
+     */
+    public void clearClaimMappings(String clientId, String tenantDomain) {
+        super.clearCacheEntry(getCacheKey(clientId, tenantDomain));
+    }
+
+    private static OAuthCacheKey getCacheKey(String clientId, String tenantDomain) {
+        return new OAuthCacheKey(clientId + "@" + tenantDomain);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache of the OIDC scope to claim mapping of each tenant, keyed by the tenant id. Entries are removed when the OIDC
+ * scope resource of the tenant is changed in the registry.
+ */
+public class OIDCScopeClaimCache extends OAuthCacheRegion<OIDCScopeClaimCacheEntry> {
+
+    private static final String OIDC_SCOPE_CLAIM_CACHE_NAME = "OIDCScopeClaimCache";
+
+    private static volatile OIDCScopeClaimCache instance;
+
+    private OIDCScopeClaimCache() {
+        super(OIDC_SCOPE_CLAIM_CACHE_NAME);
+    }
+
+    /**
+     * Returns OIDCScopeClaimCache instance
+     *
+     * @return instance of OIDCScopeClaimCache
+     */
+    public static OIDCScopeClaimCache getInstance() {
+        CarbonUtils.checkSecurity();
+        if (instance == null) {
+            synchronized (OIDCScopeClaimCache.class) {
+                if (instance == null) {
+                    instance = new OIDCScopeClaimCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param tenantId tenant id
+     * @return OIDC scope to claim mapping of the tenant, or null if it is not cached
+     */
+    public OIDCScopeClaimCacheEntry getScopeClaimMapping(int tenantId) {
+        return super.getValueFromCache(new OAuthCacheKey(String.valueOf(tenantId)));
+    }
+
+    /**
+     * @param tenantId tenant id
+     * @param entry    OIDC scope to claim mapping of the tenant
+     */
+    public void addScopeClaimMapping(int tenantId, OIDCScopeClaimCacheEntry entry) {
+        super.addToCache(new OAuthCacheKey(String.valueOf(tenantId)), entry);
+    }
+
+    /**
+     * @param tenantId tenant id
+     */
+    public void clearScopeClaimMapping(int tenantId) {
+        super.clearCacheEntry(new OAuthCacheKey(String.valueOf(tenantId)));
+    }
+}
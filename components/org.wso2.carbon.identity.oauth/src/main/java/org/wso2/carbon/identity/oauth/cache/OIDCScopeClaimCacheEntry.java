@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.registry.api.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * OIDC scopes of a tenant, with the claim uris permitted by each scope. Built once from the OIDC scope resource of
+ * the registry, where the claims of a scope are kept as a comma separated list.
+ */
+public class OIDCScopeClaimCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 3180741362875216489L;
+    private static final String OIDC_SCOPE_CLAIM_SEPARATOR = ",";
+
+    private final HashMap<String, List<String>> scopeClaims = new HashMap<>();
+
+    /**
+     * @param oidcScopeProperties claim uris of each OIDC scope, as comma separated lists keyed by the scope
+     */
+    public OIDCScopeClaimCacheEntry(Properties oidcScopeProperties) {
+
+        for (String scope : oidcScopeProperties.stringPropertyNames()) {
+            List<String> claims = new ArrayList<>();
+            String claimList = oidcScopeProperties.getProperty(scope);
+            if (StringUtils.isNotBlank(claimList)) {
+                for (String claim : claimList.split(OIDC_SCOPE_CLAIM_SEPARATOR)) {
+                    claims.add(claim.trim());
+                }
+            }
+            scopeClaims.put(scope, Collections.unmodifiableList(claims));
+        }
+    }
+
+    /**
+     * @param oidcScopesResource OIDC scope resource of the registry, with the claim uris of each scope as a comma
+     *                           separated list in the property named by the scope
+     */
+    public OIDCScopeClaimCacheEntry(Resource oidcScopesResource) {
+
+        this(toProperties(oidcScopesResource));
+    }
+
+    /**
+     * @param scope OIDC scope
+     * @return true if the scope is defined
+     */
+    public boolean containsScope(String scope) {
+
+        return scopeClaims.containsKey(scope);
+    }
+
+    /**
+     * @param scope OIDC scope
+     * @return claim uris permitted by the scope, or an empty list if the scope is not defined
+     */
+    public List<String> getClaims(String scope) {
+
+        List<String> claims = scopeClaims.get(scope);
+        return claims != null ? claims : Collections.emptyList();
+    }
+
+    /**
+     * @return claim uris permitted by each OIDC scope, keyed by the scope
+     */
+    public Map<String, List<String>> getScopeClaims() {
+
+        return Collections.unmodifiableMap(scopeClaims);
+    }
+
+    public boolean isEmpty() {
+
+        return scopeClaims.isEmpty();
+    }
+
+    private static Properties toProperties(Resource oidcScopesResource) {
+
+        // Property values of a registry resource are lists, hence read each of them as a single value.
+        Properties properties = new Properties();
+        for (Object scopeProperty : oidcScopesResource.getProperties().keySet()) {
+            String propertyKey = (String) scopeProperty;
+            String propertyValue = oidcScopesResource.getProperty(propertyKey);
+            if (propertyValue != null) {
+                properties.setProperty(propertyKey, propertyValue);
+            }
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.wso2.carbon.identity.application.common.model.ClaimConfig;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Claim mappings of a service provider, compiled once from its claim configuration so that the claims of a token
+ * request can be mapped with lookups instead of walking the claim mapping array of the service provider.
+ */
+public class SPClaimMappingCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = -5128371983564105379L;
+
+    private final String applicationName;
+    private final ArrayList<String> requestedLocalClaims = new ArrayList<>();
+    private final HashSet<String> requestedLocalClaimSet = new HashSet<>();
+
+    public SPClaimMappingCacheEntry(ServiceProvider serviceProvider) {
+
+        applicationName = serviceProvider.getApplicationName();
+        ClaimConfig claimConfig = serviceProvider.getClaimConfig();
+        if (claimConfig != null && claimConfig.getClaimMappings() != null) {
+            for (ClaimMapping claimMapping : claimConfig.getClaimMappings()) {
+                if (claimMapping.isRequested()) {
+                    String localClaimUri = claimMapping.getLocalClaim().getClaimUri();
+                    if (requestedLocalClaimSet.add(localClaimUri)) {
+                        requestedLocalClaims.add(localClaimUri);
+                    }
+                }
+            }
+        }
+    }
+
+    public String getApplicationName() {
+
+        return applicationName;
+    }
+
+    /**
+     * @return local claim uris requested by the service provider, in the order of its claim configuration
+     */
+    public List<String> getRequestedLocalClaims() {
+
+        return Collections.unmodifiableList(requestedLocalClaims);
+    }
+
+    /**
+     * @param localClaimUri local claim uri
+     * @return true if the service provider requests the claim
+     */
+    public boolean isRequestedLocalClaim(String localClaimUri) {
+
+        return requestedLocalClaimSet.contains(localClaimUri);
+    }
+
+    /**
+     * @return true if the service provider requests at least one claim
+     */
+    public boolean hasRequestedClaims() {
+
+        return !requestedLocalClaims.isEmpty();
+    }
+}
@@ -36,6 +36,7 @@ import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
 import org.wso2.carbon.identity.oauth.tokenprocessor.PlainTextPersistenceProcessor;
 import org.wso2.carbon.identity.oauth.tokenprocessor.TokenPersistenceProcessor;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dao.ReadReplicaRouter;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.api.UserStoreException;
@@ -60,6 +61,7 @@ import static org.wso2.carbon.identity.oauth.OAuthUtil.handleError;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.BACK_CHANNEL_LOGOUT_URL;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.ID_TOKEN_ENCRYPTION_ALGORITHM;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.ID_TOKEN_ENCRYPTION_METHOD;
+import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.ID_TOKEN_SIGNATURE_ALGORITHM;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.ID_TOKEN_ENCRYPTED;
 import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCConfigProperties.REQUEST_OBJECT_SIGNED;
 import static org.wso2.carbon.identity.oauth2.util.OAuth2Util.OPENID_CONNECT_AUDIENCE;
@@ -310,79 +312,99 @@ public class OAuthAppDAO {
     public OAuthAppDO getAppInformation(String consumerKey) throws
             InvalidOAuthClientException, IdentityOAuth2Exception {
 
-        OAuthAppDO oauthApp = null;
-        boolean isPKCESupportEnabled = OAuth2ServiceComponentHolder.isPkceEnabled();
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
-            String sqlQuery;
-            if (isPKCESupportEnabled) {
-                sqlQuery = SQLQueries.OAuthAppDAOSQLQueries.GET_APP_INFO_WITH_PKCE;
-            } else {
-                sqlQuery = SQLQueries.OAuthAppDAOSQLQueries.GET_APP_INFO;
+        try (Connection connection = ReadReplicaRouter.getReadOnlyConnection()) {
+            return getAppInformation(connection, consumerKey);
+        } catch (InvalidOAuthClientException e) {
+            if (!ReadReplicaRouter.isPrimaryFallbackEnabled()) {
+                throw e;
             }
+            // The application may have been registered after the last replication to the read replica.
+            if (log.isDebugEnabled()) {
+                log.debug("Application was not found on the read replica. Retrieving it from the primary.");
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while retrieving the app information", e);
+        }
 
-            try (PreparedStatement prepStmt = connection.prepareStatement(sqlQuery)) {
-                String preprocessedClientId = persistenceProcessor.getProcessedClientId(consumerKey);
-                prepStmt.setString(1, preprocessedClientId);
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+            return getAppInformation(connection, consumerKey);
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while retrieving the app information", e);
+        }
+    }
 
-                try (ResultSet rSet = prepStmt.executeQuery()) {
-                    /*
-                      We need to determine whether the result set has more than 1 row. Meaning, we found an
-                      application for
-                      the given consumer key. There can be situations where a user passed a key which doesn't yet
-                      have an
-                      associated application. We need to barf with a meaningful error message for this case
-                    */
-                    boolean appExists = false;
-                    while (rSet.next()) {
-                        // There is at least one application associated with a given key
-                        appExists = true;
-                        if (rSet.getString(4) != null && rSet.getString(4).length() > 0) {
-                            oauthApp = new OAuthAppDO();
-                            oauthApp.setOauthConsumerKey(consumerKey);
-                            if (isHashDisabled) {
-                                oauthApp.setOauthConsumerSecret(persistenceProcessor.getPreprocessedClientSecret(rSet
-                                        .getString(1)));
-                            }
-                            AuthenticatedUser authenticatedUser = new AuthenticatedUser();
-                            authenticatedUser.setUserName(rSet.getString(2));
-                            oauthApp.setApplicationName(rSet.getString(3));
-                            oauthApp.setOauthVersion(rSet.getString(4));
-                            oauthApp.setCallbackUrl(rSet.getString(5));
-                            authenticatedUser.setTenantDomain(IdentityTenantUtil.getTenantDomain(rSet.getInt(6)));
-                            authenticatedUser.setUserStoreDomain(rSet.getString(7));
-                            oauthApp.setUser(authenticatedUser);
-                            oauthApp.setGrantTypes(rSet.getString(8));
-                            oauthApp.setId(rSet.getInt(9));
-                            if (isPKCESupportEnabled) {
-                                oauthApp.setPkceMandatory(!"0".equals(rSet.getString(10)));
-                                oauthApp.setPkceSupportPlain(!"0".equals(rSet.getString(11)));
-                                oauthApp.setUserAccessTokenExpiryTime(rSet.getLong(12));
-                                oauthApp.setApplicationAccessTokenExpiryTime(rSet.getLong(13));
-                                oauthApp.setRefreshTokenExpiryTime(rSet.getLong(14));
-                                oauthApp.setIdTokenExpiryTime(rSet.getLong(15));
-                                oauthApp.setState(rSet.getString(16));
-                            } else {
-                                oauthApp.setUserAccessTokenExpiryTime(rSet.getLong(10));
-                                oauthApp.setApplicationAccessTokenExpiryTime(rSet.getLong(11));
-                                oauthApp.setRefreshTokenExpiryTime(rSet.getLong(12));
-                                oauthApp.setIdTokenExpiryTime(rSet.getLong(13));
-                                oauthApp.setState(rSet.getString(14));
-                            }
+    private OAuthAppDO getAppInformation(Connection connection, String consumerKey) throws SQLException,
+            InvalidOAuthClientException, IdentityOAuth2Exception {
 
-                            String spTenantDomain = authenticatedUser.getTenantDomain();
-                            handleSpOIDCProperties(connection, preprocessedClientId, spTenantDomain, oauthApp);
-                            oauthApp.setScopeValidators(getScopeValidators(connection, oauthApp.getId()));
+        OAuthAppDO oauthApp = null;
+        boolean isPKCESupportEnabled = OAuth2ServiceComponentHolder.isPkceEnabled();
+        String sqlQuery;
+        if (isPKCESupportEnabled) {
+            sqlQuery = SQLQueries.OAuthAppDAOSQLQueries.GET_APP_INFO_WITH_PKCE;
+        } else {
+            sqlQuery = SQLQueries.OAuthAppDAOSQLQueries.GET_APP_INFO;
+        }
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(sqlQuery)) {
+            String preprocessedClientId = persistenceProcessor.getProcessedClientId(consumerKey);
+            prepStmt.setString(1, preprocessedClientId);
+
+            try (ResultSet rSet = prepStmt.executeQuery()) {
+                /*
+                  We need to determine whether the result set has more than 1 row. Meaning, we found an
+                  application for
+                  the given consumer key. There can be situations where a user passed a key which doesn't yet
+                  have an
+                  associated application. We need to barf with a meaningful error message for this case
+                */
+                boolean appExists = false;
+                while (rSet.next()) {
+                    // There is at least one application associated with a given key
+                    appExists = true;
+                    if (rSet.getString(4) != null && rSet.getString(4).length() > 0) {
+                        oauthApp = new OAuthAppDO();
+                        oauthApp.setOauthConsumerKey(consumerKey);
+                        if (isHashDisabled) {
+                            oauthApp.setOauthConsumerSecret(persistenceProcessor.getPreprocessedClientSecret(rSet
+                                    .getString(1)));
+                        }
+                        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+                        authenticatedUser.setUserName(rSet.getString(2));
+                        oauthApp.setApplicationName(rSet.getString(3));
+                        oauthApp.setOauthVersion(rSet.getString(4));
+                        oauthApp.setCallbackUrl(rSet.getString(5));
+                        authenticatedUser.setTenantDomain(IdentityTenantUtil.getTenantDomain(rSet.getInt(6)));
+                        authenticatedUser.setUserStoreDomain(rSet.getString(7));
+                        oauthApp.setUser(authenticatedUser);
+                        oauthApp.setGrantTypes(rSet.getString(8));
+                        oauthApp.setId(rSet.getInt(9));
+                        if (isPKCESupportEnabled) {
+                            oauthApp.setPkceMandatory(!"0".equals(rSet.getString(10)));
+                            oauthApp.setPkceSupportPlain(!"0".equals(rSet.getString(11)));
+                            oauthApp.setUserAccessTokenExpiryTime(rSet.getLong(12));
+                            oauthApp.setApplicationAccessTokenExpiryTime(rSet.getLong(13));
+                            oauthApp.setRefreshTokenExpiryTime(rSet.getLong(14));
+                            oauthApp.setIdTokenExpiryTime(rSet.getLong(15));
+                            oauthApp.setState(rSet.getString(16));
+                        } else {
+                            oauthApp.setUserAccessTokenExpiryTime(rSet.getLong(10));
+                            oauthApp.setApplicationAccessTokenExpiryTime(rSet.getLong(11));
+                            oauthApp.setRefreshTokenExpiryTime(rSet.getLong(12));
+                            oauthApp.setIdTokenExpiryTime(rSet.getLong(13));
+                            oauthApp.setState(rSet.getString(14));
                         }
-                    }
 
-                    if (!appExists) {
-                        handleRequestForANonExistingConsumerKey(consumerKey);
+                        String spTenantDomain = authenticatedUser.getTenantDomain();
+                        handleSpOIDCProperties(connection, preprocessedClientId, spTenantDomain, oauthApp);
+                        oauthApp.setScopeValidators(getScopeValidators(connection, oauthApp.getId()));
                     }
-                    connection.commit();
                 }
+
+                if (!appExists) {
+                    handleRequestForANonExistingConsumerKey(consumerKey);
+                }
+                connection.commit();
             }
-        } catch (SQLException e) {
-            throw new IdentityOAuth2Exception("Error while retrieving the app information", e);
         }
         return oauthApp;
     }
@@ -576,6 +598,10 @@ public class OAuthAppDAO {
                 String.valueOf(oauthAppDO.getIdTokenEncryptionMethod()),
                 prepStatementForPropertyAdd, preparedStatementForPropertyUpdate);
 
+        addOrUpdateOIDCSpProperty(preprocessedClientId, spTenantId, spOIDCProperties, ID_TOKEN_SIGNATURE_ALGORITHM,
+                oauthAppDO.getIdTokenSignatureAlgorithm(), prepStatementForPropertyAdd,
+                preparedStatementForPropertyUpdate);
+
         addOrUpdateOIDCSpProperty(preprocessedClientId, spTenantId, spOIDCProperties, BACK_CHANNEL_LOGOUT_URL,
                 oauthAppDO.getBackChannelLogoutUrl(), prepStatementForPropertyAdd, preparedStatementForPropertyUpdate);
 
@@ -989,6 +1015,9 @@ public class OAuthAppDAO {
             addToBatchForOIDCPropertyAdd(processedClientId, spTenantId, prepStmtAddOIDCProperty,
                     ID_TOKEN_ENCRYPTION_METHOD, String.valueOf(consumerAppDO.getIdTokenEncryptionMethod()));
 
+            addToBatchForOIDCPropertyAdd(processedClientId, spTenantId, prepStmtAddOIDCProperty,
+                    ID_TOKEN_SIGNATURE_ALGORITHM, consumerAppDO.getIdTokenSignatureAlgorithm());
+
             addToBatchForOIDCPropertyAdd(processedClientId, spTenantId, prepStmtAddOIDCProperty,
                     BACK_CHANNEL_LOGOUT_URL, consumerAppDO.getBackChannelLogoutUrl());
 
@@ -1059,6 +1088,9 @@ public class OAuthAppDAO {
         String idTokenEncryptionMethod = getFirstPropertyValue(spOIDCProperties, ID_TOKEN_ENCRYPTION_METHOD);
         oauthApp.setIdTokenEncryptionMethod(idTokenEncryptionMethod);
 
+        String idTokenSignatureAlgorithm = getFirstPropertyValue(spOIDCProperties, ID_TOKEN_SIGNATURE_ALGORITHM);
+        oauthApp.setIdTokenSignatureAlgorithm(idTokenSignatureAlgorithm);
+
         String backChannelLogoutUrl = getFirstPropertyValue(spOIDCProperties, BACK_CHANNEL_LOGOUT_URL);
         oauthApp.setBackChannelLogoutUrl(backChannelLogoutUrl);
     }
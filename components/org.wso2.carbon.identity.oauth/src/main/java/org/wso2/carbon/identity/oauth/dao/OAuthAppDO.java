@@ -47,6 +47,7 @@ public class OAuthAppDO implements Serializable {
     private boolean idTokenEncryptionEnabled;
     private String idTokenEncryptionAlgorithm;
     private String idTokenEncryptionMethod;
+    private String idTokenSignatureAlgorithm;
     private String backChannelLogoutUrl;
 
     public AuthenticatedUser getUser() {
@@ -209,6 +210,14 @@ public class OAuthAppDO implements Serializable {
         this.idTokenEncryptionMethod = idTokenEncryptionMethod;
     }
 
+    public String getIdTokenSignatureAlgorithm() {
+        return idTokenSignatureAlgorithm;
+    }
+
+    public void setIdTokenSignatureAlgorithm(String idTokenSignatureAlgorithm) {
+        this.idTokenSignatureAlgorithm = idTokenSignatureAlgorithm;
+    }
+
     public void setBackChannelLogoutUrl(String backChannelLogoutUrl) {
         this.backChannelLogoutUrl = backChannelLogoutUrl;
     }
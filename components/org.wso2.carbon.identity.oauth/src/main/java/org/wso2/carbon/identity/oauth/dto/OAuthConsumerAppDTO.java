@@ -40,6 +40,7 @@ public class OAuthConsumerAppDTO {
     private boolean isIdTokenEncryptionEnabled;
     private String idTokenEncryptionAlgorithm;
     private String idTokenEncryptionMethod;
+    private String idTokenSignatureAlgorithm;
     private String backChannelLogoutUrl;
     private long idTokenExpiryTime;
 
@@ -196,6 +197,14 @@ public class OAuthConsumerAppDTO {
         this.idTokenEncryptionMethod = idTokenEncryptionMethod;
     }
 
+    public String getIdTokenSignatureAlgorithm() {
+        return idTokenSignatureAlgorithm;
+    }
+
+    public void setIdTokenSignatureAlgorithm(String idTokenSignatureAlgorithm) {
+        this.idTokenSignatureAlgorithm = idTokenSignatureAlgorithm;
+    }
+
     public void setIdTokenEncryptionEnabled(boolean idTokenEncryptionEnabled) {
         this.isIdTokenEncryptionEnabled = idTokenEncryptionEnabled;
     }
@@ -38,6 +38,7 @@ import org.wso2.carbon.identity.oauth.util.ClaimMetaDataCacheKey;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreException;
@@ -227,78 +228,47 @@ public class IdentityOathEventListener extends AbstractIdentityUserOperationEven
         authenticatedUser.setTenantDomain(tenantDomain);
         authenticatedUser.setUserName(username);
 
-        /* This userStoreDomain variable is used for access token table partitioning. So it is set to null when access
-        token table partitioning is not enabled.*/
-        userStoreDomain = null;
-        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
-            try {
-                userStoreDomain = OAuth2Util.getUserStoreForFederatedUser(authenticatedUser);
-            } catch (IdentityOAuth2Exception e) {
-                log.error("Error occurred while getting user store domain for User ID : " + authenticatedUser, e);
-                return true;
-            }
-        }
-
-        Set<String> clientIds;
+        Set<AccessTokenDO> revokedTokens;
         try {
-            // get all the distinct client Ids authorized by this user
-            clientIds = OAuthTokenPersistenceFactory.getInstance()
-                    .getTokenManagementDAO().getAllTimeAuthorizedClientIds(authenticatedUser);
+            // revoke all ACTIVE or EXPIRED access tokens of this user at once
+            revokedTokens = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
+                    .revokeAccessTokensOfUser(authenticatedUser);
         } catch (IdentityOAuth2Exception e) {
-            log.error("Error occurred while retrieving apps authorized by User ID : " + authenticatedUser, e);
+            log.error("Error occurred while revoking access tokens of User ID : " + authenticatedUser, e);
             return true;
         }
-        for (String clientId : clientIds) {
-            Set<AccessTokenDO> accessTokenDOs;
-            try {
-                // retrieve all ACTIVE or EXPIRED access tokens for particular client authorized by this user
-                accessTokenDOs = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
-                        .getAccessTokens(clientId, authenticatedUser, userStoreDomain, true);
-            } catch (IdentityOAuth2Exception e) {
-                String errorMsg = "Error occurred while retrieving access tokens issued for " +
-                        "Client ID : " + clientId + ", User ID : " + authenticatedUser;
-                log.error(errorMsg, e);
-                return true;
-            }
 
-            Set<String> scopes = new HashSet<>();
-            for (AccessTokenDO accessTokenDO : accessTokenDOs) {
-                // Clear cache
-                OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser(),
-                        OAuth2Util.buildScopeString(accessTokenDO.getScope()));
-                OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser());
+        Set<String> accessTokens = new HashSet<>();
+        for (AccessTokenDO accessTokenDO : revokedTokens) {
+            // Clear cache
+            OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser(),
+                    OAuth2Util.buildScopeString(accessTokenDO.getScope()));
+            OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser());
+            if (accessTokenDO.getAccessToken() != null) {
                 OAuthUtil.clearOAuthCache(accessTokenDO.getAccessToken());
-                // Get unique scopes list
-                scopes.add(OAuth2Util.buildScopeString(accessTokenDO.getScope()));
+                accessTokens.add(accessTokenDO.getAccessToken());
             }
+        }
+        removeAccessTokensFromCache(accessTokens);
 
-            for (String scope : scopes) {
-                AccessTokenDO scopedToken = null;
-                try {
-                    // retrieve latest access token for particular client, user and scope combination if its ACTIVE or EXPIRED
-                    scopedToken = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
-                            .getLatestAccessToken(clientId, authenticatedUser, userStoreDomain, scope, true);
-                } catch (IdentityOAuth2Exception e) {
-                    String errorMsg = "Error occurred while retrieving latest " +
-                            "access token issued for Client ID : " +
-                            clientId + ", User ID : " + authenticatedUser + " and Scope : " + scope;
-                    log.error(errorMsg, e);
-                    return true;
-                }
-                if (scopedToken != null) {
-                    try {
-                        //Revoking token from database
-                        OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
-                                .revokeAccessTokens(new String[]{scopedToken.getAccessToken()});
-                    } catch (IdentityOAuth2Exception e) {
-                        String errorMsg = "Error occurred while revoking " +
-                                "Access Token : " + scopedToken.getAccessToken();
-                        log.error(errorMsg, e);
-                        return true;
-                    }
-                }
+        List<AuthzCodeDO> revokedCodes;
+        try {
+            revokedCodes = OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO()
+                    .revokeAuthorizationCodesOfUser(authenticatedUser);
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error occurred while revoking authorization codes of User ID : " + authenticatedUser, e);
+            return true;
+        }
+
+        Set<String> authorizationCodes = new HashSet<>();
+        for (AuthzCodeDO authzCodeDO : revokedCodes) {
+            if (authzCodeDO.getAuthorizationCode() != null) {
+                OAuthUtil.clearOAuthCache(OAuth2Util.buildCacheKeyStringForAuthzCode(authzCodeDO.getConsumerKey(),
+                        authzCodeDO.getAuthorizationCode()));
+                authorizationCodes.add(authzCodeDO.getAuthorizationCode());
             }
         }
+        removeAuthzCodesFromCache(authorizationCodes);
         return true;
     }
 
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.tokenpurge;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dao.TokenPurgeDAO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically purges EXPIRED, INACTIVE and REVOKED access tokens and authorization codes. The purge covers the
+ * primary access token table and every partitioned table defined in AccessTokenPartitioningDomains.
+ */
+public class TokenPurgeService {
+
+    private static final Log log = LogFactory.getLog(TokenPurgeService.class);
+
+    // These config properties are defined in identity.xml
+    private static final String OAUTH_TOKEN_CLEANUP_ENABLE = "OAuth.TokenCleanup.Enable";
+    private static final String OAUTH_TOKEN_CLEANUP_INTERVAL = "OAuth.TokenCleanup.PurgeInterval";
+    private static final String OAUTH_TOKEN_CLEANUP_RETENTION_PERIOD = "OAuth.TokenCleanup.RetentionPeriod";
+    private static final String OAUTH_TOKEN_CLEANUP_CHUNK_SIZE = "OAuth.TokenCleanup.ChunkSize";
+    private static final String OAUTH_TOKEN_CLEANUP_ENABLE_ARCHIVE = "OAuth.TokenCleanup.EnableArchive";
+
+    private static final long DEFAULT_PURGE_INTERVAL = 60;
+    private static final long DEFAULT_RETENTION_PERIOD = 1440;
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static ScheduledExecutorService scheduler;
+
+    private final TokenPurgeDAO tokenPurgeDAO = new TokenPurgeDAO();
+    private final long retentionPeriod;
+    private final int chunkSize;
+    private final boolean archive;
+
+    public TokenPurgeService() {
+
+        retentionPeriod = OAuth2ConfigUtil.getLongProperty(OAUTH_TOKEN_CLEANUP_RETENTION_PERIOD, 1,
+                DEFAULT_RETENTION_PERIOD);
+        chunkSize = OAuth2ConfigUtil.getIntProperty(OAUTH_TOKEN_CLEANUP_CHUNK_SIZE, 1, DEFAULT_CHUNK_SIZE);
+        archive = Boolean.parseBoolean(IdentityUtil.getProperty(OAUTH_TOKEN_CLEANUP_ENABLE_ARCHIVE));
+    }
+
+    /**
+     * Schedule the periodic purge, if it is enabled in identity.xml.
+     */
+    public static synchronized void start() {
+
+        if (scheduler != null || !Boolean.parseBoolean(IdentityUtil.getProperty(OAUTH_TOKEN_CLEANUP_ENABLE))) {
+            return;
+        }
+        long purgeInterval = OAuth2ConfigUtil.getLongProperty(OAUTH_TOKEN_CLEANUP_INTERVAL, 1, DEFAULT_PURGE_INTERVAL);
+        final TokenPurgeService tokenPurgeService = new TokenPurgeService();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                tokenPurgeService.purge();
+            }
+        }, purgeInterval, purgeInterval, TimeUnit.MINUTES);
+        log.info("OAuth token cleanup is scheduled to run every " + purgeInterval + " minutes.");
+    }
+
+    /**
+     * Cancel the periodic purge. A purge which is already running is interrupted after the current chunk.
+     */
+    public static synchronized void stop() {
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Purge the non active access tokens and authorization codes older than the retention period.
+     */
+    public void purge() {
+
+        long cutoffTime = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionPeriod);
+        try {
+            for (Map.Entry<String, String> partition : getAccessTokenPartitions().entrySet()) {
+                long startTime = System.currentTimeMillis();
+                int purgedCount = tokenPurgeDAO.purgeAccessTokens(partition.getValue(), cutoffTime, chunkSize,
+                        archive);
+                logPurgeRate(partition.getKey(), purgedCount, startTime);
+            }
+
+            long startTime = System.currentTimeMillis();
+            int purgedCount = tokenPurgeDAO.purgeAuthorizationCodes(cutoffTime, chunkSize, archive);
+            logPurgeRate("IDN_OAUTH2_AUTHORIZATION_CODE", purgedCount, startTime);
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while purging OAuth2 access tokens and authorization codes", e);
+        }
+    }
+
+    /**
+     * @return access token tables to be purged, mapped to a user store domain which resolves to the table
+     * @throws IdentityOAuth2Exception if the access token partitioning domains are not defined correctly
+     */
+    private Map<String, String> getAccessTokenPartitions() throws IdentityOAuth2Exception {
+
+        Map<String, String> partitions = new LinkedHashMap<>();
+        String primaryDomain = IdentityUtil.getPrimaryDomainName();
+        partitions.put(OAuthConstants.ACCESS_TOKEN_STORE_TABLE, primaryDomain);
+        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
+            for (String userStoreDomain : OAuth2Util.getAvailableUserStoreDomainMappings().keySet()) {
+                String table = OAuth2Util.getPartitionedTableByUserStore(OAuthConstants.ACCESS_TOKEN_STORE_TABLE,
+                        userStoreDomain);
+                if (!partitions.containsKey(table)) {
+                    partitions.put(table, userStoreDomain);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private void logPurgeRate(String table, int purgedCount, long startTime) {
+
+        long elapsedTime = Math.max(1, System.currentTimeMillis() - startTime);
+        log.info("Purged " + purgedCount + " rows from " + table + " in " + elapsedTime + " ms (" +
+                (purgedCount * 1000L / elapsedTime) + " rows/s).");
+    }
+}
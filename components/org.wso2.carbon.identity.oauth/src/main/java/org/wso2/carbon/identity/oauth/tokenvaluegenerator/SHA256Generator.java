@@ -20,10 +20,8 @@ package org.wso2.carbon.identity.oauth.tokenvaluegenerator;
 
 import org.apache.oltu.oauth2.as.issuer.ValueGenerator;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
-import org.bouncycastle.util.encoders.Hex;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.util.UUID;
 
 /**
@@ -43,15 +41,8 @@ public class SHA256Generator implements ValueGenerator {
     public String generateValue(String value) throws OAuthSystemException {
 
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            digest.reset();
-            digest.update(value.getBytes(StandardCharsets.UTF_8));
-
-            byte[] messageDigest = digest.digest();
-
             // Return the hex representation of the hash.
-            return Hex.toHexString(messageDigest);
+            return HashingUtil.sha256Hex(value);
         } catch (Exception e) {
             throw new OAuthSystemException("Error while generating the token value.", e);
         }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth.tokenvaluegenerator;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.oltu.oauth2.as.issuer.ValueGenerator;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token value generator which encodes random bytes drawn from a per-thread {@link SecureRandom} as a base64url
+ * string (256 bits, 43 characters by default). Unlike {@link SHA256Generator} it does not create UUIDs, which share a
+ * single {@link SecureRandom} across all threads, and it does not hash the random value.
+ * <p>
+ * When {@code OAuth.TokenValueGenerator.PoolSize} is configured, token values are generated ahead of time by a
+ * background thread and kept in a lock-free pool. Requests fall back to generating the value inline if the pool is
+ * empty.
+ */
+public class SecureRandomValueGenerator implements ValueGenerator {
+
+    private static final Log log = LogFactory.getLog(SecureRandomValueGenerator.class);
+    private static final String TOKEN_LENGTH = "OAuth.TokenValueGenerator.TokenLength";
+    private static final String POOL_SIZE = "OAuth.TokenValueGenerator.PoolSize";
+    private static final String[] RANDOM_ALGORITHMS = {"DRBG", "SHA1PRNG"};
+
+    static final int DEFAULT_TOKEN_LENGTH = 32;
+    private static final int MIN_TOKEN_LENGTH = 16;
+
+    private static final ThreadLocal<SecureRandom> secureRandom = new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+            return createSecureRandom();
+        }
+    };
+
+    private final int tokenLength;
+    private final int poolSize;
+    private final Queue<String> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Executor refillExecutor;
+
+    public SecureRandomValueGenerator() {
+
+        this(OAuth2ConfigUtil.getIntProperty(TOKEN_LENGTH, MIN_TOKEN_LENGTH, DEFAULT_TOKEN_LENGTH),
+                OAuth2ConfigUtil.getIntProperty(POOL_SIZE, 0, 0));
+    }
+
+    public SecureRandomValueGenerator(int tokenLength, int poolSize) {
+
+        this(tokenLength, poolSize, poolSize > 0 ? createRefillExecutor() : null);
+    }
+
+    SecureRandomValueGenerator(int tokenLength, int poolSize, Executor refillExecutor) {
+
+        if (tokenLength < MIN_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Token length should be at least " + MIN_TOKEN_LENGTH + " bytes.");
+        }
+        this.tokenLength = tokenLength;
+        this.poolSize = Math.max(poolSize, 0);
+        this.refillExecutor = refillExecutor;
+        if (this.poolSize > 0 && refillExecutor == null) {
+            throw new IllegalArgumentException("A refill executor is required when the token value pool is enabled.");
+        }
+        triggerRefill();
+    }
+
+    @Override
+    public String generateValue() throws OAuthSystemException {
+
+        if (poolSize > 0) {
+            String value = pool.poll();
+            if (value != null) {
+                if (pooledCount.decrementAndGet() <= poolSize / 2) {
+                    triggerRefill();
+                }
+                return value;
+            }
+            triggerRefill();
+        }
+        return newValue();
+    }
+
+    @Override
+    public String generateValue(String value) throws OAuthSystemException {
+
+        try {
+            // Return the base64url representation of the hash.
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return encode(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | RuntimeException e) {
+            throw new OAuthSystemException("Error while generating the token value.", e);
+        }
+    }
+
+    /**
+     * Returns the number of token values currently held in the pool.
+     *
+     * @return number of pooled token values
+     */
+    public int getPooledCount() {
+
+        return pooledCount.get();
+    }
+
+    private String newValue() {
+
+        byte[] bytes = new byte[tokenLength];
+        secureRandom.get().nextBytes(bytes);
+        return encode(bytes);
+    }
+
+    private void triggerRefill() {
+
+        if (poolSize <= 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (pooledCount.get() < poolSize) {
+                            pool.offer(newValue());
+                            pooledCount.incrementAndGet();
+                        }
+                    } finally {
+                        refilling.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+            log.warn("Unable to refill the token value pool. Token values will be generated on demand.", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static SecureRandom createSecureRandom() {
+
+        for (String algorithm : RANDOM_ALGORITHMS) {
+            try {
+                return SecureRandom.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("SecureRandom algorithm: " + algorithm + " is not available.");
+                }
+            }
+        }
+        return new SecureRandom();
+    }
+
+    private static Executor createRefillExecutor() {
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "TokenValuePool-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -27,9 +27,12 @@ import org.wso2.carbon.identity.oauth2.dto.OAuth2ClientApplicationDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2IntrospectionResponseDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationRequestDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationResponseDTO;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.identity.oauth2.validators.TokenValidationHandler;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -100,6 +103,40 @@ public class OAuth2TokenValidationService extends AbstractAdmin {
      */
     public OAuth2IntrospectionResponseDTO buildIntrospectionResponse(OAuth2TokenValidationRequestDTO validationReq) {
 
+        return buildIntrospectionResponse(validationReq, Collections.<String, AccessTokenDO>emptyMap());
+    }
+
+    /**
+     * Returns the introspection responses of a batch of tokens, in the order of the requests. Each token is
+     * introspected as in {@link #buildIntrospectionResponse(OAuth2TokenValidationRequestDTO)}, but the access tokens
+     * of the batch are retrieved together.
+     *
+     * @param validationReqs token validation requests
+     * @return introspection responses
+     */
+    public OAuth2IntrospectionResponseDTO[] buildIntrospectionResponses(
+            OAuth2TokenValidationRequestDTO[] validationReqs) {
+
+        Map<String, AccessTokenDO> retrievedTokens;
+        try {
+            retrievedTokens = TokenValidationHandler.getInstance().findAccessTokens(Arrays.asList(validationReqs));
+        } catch (IdentityOAuth2Exception e) {
+            // Tokens are retrieved one by one when building the responses.
+            log.error("Error occurred while retrieving the access tokens of the introspection batch", e);
+            retrievedTokens = Collections.emptyMap();
+        }
+
+        OAuth2IntrospectionResponseDTO[] introspectionResponses =
+                new OAuth2IntrospectionResponseDTO[validationReqs.length];
+        for (int i = 0; i < validationReqs.length; i++) {
+            introspectionResponses[i] = buildIntrospectionResponse(validationReqs[i], retrievedTokens);
+        }
+        return introspectionResponses;
+    }
+
+    private OAuth2IntrospectionResponseDTO buildIntrospectionResponse(OAuth2TokenValidationRequestDTO validationReq,
+                                                                      Map<String, AccessTokenDO> retrievedTokens) {
+
         TokenValidationHandler validationHandler = TokenValidationHandler.getInstance();
         OAuth2IntrospectionResponseDTO oAuth2IntrospectionResponseDTO = null;
         try {
@@ -111,7 +148,8 @@ public class OAuth2TokenValidationService extends AbstractAdmin {
             return errRespDTO;
         }
         try {
-            oAuth2IntrospectionResponseDTO = validationHandler.buildIntrospectionResponse(validationReq);
+            oAuth2IntrospectionResponseDTO =
+                    validationHandler.buildIntrospectionResponse(validationReq, retrievedTokens);
         } catch (IdentityOAuth2Exception e) {
             log.error("Error occurred while building the introspection response", e);
             oAuth2IntrospectionResponseDTO = new OAuth2IntrospectionResponseDTO();
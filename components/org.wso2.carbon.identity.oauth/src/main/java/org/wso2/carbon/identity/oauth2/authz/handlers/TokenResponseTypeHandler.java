@@ -44,6 +44,8 @@ import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AuthorizeReqDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AuthorizeRespDTO;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLock;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLockServiceFactory;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
@@ -135,7 +137,8 @@ public class TokenResponseTypeHandler extends AbstractResponseTypeHandler {
 
         AccessTokenDO tokenDO = null;
 
-        synchronized ((consumerKey + ":" + authorizedUser + ":" + scope).intern()) {
+        try (TokenIssuanceLock issuanceLock = TokenIssuanceLockServiceFactory.getLockService()
+                .acquire(consumerKey, authorizedUser, scope)) {
 
             AccessTokenDO existingAccessTokenDO = null;
             // check if valid access token exists in cache
@@ -17,7 +17,6 @@
  */
 package org.wso2.carbon.identity.oauth2.authz.handlers.util;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,9 +44,12 @@ import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AuthorizeReqDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AuthorizeRespDTO;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLock;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLockServiceFactory;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
 import org.wso2.carbon.identity.oauth2.token.OauthTokenIssuer;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.identity.openidconnect.IDTokenBuilder;
 
@@ -113,7 +115,8 @@ public class ResponseTypeHandlerUtil {
         String consumerKey = authorizationReqDTO.getConsumerKey();
         String authorizedUser = authorizationReqDTO.getUser().toString();
 
-        synchronized ((consumerKey + ":" + authorizedUser + ":" + scope).intern()) {
+        try (TokenIssuanceLock issuanceLock = TokenIssuanceLockServiceFactory.getLockService()
+                .acquire(consumerKey, authorizedUser, scope)) {
 
             AccessTokenDO existingTokenBean = getExistingToken(oauthAuthzMsgCtx, cacheEnabled);
 
@@ -371,7 +374,7 @@ public class ResponseTypeHandlerUtil {
             existingTokenBean = (AccessTokenDO) cacheEntry;
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Retrieved active access token(hashed): " + DigestUtils.sha256Hex(existingTokenBean
+                    log.debug("Retrieved active access token(hashed): " + HashingUtil.sha256Hex(existingTokenBean
                             .getAccessToken()) + " in state: " + existingTokenBean.getTokenState() + " for client " +
                             "Id: " + consumerKey + ", user: " + authorizedUser + " and scope: " + scope + " from" +
                             " cache.");
@@ -403,7 +406,7 @@ public class ResponseTypeHandlerUtil {
         if (existingToken != null) {
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Retrieved latest access token(hashed): " + DigestUtils.sha256Hex(existingToken
+                    log.debug("Retrieved latest access token(hashed): " + HashingUtil.sha256Hex(existingToken
                             .getAccessToken()) + " in state: " + existingToken.getTokenState() + " for client Id: " +
                             consumerKey + " user: " + authorizedUser + " and scope: " + scope + " from db");
                 } else {
@@ -568,7 +571,7 @@ public class ResponseTypeHandlerUtil {
         } catch (IdentityException e) {
             String errorMsg;
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                errorMsg = "Error occurred while storing new access token(hashed) : " + DigestUtils.sha256Hex
+                errorMsg = "Error occurred while storing new access token(hashed) : " + HashingUtil.sha256Hex
                         (newTokenBean.getAccessToken());
 
             } else {
@@ -586,10 +589,10 @@ public class ResponseTypeHandlerUtil {
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 if (expireTimeMillis > 0) {
-                    log.debug("Access Token(hashed): " + DigestUtils.sha256Hex(tokenBean.getAccessToken()) + " is " +
+                    log.debug("Access Token(hashed): " + HashingUtil.sha256Hex(tokenBean.getAccessToken()) + " is " +
                             "still valid. Remaining time: " + expireTimeMillis + " ms");
                 } else {
-                    log.debug("Infinite lifetime Access Token(hashed) " + DigestUtils.sha256Hex(tokenBean
+                    log.debug("Infinite lifetime Access Token(hashed) " + HashingUtil.sha256Hex(tokenBean
                             .getAccessToken()) + " found");
                 }
             } else {
@@ -668,7 +671,7 @@ public class ResponseTypeHandlerUtil {
             } else {
                 if (log.isDebugEnabled()) {
                     if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                        log.debug("Access token(hashed): " + DigestUtils.sha256Hex(tokenBean.getAccessToken()) + " is" +
+                        log.debug("Access token(hashed): " + HashingUtil.sha256Hex(tokenBean.getAccessToken()) + " is" +
                                 " not valid anymore");
                     } else {
                         log.debug("Latest access token in the database for client: " + tokenBean.getConsumerKey() + "" +
@@ -689,8 +692,8 @@ public class ResponseTypeHandlerUtil {
                 if (!isRefreshTokenExpired(tokenBean.getConsumerKey(), refreshTokenExpireTime)) {
                     if (log.isDebugEnabled()) {
                         if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                            log.debug("Existing access token(hashed): " + DigestUtils.sha256Hex(tokenBean
-                                    .getAccessToken()) + " has expired, but refresh token(hashed):" + DigestUtils
+                            log.debug("Existing access token(hashed): " + HashingUtil.sha256Hex(tokenBean
+                                    .getAccessToken()) + " has expired, but refresh token(hashed):" + HashingUtil
                                     .sha256Hex(tokenBean.getRefreshToken()) + " is still valid for client: " +
                                     consumerKey + ". Remaining time: " + refreshTokenExpireTime + " ms. Using " +
                                     "existing refresh token.");
@@ -813,7 +816,7 @@ public class ResponseTypeHandlerUtil {
         OAuthCache.getInstance().clearCacheEntry(cacheKey);
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Access token(hashed): " + DigestUtils.sha256Hex(tokenBean.getAccessToken()) + " is expired" +
+                log.debug("Access token(hashed): " + HashingUtil.sha256Hex(tokenBean.getAccessToken()) + " is expired" +
                         ". Therefore cleared it from cache.");
             } else {
                 log.debug("Existing access token for client: " + tokenBean.getConsumerKey() + " is expired. " +
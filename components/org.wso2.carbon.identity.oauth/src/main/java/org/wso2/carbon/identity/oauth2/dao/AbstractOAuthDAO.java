@@ -22,7 +22,6 @@ package org.wso2.carbon.identity.oauth2.dao;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.tokenprocessor.HashingPersistenceProcessor;
@@ -31,6 +30,7 @@ import org.wso2.carbon.identity.oauth.tokenprocessor.TokenPersistenceProcessor;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /*
 NOTE
@@ -49,6 +49,12 @@ abstract class AbstractOAuthDAO {
     // We read from these properties for the sake of backward compatibility
     private static final String FRAMEWORK_PERSISTENCE_ENABLE = "JDBCPersistenceManager.SessionDataPersist.Enable";
 
+    // Keeps the IN list of the batched queries within the limits of all the supported databases.
+    protected static final int MAX_IN_LIST_SIZE = 500;
+
+    // Bounds the rounds of revoking the tokens or codes of a user, while new ones are being issued to the user.
+    protected static final int MAX_USER_REVOCATION_ROUNDS = 5;
+
     protected static final String UTC = "UTC";
     protected static final String AUTHZ_USER = "AUTHZ_USER";
     protected static final String LOWER_AUTHZ_USER = "LOWER(AUTHZ_USER)";
@@ -96,9 +102,64 @@ abstract class AbstractOAuthDAO {
         return DEFAULT_PERSIST_ENABLED;
     }
 
+    /**
+     * Get a database connection, which is the connection of the {@link UnitOfWork} if one is active on the current
+     * thread.
+     *
+     * @return database connection
+     */
     protected Connection getConnection() {
 
-        return IdentityDatabaseUtil.getDBConnection();
+        return UnitOfWork.getConnection();
+    }
+
+    /**
+     * Replace the IN list placeholder of a query with the given number of bind parameters.
+     *
+     * @param sql         query with the placeholder
+     * @param placeholder IN list placeholder
+     * @param size        number of values in the IN list
+     * @return query with a bind parameter per value
+     */
+    protected static String getInListSql(String sql, String placeholder, int size) {
+
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            parameters.append(i == 0 ? "?" : ",?");
+        }
+        return sql.replace(placeholder, parameters.toString());
+    }
+
+    /**
+     * Select the variant of a query for the database of the given connection.
+     *
+     * @param connection database connection
+     * @param mysql      query for MySQL and H2
+     * @param db2        query for DB2
+     * @param mssql      query for MS SQL Server
+     * @param postgresql query for PostgreSQL
+     * @param informix   query for Informix
+     * @param oracle     query for Oracle and any other database
+     * @return query for the database of the connection
+     * @throws SQLException if the database metadata cannot be read
+     */
+    protected static String getDialectSql(Connection connection, String mysql, String db2, String mssql,
+                                          String postgresql, String informix, String oracle) throws SQLException {
+
+        String driverName = connection.getMetaData().getDriverName();
+        if (driverName.contains("MySQL") || driverName.contains("H2")) {
+            return mysql;
+        } else if (connection.getMetaData().getDatabaseProductName().contains("DB2")) {
+            return db2;
+        } else if (driverName.contains("MS SQL") || driverName.contains("Microsoft")) {
+            return mssql;
+        } else if (driverName.contains("PostgreSQL")) {
+            return postgresql;
+        } else if (driverName.contains("Informix")) {
+            // Driver name = "IBM Informix JDBC Driver for IBM Informix Dynamic Server"
+            return informix;
+        }
+        return oracle;
     }
 
 }
@@ -24,7 +24,9 @@ import org.wso2.carbon.identity.application.authentication.framework.model.Authe
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 /*
 NOTE
@@ -42,6 +44,8 @@ public interface AccessTokenDAO {
                               AccessTokenDO newAccessTokenDO, AccessTokenDO existingAccessTokenDO,
                               String rawUserStoreDomain) throws IdentityOAuth2Exception;
 
+    void insertAccessTokens(List<AccessContextTokenDO> accessContextTokens) throws IdentityOAuth2Exception;
+
     AccessTokenDO getLatestAccessToken(String consumerKey, AuthenticatedUser authzUser, String userStoreDomain,
                                        String scope, boolean includeExpiredTokens) throws IdentityOAuth2Exception;
 
@@ -50,6 +54,30 @@ public interface AccessTokenDAO {
 
     AccessTokenDO getAccessToken(String accessTokenIdentifier, boolean includeExpired) throws IdentityOAuth2Exception;
 
+    /**
+     * Retrieves the active access tokens of the given identifiers. Tokens of the same partition are retrieved with
+     * a single query.
+     *
+     * @param accessTokenIdentifiers access token identifiers
+     * @return active access tokens mapped by their identifiers. Identifiers of tokens which are not active are not
+     * included.
+     * @throws IdentityOAuth2Exception if an error occurs while retrieving the access tokens
+     */
+    Map<String, AccessTokenDO> getActiveAccessTokens(Collection<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception;
+
+    /**
+     * Retrieves the active access tokens of the given identifiers from the primary database, even when read only
+     * queries are routed to a read replica.
+     *
+     * @param accessTokenIdentifiers access token identifiers
+     * @return active access tokens mapped by their identifiers. Identifiers of tokens which are not active are not
+     * included.
+     * @throws IdentityOAuth2Exception if an error occurs while retrieving the access tokens
+     */
+    Map<String, AccessTokenDO> getActiveAccessTokensFromPrimary(Collection<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception;
+
     Set<String> getAccessTokensByUser(AuthenticatedUser authenticatedUser) throws IdentityOAuth2Exception;
 
     Set<String> getActiveTokensByConsumerKey(String consumerKey) throws IdentityOAuth2Exception;
@@ -61,6 +89,11 @@ public interface AccessTokenDAO {
     Set<AccessTokenDO> getAccessTokensOfUserStore(int tenantId, String userStoreDomain) throws
             IdentityOAuth2Exception;
 
+    void visitAccessTokensByTenant(int tenantId, AccessTokenVisitor visitor) throws IdentityOAuth2Exception;
+
+    void visitAccessTokensOfUserStore(int tenantId, String userStoreDomain, AccessTokenVisitor visitor) throws
+            IdentityOAuth2Exception;
+
     void revokeAccessTokens(String[] tokens) throws IdentityOAuth2Exception;
 
     void revokeAccessTokensInBatch(String[] tokens) throws IdentityOAuth2Exception;
@@ -69,6 +102,17 @@ public interface AccessTokenDAO {
 
     void revokeAccessToken(String tokenId, String userId) throws IdentityOAuth2Exception;
 
+    /**
+     * Revokes all ACTIVE and EXPIRED access tokens of the given user in a single transaction. Only the tokens read
+     * within the transaction are revoked, hence the returned tokens are exactly the ones revoked by this call.
+     *
+     * @param authenticatedUser user whose tokens are revoked
+     * @return revoked access tokens, with the token id, consumer key, scope and the access token (only if hashing is
+     * disabled) populated
+     * @throws IdentityOAuth2Exception if an error occurs while revoking the tokens
+     */
+    Set<AccessTokenDO> revokeAccessTokensOfUser(AuthenticatedUser authenticatedUser) throws IdentityOAuth2Exception;
+
     void invalidateAndCreateNewAccessToken(String oldAccessTokenId, String tokenState, String consumerKey,
                                            String tokenStateId, AccessTokenDO accessTokenDO,
                                            String userStoreDomain) throws IdentityOAuth2Exception;
@@ -20,7 +20,6 @@
 
 package org.wso2.carbon.identity.oauth2.dao;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -35,11 +34,13 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthInvalidTokenCache;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2TokenUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
@@ -53,9 +54,13 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -76,6 +81,8 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
     private static final String OAUTH_TOKEN_PERSISTENCE_RETRY_COUNT = "OAuth.TokenPersistence.RetryCount";
     private static final int DEFAULT_TOKEN_PERSIST_RETRY_COUNT = 5;
     private static final String IDN_OAUTH2_ACCESS_TOKEN = "IDN_OAUTH2_ACCESS_TOKEN";
+    // Number of token and scope rows read from the database at a time when scanning the tokens of a tenant.
+    private static final int TOKEN_SCAN_PAGE_ROWS = 1000;
     private boolean isHashDisabled = OAuth2Util.isHashDisabled();
 
     private Log log = LogFactory.getLog(AccessTokenDAOImpl.class);
@@ -89,6 +96,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         } catch (SQLException e) {
             throw new IdentityOAuth2Exception("Error while inserting access token.", e);
         }
+        clearInvalidTokenFromCache(accessToken);
     }
 
     private void insertAccessToken(String accessToken, String consumerKey, AccessTokenDO accessTokenDO,
@@ -115,23 +123,11 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                     "Authorized user should be available for further execution.");
         }
 
-        if (OAuthServerConfiguration.getInstance().usePersistedAccessTokenAlias()) {
-            try {
-                accessToken = OAuthServerConfiguration.getInstance().getIdentityOauthTokenIssuer()
-                        .getAccessTokenHash(accessToken);
-            } catch (OAuthSystemException e) {
-                if (log.isDebugEnabled() &&
-                        IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Error while getting access token hash for token(hashed): " +
-                            DigestUtils.sha256Hex(accessToken));
-                }
-                throw new IdentityOAuth2Exception("Error while getting access token hash.");
-            }
-        }
+        accessToken = getPersistedAccessTokenAlias(accessToken);
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Persisting access token(hashed): " + DigestUtils.sha256Hex(accessToken) + " for client: " +
+                log.debug("Persisting access token(hashed): " + HashingUtil.sha256Hex(accessToken) + " for client: " +
                         consumerKey + " user: " + accessTokenDO.getAuthzUser().toString() + " scope: "
                         + Arrays.toString(accessTokenDO.getScope()));
             } else {
@@ -141,63 +137,19 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
         }
         userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStoreDomain);
-        String userDomain = accessTokenDO.getAuthzUser().getUserStoreDomain();
-        String authenticatedIDP = accessTokenDO.getAuthzUser().getFederatedIdPName();
+        String userDomain = getTokenUserDomain(accessTokenDO);
         PreparedStatement insertTokenPrepStmt = null;
         PreparedStatement addScopePrepStmt = null;
 
-        if (!OAuthServerConfiguration.getInstance().isMapFederatedUsersToLocal() && accessTokenDO.getAuthzUser()
-                .isFederatedUser()) {
-            if (log.isDebugEnabled()) {
-                log.debug("Adding federated domain to user store domain to user " + accessTokenDO.getAuthzUser()
-                        .getAuthenticatedSubjectIdentifier());
-            }
-            userDomain = OAuth2Util.getFederatedUserDomain(authenticatedIDP);
-        }
-
-        if (log.isDebugEnabled()) {
-            log.debug("Userstore domain for user " + accessTokenDO.getAuthzUser().getAuthenticatedSubjectIdentifier()
-                    + " is :" + userDomain);
-        }
-
         String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.INSERT_OAUTH2_ACCESS_TOKEN, userDomain);
         String sqlAddScopes = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.INSERT_OAUTH2_TOKEN_SCOPE,
                 userDomain);
 
         try {
             insertTokenPrepStmt = connection.prepareStatement(sql);
-            insertTokenPrepStmt.setString(1, getPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
-
-            if (accessTokenDO.getRefreshToken() != null) {
-                insertTokenPrepStmt.setString(2, getPersistenceProcessor().getProcessedRefreshToken(accessTokenDO.getRefreshToken()));
-            } else {
-                insertTokenPrepStmt.setString(2, accessTokenDO.getRefreshToken());
-            }
-
-            insertTokenPrepStmt.setString(3, accessTokenDO.getAuthzUser().getUserName());
             int tenantId = OAuth2Util.getTenantId(accessTokenDO.getAuthzUser().getTenantDomain());
-            insertTokenPrepStmt.setInt(4, tenantId);
-            insertTokenPrepStmt.setString(5, OAuth2Util.getSanitizedUserStoreDomain(userDomain));
-            insertTokenPrepStmt.setTimestamp(6, accessTokenDO.getIssuedTime(), Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-            insertTokenPrepStmt.setTimestamp(7, accessTokenDO.getRefreshTokenIssuedTime(), Calendar.getInstance(TimeZone
-                    .getTimeZone(UTC)));
-            insertTokenPrepStmt.setLong(8, accessTokenDO.getValidityPeriodInMillis());
-            insertTokenPrepStmt.setLong(9, accessTokenDO.getRefreshTokenValidityPeriodInMillis());
-            insertTokenPrepStmt.setString(10, OAuth2Util.hashScopes(accessTokenDO.getScope()));
-            insertTokenPrepStmt.setString(11, accessTokenDO.getTokenState());
-            insertTokenPrepStmt.setString(12, accessTokenDO.getTokenType());
-            insertTokenPrepStmt.setString(13, accessTokenDO.getTokenId());
-            insertTokenPrepStmt.setString(14, accessTokenDO.getGrantType());
-            insertTokenPrepStmt.setString(15, accessTokenDO.getAuthzUser().getAuthenticatedSubjectIdentifier());
-            insertTokenPrepStmt
-                    .setString(16, getHashingPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
-            if (accessTokenDO.getRefreshToken() != null) {
-                insertTokenPrepStmt.setString(17,
-                        getHashingPersistenceProcessor().getProcessedRefreshToken(accessTokenDO.getRefreshToken()));
-            } else {
-                insertTokenPrepStmt.setString(17, accessTokenDO.getRefreshToken());
-            }
-            insertTokenPrepStmt.setString(18, getPersistenceProcessor().getProcessedClientId(consumerKey));
+            setInsertAccessTokenParameters(insertTokenPrepStmt, accessToken, consumerKey, accessTokenDO, userDomain,
+                    tenantId);
             insertTokenPrepStmt.execute();
 
             String accessTokenId = accessTokenDO.getTokenId();
@@ -258,6 +210,258 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
     }
 
+    private String getPersistedAccessTokenAlias(String accessToken) throws IdentityOAuth2Exception {
+
+        if (!OAuthServerConfiguration.getInstance().usePersistedAccessTokenAlias()) {
+            return accessToken;
+        }
+        try {
+            return OAuthServerConfiguration.getInstance().getIdentityOauthTokenIssuer()
+                    .getAccessTokenHash(accessToken);
+        } catch (OAuthSystemException e) {
+            if (log.isDebugEnabled() &&
+                    IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
+                log.debug("Error while getting access token hash for token(hashed): " +
+                        HashingUtil.sha256Hex(accessToken));
+            }
+            throw new IdentityOAuth2Exception("Error while getting access token hash.");
+        }
+    }
+
+    /**
+     * Remove a newly persisted token from the invalid token cache, in case a validation request with the same token
+     * reached the server before the token was persisted.
+     *
+     * @param accessToken persisted access token
+     */
+    private void clearInvalidTokenFromCache(String accessToken) {
+
+        try {
+            OAuthInvalidTokenCache.getInstance().clearInvalidToken(getPersistedAccessTokenAlias(accessToken));
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while clearing the invalid token cache entry of a persisted access token.", e);
+        }
+    }
+
+    /**
+     * Add revoked tokens to the invalid token cache, so that validation requests with them are rejected without
+     * querying the database.
+     *
+     * @param tokens revoked access tokens
+     */
+    private void addRevokedTokensToCache(String[] tokens) {
+
+        OAuthInvalidTokenCache invalidTokenCache = OAuthInvalidTokenCache.getInstance();
+        for (String token : tokens) {
+            try {
+                invalidTokenCache.addInvalidToken(getPersistedAccessTokenAlias(token),
+                        OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
+            } catch (IdentityOAuth2Exception e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while adding a revoked access token to the invalid token cache.", e);
+                }
+            }
+        }
+    }
+
+    private void addRevokedTokensToCache(Collection<AccessTokenDO> revokedTokens) {
+
+        List<String> tokens = new ArrayList<>();
+        for (AccessTokenDO accessTokenDO : revokedTokens) {
+            // The access token is only known when it is not hashed.
+            if (accessTokenDO.getAccessToken() != null) {
+                tokens.add(accessTokenDO.getAccessToken());
+            }
+        }
+        addRevokedTokensToCache(tokens.toArray(new String[0]));
+    }
+
+    private String getTokenUserDomain(AccessTokenDO accessTokenDO) throws IdentityOAuth2Exception {
+
+        String userDomain = accessTokenDO.getAuthzUser().getUserStoreDomain();
+        if (!OAuthServerConfiguration.getInstance().isMapFederatedUsersToLocal() && accessTokenDO.getAuthzUser()
+                .isFederatedUser()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Adding federated domain to user store domain to user " + accessTokenDO.getAuthzUser()
+                        .getAuthenticatedSubjectIdentifier());
+            }
+            userDomain = OAuth2Util.getFederatedUserDomain(accessTokenDO.getAuthzUser().getFederatedIdPName());
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Userstore domain for user " + accessTokenDO.getAuthzUser().getAuthenticatedSubjectIdentifier()
+                    + " is :" + userDomain);
+        }
+        return userDomain;
+    }
+
+    private void setInsertAccessTokenParameters(PreparedStatement insertTokenPrepStmt, String accessToken,
+                                                String consumerKey, AccessTokenDO accessTokenDO, String userDomain,
+                                                int tenantId) throws SQLException, IdentityOAuth2Exception {
+
+        insertTokenPrepStmt.setString(1, getPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
+
+        if (accessTokenDO.getRefreshToken() != null) {
+            insertTokenPrepStmt.setString(2, getPersistenceProcessor().getProcessedRefreshToken(accessTokenDO.getRefreshToken()));
+        } else {
+            insertTokenPrepStmt.setString(2, accessTokenDO.getRefreshToken());
+        }
+
+        insertTokenPrepStmt.setString(3, accessTokenDO.getAuthzUser().getUserName());
+        insertTokenPrepStmt.setInt(4, tenantId);
+        insertTokenPrepStmt.setString(5, OAuth2Util.getSanitizedUserStoreDomain(userDomain));
+        insertTokenPrepStmt.setTimestamp(6, accessTokenDO.getIssuedTime(), Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+        insertTokenPrepStmt.setTimestamp(7, accessTokenDO.getRefreshTokenIssuedTime(), Calendar.getInstance(TimeZone
+                .getTimeZone(UTC)));
+        insertTokenPrepStmt.setLong(8, accessTokenDO.getValidityPeriodInMillis());
+        insertTokenPrepStmt.setLong(9, accessTokenDO.getRefreshTokenValidityPeriodInMillis());
+        insertTokenPrepStmt.setString(10, OAuth2Util.hashScopes(accessTokenDO.getScope()));
+        insertTokenPrepStmt.setString(11, accessTokenDO.getTokenState());
+        insertTokenPrepStmt.setString(12, accessTokenDO.getTokenType());
+        insertTokenPrepStmt.setString(13, accessTokenDO.getTokenId());
+        insertTokenPrepStmt.setString(14, accessTokenDO.getGrantType());
+        insertTokenPrepStmt.setString(15, accessTokenDO.getAuthzUser().getAuthenticatedSubjectIdentifier());
+        insertTokenPrepStmt
+                .setString(16, getHashingPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
+        if (accessTokenDO.getRefreshToken() != null) {
+            insertTokenPrepStmt.setString(17,
+                    getHashingPersistenceProcessor().getProcessedRefreshToken(accessTokenDO.getRefreshToken()));
+        } else {
+            insertTokenPrepStmt.setString(17, accessTokenDO.getRefreshToken());
+        }
+        insertTokenPrepStmt.setString(18, getPersistenceProcessor().getProcessedClientId(consumerKey));
+    }
+
+    /**
+     * Persist a batch of access tokens using JDBC batch updates. Token and scope rows of the whole batch are written
+     * on a single connection and committed together. If the batch fails (ex: due to a 'CON_APP_KEY' constraint
+     * violation), the batch is rolled back and each token is persisted individually so that the existing constraint
+     * violation recovery logic is applied.
+     *
+     * @param accessContextTokens access tokens to be persisted
+     * @throws IdentityOAuth2Exception if persisting one or more tokens of the batch failed
+     */
+    @Override
+    public void insertAccessTokens(List<AccessContextTokenDO> accessContextTokens) throws IdentityOAuth2Exception {
+
+        if (!isPersistenceEnabled() || accessContextTokens == null || accessContextTokens.isEmpty()) {
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Persisting a batch of " + accessContextTokens.size() + " access tokens.");
+        }
+
+        boolean batchPersisted = false;
+        Connection connection = getConnection();
+        // Token and scope statements are kept per partitioned table, in insertion order.
+        Map<String, PreparedStatement> insertTokenPrepStmts = new LinkedHashMap<>();
+        Map<String, PreparedStatement> addScopePrepStmts = new LinkedHashMap<>();
+        try {
+            connection.setAutoCommit(false);
+            for (AccessContextTokenDO accessContextTokenDO : accessContextTokens) {
+                AccessTokenDO existingAccessTokenDO = accessContextTokenDO.getExistingAccessTokenDO();
+                if (existingAccessTokenDO != null) {
+                    //  Mark the existing access token as expired on database if a token exist for the user
+                    updateAccessTokenState(connection, existingAccessTokenDO.getTokenId(), OAuthConstants
+                            .TokenStates.TOKEN_STATE_EXPIRED, UUID.randomUUID().toString(), OAuth2Util
+                            .getSanitizedUserStoreDomain(accessContextTokenDO.getUserStoreDomain()));
+                }
+            }
+
+            for (AccessContextTokenDO accessContextTokenDO : accessContextTokens) {
+                AccessTokenDO accessTokenDO = accessContextTokenDO.getNewAccessTokenDO();
+                if (accessTokenDO == null || accessTokenDO.getAuthzUser() == null) {
+                    throw new IdentityOAuth2Exception("Access token data object with an authorized user should be " +
+                            "available for further execution.");
+                }
+                String accessToken = getPersistedAccessTokenAlias(accessContextTokenDO.getAccessToken());
+                String userDomain = getTokenUserDomain(accessTokenDO);
+                int tenantId = OAuth2Util.getTenantId(accessTokenDO.getAuthzUser().getTenantDomain());
+
+                String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.INSERT_OAUTH2_ACCESS_TOKEN,
+                        userDomain);
+                PreparedStatement insertTokenPrepStmt = insertTokenPrepStmts.get(sql);
+                if (insertTokenPrepStmt == null) {
+                    insertTokenPrepStmt = connection.prepareStatement(sql);
+                    insertTokenPrepStmts.put(sql, insertTokenPrepStmt);
+                }
+                setInsertAccessTokenParameters(insertTokenPrepStmt, accessToken, accessContextTokenDO
+                        .getConsumerKey(), accessTokenDO, userDomain, tenantId);
+                insertTokenPrepStmt.addBatch();
+
+                if (accessTokenDO.getScope() != null && accessTokenDO.getScope().length > 0) {
+                    String sqlAddScopes = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries
+                            .INSERT_OAUTH2_TOKEN_SCOPE, userDomain);
+                    PreparedStatement addScopePrepStmt = addScopePrepStmts.get(sqlAddScopes);
+                    if (addScopePrepStmt == null) {
+                        addScopePrepStmt = connection.prepareStatement(sqlAddScopes);
+                        addScopePrepStmts.put(sqlAddScopes, addScopePrepStmt);
+                    }
+                    for (String scope : accessTokenDO.getScope()) {
+                        addScopePrepStmt.setString(1, accessTokenDO.getTokenId());
+                        addScopePrepStmt.setString(2, scope);
+                        addScopePrepStmt.setInt(3, tenantId);
+                        addScopePrepStmt.addBatch();
+                    }
+                }
+            }
+
+            for (PreparedStatement insertTokenPrepStmt : insertTokenPrepStmts.values()) {
+                insertTokenPrepStmt.executeBatch();
+            }
+            for (PreparedStatement addScopePrepStmt : addScopePrepStmts.values()) {
+                addScopePrepStmt.executeBatch();
+            }
+            connection.commit();
+            batchPersisted = true;
+            for (AccessContextTokenDO accessContextTokenDO : accessContextTokens) {
+                clearInvalidTokenFromCache(accessContextTokenDO.getAccessToken());
+            }
+        } catch (SQLException | IdentityOAuth2Exception e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            if (log.isDebugEnabled()) {
+                log.debug("Error while persisting a batch of " + accessContextTokens.size() + " access tokens. " +
+                        "Falling back to persisting them individually.", e);
+            }
+        } finally {
+            for (PreparedStatement addScopePrepStmt : addScopePrepStmts.values()) {
+                IdentityDatabaseUtil.closeStatement(addScopePrepStmt);
+            }
+            for (PreparedStatement insertTokenPrepStmt : insertTokenPrepStmts.values()) {
+                IdentityDatabaseUtil.closeStatement(insertTokenPrepStmt);
+            }
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+
+        if (!batchPersisted) {
+            insertAccessTokensIndividually(accessContextTokens);
+        }
+    }
+
+    private void insertAccessTokensIndividually(List<AccessContextTokenDO> accessContextTokens)
+            throws IdentityOAuth2Exception {
+
+        int failedCount = 0;
+        IdentityOAuth2Exception lastError = null;
+        for (AccessContextTokenDO accessContextTokenDO : accessContextTokens) {
+            try {
+                insertAccessToken(accessContextTokenDO.getAccessToken(), accessContextTokenDO.getConsumerKey(),
+                        accessContextTokenDO.getNewAccessTokenDO(), accessContextTokenDO.getExistingAccessTokenDO(),
+                        accessContextTokenDO.getUserStoreDomain());
+            } catch (IdentityOAuth2Exception e) {
+                failedCount++;
+                lastError = e;
+                log.error("Error occurred while persisting access token for client: " +
+                        accessContextTokenDO.getConsumerKey(), e);
+            }
+        }
+        if (lastError != null) {
+            throw new IdentityOAuth2Exception("Failed to persist " + failedCount + " out of " +
+                    accessContextTokens.size() + " access tokens in the batch.", lastError);
+        }
+    }
+
     @Override
     public boolean insertAccessToken(String accessToken, String consumerKey,
                                      AccessTokenDO newAccessTokenDO, AccessTokenDO existingAccessTokenDO,
@@ -269,7 +473,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Persisting access token(hashed): " + DigestUtils.sha256Hex(accessToken) + " for client: " +
+                log.debug("Persisting access token(hashed): " + HashingUtil.sha256Hex(accessToken) + " for client: " +
                         consumerKey + " user: " + newAccessTokenDO.getAuthzUser().toString() + " scope: " + Arrays
                         .toString(newAccessTokenDO.getScope()));
             } else {
@@ -280,7 +484,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
         String userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(rawUserStoreDomain);
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         try {
             connection.setAutoCommit(false);
             if (existingAccessTokenDO != null) {
@@ -290,6 +494,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
             insertAccessToken(accessToken, consumerKey, newAccessTokenDO, connection, userStoreDomain);
             connection.commit();
+            clearInvalidTokenFromCache(accessToken);
             return true;
         } catch (SQLException e) {
             throw new IdentityOAuth2Exception("Error occurred while persisting access token", e);
@@ -326,30 +531,18 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             log.debug("User domain is set to :" + userDomain);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         try {
 
-            String sql;
-            if (connection.getMetaData().getDriverName().contains("MySQL")
-                    || connection.getMetaData().getDriverName().contains("H2")) {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL;
-            } else if (connection.getMetaData().getDatabaseProductName().contains("DB2")) {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL;
-            } else if (connection.getMetaData().getDriverName().contains("MS SQL")) {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL;
-            } else if (connection.getMetaData().getDriverName().contains("Microsoft")) {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL;
-            } else if (connection.getMetaData().getDriverName().contains("PostgreSQL")) {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL;
-            } else if (connection.getMetaData().getDriverName().contains("Informix")) {
-                // Driver name = "IBM Informix JDBC Driver for IBM Informix Dynamic Server"
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX;
-
-            } else {
-                sql = SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE;
-            }
+            String sql = getDialectSql(connection,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX,
+                    SQLQueries.RETRIEVE_LATEST_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE);
 
             if (!includeExpiredTokens) {
                 sql = sql.replace("TOKEN_SCOPE_HASH=?", "TOKEN_SCOPE_HASH=? AND TOKEN_STATE='ACTIVE'");
@@ -440,7 +633,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                     accessTokenDO.setTokenId(tokenId);
                     if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens
                             .ACCESS_TOKEN)) {
-                        log.debug("Retrieved latest access token(hashed): " + DigestUtils.sha256Hex(accessToken) +
+                        log.debug("Retrieved latest access token(hashed): " + HashingUtil.sha256Hex(accessToken) +
                                 " for client: " + consumerKey + " user: " + authzUser.toString() + " scope: " + scope);
                     }
                     return accessTokenDO;
@@ -487,41 +680,21 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
             String sql;
             if (active) {
-                if (connection.getMetaData().getDriverName().contains("MySQL")
-                        || connection.getMetaData().getDriverName().contains("H2")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL;
-                } else if (connection.getMetaData().getDatabaseProductName().contains("DB2")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL;
-                } else if (connection.getMetaData().getDriverName().contains("MS SQL")
-                        || connection.getMetaData().getDriverName().contains("Microsoft")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL;
-                } else if (connection.getMetaData().getDriverName().contains("PostgreSQL")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL;
-                } else if (connection.getMetaData().getDriverName().contains("Informix")) {
-                    // Driver name = "IBM Informix JDBC Driver for IBM Informix Dynamic Server"
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX;
-
-                } else {
-                    sql = SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE;
-                }
+                sql = getDialectSql(connection,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX,
+                        SQLQueries.RETRIEVE_LATEST_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE);
             } else {
-                if (connection.getMetaData().getDriverName().contains("MySQL")
-                        || connection.getMetaData().getDriverName().contains("H2")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL;
-                } else if (connection.getMetaData().getDatabaseProductName().contains("DB2")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL;
-                } else if (connection.getMetaData().getDriverName().contains("MS SQL")
-                        || connection.getMetaData().getDriverName().contains("Microsoft")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL;
-                } else if (connection.getMetaData().getDriverName().contains("PostgreSQL")) {
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL;
-                } else if (connection.getMetaData().getDriverName().contains("Informix")) {
-                    // Driver name = "IBM Informix JDBC Driver for IBM Informix Dynamic Server"
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX;
-
-                } else {
-                    sql = SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE;
-                }
+                sql = getDialectSql(connection,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MYSQL,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_DB2SQL,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_MSSQL,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_POSTGRESQL,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_INFORMIX,
+                        SQLQueries.RETRIEVE_LATEST_NON_ACTIVE_ACCESS_TOKEN_BY_CLIENT_ID_USER_SCOPE_ORACLE);
             }
 
             sql = OAuth2Util.getTokenPartitionedSqlByUserStore(sql, userDomain);
@@ -626,7 +799,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         String userDomain = OAuth2Util.getSanitizedUserStoreDomain(userName.getUserStoreDomain());
         userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStoreDomain);
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         Map<String, AccessTokenDO> accessTokenDOMap = new HashMap<>();
@@ -721,11 +894,25 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-            log.debug("Retrieving information of access token(hashed): " + DigestUtils.sha256Hex
+            log.debug("Retrieving information of access token(hashed): " + HashingUtil.sha256Hex
                     (accessTokenIdentifier));
         }
+        AccessTokenDO dataDO = getAccessToken(ReadReplicaRouter.getReadOnlyConnection(), accessTokenIdentifier,
+                includeExpired);
+        if (dataDO == null && ReadReplicaRouter.isPrimaryFallbackEnabled()) {
+            // The token may have been issued after the last replication to the read replica.
+            if (log.isDebugEnabled()) {
+                log.debug("Access token was not found on the read replica. Retrieving it from the primary.");
+            }
+            dataDO = getAccessToken(getConnection(), accessTokenIdentifier, includeExpired);
+        }
+        return dataDO;
+    }
+
+    private AccessTokenDO getAccessToken(Connection connection, String accessTokenIdentifier, boolean includeExpired)
+            throws IdentityOAuth2Exception {
+
         AccessTokenDO dataDO = null;
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
 
@@ -750,55 +937,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             while (resultSet.next()) {
 
                 if (iterateId == 0) {
-
-                    String consumerKey = getPersistenceProcessor().getPreprocessedClientId(resultSet.getString(1));
-                    String authorizedUser = resultSet.getString(2);
-                    int tenantId = resultSet.getInt(3);
-                    String tenantDomain = OAuth2Util.getTenantDomain(tenantId);
-                    String userDomain = resultSet.getString(4);
-                    String[] scope = OAuth2Util.buildScopeArray(resultSet.getString(5));
-                    Timestamp issuedTime = resultSet.getTimestamp(6, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    Timestamp refreshTokenIssuedTime = resultSet.getTimestamp(7,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    long validityPeriodInMillis = resultSet.getLong(8);
-                    long refreshTokenValidityPeriodMillis = resultSet.getLong(9);
-                    String tokenType = resultSet.getString(10);
-                    String refreshToken = resultSet.getString(11);
-                    String tokenId = resultSet.getString(12);
-                    String grantType = resultSet.getString(13);
-                    String subjectIdentifier = resultSet.getString(14);
-
-                    AuthenticatedUser user = new AuthenticatedUser();
-                    user.setUserName(authorizedUser);
-                    user.setUserStoreDomain(userDomain);
-                    user.setTenantDomain(tenantDomain);
-                    ServiceProvider serviceProvider;
-                    try {
-                        serviceProvider = OAuth2ServiceComponentHolder.getApplicationMgtService().
-                                getServiceProviderByClientId(consumerKey, OAuthConstants.Scope.OAUTH2, tenantDomain);
-                    } catch (IdentityApplicationManagementException e) {
-                        throw new IdentityOAuth2Exception("Error occurred while retrieving OAuth2 application data for client id " +
-                                consumerKey, e);
-                    }
-                    user.setAuthenticatedSubjectIdentifier(subjectIdentifier, serviceProvider);
-
-                    if (!OAuthServerConfiguration.getInstance().isMapFederatedUsersToLocal() && userDomain.startsWith
-                            (OAuthConstants.UserType.FEDERATED_USER_DOMAIN_PREFIX)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Federated prefix found in domain " + userDomain + "and federated users are not" +
-                                    " mapped to local users. Hence setting user to a federated user");
-                        }
-                        user.setFederatedUser(true);
-                    }
-
-                    dataDO = new AccessTokenDO(consumerKey, user, scope, issuedTime, refreshTokenIssuedTime,
-                            validityPeriodInMillis, refreshTokenValidityPeriodMillis, tokenType);
-                    dataDO.setAccessToken(accessTokenIdentifier);
-                    dataDO.setRefreshToken(refreshToken);
-                    dataDO.setTokenId(tokenId);
-                    dataDO.setGrantType(grantType);
-                    dataDO.setTenantID(tenantId);
-
+                    dataDO = buildAccessTokenDO(resultSet, accessTokenIdentifier);
                 } else {
                     scopes.add(resultSet.getString(5));
                 }
@@ -820,6 +959,164 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         return dataDO;
     }
 
+    @Override
+    public Map<String, AccessTokenDO> getActiveAccessTokens(Collection<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieving information of " + accessTokenIdentifiers.size() + " access tokens.");
+        }
+        Map<String, AccessTokenDO> accessTokens = getActiveAccessTokens(accessTokenIdentifiers, false);
+        if (!ReadReplicaRouter.isPrimaryFallbackEnabled()) {
+            return accessTokens;
+        }
+        // Some tokens may have been issued after the last replication to the read replica.
+        Set<String> missingIdentifiers = new LinkedHashSet<>();
+        for (String accessTokenIdentifier : accessTokenIdentifiers) {
+            if (!accessTokens.containsKey(accessTokenIdentifier)) {
+                missingIdentifiers.add(accessTokenIdentifier);
+            }
+        }
+        if (!missingIdentifiers.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug(missingIdentifiers.size() + " access tokens were not found on the read replica. " +
+                        "Retrieving them from the primary.");
+            }
+            accessTokens.putAll(getActiveAccessTokens(missingIdentifiers, true));
+        }
+        return accessTokens;
+    }
+
+    @Override
+    public Map<String, AccessTokenDO> getActiveAccessTokensFromPrimary(Collection<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception {
+
+        return getActiveAccessTokens(accessTokenIdentifiers, true);
+    }
+
+    private Map<String, AccessTokenDO> getActiveAccessTokens(Collection<String> accessTokenIdentifiers,
+                                                             boolean fromPrimary) throws IdentityOAuth2Exception {
+
+        // Group the tokens by the partitioned query, so that the tokens of a partition are retrieved together.
+        Map<String, List<String>> identifiersByQuery = new HashMap<>();
+        for (String accessTokenIdentifier : new LinkedHashSet<>(accessTokenIdentifiers)) {
+            String sql = OAuth2Util.getTokenPartitionedSqlByToken(SQLQueries.RETRIEVE_ACTIVE_ACCESS_TOKENS_BY_HASHES,
+                    accessTokenIdentifier);
+            identifiersByQuery.computeIfAbsent(sql, key -> new ArrayList<>()).add(accessTokenIdentifier);
+        }
+
+        Map<String, AccessTokenDO> accessTokens = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : identifiersByQuery.entrySet()) {
+            List<String> identifiers = entry.getValue();
+            for (int from = 0; from < identifiers.size(); from += MAX_IN_LIST_SIZE) {
+                List<String> chunk = identifiers.subList(from, Math.min(from + MAX_IN_LIST_SIZE, identifiers.size()));
+                Connection connection = fromPrimary ? getConnection() :
+                        ReadReplicaRouter.getReadOnlyConnection();
+                accessTokens.putAll(getActiveAccessTokens(connection, entry.getKey(), chunk));
+            }
+        }
+        return accessTokens;
+    }
+
+    private Map<String, AccessTokenDO> getActiveAccessTokens(Connection connection, String sql,
+                                                             List<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception {
+
+        Map<String, String> identifiersByHash = new HashMap<>();
+        for (String accessTokenIdentifier : accessTokenIdentifiers) {
+            identifiersByHash.put(getHashingPersistenceProcessor().getProcessedAccessTokenIdentifier(
+                    accessTokenIdentifier), accessTokenIdentifier);
+        }
+
+        sql = getInListSql(sql, SQLQueries.ACCESS_TOKEN_HASH_LIST_PLACEHOLDER, identifiersByHash.size());
+
+        Map<String, AccessTokenDO> accessTokens = new HashMap<>();
+        PreparedStatement prepStmt = null;
+        ResultSet resultSet = null;
+        try {
+            prepStmt = connection.prepareStatement(sql);
+            int parameterIndex = 1;
+            for (String accessTokenHash : identifiersByHash.keySet()) {
+                prepStmt.setString(parameterIndex++, accessTokenHash);
+            }
+            resultSet = prepStmt.executeQuery();
+
+            // A token is returned in a row per scope.
+            while (resultSet.next()) {
+                String accessTokenIdentifier = identifiersByHash.get(resultSet.getString(15));
+                if (accessTokenIdentifier == null) {
+                    continue;
+                }
+                AccessTokenDO dataDO = accessTokens.get(accessTokenIdentifier);
+                if (dataDO == null) {
+                    accessTokens.put(accessTokenIdentifier, buildAccessTokenDO(resultSet, accessTokenIdentifier));
+                } else {
+                    dataDO.setScope((String[]) ArrayUtils.add(dataDO.getScope(), resultSet.getString(5)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error when retrieving Access Tokens", e);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+        }
+        return accessTokens;
+    }
+    /**
+     * Builds the access token from the current row of a result of the active access token retrieval queries.
+     */
+    private AccessTokenDO buildAccessTokenDO(ResultSet resultSet, String accessTokenIdentifier)
+            throws SQLException, IdentityOAuth2Exception {
+
+        String consumerKey = getPersistenceProcessor().getPreprocessedClientId(resultSet.getString(1));
+        String authorizedUser = resultSet.getString(2);
+        int tenantId = resultSet.getInt(3);
+        String tenantDomain = OAuth2Util.getTenantDomain(tenantId);
+        String userDomain = resultSet.getString(4);
+        String[] scope = OAuth2Util.buildScopeArray(resultSet.getString(5));
+        Timestamp issuedTime = resultSet.getTimestamp(6, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+        Timestamp refreshTokenIssuedTime = resultSet.getTimestamp(7,
+                Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+        long validityPeriodInMillis = resultSet.getLong(8);
+        long refreshTokenValidityPeriodMillis = resultSet.getLong(9);
+        String tokenType = resultSet.getString(10);
+        String refreshToken = resultSet.getString(11);
+        String tokenId = resultSet.getString(12);
+        String grantType = resultSet.getString(13);
+        String subjectIdentifier = resultSet.getString(14);
+
+        AuthenticatedUser user = new AuthenticatedUser();
+        user.setUserName(authorizedUser);
+        user.setUserStoreDomain(userDomain);
+        user.setTenantDomain(tenantDomain);
+        ServiceProvider serviceProvider;
+        try {
+            serviceProvider = OAuth2ServiceComponentHolder.getApplicationMgtService().
+                    getServiceProviderByClientId(consumerKey, OAuthConstants.Scope.OAUTH2, tenantDomain);
+        } catch (IdentityApplicationManagementException e) {
+            throw new IdentityOAuth2Exception("Error occurred while retrieving OAuth2 application data for client id " +
+                    consumerKey, e);
+        }
+        user.setAuthenticatedSubjectIdentifier(subjectIdentifier, serviceProvider);
+
+        if (!OAuthServerConfiguration.getInstance().isMapFederatedUsersToLocal() && userDomain.startsWith
+                (OAuthConstants.UserType.FEDERATED_USER_DOMAIN_PREFIX)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Federated prefix found in domain " + userDomain + "and federated users are not" +
+                        " mapped to local users. Hence setting user to a federated user");
+            }
+            user.setFederatedUser(true);
+        }
+
+        AccessTokenDO dataDO = new AccessTokenDO(consumerKey, user, scope, issuedTime, refreshTokenIssuedTime,
+                validityPeriodInMillis, refreshTokenValidityPeriodMillis, tokenType);
+        dataDO.setAccessToken(accessTokenIdentifier);
+        dataDO.setRefreshToken(refreshToken);
+        dataDO.setTokenId(tokenId);
+        dataDO.setGrantType(grantType);
+        dataDO.setTenantID(tenantId);
+        return dataDO;
+    }
+
     private void updateAccessTokenState(Connection connection, String tokenId, String tokenState,
                                         String tokenStateId, String userStoreDomain)
             throws IdentityOAuth2Exception {
@@ -871,7 +1168,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 StringBuilder stringBuilder = new StringBuilder();
                 for (String token : tokens) {
-                    stringBuilder.append(DigestUtils.sha256Hex(token)).append(" ");
+                    stringBuilder.append(HashingUtil.sha256Hex(token)).append(" ");
                 }
                 log.debug("Revoking access tokens(hashed): " + stringBuilder.toString());
             } else {
@@ -879,7 +1176,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
         }
         String accessTokenStoreTable = OAuthConstants.ACCESS_TOKEN_STORE_TABLE;
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         if (tokens.length > 1) {
             try {
@@ -895,6 +1192,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                 }
                 ps.executeBatch();
                 connection.commit();
+                addRevokedTokensToCache(tokens);
                 // To revoke request objects which have persisted against the access token.
                 OAuth2TokenUtil.postUpdateAccessTokens(Arrays.asList(tokens), OAuthConstants.TokenStates.
                         TOKEN_STATE_REVOKED);
@@ -916,6 +1214,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                 ps.setString(2, UUID.randomUUID().toString());
                 ps.setString(3, getHashingPersistenceProcessor().getProcessedAccessTokenIdentifier(tokens[0]));
                 ps.executeUpdate();
+                addRevokedTokensToCache(tokens);
 
                 // To revoke request objects which have persisted against the access token.
                 OAuth2TokenUtil.postUpdateAccessTokens(Arrays.asList(tokens), OAuthConstants.TokenStates.
@@ -938,7 +1237,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 StringBuilder stringBuilder = new StringBuilder();
                 for (String token : tokens) {
-                    stringBuilder.append(DigestUtils.sha256Hex(token)).append(" ");
+                    stringBuilder.append(HashingUtil.sha256Hex(token)).append(" ");
                 }
                 log.debug("Revoking access tokens(hashed): " + stringBuilder.toString());
             } else {
@@ -946,7 +1245,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         try {
             connection.setAutoCommit(false);
@@ -965,6 +1264,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
 
             connection.commit();
+            addRevokedTokensToCache(tokens);
             // To revoke request objects which have persisted against the access token.
             if (accessTokenId.size() > 0) {
                 OAuth2TokenUtil.postUpdateAccessTokens(accessTokenId, OAuthConstants.TokenStates.
@@ -991,7 +1291,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             log.debug("Revoking access token with id: " + tokenId + " user: " + userId);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         try {
             String sqlQuery = OAuth2Util.getTokenPartitionedSqlByUserId(SQLQueries.REVOKE_ACCESS_TOKEN_BY_TOKEN_ID,
@@ -1017,6 +1317,119 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         }
     }
 
+    @Override
+    public Set<AccessTokenDO> revokeAccessTokensOfUser(AuthenticatedUser authenticatedUser)
+            throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Revoking all ACTIVE and EXPIRED access tokens of user: " + authenticatedUser.toString());
+        }
+
+        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(authenticatedUser.toString());
+        String userName = isUsernameCaseSensitive ? authenticatedUser.getUserName() :
+                authenticatedUser.getUserName().toLowerCase();
+        int tenantId = OAuth2Util.getTenantId(authenticatedUser.getTenantDomain());
+        String userDomain = OAuth2Util.getSanitizedUserStoreDomain(authenticatedUser.getUserStoreDomain());
+
+        // The partitioned table is derived from the mapped user store domain, which differs for federated users.
+        String partitionStoreDomain = null;
+        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
+            partitionStoreDomain = OAuth2Util.getUserStoreForFederatedUser(authenticatedUser);
+        }
+        String selectSql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries
+                .GET_ACTIVE_EXPIRED_ACCESS_TOKENS_OF_USER, partitionStoreDomain);
+        if (!isUsernameCaseSensitive) {
+            selectSql = selectSql.replace(AUTHZ_USER, LOWER_AUTHZ_USER);
+        }
+        String revokeSql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries
+                .REVOKE_ACCESS_TOKENS_BY_TOKEN_IDS, partitionStoreDomain);
+
+        Connection connection = getConnection();
+        Map<String, AccessTokenDO> revokedTokens = new LinkedHashMap<>();
+        try {
+            connection.setAutoCommit(false);
+            // Only the tokens read here are revoked, hence the returned tokens are exactly the revoked ones. Tokens
+            // issued concurrently are picked up by the next round.
+            for (int round = 0; round < MAX_USER_REVOCATION_ROUNDS; round++) {
+                Map<String, AccessTokenDO> tokens = getActiveExpiredAccessTokensOfUser(connection, selectSql,
+                        userName, tenantId, userDomain, authenticatedUser);
+                if (tokens.isEmpty()) {
+                    break;
+                }
+                List<String> tokenIds = new ArrayList<>(tokens.keySet());
+                for (int from = 0; from < tokenIds.size(); from += MAX_IN_LIST_SIZE) {
+                    List<String> chunk = tokenIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, tokenIds.size()));
+                    try (PreparedStatement ps = connection.prepareStatement(getInListSql(revokeSql,
+                            SQLQueries.ID_LIST_PLACEHOLDER, chunk.size()))) {
+                        ps.setString(1, OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
+                        int parameterIndex = 2;
+                        for (String tokenId : chunk) {
+                            ps.setString(parameterIndex++, tokenId);
+                        }
+                        ps.executeUpdate();
+                    }
+                }
+                revokedTokens.putAll(tokens);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Number of access tokens revoked for user: " + authenticatedUser.toString() + " : " +
+                        revokedTokens.size());
+            }
+            connection.commit();
+            addRevokedTokensToCache(revokedTokens.values());
+
+            // To revoke the tokens from Request Object table.
+            OAuth2TokenUtil.postUpdateAccessTokens(new ArrayList<>(revokedTokens.keySet()),
+                    OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw new IdentityOAuth2Exception("Error occurred while revoking access tokens of user : " +
+                    authenticatedUser.toString(), e);
+        } catch (IdentityOAuth2Exception e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw e;
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+        return new HashSet<>(revokedTokens.values());
+    }
+
+    private Map<String, AccessTokenDO> getActiveExpiredAccessTokensOfUser(Connection connection, String sql,
+                                                                          String userName, int tenantId,
+                                                                          String userDomain,
+                                                                          AuthenticatedUser authenticatedUser)
+            throws SQLException, IdentityOAuth2Exception {
+
+        Map<String, AccessTokenDO> tokens = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, userName);
+            ps.setInt(2, tenantId);
+            ps.setString(3, userDomain);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String tokenId = rs.getString(1);
+                    AccessTokenDO accessTokenDO = tokens.get(tokenId);
+                    if (accessTokenDO != null) {
+                        accessTokenDO.setScope((String[]) ArrayUtils.add(accessTokenDO.getScope(), rs.getString(4)));
+                        continue;
+                    }
+                    accessTokenDO = new AccessTokenDO();
+                    accessTokenDO.setTokenId(tokenId);
+                    if (isHashDisabled) {
+                        accessTokenDO.setAccessToken(getPersistenceProcessor().getPreprocessedAccessTokenIdentifier(
+                                rs.getString(2)));
+                    }
+                    accessTokenDO.setConsumerKey(rs.getString(3));
+                    accessTokenDO.setScope(OAuth2Util.buildScopeArray(rs.getString(4)));
+                    accessTokenDO.setAuthzUser(authenticatedUser);
+                    accessTokenDO.setTenantID(tenantId);
+                    tokens.put(tokenId, accessTokenDO);
+                }
+            }
+        }
+        return tokens;
+    }
+
     /**
      * @param authenticatedUser
      * @return
@@ -1031,7 +1444,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
         String accessTokenStoreTable = OAuthConstants.ACCESS_TOKEN_STORE_TABLE;
         boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(authenticatedUser.toString());
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs;
         Set<String> accessTokens = new HashSet<>();
@@ -1076,19 +1489,21 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      * @throws IdentityOAuth2Exception
      */
     @Override
-    public Set<String> getActiveTokensByConsumerKey(String consumerKey) throws IdentityOAuth2Exception {
+    public Set<String> getActiveTokensByConsumerKey(final String consumerKey) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled()) {
             log.debug("Retrieving active access tokens of client: " + consumerKey);
         }
 
-        Set<String> activeTokens = getActiveAccessTokensByConsumerKey(consumerKey, IdentityUtil.getPrimaryDomainName());
-
-        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                activeTokens.addAll(getActiveAccessTokensByConsumerKey(consumerKey, availableDomainMapping.getKey()));
-            }
+        Set<String> activeTokens = new HashSet<>();
+        for (Set<String> partitionTokens : PartitionedQueryExecutor.executeOnAllPartitions(
+                new PartitionedQueryExecutor.PartitionQuery<Set<String>>() {
+                    @Override
+                    public Set<String> execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                        return getActiveAccessTokensByConsumerKey(consumerKey, userStoreDomain);
+                    }
+                })) {
+            activeTokens.addAll(partitionTokens);
         }
         return activeTokens;
     }
@@ -1104,7 +1519,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
     private Set<String> getActiveAccessTokensByConsumerKey(String consumerKey, String userStoreDomain)
             throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         Set<String> accessTokens = new HashSet<>();
@@ -1112,6 +1527,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             String sqlQuery = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.
                     GET_ACCESS_TOKENS_FOR_CONSUMER_KEY, userStoreDomain);
             ps = connection.prepareStatement(sqlQuery);
+            PartitionedQueryExecutor.applyQueryTimeout(ps);
             ps.setString(1, consumerKey);
             ps.setString(2, OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
             rs = ps.executeQuery();
@@ -1141,21 +1557,22 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      * @throws IdentityOAuth2Exception
      */
     @Override
-    public Set<AccessTokenDO> getActiveAcessTokenDataByConsumerKey(String consumerKey) throws IdentityOAuth2Exception {
+    public Set<AccessTokenDO> getActiveAcessTokenDataByConsumerKey(final String consumerKey)
+            throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled()) {
             log.debug("Retrieving active access tokens for client: " + consumerKey);
         }
 
-        Set<AccessTokenDO> accessTokenDOs = getActiveAcessTokenDataByConsumerKey(consumerKey,
-                IdentityUtil.getPrimaryDomainName());
-
-        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                accessTokenDOs.addAll(getActiveAcessTokenDataByConsumerKey(consumerKey,
-                        availableDomainMapping.getKey()));
-            }
+        Set<AccessTokenDO> accessTokenDOs = new HashSet<>();
+        for (Set<AccessTokenDO> partitionTokens : PartitionedQueryExecutor.executeOnAllPartitions(
+                new PartitionedQueryExecutor.PartitionQuery<Set<AccessTokenDO>>() {
+                    @Override
+                    public Set<AccessTokenDO> execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                        return getActiveAcessTokenDataByConsumerKey(consumerKey, userStoreDomain);
+                    }
+                })) {
+            accessTokenDOs.addAll(partitionTokens);
         }
         return accessTokenDOs;
     }
@@ -1171,7 +1588,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
     private Set<AccessTokenDO> getActiveAcessTokenDataByConsumerKey(String consumerKey, String userStoreDomain)
             throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         Set<AccessTokenDO> activeDetailedTokens;
@@ -1182,6 +1599,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                     GET_ACTIVE_DETAILS_FOR_CONSUMER_KEY, userStoreDomain);
 
             ps = connection.prepareStatement(sqlQuery);
+            PartitionedQueryExecutor.applyQueryTimeout(ps);
             ps.setString(1, consumerKey);
             ps.setString(2, OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
             rs = ps.executeQuery();
@@ -1245,7 +1663,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 log.debug("Invalidating access token with id: " + oldAccessTokenId + " and creating new access token" +
-                        "(hashed): " + DigestUtils.sha256Hex(accessTokenDO.getAccessToken()) + " for client: " +
+                        "(hashed): " + HashingUtil.sha256Hex(accessTokenDO.getAccessToken()) + " for client: " +
                         consumerKey + " user: " + accessTokenDO.getAuthzUser().toString() + " scope: " + Arrays
                         .toString(accessTokenDO.getScope()));
             } else {
@@ -1255,7 +1673,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             }
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         try {
             connection.setAutoCommit(false);
 
@@ -1271,6 +1689,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
 
             // commit both transactions
             connection.commit();
+            clearInvalidTokenFromCache(newAccessToken);
 
             // Post refresh access token event
             OAuth2TokenUtil.postRefreshAccessToken(oldAccessTokenId, accessTokenDO.getTokenId(), tokenState);
@@ -1292,170 +1711,217 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
     @Override
     public Set<AccessTokenDO> getAccessTokensByTenant(int tenantId) throws IdentityOAuth2Exception {
 
-        if (log.isDebugEnabled()) {
-            log.debug("Retrieving all access tokens of tenant id: " + tenantId);
-        }
-
-        Set<AccessTokenDO> accessTokenDOs = getAccessTokensByTenant(tenantId, IdentityUtil.getPrimaryDomainName());
-
-        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                accessTokenDOs.addAll(getAccessTokensByTenant(tenantId, availableDomainMapping.getKey()));
+        final Set<AccessTokenDO> accessTokenDOs = new HashSet<>();
+        visitAccessTokensByTenant(tenantId, new AccessTokenVisitor() {
+            @Override
+            public void visit(AccessTokenDO accessTokenDO) {
+                accessTokenDOs.add(accessTokenDO);
             }
-        }
+        });
         return accessTokenDOs;
     }
 
     /**
-     * Retrieves AccessTokenDOs of specified user store of the given tenant.
+     * Streams ACTIVE and EXPIRED AccessTokenDOs of the given tenant to the visitor, one token at a time.
      *
-     * @param tenantId
-     * @param userStoreDomain
-     * @return
+     * @param tenantId tenant id
+     * @param visitor  visitor called for each access token
      * @throws IdentityOAuth2Exception
      */
-    private Set<AccessTokenDO> getAccessTokensByTenant(int tenantId, String userStoreDomain)
+    @Override
+    public void visitAccessTokensByTenant(final int tenantId, final AccessTokenVisitor visitor)
             throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
-        PreparedStatement prepStmt = null;
-        ResultSet resultSet = null;
-        Map<String, AccessTokenDO> accessTokenDOMap = new HashMap<>();
-        try {
-            String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.LIST_ALL_TOKENS_IN_TENANT,
-                    userStoreDomain);
-
-            prepStmt = connection.prepareStatement(sql);
-            prepStmt.setInt(1, tenantId);
-            resultSet = prepStmt.executeQuery();
-
-            while (resultSet.next()) {
-                String accessToken = null;
-                if (isHashDisabled) {
-                    accessToken = getPersistenceProcessor().
-                            getPreprocessedAccessTokenIdentifier(resultSet.getString(1));
-                }
-                if (accessTokenDOMap.get(accessToken) == null) {
-                    String refreshToken = null;
-                    if (isHashDisabled) {
-                        refreshToken = getPersistenceProcessor().getPreprocessedRefreshToken(resultSet.getString(2));
-                    }
-                    Timestamp issuedTime = resultSet.getTimestamp(3, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    Timestamp refreshTokenIssuedTime = resultSet.getTimestamp(4, Calendar.getInstance(TimeZone
-                            .getTimeZone(UTC)));
-                    long validityPeriodInMillis = resultSet.getLong(5);
-                    long refreshTokenValidityPeriodMillis = resultSet.getLong(6);
-                    String tokenType = resultSet.getString(7);
-                    String[] scope = OAuth2Util.buildScopeArray(resultSet.getString(8));
-                    String tokenId = resultSet.getString(9);
-                    String authzUser = resultSet.getString(10);
-                    userStoreDomain = resultSet.getString(11);
-                    String consumerKey = resultSet.getString(12);
-
-                    AuthenticatedUser user = new AuthenticatedUser();
-                    user.setUserName(authzUser);
-                    user.setTenantDomain(OAuth2Util.getTenantDomain(tenantId));
-                    user.setUserStoreDomain(userStoreDomain);
-                    AccessTokenDO dataDO = new AccessTokenDO(consumerKey, user, scope, issuedTime,
-                            refreshTokenIssuedTime, validityPeriodInMillis,
-                            refreshTokenValidityPeriodMillis, tokenType);
-                    dataDO.setAccessToken(accessToken);
-                    dataDO.setRefreshToken(refreshToken);
-                    dataDO.setTokenId(tokenId);
-                    dataDO.setTenantID(tenantId);
-                    accessTokenDOMap.put(accessToken, dataDO);
-                } else {
-                    String scope = resultSet.getString(8).trim();
-                    AccessTokenDO accessTokenDO = accessTokenDOMap.get(accessToken);
-                    accessTokenDO.setScope((String[]) ArrayUtils.add(accessTokenDO.getScope(), scope));
-                }
-            }
-            connection.commit();
-        } catch (SQLException e) {
-            String errorMsg = "Error occurred while retrieving 'ACTIVE or EXPIRED' access tokens for " +
-                    "user  tenant id : " + tenantId;
-            throw new IdentityOAuth2Exception(errorMsg, e);
-        } finally {
-            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieving all access tokens of tenant id: " + tenantId);
         }
 
-        return new HashSet<>(accessTokenDOMap.values());
+        // Partitions are streamed at the same time. Serialize the visits so that visitors need not be thread safe.
+        final AccessTokenVisitor synchronizedVisitor = new AccessTokenVisitor() {
+            @Override
+            public synchronized void visit(AccessTokenDO accessTokenDO) throws IdentityOAuth2Exception {
+                visitor.visit(accessTokenDO);
+            }
+        };
+        PartitionedQueryExecutor.executeOnAllPartitions(new PartitionedQueryExecutor.PartitionQuery<Void>() {
+            @Override
+            public Void execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                visitAccessTokens(SQLQueries.LIST_ALL_TOKENS_IN_TENANT_ORDERED_BY_TOKEN_ID,
+                        SQLQueries.LIST_ALL_TOKENS_IN_TENANT_AFTER_TOKEN_ID, tenantId, null, userStoreDomain,
+                        synchronizedVisitor);
+                return null;
+            }
+        });
     }
 
     @Override
     public Set<AccessTokenDO> getAccessTokensOfUserStore(int tenantId, String userStoreDomain) throws
             IdentityOAuth2Exception {
 
+        final Set<AccessTokenDO> accessTokenDOs = new HashSet<>();
+        visitAccessTokensOfUserStore(tenantId, userStoreDomain, new AccessTokenVisitor() {
+            @Override
+            public void visit(AccessTokenDO accessTokenDO) {
+                accessTokenDOs.add(accessTokenDO);
+            }
+        });
+        return accessTokenDOs;
+    }
+
+    /**
+     * Streams ACTIVE and EXPIRED AccessTokenDOs of the given user store of the tenant to the visitor, one token at
+     * a time.
+     *
+     * @param tenantId        tenant id
+     * @param userStoreDomain user store domain
+     * @param visitor         visitor called for each access token
+     * @throws IdentityOAuth2Exception
+     */
+    @Override
+    public void visitAccessTokensOfUserStore(int tenantId, String userStoreDomain, AccessTokenVisitor visitor)
+            throws IdentityOAuth2Exception {
+
         if (log.isDebugEnabled()) {
             log.debug("Retrieving all ACTIVE and EXPIRED access tokens of userstore: " + userStoreDomain + " tenant " +
                     "id: " + tenantId);
         }
         // we do not support access token partitioning here
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
-
         userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStoreDomain);
+        visitAccessTokens(SQLQueries.LIST_ALL_TOKENS_IN_USER_STORE_ORDERED_BY_TOKEN_ID,
+                SQLQueries.LIST_ALL_TOKENS_IN_USER_STORE_AFTER_TOKEN_ID, tenantId, userStoreDomain, userStoreDomain,
+                visitor);
+    }
+
+    /**
+     * Reads the access tokens page by page, ordered by token id so that all the scope rows of a token are adjacent.
+     * Each page is read into memory and the result set and connection are closed before the tokens of the page are
+     * handed over to the visitor, hence the visitor may write to the database and the memory usage does not depend
+     * on the number of tokens.
+     *
+     * @param firstPageSql         query listing the first page of tokens
+     * @param nextPageSql          query listing the tokens after a given token id
+     * @param tenantId             tenant id
+     * @param userStoreDomain      user store domain to filter the tokens, or null to read the user store domain of
+     *                             each token from the result set
+     * @param partitionStoreDomain user store domain used to derive the partitioned access token table
+     * @param visitor              visitor called for each access token
+     * @throws IdentityOAuth2Exception
+     */
+    private void visitAccessTokens(String firstPageSql, String nextPageSql, int tenantId, String userStoreDomain,
+                                   String partitionStoreDomain, AccessTokenVisitor visitor)
+            throws IdentityOAuth2Exception {
+
+        firstPageSql = OAuth2Util.getTokenPartitionedSqlByUserStore(firstPageSql, partitionStoreDomain);
+        nextPageSql = OAuth2Util.getTokenPartitionedSqlByUserStore(nextPageSql, partitionStoreDomain);
+        String lastTokenId = null;
+        int pageRows = TOKEN_SCAN_PAGE_ROWS;
+        while (true) {
+            List<AccessTokenDO> page = new ArrayList<>();
+            boolean pageFull = readAccessTokenPage(lastTokenId == null ? firstPageSql : nextPageSql, tenantId,
+                    userStoreDomain, partitionStoreDomain, lastTokenId, pageRows, page);
+            if (pageFull) {
+                // The scope rows of the last token may continue in the next page. Read it again with the next page.
+                page.remove(page.size() - 1);
+                if (page.isEmpty()) {
+                    // A single token has more scopes than a page can hold.
+                    pageRows *= 2;
+                    continue;
+                }
+            }
+            for (AccessTokenDO accessTokenDO : page) {
+                visitor.visit(accessTokenDO);
+            }
+            if (!pageFull) {
+                return;
+            }
+            lastTokenId = page.get(page.size() - 1).getTokenId();
+        }
+    }
+
+    /**
+     * Reads at most the given number of rows of the tokens after the given token id.
+     *
+     * @return true if the row limit was reached, i.e. there may be more tokens to read
+     */
+    private boolean readAccessTokenPage(String sql, int tenantId, String userStoreDomain,
+                                        String partitionStoreDomain, String lastTokenId, int maxRows,
+                                        List<AccessTokenDO> page) throws IdentityOAuth2Exception {
+
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
-        Map<String, AccessTokenDO> accessTokenDOMap = new HashMap<>();
         try {
-            String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.LIST_ALL_TOKENS_IN_USER_STORE,
-                    userStoreDomain);
-
-            prepStmt = connection.prepareStatement(sql);
-            prepStmt.setInt(1, tenantId);
-            prepStmt.setString(2, userStoreDomain);
+            prepStmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            PartitionedQueryExecutor.applyQueryTimeout(prepStmt);
+            prepStmt.setMaxRows(maxRows);
+            prepStmt.setFetchSize(maxRows);
+            int parameterIndex = 1;
+            prepStmt.setInt(parameterIndex++, tenantId);
+            if (userStoreDomain != null) {
+                prepStmt.setString(parameterIndex++, userStoreDomain);
+            }
+            if (lastTokenId != null) {
+                prepStmt.setString(parameterIndex, lastTokenId);
+            }
             resultSet = prepStmt.executeQuery();
 
+            int rows = 0;
+            AccessTokenDO currentAccessTokenDO = null;
             while (resultSet.next()) {
+                rows++;
+                String tokenId = resultSet.getString(9);
+                if (currentAccessTokenDO != null && tokenId.equals(currentAccessTokenDO.getTokenId())) {
+                    String scope = resultSet.getString(8).trim();
+                    currentAccessTokenDO.setScope((String[]) ArrayUtils.add(currentAccessTokenDO.getScope(), scope));
+                    continue;
+                }
+
                 String accessToken = null;
+                String refreshToken = null;
                 if (isHashDisabled) {
                     accessToken = getPersistenceProcessor().getPreprocessedAccessTokenIdentifier(resultSet.getString(1));
+                    refreshToken = getPersistenceProcessor().getPreprocessedRefreshToken(resultSet.getString(2));
                 }
-                if (accessTokenDOMap.get(accessToken) == null) {
-                    String refreshToken = null;
-                    if (isHashDisabled) {
-                        refreshToken = getPersistenceProcessor().getPreprocessedRefreshToken(resultSet.getString(2));
-                    }
-                    Timestamp issuedTime = resultSet.getTimestamp(3, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    Timestamp refreshTokenIssuedTime = resultSet.getTimestamp(4, Calendar.getInstance(TimeZone
-                            .getTimeZone(UTC)));
-                    long validityPeriodInMillis = resultSet.getLong(5);
-                    long refreshTokenValidityPeriodMillis = resultSet.getLong(6);
-                    String tokenType = resultSet.getString(7);
-                    String[] scope = OAuth2Util.buildScopeArray(resultSet.getString(8));
-                    String tokenId = resultSet.getString(9);
-                    String authzUser = resultSet.getString(10);
-                    String consumerKey = resultSet.getString(11);
-
-                    AuthenticatedUser user = new AuthenticatedUser();
-                    user.setUserName(authzUser);
-                    user.setTenantDomain(OAuth2Util.getTenantDomain(tenantId));
-                    user.setUserStoreDomain(userStoreDomain);
-                    AccessTokenDO dataDO = new AccessTokenDO(consumerKey, user, scope, issuedTime,
-                            refreshTokenIssuedTime, validityPeriodInMillis,
-                            refreshTokenValidityPeriodMillis, tokenType);
-                    dataDO.setAccessToken(accessToken);
-                    dataDO.setRefreshToken(refreshToken);
-                    dataDO.setTokenId(tokenId);
-                    dataDO.setTenantID(tenantId);
-                    accessTokenDOMap.put(accessToken, dataDO);
+                Timestamp issuedTime = resultSet.getTimestamp(3, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+                Timestamp refreshTokenIssuedTime = resultSet.getTimestamp(4, Calendar.getInstance(TimeZone
+                        .getTimeZone(UTC)));
+                long validityPeriodInMillis = resultSet.getLong(5);
+                long refreshTokenValidityPeriodMillis = resultSet.getLong(6);
+                String tokenType = resultSet.getString(7);
+                String[] scope = OAuth2Util.buildScopeArray(resultSet.getString(8));
+                String authzUser = resultSet.getString(10);
+                String tokenUserStoreDomain;
+                String consumerKey;
+                if (userStoreDomain == null) {
+                    tokenUserStoreDomain = resultSet.getString(11);
+                    consumerKey = resultSet.getString(12);
                 } else {
-                    String scope = resultSet.getString(8).trim();
-                    AccessTokenDO accessTokenDO = accessTokenDOMap.get(accessToken);
-                    accessTokenDO.setScope((String[]) ArrayUtils.add(accessTokenDO.getScope(), scope));
+                    tokenUserStoreDomain = userStoreDomain;
+                    consumerKey = resultSet.getString(11);
                 }
+
+                AuthenticatedUser user = new AuthenticatedUser();
+                user.setUserName(authzUser);
+                user.setTenantDomain(OAuth2Util.getTenantDomain(tenantId));
+                user.setUserStoreDomain(tokenUserStoreDomain);
+                currentAccessTokenDO = new AccessTokenDO(consumerKey, user, scope, issuedTime,
+                        refreshTokenIssuedTime, validityPeriodInMillis,
+                        refreshTokenValidityPeriodMillis, tokenType);
+                currentAccessTokenDO.setAccessToken(accessToken);
+                currentAccessTokenDO.setRefreshToken(refreshToken);
+                currentAccessTokenDO.setTokenId(tokenId);
+                currentAccessTokenDO.setTenantID(tenantId);
+                page.add(currentAccessTokenDO);
             }
             connection.commit();
+            return rows >= maxRows;
         } catch (SQLException e) {
             String errorMsg = "Error occurred while retrieving 'ACTIVE or EXPIRED' access tokens for " +
-                    "user in store domain : " + userStoreDomain + " and tenant id : " + tenantId;
+                    "user in store domain : " + partitionStoreDomain + " and tenant id : " + tenantId;
             throw new IdentityOAuth2Exception(errorMsg, e);
         } finally {
             IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
         }
-
-        return new HashSet<>(accessTokenDOMap.values());
     }
 
     @Override
@@ -1469,7 +1935,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         // we do not support access token partitioning here
         currentUserStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(currentUserStoreDomain);
         newUserStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(newUserStoreDomain);
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         try {
 
@@ -1500,26 +1966,18 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      * @throws IdentityOAuth2Exception
      */
     @Override
-    public String getTokenIdByAccessToken(String token) throws IdentityOAuth2Exception {
+    public String getTokenIdByAccessToken(final String token) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-            log.debug("Retrieving id of access token(hashed): " + DigestUtils.sha256Hex(token));
+            log.debug("Retrieving id of access token(hashed): " + HashingUtil.sha256Hex(token));
         }
 
-        String tokenId = getTokenIdByAccessToken(token, IdentityUtil.getPrimaryDomainName());
-
-        if (tokenId == null && OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.
-                checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                tokenId = getTokenIdByAccessToken(token, availableDomainMapping.getKey());
-                if (tokenId != null) {
-                    break;
-                }
+        return PartitionedQueryExecutor.executeUntilFound(new PartitionedQueryExecutor.PartitionQuery<String>() {
+            @Override
+            public String execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                return getTokenIdByAccessToken(token, userStoreDomain);
             }
-        }
-
-        return tokenId;
+        });
     }
 
     /**
@@ -1532,7 +1990,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      */
     private String getTokenIdByAccessToken(String token, String userStoreDomain) throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
 
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
@@ -1541,6 +1999,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                     userStoreDomain);
 
             prepStmt = connection.prepareStatement(sql);
+            PartitionedQueryExecutor.applyQueryTimeout(prepStmt);
             prepStmt.setString(1, getHashingPersistenceProcessor().getProcessedAccessTokenIdentifier(token));
             resultSet = prepStmt.executeQuery();
 
@@ -1567,26 +2026,18 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      * @return
      * @throws IdentityOAuth2Exception
      */
-    private String getAccessTokenByTokenId(String tokenId) throws IdentityOAuth2Exception {
+    private String getAccessTokenByTokenId(final String tokenId) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled()) {
             log.debug("Retrieving access token by token id: " + tokenId);
         }
 
-        String token = getAccessTokenByTokenId(tokenId, IdentityUtil.getPrimaryDomainName());
-
-        if (token == null && OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.
-                checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                token = getAccessTokenByTokenId(tokenId, availableDomainMapping.getKey());
-                if (token != null) {
-                    break;
-                }
+        return PartitionedQueryExecutor.executeUntilFound(new PartitionedQueryExecutor.PartitionQuery<String>() {
+            @Override
+            public String execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                return getAccessTokenByTokenId(tokenId, userStoreDomain);
             }
-        }
-
-        return token;
+        });
     }
 
     /**
@@ -1599,7 +2050,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
      */
     private String getAccessTokenByTokenId(String tokenId, String userStoreDomain) throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         try {
@@ -1607,6 +2058,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
                     userStoreDomain);
 
             prepStmt = connection.prepareStatement(sql);
+            PartitionedQueryExecutor.applyQueryTimeout(prepStmt);
             prepStmt.setString(1, tokenId);
             resultSet = prepStmt.executeQuery();
 
@@ -1721,9 +2173,17 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
             cacheHit = true;
         }
 
-        // cache miss, load the access token info from the database.
+        // cache miss, load the access token info from the database unless the token is already known to be invalid.
         if (accessTokenDO == null) {
+            OAuthInvalidTokenCache invalidTokenCache = OAuthInvalidTokenCache.getInstance();
+            if (invalidTokenCache.isInvalidToken(accessTokenIdentifier)) {
+                throw new IllegalArgumentException("Invalid access token");
+            }
             accessTokenDO = getAccessToken(accessTokenIdentifier, false);
+            if (accessTokenDO == null) {
+                accessTokenDO = OAuth2Util.cacheInvalidAccessTokens(this, Collections.singleton(accessTokenIdentifier))
+                        .get(accessTokenIdentifier);
+            }
         }
 
         if (accessTokenDO == null) {
@@ -1774,7 +2234,7 @@ public class AccessTokenDAOImpl extends AbstractOAuthDAO implements AccessTokenD
         String userDomain = OAuth2Util.getSanitizedUserStoreDomain(authzUser.getUserStoreDomain());
         userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStoreDomain);
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         boolean sqlAltered = false;
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+
+/**
+ * Callback used to stream access tokens out of the database one at a time, without loading the complete result set
+ * into memory. The tokens are read page by page and no result set or connection is held open while the visitor is
+ * called, hence the visitor may update the tokens it is given.
+ */
+public interface AccessTokenVisitor {
+
+    /**
+     * Called once for each access token read from the database.
+     *
+     * @param accessTokenDO access token with all of its scopes
+     * @throws IdentityOAuth2Exception to stop the iteration
+     */
+    void visit(AccessTokenDO accessTokenDO) throws IdentityOAuth2Exception;
+}
@@ -43,6 +43,30 @@ public interface AuthorizationCodeDAO {
     AuthorizationCodeValidationResult validateAuthorizationCode(String consumerKey, String authorizationKey)
             throws IdentityOAuth2Exception;
 
+    /**
+     * Revokes the authorization code only if it is ACTIVE, with a single conditional update. When the same code is
+     * redeemed concurrently, only one of the calls returns true.
+     *
+     * @param consumerKey      consumer key of the client the code was issued to
+     * @param authorizationKey authorization code
+     * @return true if the code was ACTIVE and got revoked by this call
+     * @throws IdentityOAuth2Exception if an error occurs while revoking the authorization code
+     */
+    boolean revokeActiveAuthorizationCode(String consumerKey, String authorizationKey) throws IdentityOAuth2Exception;
+
+    /**
+     * Redeems the authorization code. The code is revoked if it is ACTIVE, as in
+     * {@link #revokeActiveAuthorizationCode(String, String)}, and then read with a single query.
+     *
+     * @param consumerKey      consumer key of the client the code was issued to
+     * @param authorizationKey authorization code
+     * @return validation result, with the code in the ACTIVE state if this call redeemed it, or in its persisted state
+     * otherwise. Null if the code does not exist
+     * @throws IdentityOAuth2Exception if an error occurs while redeeming the authorization code
+     */
+    AuthorizationCodeValidationResult redeemAuthorizationCode(String consumerKey, String authorizationKey)
+            throws IdentityOAuth2Exception;
+
     void updateAuthorizationCodeState(String authzCode, String newState) throws IdentityOAuth2Exception;
 
     void deactivateAuthorizationCode(AuthzCodeDO authzCodeDO) throws
@@ -51,6 +75,18 @@ public interface AuthorizationCodeDAO {
     Set<String> getAuthorizationCodesByUser(AuthenticatedUser authenticatedUser) throws
             IdentityOAuth2Exception;
 
+    /**
+     * Revokes all ACTIVE authorization codes of the given user in a single transaction. Only the codes read within
+     * the transaction are revoked, hence the returned codes are exactly the ones revoked by this call.
+     *
+     * @param authenticatedUser user whose authorization codes are revoked
+     * @return revoked authorization codes, with the code id, consumer key and the authorization code (only if hashing
+     * is disabled) populated
+     * @throws IdentityOAuth2Exception if an error occurs while revoking the authorization codes
+     */
+    List<AuthzCodeDO> revokeAuthorizationCodesOfUser(AuthenticatedUser authenticatedUser)
+            throws IdentityOAuth2Exception;
+
     Set<String> getAuthorizationCodesByConsumerKey(String consumerKey) throws IdentityOAuth2Exception;
 
     Set<String> getActiveAuthorizationCodesByConsumerKey(String consumerKey) throws IdentityOAuth2Exception;
@@ -20,7 +20,6 @@
 
 package org.wso2.carbon.identity.oauth2.dao;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
@@ -34,6 +33,7 @@ import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2TokenUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
@@ -45,7 +45,9 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 
@@ -73,14 +75,14 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Persisting authorization code (hashed): " + DigestUtils.sha256Hex(authzCode) + " for " +
+                log.debug("Persisting authorization code (hashed): " + HashingUtil.sha256Hex(authzCode) + " for " +
                         "client: " + consumerKey + " user: " + authzCodeDO.getAuthorizedUser().toString());
             } else {
                 log.debug("Persisting authorization code for client: " + consumerKey + " user: " + authzCodeDO
                         .getAuthorizedUser().toString());
             }
         }
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         String userDomain = authzCodeDO.getAuthorizedUser().getUserStoreDomain();
         String authenticatedIDP = authzCodeDO.getAuthorizedUser().getFederatedIdPName();
@@ -145,7 +147,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
     @Override
     public void deactivateAuthorizationCodes(List<AuthzCodeDO> authzCodeDOs) throws IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
 
         if (log.isDebugEnabled()) {
@@ -153,7 +155,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
                 StringBuilder stringBuilder = new StringBuilder();
                 for (AuthzCodeDO authzCodeDO : authzCodeDOs) {
                     stringBuilder.append("Deactivating authorization code(hashed): ")
-                            .append(DigestUtils.sha256Hex(authzCodeDO.getAuthorizationCode()))
+                            .append(HashingUtil.sha256Hex(authzCodeDO.getAuthorizationCode()))
                             .append(" client: ")
                             .append(authzCodeDO.getConsumerKey()).append(" user: ")
                             .append(authzCodeDO.getAuthorizedUser().toString())
@@ -197,13 +199,100 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Validating authorization code(hashed): " + DigestUtils.sha256Hex(authorizationKey)
+                log.debug("Validating authorization code(hashed): " + HashingUtil.sha256Hex(authorizationKey)
                         + " for client: " + consumerKey);
             } else {
                 log.debug("Validating authorization code for client: " + consumerKey);
             }
         }
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
+        try {
+            AuthorizationCodeValidationResult result = getAuthorizationCodeValidationResult(connection, consumerKey,
+                    authorizationKey);
+            connection.commit();
+            return result;
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error when validating an authorization code", e);
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public boolean revokeActiveAuthorizationCode(String consumerKey, String authorizationKey)
+            throws IdentityOAuth2Exception {
+
+        Connection connection = getConnection();
+        try {
+            boolean revoked = revokeActiveAuthorizationCode(connection, consumerKey, authorizationKey);
+            connection.commit();
+            return revoked;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw new IdentityOAuth2Exception("Error when redeeming an authorization code", e);
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    @Override
+    public AuthorizationCodeValidationResult redeemAuthorizationCode(String consumerKey, String authorizationKey)
+            throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
+                log.debug("Redeeming authorization code(hashed): " + HashingUtil.sha256Hex(authorizationKey)
+                        + " for client: " + consumerKey);
+            } else {
+                log.debug("Redeeming authorization code for client: " + consumerKey);
+            }
+        }
+        Connection connection = getConnection();
+        try {
+            boolean revoked = revokeActiveAuthorizationCode(connection, consumerKey, authorizationKey);
+            AuthorizationCodeValidationResult result = getAuthorizationCodeValidationResult(connection, consumerKey,
+                    authorizationKey);
+            connection.commit();
+            if (revoked && result != null) {
+                // The code was active until this request redeemed it.
+                result.getAuthzCodeDO().setState(OAuthConstants.AuthorizationCodeState.ACTIVE);
+            }
+            return result;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw new IdentityOAuth2Exception("Error when redeeming an authorization code", e);
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Revoke the authorization code only if it is ACTIVE, with a single conditional update. Of concurrent requests
+     * redeeming the same code, only one updates the row.
+     */
+    private boolean revokeActiveAuthorizationCode(Connection connection, String consumerKey, String authorizationKey)
+            throws SQLException, IdentityOAuth2Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(getRevokeActiveAuthzCodeSql(connection))) {
+            prepStmt.setString(1, getPersistenceProcessor().getProcessedClientId(consumerKey));
+            prepStmt.setString(2, getHashingPersistenceProcessor().getProcessedAuthzCode(authorizationKey));
+            return prepStmt.executeUpdate() == 1;
+        }
+    }
+
+    private String getRevokeActiveAuthzCodeSql(Connection connection) throws SQLException {
+
+        // Oracle, DB2, Informix and H2, which shares the MySQL query, do not support joins in UPDATE statements.
+        return getDialectSql(connection, SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE, SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE,
+                SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE_MSSQL, SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE_POSTGRESQL,
+                SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE, SQLQueries.REVOKE_ACTIVE_AUTHZ_CODE);
+    }
+
+    private AuthorizationCodeValidationResult getAuthorizationCodeValidationResult(Connection connection,
+                                                                                   String consumerKey,
+                                                                                   String authorizationKey)
+            throws SQLException, IdentityOAuth2Exception {
+
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         AuthorizationCodeValidationResult result = null;
@@ -308,17 +397,11 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
                 }
 
             }
-
-            connection.commit();
-
             return result;
-
-        } catch (SQLException e) {
-            throw new IdentityOAuth2Exception("Error when validating an authorization code", e);
         } finally {
-            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+            IdentityDatabaseUtil.closeResultSet(resultSet);
+            IdentityDatabaseUtil.closeStatement(prepStmt);
         }
-
     }
 
     @Override
@@ -326,7 +409,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Changing state of authorization code(hashed): " + DigestUtils.sha256Hex(authzCode)
+                log.debug("Changing state of authorization code(hashed): " + HashingUtil.sha256Hex(authzCode)
                         + " to: " + newState);
             } else {
                 log.debug("Changing state of authorization code  to: " + newState);
@@ -334,7 +417,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
         }
 
         String authCodeStoreTable = OAuthConstants.AUTHORIZATION_CODE_STORE_TABLE;
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         try {
             String sqlQuery = SQLQueries.UPDATE_AUTHORIZATION_CODE_STATE.replace(IDN_OAUTH2_AUTHORIZATION_CODE,
@@ -366,13 +449,13 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
         }
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-            log.debug("Deactivating authorization code(hashed): " + DigestUtils.sha256Hex(authzCodeDO
+            log.debug("Deactivating authorization code(hashed): " + HashingUtil.sha256Hex(authzCodeDO
                     .getAuthorizationCode()));
 
         }
 
         PreparedStatement prepStmt = null;
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         try {
             prepStmt = connection.prepareStatement(SQLQueries.DEACTIVATE_AUTHZ_CODE_AND_INSERT_CURRENT_TOKEN);
             prepStmt.setString(1, authzCodeDO.getOauthTokenId());
@@ -398,7 +481,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
             log.debug("Retrieving authorization codes of user: " + authenticatedUser.toString());
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         Set<String> authorizationCodes = new HashSet<>();
@@ -443,6 +526,99 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
         return authorizationCodes;
     }
 
+    @Override
+    public List<AuthzCodeDO> revokeAuthorizationCodesOfUser(AuthenticatedUser authenticatedUser)
+            throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Revoking all ACTIVE authorization codes of user: " + authenticatedUser.toString());
+        }
+
+        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(authenticatedUser.toString());
+        String userName = isUsernameCaseSensitive ? authenticatedUser.getUserName() :
+                authenticatedUser.getUserName().toLowerCase();
+        int tenantId = OAuth2Util.getTenantId(authenticatedUser.getTenantDomain());
+        String userDomain = OAuth2Util.getSanitizedUserStoreDomain(authenticatedUser.getUserStoreDomain());
+        String selectSql = SQLQueries.GET_ACTIVE_AUTHORIZATION_CODES_OF_USER;
+        if (!isUsernameCaseSensitive) {
+            selectSql = selectSql.replace(AUTHZ_USER, LOWER_AUTHZ_USER);
+        }
+
+        Connection connection = getConnection();
+        Map<String, AuthzCodeDO> revokedCodes = new LinkedHashMap<>();
+        try {
+            connection.setAutoCommit(false);
+            // Only the codes read here are revoked, hence the returned codes are exactly the revoked ones. Codes
+            // issued concurrently are picked up by the next round.
+            for (int round = 0; round < MAX_USER_REVOCATION_ROUNDS; round++) {
+                Map<String, AuthzCodeDO> codes = getActiveAuthorizationCodesOfUser(connection, selectSql, userName,
+                        tenantId, userDomain);
+                if (codes.isEmpty()) {
+                    break;
+                }
+                List<String> codeIds = new ArrayList<>(codes.keySet());
+                for (int from = 0; from < codeIds.size(); from += MAX_IN_LIST_SIZE) {
+                    List<String> chunk = codeIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, codeIds.size()));
+                    try (PreparedStatement ps = connection.prepareStatement(getInListSql(SQLQueries
+                            .REVOKE_AUTHORIZATION_CODES_BY_CODE_IDS, SQLQueries.ID_LIST_PLACEHOLDER, chunk.size()))) {
+                        ps.setString(1, OAuthConstants.AuthorizationCodeState.REVOKED);
+                        int parameterIndex = 2;
+                        for (String codeId : chunk) {
+                            ps.setString(parameterIndex++, codeId);
+                        }
+                        ps.executeUpdate();
+                    }
+                }
+                revokedCodes.putAll(codes);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Number of authorization codes revoked for user: " + authenticatedUser.toString() +
+                        " : " + revokedCodes.size());
+            }
+            connection.commit();
+
+            // To revoke the codes from Request Object table.
+            OAuth2TokenUtil.postRevokeCodes(new ArrayList<>(revokedCodes.values()),
+                    OAuthConstants.AuthorizationCodeState.REVOKED);
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw new IdentityOAuth2Exception("Error occurred while revoking authorization codes of user : " +
+                    authenticatedUser.toString(), e);
+        } catch (IdentityOAuth2Exception e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            throw e;
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+        return new ArrayList<>(revokedCodes.values());
+    }
+
+    private Map<String, AuthzCodeDO> getActiveAuthorizationCodesOfUser(Connection connection, String sql,
+                                                                       String userName, int tenantId,
+                                                                       String userDomain)
+            throws SQLException, IdentityOAuth2Exception {
+
+        Map<String, AuthzCodeDO> codes = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, userName);
+            ps.setInt(2, tenantId);
+            ps.setString(3, userDomain);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    AuthzCodeDO authzCodeDO = new AuthzCodeDO();
+                    authzCodeDO.setAuthzCodeId(rs.getString(1));
+                    if (isHashDisabled) {
+                        authzCodeDO.setAuthorizationCode(getPersistenceProcessor().getPreprocessedAuthzCode(
+                                rs.getString(2)));
+                    }
+                    authzCodeDO.setConsumerKey(rs.getString(3));
+                    codes.put(authzCodeDO.getAuthzCodeId(), authzCodeDO);
+                }
+            }
+        }
+        return codes;
+    }
+
     @Override
     public Set<String> getAuthorizationCodesByConsumerKey(String consumerKey) throws IdentityOAuth2Exception {
 
@@ -450,7 +626,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
             log.debug("Retrieving authorization codes for client: " + consumerKey);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         Set<String> authorizationCodes = new HashSet<>();
@@ -482,7 +658,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
             log.debug("Retrieving active authorization codes for client: " + consumerKey);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         Set<String> authorizationCodes = new HashSet<>();
@@ -515,7 +691,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
             log.debug("Retrieving latest authorization codes of tenant id: " + tenantId);
         }
         //we do not support access token partitioning here
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
 
@@ -563,7 +739,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
                     tenantId);
         }
         //we do not support access token partitioning here
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         ResultSet rs = null;
         String userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStorDomain);
@@ -612,7 +788,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
                     + " tenant id: " + tenantId + " in IDN_OAUTH2_AUTHORIZATION_CODE table");
         }
         //we do not support access token partitioning here
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         currentUserStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(currentUserStoreDomain);
         newUserStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(newUserStoreDomain);
@@ -641,7 +817,7 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
         if (log.isDebugEnabled()) {
             log.debug("Retrieving authorization code by code id: " + codeId);
         }
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
 
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
@@ -672,9 +848,9 @@ public class AuthorizationCodeDAOImpl extends AbstractOAuthDAO implements Author
     public String getCodeIdByAuthorizationCode(String authzCode) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-            log.debug("Retrieving id of authorization code(hashed): " + DigestUtils.sha256Hex(authzCode));
+            log.debug("Retrieving id of authorization code(hashed): " + HashingUtil.sha256Hex(authzCode));
         }
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
 
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
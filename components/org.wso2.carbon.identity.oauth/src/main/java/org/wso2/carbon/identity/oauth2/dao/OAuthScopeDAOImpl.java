@@ -518,7 +518,7 @@ public class OAuthScopeDAOImpl implements OAuthScopeDAO {
             log.debug("Retrieving bindings of scope: " + scopeName + " tenant id: " + tenantId);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = ReadReplicaRouter.getReadOnlyConnection();
 
         PreparedStatement ps = null;
         ResultSet rs = null;
@@ -576,7 +576,7 @@ public class OAuthScopeDAOImpl implements OAuthScopeDAO {
             log.debug("Retrieving bindings of scope: " + scopeName);
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = ReadReplicaRouter.getReadOnlyConnection();
 
         PreparedStatement ps = null;
         ResultSet rs = null;
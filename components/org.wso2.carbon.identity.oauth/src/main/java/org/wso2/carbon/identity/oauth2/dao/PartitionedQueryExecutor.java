@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a query against every partitioned access token table at the same time. When access token partitioning is
+ * disabled, or a {@link UnitOfWork} is active on the calling thread, the query is run against each table in turn, in
+ * the calling thread.
+ * <p>
+ * Queries run on a bounded pool, with the tenant of the calling thread. When all the pool threads are busy, the
+ * partition query runs in the calling thread instead of waiting in a queue, hence a query started from a pool thread
+ * can never dead lock the pool.
+ * <p>
+ * Partition queries should pass their statements to {@link #applyQueryTimeout(Statement)}, which sets the configured
+ * query timeout on the statement and cancels it if the query of another partition fails.
+ */
+public class PartitionedQueryExecutor {
+
+    private static final Log log = LogFactory.getLog(PartitionedQueryExecutor.class);
+
+    // These config properties are defined in identity.xml
+    private static final String OAUTH_PARTITIONED_QUERY_POOL_SIZE = "OAuth.TokenPartitioning.QueryPoolSize";
+    private static final String OAUTH_PARTITIONED_QUERY_TIMEOUT = "OAuth.TokenPartitioning.QueryTimeout";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_QUERY_TIMEOUT = 30000;
+
+    private static ThreadPoolExecutor threadPool;
+
+    private static final ThreadLocal<PartitionTask<?>> currentTask = new ThreadLocal<>();
+
+    private PartitionedQueryExecutor() {
+
+    }
+
+    /**
+     * Query run against a single access token partition.
+     *
+     * @param <T> type of the query result
+     */
+    public interface PartitionQuery<T> {
+
+        /**
+         * @param userStoreDomain user store domain which resolves to the partitioned access token table
+         * @return query result of the partition
+         * @throws IdentityOAuth2Exception if an error occurs while querying the partition
+         */
+        T execute(String userStoreDomain) throws IdentityOAuth2Exception;
+    }
+
+    /**
+     * Run the query against the primary table and all the partitioned tables at the same time.
+     *
+     * @param query query to run
+     * @param <T>   type of the query result
+     * @return query results, in the order of the partitions, starting from the primary table
+     * @throws IdentityOAuth2Exception if the query fails or times out on any of the partitions
+     */
+    public static <T> List<T> executeOnAllPartitions(PartitionQuery<T> query) throws IdentityOAuth2Exception {
+
+        return execute(query, getPartitions());
+    }
+
+    /**
+     * Run the query against the primary table first, and if it returns null, against all the partitioned tables at
+     * the same time.
+     *
+     * @param query query to run
+     * @param <T>   type of the query result
+     * @return first non null result, in the order of the partitions, or null if no partition returned a result
+     * @throws IdentityOAuth2Exception if the query fails or times out on any of the partitions
+     */
+    public static <T> T executeUntilFound(PartitionQuery<T> query) throws IdentityOAuth2Exception {
+
+        List<String> partitions = getPartitions();
+        T result = query.execute(partitions.get(0));
+        if (result != null || partitions.size() == 1) {
+            return result;
+        }
+        for (T partitionResult : execute(query, partitions.subList(1, partitions.size()))) {
+            if (partitionResult != null) {
+                return partitionResult;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Set the configured query timeout on a statement of a partition query. If the statement runs in a pool thread,
+     * it is cancelled when the query of another partition fails.
+     *
+     * @param statement statement about to be executed
+     * @throws SQLException if the timeout can not be set, or the partition query was already cancelled
+     */
+    public static void applyQueryTimeout(Statement statement) throws SQLException {
+
+        long timeoutMillis = OAuth2ConfigUtil.getLongProperty(OAUTH_PARTITIONED_QUERY_TIMEOUT, 1,
+                DEFAULT_QUERY_TIMEOUT);
+        statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+        PartitionTask<?> task = currentTask.get();
+        if (task != null) {
+            task.setStatement(statement);
+        }
+    }
+
+    /**
+     * Stop the query pool. Queries started afterwards run in the calling thread.
+     */
+    public static synchronized void shutdown() {
+
+        if (threadPool != null) {
+            threadPool.shutdownNow();
+            threadPool = null;
+        }
+    }
+
+    private static <T> List<T> execute(PartitionQuery<T> query, List<String> partitions)
+            throws IdentityOAuth2Exception {
+
+        List<T> results = new ArrayList<>(partitions.size());
+        if (partitions.size() == 1 || UnitOfWork.isActive()) {
+            // The connection of a unit of work can not be shared with other threads.
+            for (String userStoreDomain : partitions) {
+                results.add(query.execute(userStoreDomain));
+            }
+            return results;
+        }
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        ThreadPoolExecutor executor = getThreadPool();
+        List<PartitionTask<T>> tasks = new ArrayList<>(partitions.size());
+        List<Future<T>> futures = new ArrayList<>(partitions.size());
+        boolean completed = false;
+        try {
+            for (String userStoreDomain : partitions) {
+                PartitionTask<T> task = new PartitionTask<>(query, userStoreDomain, carbonContext.getTenantDomain(),
+                        carbonContext.getTenantId());
+                tasks.add(task);
+                futures.add(executor.submit(task));
+            }
+            // Each statement is bounded by its own query timeout, hence there is no overall deadline here.
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IdentityOAuth2Exception) {
+                        throw (IdentityOAuth2Exception) e.getCause();
+                    }
+                    throw new IdentityOAuth2Exception("Error while querying the access token partition of user " +
+                            "store domain: " + partitions.get(i), e.getCause());
+                }
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityOAuth2Exception("Interrupted while querying the access token partitions", e);
+        } finally {
+            if (!completed) {
+                // Interrupting a pool thread does not stop a running JDBC statement, so cancel the statements too.
+                for (PartitionTask<T> task : tasks) {
+                    task.cancel();
+                }
+                for (Future<T> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<String> getPartitions() throws IdentityOAuth2Exception {
+
+        List<String> partitions = new ArrayList<>();
+        partitions.add(IdentityUtil.getPrimaryDomainName());
+        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
+            partitions.addAll(OAuth2Util.getAvailableUserStoreDomainMappings().keySet());
+        }
+        return partitions;
+    }
+
+    private static synchronized ThreadPoolExecutor getThreadPool() {
+
+        if (threadPool == null) {
+            int poolSize = OAuth2ConfigUtil.getIntProperty(OAUTH_PARTITIONED_QUERY_POOL_SIZE, 1, DEFAULT_POOL_SIZE);
+            if (log.isDebugEnabled()) {
+                log.debug("Partitioned access token query pool size: " + poolSize);
+            }
+            final AtomicInteger threadCount = new AtomicInteger();
+            threadPool = new ThreadPoolExecutor(0, poolSize, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "OAuthPartitionedQuery-" +
+                                    threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    }, new RejectedExecutionHandler() {
+                        @Override
+                        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                            // Unlike CallerRunsPolicy, runs the query even after the pool is shut down.
+                            runnable.run();
+                        }
+                    });
+        }
+        return threadPool;
+    }
+
+    /**
+     * Partition query run on a pool thread, with the tenant of the thread which started it.
+     */
+    private static class PartitionTask<T> implements Callable<T> {
+
+        private final PartitionQuery<T> query;
+        private final String userStoreDomain;
+        private final String tenantDomain;
+        private final int tenantId;
+        private volatile Statement statement;
+        private volatile boolean cancelled;
+
+        PartitionTask(PartitionQuery<T> query, String userStoreDomain, String tenantDomain, int tenantId) {
+
+            this.query = query;
+            this.userStoreDomain = userStoreDomain;
+            this.tenantDomain = tenantDomain;
+            this.tenantId = tenantId;
+        }
+
+        @Override
+        public T call() throws Exception {
+
+            PartitionTask<?> previousTask = currentTask.get();
+            currentTask.set(this);
+            PrivilegedCarbonContext.startTenantFlow();
+            try {
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+                return query.execute(userStoreDomain);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+                statement = null;
+                if (previousTask == null) {
+                    currentTask.remove();
+                } else {
+                    currentTask.set(previousTask);
+                }
+            }
+        }
+
+        void setStatement(Statement statement) throws SQLException {
+
+            if (cancelled) {
+                throw new SQLException("Query of the access token partition of user store domain: " +
+                        userStoreDomain + " was cancelled");
+            }
+            this.statement = statement;
+        }
+
+        void cancel() {
+
+            cancelled = true;
+            Statement runningStatement = statement;
+            if (runningStatement == null) {
+                return;
+            }
+            try {
+                if (!runningStatement.isClosed()) {
+                    runningStatement.cancel();
+                }
+            } catch (SQLException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while cancelling the query of the access token partition of user store " +
+                            "domain: " + userStoreDomain, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+
+/**
+ * Routes read only queries to a read replica of the identity database, while writes stay on the primary datasource.
+ * <p>
+ * The replica is enabled by setting the JNDI name of its datasource in identity.xml.
+ * <pre>
+ * &lt;OAuth&gt;
+ *     &lt;ReadReplica&gt;
+ *         &lt;DataSource&gt;jdbc/WSO2IdentityReplicaDB&lt;/DataSource&gt;
+ *         &lt;PrimaryFallback&gt;true&lt;/PrimaryFallback&gt;
+ *     &lt;/ReadReplica&gt;
+ * &lt;/OAuth&gt;
+ * </pre>
+ * A replica may lag behind the primary, so a token which was just issued may not be found on it yet. When the primary
+ * fallback is enabled, which is the default, DAO methods repeat a lookup that found nothing on the primary. Even when
+ * it is disabled, a token is only remembered as invalid once it is not found on the primary either.
+ * <p>
+ * Queries run in a {@link UnitOfWork} always use the primary, so that they see the changes of the unit of work.
+ */
+public class ReadReplicaRouter {
+
+    private static final Log log = LogFactory.getLog(ReadReplicaRouter.class);
+
+    // These config properties are defined in identity.xml
+    private static final String OAUTH_READ_REPLICA_DATASOURCE = "OAuth.ReadReplica.DataSource";
+    private static final String OAUTH_READ_REPLICA_PRIMARY_FALLBACK = "OAuth.ReadReplica.PrimaryFallback";
+
+    private static volatile DataSource replicaDataSource;
+    private static volatile boolean initialized;
+
+    private ReadReplicaRouter() {
+
+    }
+
+    /**
+     * Get a connection for a read only query. Returns a connection to the read replica if one is configured and no
+     * unit of work is active on the current thread, or a connection to the primary otherwise.
+     *
+     * @return database connection, which the caller should close as usual
+     */
+    public static Connection getReadOnlyConnection() {
+
+        if (UnitOfWork.isActive()) {
+            return UnitOfWork.getConnection();
+        }
+        DataSource dataSource = getReplicaDataSource();
+        if (dataSource == null) {
+            return IdentityDatabaseUtil.getDBConnection();
+        }
+
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            // Read only DAO methods commit their connection as the ones on the primary do.
+            connection.setAutoCommit(false);
+            return connection;
+        } catch (SQLException e) {
+            log.error("Error while getting a connection to the read replica. Using the primary datasource.", e);
+            IdentityDatabaseUtil.closeConnection(connection);
+            return IdentityDatabaseUtil.getDBConnection();
+        }
+    }
+
+    /**
+     * Check whether read only queries of the current thread go to the read replica.
+     *
+     * @return true if a read replica is configured and no unit of work is active on the current thread
+     */
+    public static boolean isReplicaInUse() {
+
+        return !UnitOfWork.isActive() && getReplicaDataSource() != null;
+    }
+
+    /**
+     * Check whether a lookup which found nothing on the read replica should be repeated on the primary.
+     *
+     * @return true if read only queries of the current thread go to the replica and the primary fallback is enabled
+     */
+    public static boolean isPrimaryFallbackEnabled() {
+
+        if (UnitOfWork.isActive() || getReplicaDataSource() == null) {
+            return false;
+        }
+        String primaryFallback = IdentityUtil.getProperty(OAUTH_READ_REPLICA_PRIMARY_FALLBACK);
+        return StringUtils.isBlank(primaryFallback) || Boolean.parseBoolean(primaryFallback);
+    }
+
+    /**
+     * Set the datasource of the read replica, instead of looking it up from the configured JNDI name. Setting null
+     * routes all queries to the primary.
+     *
+     * @param dataSource datasource of the read replica
+     */
+    static void setReplicaDataSource(DataSource dataSource) {
+
+        replicaDataSource = dataSource;
+        initialized = true;
+    }
+
+    private static DataSource getReplicaDataSource() {
+
+        if (!initialized) {
+            synchronized (ReadReplicaRouter.class) {
+                if (!initialized) {
+                    replicaDataSource = lookupReplicaDataSource();
+                    initialized = true;
+                }
+            }
+        }
+        return replicaDataSource;
+    }
+
+    private static DataSource lookupReplicaDataSource() {
+
+        String dataSourceName = IdentityUtil.getProperty(OAUTH_READ_REPLICA_DATASOURCE);
+        if (StringUtils.isBlank(dataSourceName)) {
+            return null;
+        }
+        try {
+            DataSource dataSource = (DataSource) new InitialContext().lookup(dataSourceName.trim());
+            if (log.isDebugEnabled()) {
+                log.debug("Read only queries are routed to the read replica: " + dataSourceName);
+            }
+            return dataSource;
+        } catch (NamingException e) {
+            log.error("Error while looking up the read replica datasource: " + dataSourceName + ". Read only " +
+                    "queries are routed to the primary datasource.", e);
+            return null;
+        }
+    }
+}
@@ -142,6 +142,23 @@ public class SQLQueries {
                     +"JOIN IDN_OAUTH_CONSUMER_APPS ON CONSUMER_KEY_ID = ID) ACCESS_TOKEN_TABLE"
                     +" LEFT JOIN IDN_OAUTH2_ACCESS_TOKEN_SCOPE ON ACCESS_TOKEN_TABLE.TOKEN_ID = IDN_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID";
 
+    public static final String ACCESS_TOKEN_HASH_LIST_PLACEHOLDER = "$accessTokenHashes";
+
+    public static final String RETRIEVE_ACTIVE_ACCESS_TOKENS_BY_HASHES =
+            "SELECT CONSUMER_KEY, AUTHZ_USER, ACCESS_TOKEN_TABLE.TENANT_ID, "
+                    + "USER_DOMAIN, TOKEN_SCOPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, "
+                    + "REFRESH_TOKEN_VALIDITY_PERIOD, USER_TYPE, REFRESH_TOKEN, ACCESS_TOKEN_TABLE.TOKEN_ID, "
+                    + "GRANT_TYPE, SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH FROM (SELECT TOKEN_ID, CONSUMER_KEY, "
+                    + "AUTHZ_USER, IDN_OAUTH2_ACCESS_TOKEN.TENANT_ID AS TENANT_ID, "
+                    + "IDN_OAUTH2_ACCESS_TOKEN.USER_DOMAIN AS USER_DOMAIN, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, "
+                    + "VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, USER_TYPE, REFRESH_TOKEN, "
+                    + "IDN_OAUTH2_ACCESS_TOKEN.GRANT_TYPE AS GRANT_TYPE, SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH "
+                    + "FROM (SELECT * FROM IDN_OAUTH2_ACCESS_TOKEN WHERE ACCESS_TOKEN_HASH IN ("
+                    + ACCESS_TOKEN_HASH_LIST_PLACEHOLDER + ") AND TOKEN_STATE='ACTIVE') IDN_OAUTH2_ACCESS_TOKEN "
+                    + "JOIN IDN_OAUTH_CONSUMER_APPS ON CONSUMER_KEY_ID = ID) ACCESS_TOKEN_TABLE "
+                    + "LEFT JOIN IDN_OAUTH2_ACCESS_TOKEN_SCOPE ON ACCESS_TOKEN_TABLE.TOKEN_ID = "
+                    + "IDN_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID";
+
 //    public static final String RETRIEVE_ACTIVE_ACCESS_TOKEN = "SELECT CONSUMER_KEY, AUTHZ_USER, ACCESS_TOKEN_TABLE" +
 //            ".TENANT_ID, USER_DOMAIN, TOKEN_SCOPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, " +
 //            "REFRESH_TOKEN_VALIDITY_PERIOD, USER_TYPE, REFRESH_TOKEN, ACCESS_TOKEN_TABLE.TOKEN_ID, GRANT_TYPE, SUBJECT_IDENTIFIER FROM (SELECT " +
@@ -182,6 +199,20 @@ public class SQLQueries {
     public static final String GET_ACCESS_TOKEN_BY_AUTHZUSER = "SELECT DISTINCT ACCESS_TOKEN " +
             "FROM IDN_OAUTH2_ACCESS_TOKEN WHERE AUTHZ_USER=? AND TENANT_ID=? AND TOKEN_STATE=? AND USER_DOMAIN=?";
 
+    public static final String GET_ACTIVE_EXPIRED_ACCESS_TOKENS_OF_USER = "SELECT IDN_OAUTH2_ACCESS_TOKEN.TOKEN_ID, " +
+            "ACCESS_TOKEN, CONSUMER_KEY, TOKEN_SCOPE FROM IDN_OAUTH2_ACCESS_TOKEN JOIN IDN_OAUTH_CONSUMER_APPS ON " +
+            "IDN_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = IDN_OAUTH_CONSUMER_APPS.ID LEFT JOIN " +
+            "IDN_OAUTH2_ACCESS_TOKEN_SCOPE ON IDN_OAUTH2_ACCESS_TOKEN.TOKEN_ID = " +
+            "IDN_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID WHERE AUTHZ_USER=? AND IDN_OAUTH2_ACCESS_TOKEN.TENANT_ID=? AND " +
+            "IDN_OAUTH2_ACCESS_TOKEN.USER_DOMAIN=? AND (TOKEN_STATE='ACTIVE' OR TOKEN_STATE='EXPIRED')";
+
+    public static final String ID_LIST_PLACEHOLDER = "$ids";
+
+    // TOKEN_STATE_ID is set to the TOKEN_ID to keep the CON_APP_KEY constraint unique for every revoked token.
+    public static final String REVOKE_ACCESS_TOKENS_BY_TOKEN_IDS = "UPDATE IDN_OAUTH2_ACCESS_TOKEN SET " +
+            "TOKEN_STATE=?, TOKEN_STATE_ID=TOKEN_ID WHERE TOKEN_ID IN (" + ID_LIST_PLACEHOLDER + ") AND " +
+            "(TOKEN_STATE='ACTIVE' OR TOKEN_STATE='EXPIRED')";
+
     public static final String GET_ACCESS_TOKENS_FOR_CONSUMER_KEY = "SELECT ACCESS_TOKEN FROM IDN_OAUTH2_ACCESS_TOKEN" +
             " WHERE CONSUMER_KEY_ID IN (SELECT ID FROM IDN_OAUTH_CONSUMER_APPS WHERE CONSUMER_KEY = ? ) AND " +
             "TOKEN_STATE=?";
@@ -207,10 +238,30 @@ public class SQLQueries {
     public static final String UPDATE_AUTHORIZATION_CODE_STATE = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET STATE=? " +
             "WHERE AUTHORIZATION_CODE_HASH=?";
 
+    public static final String REVOKE_ACTIVE_AUTHZ_CODE = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET STATE='REVOKED' " +
+            "WHERE CONSUMER_KEY_ID = (SELECT ID FROM IDN_OAUTH_CONSUMER_APPS WHERE CONSUMER_KEY = ?) AND " +
+            "AUTHORIZATION_CODE_HASH = ? AND STATE='ACTIVE'";
+
+    public static final String REVOKE_ACTIVE_AUTHZ_CODE_MSSQL = "UPDATE CODE SET CODE.STATE='REVOKED' FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE CODE INNER JOIN IDN_OAUTH_CONSUMER_APPS APP ON CODE.CONSUMER_KEY_ID = " +
+            "APP.ID WHERE APP.CONSUMER_KEY = ? AND CODE.AUTHORIZATION_CODE_HASH = ? AND CODE.STATE='ACTIVE'";
+
+    public static final String REVOKE_ACTIVE_AUTHZ_CODE_POSTGRESQL = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE CODE SET " +
+            "STATE='REVOKED' FROM IDN_OAUTH_CONSUMER_APPS APP WHERE CODE.CONSUMER_KEY_ID = APP.ID AND " +
+            "APP.CONSUMER_KEY = ? AND CODE.AUTHORIZATION_CODE_HASH = ? AND CODE.STATE='ACTIVE'";
+
     public static final String GET_AUTHORIZATION_CODES_BY_AUTHZUSER = "SELECT DISTINCT AUTHORIZATION_CODE, " +
             "TIME_CREATED, VALIDITY_PERIOD " +
             " FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE AUTHZ_USER=? AND TENANT_ID=? AND USER_DOMAIN=? AND STATE=?";
 
+    public static final String GET_ACTIVE_AUTHORIZATION_CODES_OF_USER = "SELECT CODE_ID, AUTHORIZATION_CODE, " +
+            "CONSUMER_KEY FROM IDN_OAUTH2_AUTHORIZATION_CODE JOIN IDN_OAUTH_CONSUMER_APPS ON CONSUMER_KEY_ID = ID " +
+            "WHERE AUTHZ_USER=? AND IDN_OAUTH2_AUTHORIZATION_CODE.TENANT_ID=? AND " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE.USER_DOMAIN=? AND STATE='ACTIVE'";
+
+    public static final String REVOKE_AUTHORIZATION_CODES_BY_CODE_IDS = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET " +
+            "STATE=? WHERE CODE_ID IN (" + ID_LIST_PLACEHOLDER + ") AND STATE='ACTIVE'";
+
     public static final String GET_DISTINCT_APPS_AUTHORIZED_BY_USER_ALL_TIME = "SELECT DISTINCT CONSUMER_KEY FROM " +
             "IDN_OAUTH2_ACCESS_TOKEN JOIN IDN_OAUTH_CONSUMER_APPS ON CONSUMER_KEY_ID = " +
             "ID WHERE AUTHZ_USER=? AND IDN_OAUTH2_ACCESS_TOKEN.TENANT_ID=? AND IDN_OAUTH2_ACCESS_TOKEN.USER_DOMAIN=? " +
@@ -321,6 +372,18 @@ public class SQLQueries {
             "IDN_OAUTH_CONSUMER_APPS ON ID = CONSUMER_KEY_ID LEFT JOIN IDN_OAUTH2_ACCESS_TOKEN_SCOPE ON " +
             "ACCESS_TOKEN_TABLE.TOKEN_ID = IDN_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID";
 
+    public static final String LIST_ALL_TOKENS_IN_TENANT_ORDERED_BY_TOKEN_ID = LIST_ALL_TOKENS_IN_TENANT +
+            " ORDER BY ACCESS_TOKEN_TABLE.TOKEN_ID";
+
+    public static final String LIST_ALL_TOKENS_IN_USER_STORE_ORDERED_BY_TOKEN_ID = LIST_ALL_TOKENS_IN_USER_STORE +
+            " ORDER BY ACCESS_TOKEN_TABLE.TOKEN_ID";
+
+    public static final String LIST_ALL_TOKENS_IN_TENANT_AFTER_TOKEN_ID = LIST_ALL_TOKENS_IN_TENANT +
+            " WHERE ACCESS_TOKEN_TABLE.TOKEN_ID > ? ORDER BY ACCESS_TOKEN_TABLE.TOKEN_ID";
+
+    public static final String LIST_ALL_TOKENS_IN_USER_STORE_AFTER_TOKEN_ID = LIST_ALL_TOKENS_IN_USER_STORE +
+            " WHERE ACCESS_TOKEN_TABLE.TOKEN_ID > ? ORDER BY ACCESS_TOKEN_TABLE.TOKEN_ID";
+
     public static final String LIST_LATEST_AUTHZ_CODES_IN_USER_DOMAIN = "SELECT CODE_ID, AUTHORIZATION_CODE, " +
             "CONSUMER_KEY, IDN_OAUTH2_AUTHORIZATION_CODE.AUTHZ_USER, IDN_OAUTH2_AUTHORIZATION_CODE.SCOPE, " +
             "TIME_CREATED, VALIDITY_PERIOD, IDN_OAUTH2_AUTHORIZATION_CODE.CALLBACK_URL FROM (SELECT " +
@@ -559,6 +622,101 @@ public class SQLQueries {
                     "LEFT JOIN IDN_OAUTH2_SCOPE_BINDING SCOPEBINDINGS ON SCOPES.SCOPE_ID=SCOPEBINDINGS.SCOPE_ID " +
                     "WHERE SCOPES.NAME = ? AND TENANT_ID = ?";
 
+    // The purge chunk size is a validated integer written into the purge queries, since not all databases accept
+    // a bind parameter as the row limit.
+    public static final String PURGE_CHUNK_SIZE_PLACEHOLDER = "$chunkSize";
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_MYSQL = "SELECT TOKEN_ID, TOKEN_STATE, " +
+            "REFRESH_TOKEN_TIME_CREATED, REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN WHERE " +
+            "TOKEN_STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY " +
+            "TOKEN_ID LIMIT " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_DB2SQL = "SELECT TOKEN_ID, TOKEN_STATE, " +
+            "REFRESH_TOKEN_TIME_CREATED, REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN WHERE " +
+            "TOKEN_STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY " +
+            "TOKEN_ID FETCH FIRST " + PURGE_CHUNK_SIZE_PLACEHOLDER + " ROWS ONLY";
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_MSSQL = "SELECT TOP (" +
+            PURGE_CHUNK_SIZE_PLACEHOLDER + ") TOKEN_ID, TOKEN_STATE, REFRESH_TOKEN_TIME_CREATED, " +
+            "REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_STATE IN " +
+            "('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY TOKEN_ID";
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_POSTGRESQL = "SELECT TOKEN_ID, TOKEN_STATE, " +
+            "REFRESH_TOKEN_TIME_CREATED, REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN WHERE " +
+            "TOKEN_STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY " +
+            "TOKEN_ID LIMIT " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_INFORMIX = "SELECT FIRST " +
+            PURGE_CHUNK_SIZE_PLACEHOLDER + " TOKEN_ID, TOKEN_STATE, REFRESH_TOKEN_TIME_CREATED, " +
+            "REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_STATE IN " +
+            "('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY TOKEN_ID";
+
+    public static final String RETRIEVE_PURGEABLE_ACCESS_TOKENS_ORACLE = "SELECT * FROM (SELECT TOKEN_ID, " +
+            "TOKEN_STATE, REFRESH_TOKEN_TIME_CREATED, REFRESH_TOKEN_VALIDITY_PERIOD FROM IDN_OAUTH2_ACCESS_TOKEN " +
+            "WHERE TOKEN_STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND TOKEN_ID > ? ORDER BY " +
+            "TOKEN_ID) WHERE ROWNUM <= " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_MYSQL = "SELECT CODE_ID FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND " +
+            "CODE_ID > ? ORDER BY CODE_ID LIMIT " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_DB2SQL = "SELECT CODE_ID FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND " +
+            "CODE_ID > ? ORDER BY CODE_ID FETCH FIRST " + PURGE_CHUNK_SIZE_PLACEHOLDER + " ROWS ONLY";
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_MSSQL = "SELECT TOP (" +
+            PURGE_CHUNK_SIZE_PLACEHOLDER + ") CODE_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN " +
+            "('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND CODE_ID > ? ORDER BY CODE_ID";
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_POSTGRESQL = "SELECT CODE_ID FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND " +
+            "CODE_ID > ? ORDER BY CODE_ID LIMIT " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_INFORMIX = "SELECT FIRST " +
+            PURGE_CHUNK_SIZE_PLACEHOLDER + " CODE_ID FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN " +
+            "('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND CODE_ID > ? ORDER BY CODE_ID";
+
+    public static final String RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_ORACLE = "SELECT * FROM (SELECT CODE_ID FROM " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE WHERE STATE IN ('EXPIRED','INACTIVE','REVOKED') AND TIME_CREATED < ? AND " +
+            "CODE_ID > ? ORDER BY CODE_ID) WHERE ROWNUM <= " + PURGE_CHUNK_SIZE_PLACEHOLDER;
+
+    private static final String ACCESS_TOKEN_ARCHIVE_COLUMNS = "TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, " +
+            "CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, USER_TYPE, GRANT_TYPE, TIME_CREATED, " +
+            "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, " +
+            "TOKEN_STATE, TOKEN_STATE_ID, SUBJECT_IDENTIFIER, ACCESS_TOKEN_HASH, REFRESH_TOKEN_HASH";
+
+    private static final String AUTHORIZATION_CODE_ARCHIVE_COLUMNS = "CODE_ID, AUTHORIZATION_CODE, " +
+            "CONSUMER_KEY_ID, CALLBACK_URL, SCOPE, AUTHZ_USER, TENANT_ID, USER_DOMAIN, TIME_CREATED, " +
+            "VALIDITY_PERIOD, STATE, TOKEN_ID, SUBJECT_IDENTIFIER, PKCE_CODE_CHALLENGE, PKCE_CODE_CHALLENGE_METHOD, " +
+            "AUTHORIZATION_CODE_HASH";
+
+    public static final String ARCHIVE_OAUTH2_TOKEN_SCOPE_BY_TOKEN_ID = "INSERT INTO " +
+            "IDN_OAUTH2_ACCESS_TOKEN_SCOPE_ARCHIVE (TOKEN_ID, TOKEN_SCOPE, TENANT_ID) SELECT TOKEN_ID, TOKEN_SCOPE, " +
+            "TENANT_ID FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE WHERE TOKEN_ID = ?";
+
+    public static final String ARCHIVE_OAUTH2_ACCESS_TOKEN_BY_TOKEN_ID = "INSERT INTO " +
+            "IDN_OAUTH2_ACCESS_TOKEN_ARCHIVE (" + ACCESS_TOKEN_ARCHIVE_COLUMNS + ") SELECT " +
+            ACCESS_TOKEN_ARCHIVE_COLUMNS + " FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID = ?";
+
+    public static final String ARCHIVE_AUTHORIZATION_CODE_BY_CODE_ID = "INSERT INTO " +
+            "IDN_OAUTH2_AUTHORIZATION_CODE_ARCHIVE (" + AUTHORIZATION_CODE_ARCHIVE_COLUMNS + ") SELECT " +
+            AUTHORIZATION_CODE_ARCHIVE_COLUMNS + " FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?";
+
+    public static final String DELETE_OAUTH2_TOKEN_SCOPE_BY_TOKEN_ID = "DELETE FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE " +
+            "WHERE TOKEN_ID = ?";
+
+    public static final String DELETE_OAUTH2_ACCESS_TOKEN_BY_TOKEN_ID = "DELETE FROM IDN_OAUTH2_ACCESS_TOKEN WHERE " +
+            "TOKEN_ID = ?";
+
+    public static final String DELETE_AUTHORIZATION_CODE_BY_CODE_ID = "DELETE FROM IDN_OAUTH2_AUTHORIZATION_CODE " +
+            "WHERE CODE_ID = ?";
+
+    public static final String LOCK_CONSUMER_APP_FOR_TOKEN_ISSUANCE = "SELECT ID FROM IDN_OAUTH_CONSUMER_APPS WHERE " +
+            "CONSUMER_KEY = ? FOR UPDATE";
+
+    public static final String LOCK_CONSUMER_APP_FOR_TOKEN_ISSUANCE_MSSQL = "SELECT ID FROM IDN_OAUTH_CONSUMER_APPS " +
+            "WITH (UPDLOCK, ROWLOCK) WHERE CONSUMER_KEY = ?";
+
     private SQLQueries() {
 
     }
@@ -20,7 +20,6 @@
 
 package org.wso2.carbon.identity.oauth2.dao;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.logging.Log;
@@ -37,6 +36,7 @@ import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.Oauth2ScopeConstants;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
 import java.sql.Connection;
@@ -47,7 +47,6 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
@@ -89,7 +88,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.REFRESH_TOKEN)) {
-                log.debug("Validating refresh token(hashed): " + DigestUtils.sha256Hex(refreshToken) + " client: " +
+                log.debug("Validating refresh token(hashed): " + HashingUtil.sha256Hex(refreshToken) + " client: " +
                         consumerKey);
             } else {
                 log.debug("Validating refresh token for client: " + consumerKey);
@@ -97,7 +96,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
         }
 
         RefreshTokenValidationDataDO validationDataDO = new RefreshTokenValidationDataDO();
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement prepStmt = null;
         ResultSet resultSet = null;
         String sql;
@@ -210,7 +209,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
             log.debug("Retrieving tenant and scope for resource: " + resourceUri);
         }
         String sql;
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+        try (Connection connection = getConnection()) {
 
             if (connection.getMetaData().getDriverName().contains(Oauth2ScopeConstants.DataBaseType.ORACLE)) {
                 sql = SQLQueries.RETRIEVE_SCOPE_WITH_TENANT_FOR_RESOURCE_ORACLE;
@@ -259,7 +258,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
             return;
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
 
         try {
@@ -303,7 +302,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
             return;
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
 
         try {
@@ -351,7 +350,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
             return;
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
 
         try {
@@ -399,7 +398,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
         PreparedStatement revokeActiveTokensStatement = null;
         PreparedStatement deactivateActiveCodesStatement = null;
         try {
-            connection = IdentityDatabaseUtil.getDBConnection();
+            connection = getConnection();
             connection.setAutoCommit(false);
             if (OAuthConstants.ACTION_REVOKE.equals(action)) {
                 String newAppState;
@@ -495,7 +494,8 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
      * @throws IdentityOAuth2Exception
      */
     @Override
-    public void revokeSaaSTokensOfOtherTenants(String consumerKey, int tenantId) throws IdentityOAuth2Exception {
+    public void revokeSaaSTokensOfOtherTenants(final String consumerKey, final int tenantId)
+            throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled()) {
             log.debug("Revoking access tokens of client: " + consumerKey + " tenant id: " + tenantId + " issued for " +
@@ -507,14 +507,13 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
             return;
         }
 
-        revokeSaaSTokensOfOtherTenants(consumerKey, IdentityUtil.getPrimaryDomainName(), tenantId);
-
-        if (OAuth2Util.checkAccessTokenPartitioningEnabled() && OAuth2Util.checkUserNameAssertionEnabled()) {
-            Map<String, String> availableDomainMappings = OAuth2Util.getAvailableUserStoreDomainMappings();
-            for (Map.Entry<String, String> availableDomainMapping : availableDomainMappings.entrySet()) {
-                revokeSaaSTokensOfOtherTenants(consumerKey, availableDomainMapping.getKey(), tenantId);
+        PartitionedQueryExecutor.executeOnAllPartitions(new PartitionedQueryExecutor.PartitionQuery<Void>() {
+            @Override
+            public Void execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                revokeSaaSTokensOfOtherTenants(consumerKey, userStoreDomain, tenantId);
+                return null;
             }
-        }
+        });
     }
 
     /**
@@ -530,12 +529,13 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
     public void revokeSaaSTokensOfOtherTenants(String consumerKey, String userStoreDomain, int tenantId) throws
             IdentityOAuth2Exception {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         PreparedStatement ps = null;
         try {
             String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(SQLQueries.REVOKE_SAAS_TOKENS_OF_OTHER_TENANTS,
                     userStoreDomain);
             ps = connection.prepareStatement(sql);
+            PartitionedQueryExecutor.applyQueryTimeout(ps);
             ps.setString(1, OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
             ps.setString(2, UUID.randomUUID().toString());
             ps.setString(3, OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
@@ -568,7 +568,7 @@ public class TokenManagementDAOImpl extends AbstractOAuthDAO implements TokenMan
         }
 
         PreparedStatement ps = null;
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        Connection connection = getConnection();
         ResultSet rs = null;
         Set<String> distinctConsumerKeys = new HashSet<>();
         boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(authzUser.toString());
@@ -18,7 +18,6 @@
 
 package org.wso2.carbon.identity.oauth2.dao;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -45,6 +44,7 @@ import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
 import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
 import org.wso2.carbon.identity.oauth2.token.OauthTokenIssuer;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
@@ -97,8 +97,6 @@ public class TokenMgtDAO {
     private static int tokenPersistRetryCount;
     private boolean enablePersist;
 
-    private static BlockingDeque<AccessContextTokenDO> accessContextTokenQueue = new LinkedBlockingDeque<>();
-
     private static BlockingDeque<AuthContextTokenDO> authContextTokenQueue = new LinkedBlockingDeque<>();
 
     private static final Log log = LogFactory.getLog(TokenMgtDAO.class);
@@ -124,13 +122,9 @@ public class TokenMgtDAO {
         if (maxPoolSize > 0) {
             log.info("Thread pool size for OAuth Token persistent consumer : " + maxPoolSize);
 
-            ExecutorService threadPool = Executors.newFixedThreadPool(maxPoolSize);
-
-            for (int i = 0; i < maxPoolSize; i++) {
-                threadPool.execute(new TokenPersistenceTask(accessContextTokenQueue));
-            }
+            TokenPersistenceEngine.start(maxPoolSize);
 
-            threadPool = Executors.newFixedThreadPool(maxPoolSize);
+            ExecutorService threadPool = Executors.newFixedThreadPool(maxPoolSize);
 
             for (int i = 0; i < maxPoolSize; i++) {
                 threadPool.execute(new AuthPersistenceTask(authContextTokenQueue));
@@ -188,7 +182,7 @@ public class TokenMgtDAO {
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Persisting authorization code (hashed): " + DigestUtils.sha256Hex(authzCode) + " for " +
+                log.debug("Persisting authorization code (hashed): " + HashingUtil.sha256Hex(authzCode) + " for " +
                         "client: " + consumerKey + " user: " + authzCodeDO.getAuthorizedUser().toString());
             } else {
                 log.debug("Persisting authorization code for client: " + consumerKey + " user: " + authzCodeDO
@@ -310,7 +304,7 @@ public class TokenMgtDAO {
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Persisting access token(hashed): " + DigestUtils.sha256Hex(accessToken) + " for client: " +
+                log.debug("Persisting access token(hashed): " + HashingUtil.sha256Hex(accessToken) + " for client: " +
                         consumerKey + " user: " + accessTokenDO.getAuthzUser().toString() + " scope: "
                         + Arrays.toString(accessTokenDO.getScope()));
             } else {
@@ -446,10 +440,10 @@ public class TokenMgtDAO {
 
         userStoreDomain = OAuth2Util.getSanitizedUserStoreDomain(userStoreDomain);
 
-        if (maxPoolSize > 0) {
-            accessContextTokenQueue.push(new AccessContextTokenDO(accessToken, consumerKey, newAccessTokenDO
-                    , existingAccessTokenDO, userStoreDomain));
-        } else {
+        // Persist synchronously when the asynchronous persistence engine is disabled, shut down or full.
+        TokenPersistenceEngine tokenPersistenceEngine = TokenPersistenceEngine.getInstance();
+        if (tokenPersistenceEngine == null || !tokenPersistenceEngine.offer(new AccessContextTokenDO(accessToken,
+                consumerKey, newAccessTokenDO, existingAccessTokenDO, userStoreDomain))) {
             persistAccessToken(accessToken, consumerKey, newAccessTokenDO, existingAccessTokenDO, userStoreDomain);
         }
     }
@@ -628,7 +622,7 @@ public class TokenMgtDAO {
                     accessTokenDO.setTokenId(tokenId);
                     if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens
                             .ACCESS_TOKEN)) {
-                        log.debug("Retrieved latest access token(hashed): " + DigestUtils.sha256Hex(accessToken) +
+                        log.debug("Retrieved latest access token(hashed): " + HashingUtil.sha256Hex(accessToken) +
                                 " for client: " + consumerKey + " user: " + authzUser.toString() + " scope: " + scope);
                     }
                     return accessTokenDO;
@@ -757,7 +751,7 @@ public class TokenMgtDAO {
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Validating authorization code(hashed): " + DigestUtils.sha256Hex(authorizationKey)
+                log.debug("Validating authorization code(hashed): " + HashingUtil.sha256Hex(authorizationKey)
                         + " for client: " +  consumerKey);
             } else {
                 log.debug("Validating authorization code for client: " + consumerKey);
@@ -824,7 +818,7 @@ public class TokenMgtDAO {
                         //revoking access token issued for authorization code as per RFC 6749 Section 4.1.2
                         if (log.isDebugEnabled()) {
                             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                                log.debug("Validated authorization code(hashed): " + DigestUtils.sha256Hex
+                                log.debug("Validated authorization code(hashed): " + HashingUtil.sha256Hex
                                         (authorizationKey) + " for client: " + consumerKey + " is not active. So " +
                                         "revoking the access tokens issued for the authorization code.");
                             } else {
@@ -878,7 +872,7 @@ public class TokenMgtDAO {
                     if (!OAuthConstants.AuthorizationCodeState.ACTIVE.equals(codeState)) {
                         if (log.isDebugEnabled()) {
                             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                                log.debug("Validated authorization code(hashed): " + DigestUtils.sha256Hex
+                                log.debug("Validated authorization code(hashed): " + HashingUtil.sha256Hex
                                         (authorizationKey) + " for client: " + consumerKey + " is not active. So " +
                                         "revoking the access tokens issued for the authorization code.");
                             } else {
@@ -929,7 +923,7 @@ public class TokenMgtDAO {
                 StringBuilder stringBuilder = new StringBuilder();
                 for (AuthzCodeDO authzCodeDO : authzCodeDOs) {
                     stringBuilder.append("Deactivating authorization code(hashed): ")
-                            .append(DigestUtils.sha256Hex(authzCodeDO.getAuthorizationCode()))
+                            .append(HashingUtil.sha256Hex(authzCodeDO.getAuthorizationCode()))
                             .append(" client: ")
                             .append(authzCodeDO.getConsumerKey()).append(" user: ")
                             .append(authzCodeDO.getAuthorizedUser().toString())
@@ -967,7 +961,7 @@ public class TokenMgtDAO {
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Changing state of authorization code(hashed): " + DigestUtils.sha256Hex(authzCode)
+                log.debug("Changing state of authorization code(hashed): " + HashingUtil.sha256Hex(authzCode)
                         + " to: " + newState);
             } else {
                 log.debug("Changing state of authorization code  to: " + newState);
@@ -1011,7 +1005,7 @@ public class TokenMgtDAO {
             IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-            log.debug("Deactivating authorization code(hashed): " + DigestUtils.sha256Hex(authzCodeDO
+            log.debug("Deactivating authorization code(hashed): " + HashingUtil.sha256Hex(authzCodeDO
                         .getAuthorizationCode()));
 
         }
@@ -1034,7 +1028,7 @@ public class TokenMgtDAO {
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.REFRESH_TOKEN)) {
-                log.debug("Validating refresh token(hashed): " + DigestUtils.sha256Hex(refreshToken) + " client: " +
+                log.debug("Validating refresh token(hashed): " + HashingUtil.sha256Hex(refreshToken) + " client: " +
                         consumerKey);
             } else {
                 log.debug("Validating refresh token for client: " + consumerKey);
@@ -1143,7 +1137,7 @@ public class TokenMgtDAO {
             throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-            log.debug("Retrieving information of access token(hashed): " + DigestUtils.sha256Hex
+            log.debug("Retrieving information of access token(hashed): " + HashingUtil.sha256Hex
                     (accessTokenIdentifier));
         }
         AccessTokenDO dataDO = null;
@@ -1298,7 +1292,7 @@ public class TokenMgtDAO {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 StringBuilder stringBuilder = new StringBuilder();
                 for (String token : tokens){
-                    stringBuilder.append(DigestUtils.sha256Hex(token)).append(" ");
+                    stringBuilder.append(HashingUtil.sha256Hex(token)).append(" ");
                 }
                 log.debug("Revoking access tokens(hashed): " + stringBuilder.toString());
             } else {
@@ -1355,7 +1349,7 @@ public class TokenMgtDAO {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 StringBuilder stringBuilder = new StringBuilder();
                 for (String token : tokens){
-                    stringBuilder.append(DigestUtils.sha256Hex(token)).append(" ");
+                    stringBuilder.append(HashingUtil.sha256Hex(token)).append(" ");
                 }
                 log.debug("Revoking access tokens(hashed): " + stringBuilder.toString());
             } else {
@@ -1897,7 +1891,7 @@ public class TokenMgtDAO {
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 log.debug("Invalidating access token with id: " + oldAccessTokenId + " and creating new access token" +
-                        "(hashed): " + DigestUtils.sha256Hex(accessTokenDO.getAccessToken()) + " for client: " +
+                        "(hashed): " + HashingUtil.sha256Hex(accessTokenDO.getAccessToken()) + " for client: " +
                         consumerKey + " user: " + accessTokenDO.getAuthzUser().toString() + " scope: " + Arrays
                         .toString(accessTokenDO.getScope()));
             } else {
@@ -2397,7 +2391,7 @@ public class TokenMgtDAO {
     public String getCodeIdByAuthorizationCode(String authzCode) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-            log.debug("Retrieving id of authorization code(hashed): " + DigestUtils.sha256Hex(authzCode));
+            log.debug("Retrieving id of authorization code(hashed): " + HashingUtil.sha256Hex(authzCode));
         }
         Connection connection = IdentityDatabaseUtil.getDBConnection();
 
@@ -2468,7 +2462,7 @@ public class TokenMgtDAO {
     public String getTokenIdByToken(String token) throws IdentityOAuth2Exception {
 
         if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Retrieving id of access token(hashed): " + DigestUtils.sha256Hex(token));
+                log.debug("Retrieving id of access token(hashed): " + HashingUtil.sha256Hex(token));
         }
 
         String tokenId = getTokenIdByToken(token, IdentityUtil.getPrimaryDomainName());
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Asynchronous access token persistence engine. Access tokens are queued in a bounded queue and persisted in JDBC
+ * batches by a pool of {@link TokenPersistenceTask} consumers. The queue depth and batch statistics of the running
+ * engine are published as the {@value #MBEAN_NAME} MBean.
+ */
+public class TokenPersistenceEngine implements TokenPersistenceEngineMBean {
+
+    private static final Log log = LogFactory.getLog(TokenPersistenceEngine.class);
+
+    static final String MBEAN_NAME = "org.wso2.carbon.identity.oauth2:type=TokenPersistenceEngine";
+
+    // These config properties are defined in identity.xml
+    private static final String OAUTH_TOKEN_PERSISTENCE_QUEUE_SIZE = "OAuth.TokenPersistence.QueueSize";
+    private static final String OAUTH_TOKEN_PERSISTENCE_BATCH_SIZE = "OAuth.TokenPersistence.BatchSize";
+    private static final String OAUTH_TOKEN_PERSISTENCE_BATCH_LINGER_TIME = "OAuth.TokenPersistence.BatchLingerTime";
+    private static final String OAUTH_TOKEN_PERSISTENCE_QUEUE_OFFER_TIMEOUT =
+            "OAuth.TokenPersistence.QueueOfferTimeout";
+    private static final String OAUTH_TOKEN_PERSISTENCE_SHUTDOWN_TIMEOUT = "OAuth.TokenPersistence.ShutdownTimeout";
+
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final long DEFAULT_BATCH_LINGER_TIME = 10;
+    private static final long DEFAULT_QUEUE_OFFER_TIMEOUT = 100;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 30000;
+
+    private static volatile TokenPersistenceEngine instance;
+
+    private final BlockingDeque<AccessContextTokenDO> accessContextTokenQueue;
+    private final ExecutorService threadPool;
+    private final long queueOfferTimeout;
+
+    // Offers hold the read lock so that no token is queued after the engine is stopped and the queue is flushed.
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+    private boolean stopped;
+
+    private final AtomicLong persistedBatchCount = new AtomicLong();
+    private final AtomicLong persistedTokenCount = new AtomicLong();
+    private final AtomicLong failedTokenCount = new AtomicLong();
+    private final AtomicLong rejectedTokenCount = new AtomicLong();
+    private volatile int lastBatchSize;
+
+    private TokenPersistenceEngine(int poolSize) {
+
+        int queueSize = OAuth2ConfigUtil.getIntProperty(OAUTH_TOKEN_PERSISTENCE_QUEUE_SIZE, 1, DEFAULT_QUEUE_SIZE);
+        int batchSize = OAuth2ConfigUtil.getIntProperty(OAUTH_TOKEN_PERSISTENCE_BATCH_SIZE, 1, DEFAULT_BATCH_SIZE);
+        long batchLingerTime = OAuth2ConfigUtil.getLongProperty(OAUTH_TOKEN_PERSISTENCE_BATCH_LINGER_TIME, 0,
+                DEFAULT_BATCH_LINGER_TIME);
+        queueOfferTimeout = OAuth2ConfigUtil.getLongProperty(OAUTH_TOKEN_PERSISTENCE_QUEUE_OFFER_TIMEOUT, 0,
+                DEFAULT_QUEUE_OFFER_TIMEOUT);
+
+        if (log.isDebugEnabled()) {
+            log.debug("OAuth Token Persistence QueueSize: " + queueSize + ", BatchSize: " + batchSize +
+                    ", BatchLingerTime: " + batchLingerTime + "ms, QueueOfferTimeout: " + queueOfferTimeout + "ms");
+        }
+
+        accessContextTokenQueue = new LinkedBlockingDeque<>(queueSize);
+        threadPool = Executors.newFixedThreadPool(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            threadPool.execute(new TokenPersistenceTask(accessContextTokenQueue, batchSize, batchLingerTime, this));
+        }
+    }
+
+    /**
+     * Start the engine with the given number of consumers, if it is not already started.
+     *
+     * @param poolSize number of token persistence consumers
+     * @return token persistence engine
+     */
+    public static synchronized TokenPersistenceEngine start(int poolSize) {
+
+        if (instance == null) {
+            instance = new TokenPersistenceEngine(poolSize);
+            registerMBean(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @return the running token persistence engine, or null if the engine is not started or is shut down
+     */
+    public static TokenPersistenceEngine getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Stop the consumers after flushing all the queued access tokens to the database. Tokens offered to the engine
+     * after this are rejected, so that callers persist them synchronously. This is a no-op if the engine was never
+     * started.
+     */
+    public static synchronized void shutdown() {
+
+        if (instance == null) {
+            return;
+        }
+        TokenPersistenceEngine engine = instance;
+        instance = null;
+        unregisterMBean();
+
+        Lock lock = engine.stopLock.writeLock();
+        lock.lock();
+        try {
+            engine.stopped = true;
+        } finally {
+            lock.unlock();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Shutting down OAuth token persistence engine. Queued access tokens: " +
+                    engine.getQueueDepth());
+        }
+        // Consumers flush the remaining queued tokens once they are interrupted.
+        engine.threadPool.shutdownNow();
+        try {
+            if (!engine.threadPool.awaitTermination(OAuth2ConfigUtil.getLongProperty(
+                    OAUTH_TOKEN_PERSISTENCE_SHUTDOWN_TIMEOUT, 1, DEFAULT_SHUTDOWN_TIMEOUT), TimeUnit.MILLISECONDS)) {
+                log.warn("OAuth token persistence engine did not terminate in time. Queued access tokens: " +
+                        engine.getQueueDepth());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Persist anything the consumers left in the queue.
+        new TokenPersistenceTask(engine.accessContextTokenQueue, 1, 0, engine).flush();
+    }
+
+    /**
+     * Queue an access token to be persisted. If the engine is shut down, or the queue stays full for the configured
+     * offer timeout, the token is rejected and the caller is expected to persist it synchronously.
+     *
+     * @param accessContextTokenDO access token to be persisted
+     * @return true if the token was queued
+     */
+    public boolean offer(AccessContextTokenDO accessContextTokenDO) {
+
+        Lock lock = stopLock.readLock();
+        lock.lock();
+        try {
+            if (stopped) {
+                log.debug("OAuth token persistence engine is shut down. Persisting access token synchronously.");
+                rejectedTokenCount.incrementAndGet();
+                return false;
+            }
+            if (accessContextTokenQueue.offerFirst(accessContextTokenDO, queueOfferTimeout, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+        rejectedTokenCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("OAuth token persistence queue is full. Queue depth: " + getQueueDepth() +
+                    ". Persisting access token synchronously.");
+        }
+        return false;
+    }
+
+    void recordBatch(int batchSize, boolean failed) {
+
+        persistedBatchCount.incrementAndGet();
+        if (failed) {
+            failedTokenCount.addAndGet(batchSize);
+        } else {
+            persistedTokenCount.addAndGet(batchSize);
+        }
+        lastBatchSize = batchSize;
+    }
+
+    @Override
+    public int getQueueDepth() {
+
+        return accessContextTokenQueue.size();
+    }
+
+    @Override
+    public long getPersistedBatchCount() {
+
+        return persistedBatchCount.get();
+    }
+
+    @Override
+    public long getPersistedTokenCount() {
+
+        return persistedTokenCount.get();
+    }
+
+    @Override
+    public long getFailedTokenCount() {
+
+        return failedTokenCount.get();
+    }
+
+    @Override
+    public long getRejectedTokenCount() {
+
+        return rejectedTokenCount.get();
+    }
+
+    @Override
+    public int getLastBatchSize() {
+
+        return lastBatchSize;
+    }
+
+    private static void registerMBean(TokenPersistenceEngine engine) {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(engine, objectName);
+        } catch (JMException e) {
+            log.warn("Error while registering the OAuth token persistence engine MBean.", e);
+        }
+    }
+
+    private static void unregisterMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(MBEAN_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Error while unregistering the OAuth token persistence engine MBean.", e);
+        }
+    }
+}
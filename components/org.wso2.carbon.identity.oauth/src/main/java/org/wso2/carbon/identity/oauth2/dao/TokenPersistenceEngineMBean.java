@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+/**
+ * Management interface of the asynchronous access token persistence engine.
+ */
+public interface TokenPersistenceEngineMBean {
+
+    /**
+     * @return number of access tokens waiting to be persisted
+     */
+    int getQueueDepth();
+
+    /**
+     * @return number of batches processed by the token persistence consumers
+     */
+    long getPersistedBatchCount();
+
+    /**
+     * @return number of access tokens persisted by the token persistence consumers
+     */
+    long getPersistedTokenCount();
+
+    /**
+     * @return number of access tokens of batches that failed to persist
+     */
+    long getFailedTokenCount();
+
+    /**
+     * @return number of access tokens that were not queued and were persisted synchronously by the caller
+     */
+    long getRejectedTokenCount();
+
+    /**
+     * @return size of the most recently processed batch
+     */
+    int getLastBatchSize();
+}
@@ -21,18 +21,40 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.base.IdentityException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 /**
- *
+ * Consumer of the asynchronous access token persistence queue. Drains the queue into batches of at most
+ * {@code maxBatchSize} tokens, waiting at most {@code maxLingerTime} milliseconds for a batch to fill up, and persists
+ * each batch with a single commit. Remaining queued tokens are flushed when the task is interrupted.
  */
 public class TokenPersistenceTask implements Runnable {
 
     private static Log log = LogFactory.getLog(TokenPersistenceTask.class);
+
     private BlockingDeque<AccessContextTokenDO> accessContextTokenQueue;
+    private int maxBatchSize;
+    private long maxLingerTime;
+    private TokenPersistenceEngine engine;
 
     public TokenPersistenceTask(BlockingDeque<AccessContextTokenDO> accessContextTokenQueue) {
+        this(accessContextTokenQueue, 1, 0);
+    }
+
+    public TokenPersistenceTask(BlockingDeque<AccessContextTokenDO> accessContextTokenQueue, int maxBatchSize,
+                                long maxLingerTime) {
+        this(accessContextTokenQueue, maxBatchSize, maxLingerTime, null);
+    }
+
+    TokenPersistenceTask(BlockingDeque<AccessContextTokenDO> accessContextTokenQueue, int maxBatchSize,
+                         long maxLingerTime, TokenPersistenceEngine engine) {
         this.accessContextTokenQueue = accessContextTokenQueue;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLingerTime = Math.max(0, maxLingerTime);
+        this.engine = engine;
     }
 
     @Override
@@ -40,24 +62,83 @@ public class TokenPersistenceTask implements Runnable {
 
         log.debug("Access Token context persist consumer is started");
 
-        while (true) {
-            AccessContextTokenDO accessContextTokenDO = null;
-            String accessToken = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<AccessContextTokenDO> batch = new ArrayList<>(maxBatchSize);
             try {
-                accessContextTokenDO =  accessContextTokenQueue.take();
-                if (accessContextTokenDO != null) {
-                    accessToken = accessContextTokenDO.getAccessToken();
-                    log.debug("Access Token Data persisting Task is started to run");
-                    OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
-                            .insertAccessToken(accessToken, accessContextTokenDO.getConsumerKey(),
-                                    accessContextTokenDO.getNewAccessTokenDO(),
-                                    accessContextTokenDO.getExistingAccessTokenDO(),
-                                    accessContextTokenDO.getUserStoreDomain());
-                }
+                batch.add(accessContextTokenQueue.take());
+                fillBatch(batch);
             } catch (InterruptedException e) {
-                log.error("Error occurred while getting AccessContextTokenDO instance from accessContextTokenQueue" , e);
-            }catch (IdentityException e){
-                log.error("Error occurred while persisting access token :" + accessToken, e);
+                // Restore the interrupted status so that the queue is flushed and the consumer is stopped.
+                Thread.currentThread().interrupt();
+            }
+            persistBatch(batch);
+        }
+
+        flush();
+        log.debug("Access Token context persist consumer is stopped");
+    }
+
+    /**
+     * Persist all the tokens remaining in the queue without waiting for new tokens.
+     */
+    public void flush() {
+
+        List<AccessContextTokenDO> batch = new ArrayList<>(maxBatchSize);
+        while (accessContextTokenQueue.drainTo(batch, maxBatchSize) > 0) {
+            persistBatch(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    private void fillBatch(List<AccessContextTokenDO> batch) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + maxLingerTime;
+        while (batch.size() < maxBatchSize) {
+            if (accessContextTokenQueue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remainingTime = deadline - System.currentTimeMillis();
+            if (remainingTime <= 0) {
+                return;
+            }
+            AccessContextTokenDO accessContextTokenDO = accessContextTokenQueue.poll(remainingTime,
+                    TimeUnit.MILLISECONDS);
+            if (accessContextTokenDO == null) {
+                return;
+            }
+            batch.add(accessContextTokenDO);
+        }
+    }
+
+    private void persistBatch(List<AccessContextTokenDO> batch) {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+        boolean persisted = false;
+        try {
+            log.debug("Access Token Data persisting Task is started to run");
+            if (batch.size() == 1) {
+                AccessContextTokenDO accessContextTokenDO = batch.get(0);
+                OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
+                        .insertAccessToken(accessContextTokenDO.getAccessToken(),
+                                accessContextTokenDO.getConsumerKey(),
+                                accessContextTokenDO.getNewAccessTokenDO(),
+                                accessContextTokenDO.getExistingAccessTokenDO(),
+                                accessContextTokenDO.getUserStoreDomain());
+            } else {
+                OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO().insertAccessTokens(batch);
+            }
+            persisted = true;
+        } catch (IdentityException e) {
+            log.error("Error occurred while persisting a batch of " + batch.size() + " access tokens", e);
+        } finally {
+            if (engine != null) {
+                engine.recordBatch(batch.size(), !persisted);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Processed access token persistence batch of size: " + batch.size() +
+                        ". Remaining queue depth: " + accessContextTokenQueue.size());
             }
         }
     }
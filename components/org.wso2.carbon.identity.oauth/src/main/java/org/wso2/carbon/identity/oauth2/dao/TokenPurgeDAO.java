@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Data Access Layer functionality for purging non active access tokens and authorization codes. Rows are deleted in
+ * small chunks using keyset pagination on the primary key, and each chunk is committed separately so that the purge
+ * never holds locks for long.
+ */
+public class TokenPurgeDAO {
+
+    private static final Log log = LogFactory.getLog(TokenPurgeDAO.class);
+
+    private static final String UTC = "UTC";
+    // Lower than any persisted token or code id. Used as the key of the first chunk.
+    private static final String FIRST_CHUNK_KEY = " ";
+
+    /**
+     * Purge EXPIRED, INACTIVE and REVOKED access tokens created before the given time, along with their scopes.
+     * EXPIRED tokens are purged only after their refresh tokens are expired as well.
+     *
+     * @param userStoreDomain user store domain used to derive the partitioned access token table
+     * @param cutoffTime      tokens created before this time (in milliseconds) are purged
+     * @param chunkSize       maximum number of tokens purged in a single transaction
+     * @param archive         whether the purged rows should be copied to the archive tables
+     * @return number of purged access tokens
+     * @throws IdentityOAuth2Exception if an error occurs while purging the tokens
+     */
+    public int purgeAccessTokens(String userStoreDomain, long cutoffTime, int chunkSize, boolean archive)
+            throws IdentityOAuth2Exception {
+
+        String lastTokenId = FIRST_CHUNK_KEY;
+        int purgedCount = 0;
+        while (lastTokenId != null && !Thread.currentThread().isInterrupted()) {
+            Connection connection = IdentityDatabaseUtil.getDBConnection();
+            PreparedStatement prepStmt = null;
+            ResultSet resultSet = null;
+            List<String> tokenIds = new ArrayList<>();
+            String lastScannedTokenId = null;
+            int scannedCount = 0;
+            try {
+                String sql = OAuth2Util.getTokenPartitionedSqlByUserStore(getChunkSql(AbstractOAuthDAO.getDialectSql(
+                        connection,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_MYSQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_DB2SQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_MSSQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_POSTGRESQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_INFORMIX,
+                        SQLQueries.RETRIEVE_PURGEABLE_ACCESS_TOKENS_ORACLE), chunkSize), userStoreDomain);
+                prepStmt = connection.prepareStatement(sql);
+                setChunkParameters(prepStmt, cutoffTime, lastTokenId);
+                resultSet = prepStmt.executeQuery();
+                while (resultSet.next()) {
+                    scannedCount++;
+                    lastScannedTokenId = resultSet.getString(1);
+                    if (isPurgeable(resultSet.getString(2), resultSet.getTimestamp(3,
+                            Calendar.getInstance(TimeZone.getTimeZone(UTC))), resultSet.getLong(4), cutoffTime)) {
+                        tokenIds.add(lastScannedTokenId);
+                    }
+                }
+
+                if (!tokenIds.isEmpty()) {
+                    if (archive) {
+                        executeBatch(connection, OAuth2Util.getTokenPartitionedSqlByUserStore(
+                                SQLQueries.ARCHIVE_OAUTH2_TOKEN_SCOPE_BY_TOKEN_ID, userStoreDomain), tokenIds);
+                        executeBatch(connection, OAuth2Util.getTokenPartitionedSqlByUserStore(
+                                SQLQueries.ARCHIVE_OAUTH2_ACCESS_TOKEN_BY_TOKEN_ID, userStoreDomain), tokenIds);
+                    }
+                    executeBatch(connection, OAuth2Util.getTokenPartitionedSqlByUserStore(
+                            SQLQueries.DELETE_OAUTH2_TOKEN_SCOPE_BY_TOKEN_ID, userStoreDomain), tokenIds);
+                    executeBatch(connection, OAuth2Util.getTokenPartitionedSqlByUserStore(
+                            SQLQueries.DELETE_OAUTH2_ACCESS_TOKEN_BY_TOKEN_ID, userStoreDomain), tokenIds);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollBack(connection);
+                throw new IdentityOAuth2Exception("Error while purging access tokens of user store domain: " +
+                        userStoreDomain, e);
+            } finally {
+                IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+            }
+
+            purgedCount += tokenIds.size();
+            if (log.isDebugEnabled()) {
+                log.debug("Purged " + tokenIds.size() + " out of " + scannedCount + " scanned access tokens of " +
+                        "user store domain: " + userStoreDomain);
+            }
+            lastTokenId = scannedCount < chunkSize ? null : lastScannedTokenId;
+        }
+        return purgedCount;
+    }
+
+    /**
+     * Purge EXPIRED, INACTIVE and REVOKED authorization codes created before the given time.
+     *
+     * @param cutoffTime codes created before this time (in milliseconds) are purged
+     * @param chunkSize  maximum number of codes purged in a single transaction
+     * @param archive    whether the purged rows should be copied to the archive table
+     * @return number of purged authorization codes
+     * @throws IdentityOAuth2Exception if an error occurs while purging the codes
+     */
+    public int purgeAuthorizationCodes(long cutoffTime, int chunkSize, boolean archive)
+            throws IdentityOAuth2Exception {
+
+        String lastCodeId = FIRST_CHUNK_KEY;
+        int purgedCount = 0;
+        while (lastCodeId != null && !Thread.currentThread().isInterrupted()) {
+            Connection connection = IdentityDatabaseUtil.getDBConnection();
+            PreparedStatement prepStmt = null;
+            ResultSet resultSet = null;
+            List<String> codeIds = new ArrayList<>();
+            try {
+                String sql = getChunkSql(AbstractOAuthDAO.getDialectSql(connection,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_MYSQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_DB2SQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_MSSQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_POSTGRESQL,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_INFORMIX,
+                        SQLQueries.RETRIEVE_PURGEABLE_AUTHORIZATION_CODES_ORACLE), chunkSize);
+                prepStmt = connection.prepareStatement(sql);
+                setChunkParameters(prepStmt, cutoffTime, lastCodeId);
+                resultSet = prepStmt.executeQuery();
+                while (resultSet.next()) {
+                    codeIds.add(resultSet.getString(1));
+                }
+
+                if (!codeIds.isEmpty()) {
+                    if (archive) {
+                        executeBatch(connection, SQLQueries.ARCHIVE_AUTHORIZATION_CODE_BY_CODE_ID, codeIds);
+                    }
+                    executeBatch(connection, SQLQueries.DELETE_AUTHORIZATION_CODE_BY_CODE_ID, codeIds);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollBack(connection);
+                throw new IdentityOAuth2Exception("Error while purging authorization codes", e);
+            } finally {
+                IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+            }
+
+            purgedCount += codeIds.size();
+            if (log.isDebugEnabled()) {
+                log.debug("Purged " + codeIds.size() + " authorization codes");
+            }
+            lastCodeId = codeIds.size() < chunkSize ? null : codeIds.get(codeIds.size() - 1);
+        }
+        return purgedCount;
+    }
+
+    private boolean isPurgeable(String tokenState, Timestamp refreshTokenIssuedTime, long refreshTokenValidityPeriod,
+                                long cutoffTime) {
+
+        if (!OAuthConstants.TokenStates.TOKEN_STATE_EXPIRED.equals(tokenState)) {
+            return true;
+        }
+        // Refresh tokens of EXPIRED access tokens can still be used, unless they are expired as well.
+        if (refreshTokenValidityPeriod < 0 || refreshTokenIssuedTime == null) {
+            return false;
+        }
+        return refreshTokenIssuedTime.getTime() + refreshTokenValidityPeriod < cutoffTime;
+    }
+
+    private String getChunkSql(String sql, int chunkSize) {
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid purge chunk size: " + chunkSize);
+        }
+        return sql.replace(SQLQueries.PURGE_CHUNK_SIZE_PLACEHOLDER, Integer.toString(chunkSize));
+    }
+
+    private void setChunkParameters(PreparedStatement prepStmt, long cutoffTime, String lastKey)
+            throws SQLException {
+
+        prepStmt.setTimestamp(1, new Timestamp(cutoffTime), Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+        prepStmt.setString(2, lastKey);
+    }
+
+    private void executeBatch(Connection connection, String sql, List<String> ids) throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(sql)) {
+            for (String id : ids) {
+                prepStmt.setString(1, id);
+                prepStmt.addBatch();
+            }
+            prepStmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * Runs the database operations of the current thread on a single connection, which is committed once, instead of
+ * each DAO method checking out, committing and closing a connection of its own.
+ * <p>
+ * While a unit of work is active, {@link #getConnection()} returns the shared connection, which is checked out from
+ * the pool on first use. A savepoint is set when the DAO method creates its first statement after getting the
+ * connection or committing it, so that a DAO method which rolls back on failure only discards its own changes, as it
+ * would with a separate connection. The savepoint is released when the DAO method commits or closes the connection,
+ * while auto commit changes are ignored. A DAO method which issues no statement after its last commit costs no
+ * savepoint. Nested units of work join the outermost one, which alone commits and closes the connection.
+ * <p>
+ * The connection is held until the unit of work is closed, hence a unit of work should only span the database
+ * operations which must be committed together, not calls to user stores, key stores or other remote systems.
+ * <pre>
+ * UnitOfWork unitOfWork = UnitOfWork.begin();
+ * try {
+ *     ...
+ *     unitOfWork.commit();
+ * } finally {
+ *     unitOfWork.close();
+ * }
+ * </pre>
+ */
+public class UnitOfWork {
+
+    private static final Log log = LogFactory.getLog(UnitOfWork.class);
+
+    private static final ThreadLocal<UnitOfWork> currentUnitOfWork = new ThreadLocal<>();
+
+    private final boolean owner;
+    private Connection connection;
+    private boolean closed;
+
+    private UnitOfWork(boolean owner) {
+
+        this.owner = owner;
+    }
+
+    /**
+     * Start a unit of work on the current thread, or join the unit of work which is already active on it.
+     *
+     * @return unit of work, which must be closed by the caller
+     */
+    public static UnitOfWork begin() {
+
+        if (currentUnitOfWork.get() != null) {
+            return new UnitOfWork(false);
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(true);
+        currentUnitOfWork.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Get a connection for a DAO method. Returns the connection of the active unit of work if there is one, or a new
+     * connection otherwise.
+     *
+     * @return database connection, which the caller should commit and close as usual
+     */
+    public static Connection getConnection() {
+
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if (unitOfWork == null) {
+            return IdentityDatabaseUtil.getDBConnection();
+        }
+        return unitOfWork.createParticipantConnection();
+    }
+
+    /**
+     * Check whether a unit of work is active on the current thread.
+     *
+     * @return true if the DAO methods of the current thread share the connection of a unit of work
+     */
+    public static boolean isActive() {
+
+        return currentUnitOfWork.get() != null;
+    }
+
+    /**
+     * Commit the changes made so far in the unit of work. Work may continue on the same connection afterwards. Does
+     * nothing when this unit of work joined an outer one, since the outer unit of work decides the outcome.
+     *
+     * @throws IdentityOAuth2Exception if the commit fails
+     */
+    public void commit() throws IdentityOAuth2Exception {
+
+        if (!owner || connection == null) {
+            return;
+        }
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while committing the unit of work", e);
+        }
+    }
+
+    /**
+     * End the unit of work. Changes which are not committed are rolled back and the connection is closed. Does nothing
+     * when this unit of work joined an outer one.
+     */
+    public void close() {
+
+        if (!owner || closed) {
+            return;
+        }
+        closed = true;
+        currentUnitOfWork.remove();
+        if (connection != null) {
+            IdentityDatabaseUtil.rollBack(connection);
+            IdentityDatabaseUtil.closeConnection(connection);
+            connection = null;
+        }
+    }
+
+    private Connection createParticipantConnection() {
+
+        if (connection == null) {
+            Connection newConnection = IdentityDatabaseUtil.getDBConnection();
+            try {
+                newConnection.setAutoCommit(false);
+            } catch (SQLException e) {
+                log.warn("Error while disabling auto commit for the unit of work. Using a separate connection.", e);
+                IdentityDatabaseUtil.closeConnection(newConnection);
+                return IdentityDatabaseUtil.getDBConnection();
+            }
+            connection = newConnection;
+        }
+
+        final Connection sharedConnection = connection;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler() {
+
+                    // Savepoint of the changes which the DAO method has not committed yet, or null when it has not
+                    // created a statement since it got the connection or committed it.
+                    private Savepoint savepoint;
+                    private boolean participantClosed;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                        String methodName = method.getName();
+                        if ("close".equals(methodName)) {
+                            if (savepoint != null) {
+                                releaseSavepoint(sharedConnection, savepoint);
+                                savepoint = null;
+                            }
+                            participantClosed = true;
+                            return null;
+                        }
+                        if ("commit".equals(methodName)) {
+                            // The changes of the DAO method become part of the unit of work. The changes made after
+                            // the commit start from a new savepoint, as a new transaction would.
+                            if (savepoint != null) {
+                                releaseSavepoint(sharedConnection, savepoint);
+                                savepoint = null;
+                            }
+                            return null;
+                        }
+                        if (savepoint == null && !participantClosed && ("prepareStatement".equals(methodName)
+                                || "createStatement".equals(methodName) || "prepareCall".equals(methodName))) {
+                            savepoint = sharedConnection.setSavepoint();
+                        }
+                        if ("setAutoCommit".equals(methodName)) {
+                            return null;
+                        }
+                        if ("rollback".equals(methodName) && (args == null || args.length == 0)) {
+                            if (savepoint != null) {
+                                sharedConnection.rollback(savepoint);
+                            }
+                            return null;
+                        }
+                        if ("equals".equals(methodName)) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(methodName)) {
+                            return System.identityHashCode(proxy);
+                        }
+                        try {
+                            return method.invoke(sharedConnection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // Some drivers do not support releasing savepoints, which are then released by the commit of the unit of
+            // work.
+            if (log.isDebugEnabled()) {
+                log.debug("Error while releasing a savepoint of the unit of work.", e);
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.util.IdentityCoreInitializedEvent;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth.tokenpurge.TokenPurgeService;
 import org.wso2.carbon.identity.oauth2.OAuth2ScopeService;
 import org.wso2.carbon.identity.oauth2.OAuth2Service;
 import org.wso2.carbon.identity.oauth2.OAuth2TokenValidationService;
@@ -42,11 +43,16 @@ import org.wso2.carbon.identity.oauth2.client.authentication.BasicAuthClientAuth
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthenticator;
 import org.wso2.carbon.identity.oauth2.client.authentication.OAuthClientAuthnService;
 import org.wso2.carbon.identity.oauth2.dao.SQLQueries;
+import org.wso2.carbon.identity.oauth2.dao.PartitionedQueryExecutor;
+import org.wso2.carbon.identity.oauth2.dao.TokenPersistenceEngine;
 import org.wso2.carbon.identity.oauth2.listener.TenantCreationEventListener;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.identity.openidconnect.OpenIDConnectClaimFilter;
 import org.wso2.carbon.identity.openidconnect.OpenIDConnectClaimFilterImpl;
+import org.wso2.carbon.identity.openidconnect.handlers.OIDCScopeResourceHandler;
 import org.wso2.carbon.identity.user.store.configuration.listener.UserStoreConfigListener;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.jdbc.handlers.HandlerLifecycleManager;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 
@@ -161,6 +167,10 @@ public class OAuth2ServiceComponent {
             if (log.isDebugEnabled()) {
                 log.debug("Default OpenIDConnect Claim filter registered successfully.");
             }
+            registerOIDCScopeResourceHandler();
+
+            // Schedule the purge of non active tokens and codes, if enabled.
+            TokenPurgeService.start();
         } catch (Throwable e) {
             log.error("Error while activating OAuth2ServiceComponent.", e);
         }
@@ -177,6 +187,37 @@ public class OAuth2ServiceComponent {
         }
     }
 
+    /**
+     * Register the registry handler which clears the cached OIDC scope claim mapping of a tenant when the OIDC scope
+     * resource of the tenant is committed.
+     */
+    private void registerOIDCScopeResourceHandler() {
+
+        try {
+            RegistryService registryService = OAuth2ServiceComponentHolder.getRegistryService();
+            registryService.getConfigSystemRegistry().getRegistryContext().getHandlerManager().addHandler(null,
+                    OIDCScopeResourceHandler.getOIDCScopeResourceMatcher(), new OIDCScopeResourceHandler(),
+                    HandlerLifecycleManager.COMMIT_HANDLER_PHASE);
+            if (log.isDebugEnabled()) {
+                log.debug("OIDC scope resource handler registered.");
+            }
+        } catch (RegistryException e) {
+            log.error("Error while registering the OIDC scope resource handler. Changes to the OIDC scopes will " +
+                    "take effect when the cached OIDC scope claim mappings expire.", e);
+        }
+    }
+
+    protected void deactivate(ComponentContext context) {
+
+        // Flush the access tokens queued for asynchronous persistence.
+        TokenPersistenceEngine.shutdown();
+        TokenPurgeService.stop();
+        PartitionedQueryExecutor.shutdown();
+        if (log.isDebugEnabled()) {
+            log.debug("Identity OAuth bundle is deactivated");
+        }
+    }
+
     /**
      * Set Application management service implementation
      *
@@ -39,6 +39,7 @@ import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheKey;
 import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthSPClaimMappingCache;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDAO;
 import org.wso2.carbon.identity.oauth.dao.OAuthConsumerDAO;
@@ -246,6 +247,8 @@ public class OAuthApplicationMgtListener extends AbstractApplicationMgtListener
                             .getAuthorizationCodeDAO().getAuthorizationCodesByConsumerKey(oauthKey));
                     // Remove client credential from AppInfoCache
                     appInfoCache.clearCacheEntry(oauthKey);
+                    // Remove the compiled claim mappings of the service provider
+                    OAuthSPClaimMappingCache.getInstance().clearClaimMappings(oauthKey, tenantDomain);
                 }
             }
             if (accessTokens.size() > 0) {
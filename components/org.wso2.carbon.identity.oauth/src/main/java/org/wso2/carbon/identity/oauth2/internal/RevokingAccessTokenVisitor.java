@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+
+package org.wso2.carbon.identity.oauth2.internal;
+
+import org.wso2.carbon.identity.oauth.OAuthUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenVisitor;
+import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revokes the visited access tokens in batches and clears them from the cache once they are revoked. Call
+ * {@link #flush()} after the visit to revoke the tokens of the last, partially filled batch.
+ */
+class RevokingAccessTokenVisitor implements AccessTokenVisitor {
+
+    static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final int batchSize;
+    private final List<AccessTokenDO> batch;
+
+    RevokingAccessTokenVisitor() {
+
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    RevokingAccessTokenVisitor(int batchSize) {
+
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void visit(AccessTokenDO accessTokenDO) throws IdentityOAuth2Exception {
+
+        batch.add(accessTokenDO);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Revokes the tokens collected so far and clears them from the cache.
+     *
+     * @throws IdentityOAuth2Exception if the tokens could not be revoked
+     */
+    void flush() throws IdentityOAuth2Exception {
+
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> tokensToRevoke = new ArrayList<>(batch.size());
+        for (AccessTokenDO accessTokenDO : batch) {
+            if (accessTokenDO.getAccessToken() != null) {
+                tokensToRevoke.add(accessTokenDO.getAccessToken());
+            }
+        }
+        if (!tokensToRevoke.isEmpty()) {
+            OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
+                    .revokeAccessTokens(tokensToRevoke.toArray(new String[tokensToRevoke.size()]));
+        }
+        // Clear the cache only after the tokens are revoked, so that a concurrent read can not cache them again.
+        for (AccessTokenDO accessTokenDO : batch) {
+            OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser(),
+                    OAuth2Util.buildScopeString(accessTokenDO.getScope()));
+            OAuthUtil.clearOAuthCache(accessTokenDO.getConsumerKey(), accessTokenDO.getAuthzUser());
+            OAuthUtil.clearOAuthCache(accessTokenDO.getAccessToken());
+        }
+        batch.clear();
+    }
+}
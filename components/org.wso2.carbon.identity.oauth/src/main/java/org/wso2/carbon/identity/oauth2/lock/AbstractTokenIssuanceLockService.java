@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class of the token issuance lock services, which records the time spent waiting for the locks.
+ */
+public abstract class AbstractTokenIssuanceLockService implements TokenIssuanceLockService {
+
+    private static final Log log = LogFactory.getLog(AbstractTokenIssuanceLockService.class);
+
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+    /**
+     * Records the time a request waited to acquire an issuance lock.
+     *
+     * @param consumerKey   client id the lock was acquired for
+     * @param waitTimeNanos time spent waiting in nanoseconds
+     */
+    protected void recordWaitTime(String consumerKey, long waitTimeNanos) {
+
+        acquiredCount.incrementAndGet();
+        totalWaitTimeNanos.addAndGet(waitTimeNanos);
+        long currentMax = maxWaitTimeNanos.get();
+        while (waitTimeNanos > currentMax && !maxWaitTimeNanos.compareAndSet(currentMax, waitTimeNanos)) {
+            currentMax = maxWaitTimeNanos.get();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Waited " + TimeUnit.NANOSECONDS.toMillis(waitTimeNanos) + " ms for the token issuance " +
+                    "lock of client id: " + consumerKey);
+        }
+    }
+
+    public long getAcquiredCount() {
+
+        return acquiredCount.get();
+    }
+
+    public long getTotalWaitTimeNanos() {
+
+        return totalWaitTimeNanos.get();
+    }
+
+    public long getMaxWaitTimeNanos() {
+
+        return maxWaitTimeNanos.get();
+    }
+
+    /**
+     * Returns the average time spent waiting for a lock.
+     *
+     * @return average wait time in nanoseconds
+     */
+    public long getAverageWaitTimeNanos() {
+
+        long count = acquiredCount.get();
+        return count == 0 ? 0 : totalWaitTimeNanos.get() / count;
+    }
+}
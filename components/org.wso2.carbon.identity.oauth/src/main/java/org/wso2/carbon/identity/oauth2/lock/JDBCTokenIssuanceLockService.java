@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.dao.SQLQueries;
+import org.wso2.carbon.identity.oauth2.dao.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster wide token issuance lock service. Besides the striped lock of this node, it locks the row of the client in
+ * IDN_OAUTH_CONSUMER_APPS until the token is issued, so that requests of the client on other nodes wait as well.
+ * <p>
+ * There is no row per client, user and scope to lock, hence the database lock is held per client. While it is in use,
+ * all token requests of a client are issued one at a time across the whole cluster, including the requests of
+ * different users, and the token throughput of a client is bound by the time a single issuance takes. It should only
+ * be configured when the duplicate tokens of concurrent requests are not acceptable, and not for clients issuing
+ * tokens to many users at a high rate.
+ * <p>
+ * Each holder keeps a database connection open while the token is issued. The striped lock taken first limits the
+ * number of connections a node holds to the number of stripes. When a {@link UnitOfWork} is active, the row is locked
+ * on its connection rather than on a second one, and stays locked until the unit of work ends.
+ */
+public class JDBCTokenIssuanceLockService extends AbstractTokenIssuanceLockService {
+
+    private static final Log log = LogFactory.getLog(JDBCTokenIssuanceLockService.class);
+
+    private final StripedTokenIssuanceLockService localLockService;
+
+    public JDBCTokenIssuanceLockService() {
+
+        this(new StripedTokenIssuanceLockService());
+    }
+
+    public JDBCTokenIssuanceLockService(StripedTokenIssuanceLockService localLockService) {
+
+        this.localLockService = localLockService;
+    }
+
+    @Override
+    public TokenIssuanceLock acquire(String consumerKey, String authorizedUser, String scope)
+            throws IdentityOAuth2Exception {
+
+        long startTime = System.nanoTime();
+        final TokenIssuanceLock localLock = localLockService.acquire(consumerKey, authorizedUser, scope);
+        final Connection connection;
+        try {
+            connection = lockConsumerApp(consumerKey);
+        } catch (IdentityOAuth2Exception | RuntimeException e) {
+            localLock.close();
+            throw e;
+        }
+        recordWaitTime(consumerKey, System.nanoTime() - startTime);
+
+        return new TokenIssuanceLock() {
+            @Override
+            public void close() {
+                try {
+                    if (connection != null) {
+                        // Nothing is modified under the lock, rolling back releases the row lock.
+                        IdentityDatabaseUtil.rollBack(connection);
+                        IdentityDatabaseUtil.closeConnection(connection);
+                    }
+                } finally {
+                    localLock.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public boolean isDatabaseLock() {
+
+        return true;
+    }
+
+    /**
+     * Locks the row of the client in IDN_OAUTH_CONSUMER_APPS.
+     *
+     * @return connection holding the row lock, or null if the row lock is held by the unit of work of the current
+     * thread until it ends
+     */
+    private Connection lockConsumerApp(String consumerKey) throws IdentityOAuth2Exception {
+
+        boolean inUnitOfWork = UnitOfWork.isActive();
+        Connection connection = UnitOfWork.getConnection();
+        PreparedStatement prepStmt = null;
+        ResultSet resultSet = null;
+        try {
+            connection.setAutoCommit(false);
+            prepStmt = connection.prepareStatement(getLockQuery(connection));
+            prepStmt.setString(1, OAuthServerConfiguration.getInstance().getPersistenceProcessor()
+                    .getProcessedClientId(consumerKey));
+            resultSet = prepStmt.executeQuery();
+            if (!resultSet.next() && log.isDebugEnabled()) {
+                log.debug("No application found to lock for client id: " + consumerKey);
+            }
+            if (inUnitOfWork) {
+                // Rolling back the connection of a unit of work would discard the changes made after the lock was
+                // acquired, hence it is closed right away and the row lock is held by the transaction of the unit of
+                // work.
+                IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+                return null;
+            }
+            IdentityDatabaseUtil.closeAllConnections(null, resultSet, prepStmt);
+            return connection;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+            throw new IdentityOAuth2Exception("Error while acquiring the token issuance lock of client id: " +
+                    consumerKey, e);
+        } catch (IdentityOAuth2Exception | RuntimeException e) {
+            IdentityDatabaseUtil.rollBack(connection);
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+            throw e;
+        }
+    }
+
+    private String getLockQuery(Connection connection) throws SQLException {
+
+        String driverName = connection.getMetaData().getDriverName();
+        if (driverName.contains("MS SQL") || driverName.contains("Microsoft")) {
+            return SQLQueries.LOCK_CONSUMER_APP_FOR_TOKEN_ISSUANCE_MSSQL;
+        }
+        return SQLQueries.LOCK_CONSUMER_APP_FOR_TOKEN_ISSUANCE;
+    }
+}
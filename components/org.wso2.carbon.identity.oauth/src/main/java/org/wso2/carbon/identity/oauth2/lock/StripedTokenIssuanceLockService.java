@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token issuance lock service backed by a fixed number of lock stripes. A client, user and scope is mapped to a
+ * stripe by its hash, so the memory used by the locks is bounded regardless of the number of users, at the cost of
+ * unrelated requests occasionally sharing a stripe. The locks only serialize requests within this node.
+ */
+public class StripedTokenIssuanceLockService extends AbstractTokenIssuanceLockService {
+
+    static final int DEFAULT_STRIPE_COUNT = 1024;
+
+    private final ReentrantLock[] stripes;
+
+    public StripedTokenIssuanceLockService() {
+
+        this(TokenIssuanceLockServiceFactory.getStripeCount());
+    }
+
+    /**
+     * @param stripeCount number of lock stripes, rounded up to a power of two
+     */
+    public StripedTokenIssuanceLockService(int stripeCount) {
+
+        int size = 1;
+        while (size < stripeCount && size < (1 << 30)) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public TokenIssuanceLock acquire(String consumerKey, String authorizedUser, String scope) {
+
+        final ReentrantLock lock = stripes[getStripeIndex(consumerKey, authorizedUser, scope)];
+        long startTime = System.nanoTime();
+        lock.lock();
+        recordWaitTime(consumerKey, System.nanoTime() - startTime);
+        return new TokenIssuanceLock() {
+            @Override
+            public void close() {
+                lock.unlock();
+            }
+        };
+    }
+
+    int getStripeIndex(String consumerKey, String authorizedUser, String scope) {
+
+        int hash = Objects.hashCode(consumerKey);
+        hash = 31 * hash + Objects.hashCode(authorizedUser);
+        hash = 31 * hash + Objects.hashCode(scope);
+        // Spread the higher bits, as only the lower bits select the stripe.
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    int getStripeCount() {
+
+        return stripes.length;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+/**
+ * Serializes the issuance of access tokens for the same client, user and scope, so that concurrent requests reuse
+ * the active token instead of racing to create a new one.
+ * <p>
+ * The implementation is selected with the {@code OAuth.TokenIssuanceLock.LockService} property. See
+ * {@link TokenIssuanceLockServiceFactory}.
+ */
+public interface TokenIssuanceLockService {
+
+    /**
+     * Acquires the issuance lock of the given client, user and scope, waiting until it is available.
+     *
+     * @param consumerKey    client id
+     * @param authorizedUser authorized user
+     * @param scope          scope string of the token
+     * @return acquired lock, to be closed once the token is issued
+     * @throws IdentityOAuth2Exception if the lock cannot be acquired
+     */
+    TokenIssuanceLock acquire(String consumerKey, String authorizedUser, String scope)
+            throws IdentityOAuth2Exception;
+
+    /**
+     * Whether the lock is held on a database connection. The lock is then acquired in the unit of work of the
+     * current thread if there is one, so that the token can be persisted on the same connection.
+     *
+     * @return true if the lock holds a database connection until it is closed
+     */
+    default boolean isDatabaseLock() {
+
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+/**
+ * Creates the token issuance lock service configured with the {@code OAuth.TokenIssuanceLock.LockService} property.
+ * A {@link StripedTokenIssuanceLockService} is used by default. {@link JDBCTokenIssuanceLockService} can be configured
+ * to serialize the issuance across the nodes of a cluster.
+ */
+public class TokenIssuanceLockServiceFactory {
+
+    private static final Log log = LogFactory.getLog(TokenIssuanceLockServiceFactory.class);
+    private static final String LOCK_SERVICE_CLASS = "OAuth.TokenIssuanceLock.LockService";
+    private static final String STRIPE_COUNT = "OAuth.TokenIssuanceLock.Stripes";
+
+    private static volatile TokenIssuanceLockService lockService;
+
+    private TokenIssuanceLockServiceFactory() {
+
+    }
+
+    /**
+     * Returns the configured token issuance lock service.
+     *
+     * @return token issuance lock service
+     */
+    public static TokenIssuanceLockService getLockService() {
+
+        if (lockService == null) {
+            synchronized (TokenIssuanceLockServiceFactory.class) {
+                if (lockService == null) {
+                    lockService = createLockService();
+                }
+            }
+        }
+        return lockService;
+    }
+
+    /**
+     * Replaces the token issuance lock service, e.g. with one registered by an extension.
+     *
+     * @param tokenIssuanceLockService token issuance lock service
+     */
+    public static void setLockService(TokenIssuanceLockService tokenIssuanceLockService) {
+
+        lockService = tokenIssuanceLockService;
+    }
+
+    static int getStripeCount() {
+
+        return OAuth2ConfigUtil.getIntProperty(STRIPE_COUNT, 1, StripedTokenIssuanceLockService.DEFAULT_STRIPE_COUNT);
+    }
+
+    private static TokenIssuanceLockService createLockService() {
+
+        String lockServiceClass = IdentityUtil.getProperty(LOCK_SERVICE_CLASS);
+        if (StringUtils.isNotBlank(lockServiceClass)) {
+            try {
+                Class<?> clazz = Class.forName(lockServiceClass.trim());
+                return (TokenIssuanceLockService) clazz.newInstance();
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException |
+                    ClassCastException e) {
+                log.error("Error while instantiating the token issuance lock service: " + lockServiceClass +
+                        ". Using the default striped lock service.", e);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Using the striped token issuance lock service.");
+        }
+        return new StripedTokenIssuanceLockService();
+    }
+}
@@ -119,6 +119,10 @@ public class AuthzCodeDO extends CacheEntry {
         return consumerKey;
     }
 
+    public void setConsumerKey(String consumerKey) {
+        this.consumerKey = consumerKey;
+    }
+
     public String getAuthorizationCode() {
         return authorizationCode;
     }
@@ -22,9 +22,6 @@ import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.JWTParser;
@@ -35,8 +32,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
-import org.wso2.carbon.base.MultitenantConstants;
-import org.wso2.carbon.core.util.KeyStoreManager;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
@@ -48,18 +43,16 @@ import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
 import org.wso2.carbon.identity.oauth2.token.handlers.grant.AuthorizationGrantHandler;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyMaterial;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyRegistry;
 import org.wso2.carbon.identity.openidconnect.CustomClaimsCallbackHandler;
 
-import java.security.Key;
-import java.security.interfaces.RSAPrivateKey;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Self contained access token builder.
@@ -78,7 +71,6 @@ public class JWTTokenIssuer extends OauthTokenIssuerImpl {
     private static final String SHA384_WITH_EC = "SHA384withEC";
     private static final String SHA512_WITH_EC = "SHA512withEC";
 
-    private static final String KEY_STORE_EXTENSION = ".jks";
     private static final String AUTHORIZATION_PARTY = "azp";
     private static final String AUDIENCE = "aud";
     private static final String SCOPE = "scope";
@@ -88,9 +80,6 @@ public class JWTTokenIssuer extends OauthTokenIssuerImpl {
 
     private static final Log log = LogFactory.getLog(JWTTokenIssuer.class);
 
-    // We are keeping a private key map which will have private key for each tenant domain. We are keeping this as a
-    // static Map since then we don't need to read the key from keystore every time.
-    private static Map<Integer, Key> privateKeys = new ConcurrentHashMap<>();
     private Algorithm signatureAlgorithm = null;
 
     public JWTTokenIssuer() throws IdentityOAuth2Exception {
@@ -243,6 +232,38 @@ public class JWTTokenIssuer extends OauthTokenIssuerImpl {
     protected String signJWTWithRSA(JWTClaimsSet jwtClaimsSet, OAuthTokenReqMessageContext tokenContext,
                                     OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
 
+        return signJWTWithKey(jwtClaimsSet, tokenContext, authorizationContext);
+    }
+
+    // TODO: Implement JWT signing with HMAC SHA (SHA-256, SHA-384, SHA-512).
+    protected String signJWTWithHMAC(JWTClaimsSet jwtClaimsSet,
+                                     OAuthTokenReqMessageContext tokenContext,
+                                     OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
+
+        throw new IdentityOAuth2Exception("Given signature algorithm " + signatureAlgorithm + " is not supported " +
+                "by the current implementation.");
+    }
+
+    /**
+     * Sign the JWT token with ECDSA (SHA-256, SHA-384, SHA-512) algorithm, using the elliptic curve key configured
+     * for the tenant.
+     *
+     * @param jwtClaimsSet         JWT claim set to be signed.
+     * @param tokenContext         Token context if available.
+     * @param authorizationContext Authorization context if available.
+     * @return Signed JWT token.
+     * @throws IdentityOAuth2Exception
+     */
+    protected String signJWTWithECDSA(JWTClaimsSet jwtClaimsSet,
+                                      OAuthTokenReqMessageContext tokenContext,
+                                      OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
+
+        return signJWTWithKey(jwtClaimsSet, tokenContext, authorizationContext);
+    }
+
+    private String signJWTWithKey(JWTClaimsSet jwtClaimsSet, OAuthTokenReqMessageContext tokenContext,
+                                  OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
+
         try {
             String tenantDomain = null;
 
@@ -261,68 +282,20 @@ public class JWTTokenIssuer extends OauthTokenIssuerImpl {
             }
 
             int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-
-            Key privateKey;
-            if (privateKeys.containsKey(tenantId)) {
-
-                // PrivateKey will not be null because containsKey() true says given key is exist and ConcurrentHashMap
-                // does not allow to store null values.
-                privateKey = privateKeys.get(tenantId);
-            } else {
-
-                // Get tenant's key store manager.
-                KeyStoreManager tenantKSM = KeyStoreManager.getInstance(tenantId);
-                if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
-                    try {
-                        privateKey = tenantKSM.getDefaultPrivateKey();
-                    } catch (Exception e) {
-                        throw new IdentityOAuth2Exception("Error while obtaining private key for super tenant", e);
-                    }
-                } else {
-
-                    // Derive key store name.
-                    String ksName = tenantDomain.trim().replace(".", "-");
-                    String jksName = ksName + KEY_STORE_EXTENSION;
-
-                    // Obtain private key.
-                    privateKey = tenantKSM.getPrivateKey(jksName, tenantDomain);
-                }
-
-                // Add the private key to the static concurrent hash map for later uses.
-                privateKeys.put(tenantId, privateKey);
-            }
-
-            JWSSigner signer = new RSASSASigner((RSAPrivateKey) privateKey);
-            JWSHeader.Builder headerBuilder = new JWSHeader.Builder((JWSAlgorithm) signatureAlgorithm);
-            String certThumbPrint = OAuth2Util.getThumbPrint(tenantDomain, tenantId);
-            headerBuilder.keyID(certThumbPrint);
-            headerBuilder.x509CertThumbprint(new Base64URL(certThumbPrint));
+            JWSAlgorithm jwsAlgorithm = (JWSAlgorithm) signatureAlgorithm;
+            SigningKeyMaterial signingKey =
+                    SigningKeyRegistry.getInstance().getSigningKey(tenantDomain, tenantId, jwsAlgorithm);
+            JWSHeader.Builder headerBuilder = new JWSHeader.Builder(jwsAlgorithm);
+            headerBuilder.keyID(signingKey.getKeyId());
+            headerBuilder.x509CertThumbprint(signingKey.getX509CertThumbprint());
             SignedJWT signedJWT = new SignedJWT(headerBuilder.build(), jwtClaimsSet);
-            signedJWT.sign(signer);
+            signedJWT.sign(signingKey.getSigner());
             return signedJWT.serialize();
         } catch (JOSEException | InvalidOAuthClientException e) {
             throw new IdentityOAuth2Exception("Error occurred while signing JWT", e);
         }
     }
 
-    // TODO: Implement JWT signing with HMAC SHA (SHA-256, SHA-384, SHA-512).
-    protected String signJWTWithHMAC(JWTClaimsSet jwtClaimsSet,
-                                     OAuthTokenReqMessageContext tokenContext,
-                                     OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
-
-        throw new IdentityOAuth2Exception("Given signature algorithm " + signatureAlgorithm + " is not supported " +
-                "by the current implementation.");
-    }
-
-    // TODO: Implement JWT signing with ECDSA (SHA-256, SHA-384, SHA-512).
-    protected String signJWTWithECDSA(JWTClaimsSet jwtClaimsSet,
-                                      OAuthTokenReqMessageContext tokenContext,
-                                      OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
-
-        throw new IdentityOAuth2Exception("Given signature algorithm " + signatureAlgorithm + " is not supported " +
-                "by the current implementation.");
-    }
-
     /**
      * This method map signature algorithm define in identity.xml to nimbus signature algorithm format, Strings are
      * defined inline hence there are not being used any where
@@ -18,7 +18,6 @@
 
 package org.wso2.carbon.identity.oauth2.token.handlers.grant;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,11 +38,16 @@ import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.dao.UnitOfWork;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenReqDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLock;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLockService;
+import org.wso2.carbon.identity.oauth2.lock.TokenIssuanceLockServiceFactory;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
 import org.wso2.carbon.identity.oauth2.token.OauthTokenIssuer;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.identity.oauth2.validators.OAuth2ScopeHandler;
 
@@ -108,30 +112,53 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         String consumerKey = tokReqMsgCtx.getOauth2AccessTokenReqDTO().getClientId();
         String authorizedUser = tokReqMsgCtx.getAuthorizedUser().toString();
 
-        synchronized ((consumerKey + ":" + authorizedUser + ":" + scope).intern()) {
-            AccessTokenDO existingTokenBean = null;
-            if (isHashDisabled) {
-                existingTokenBean = getExistingToken(tokReqMsgCtx,
-                        getOAuthCacheKey(scope, consumerKey, authorizedUser));
-            }
-            // Return a new access token in each request when JWTTokenIssuer is used.
-            if (accessTokenNotRenewedPerRequest()) {
-                if (existingTokenBean != null) {
-                    long expireTime = getAccessTokenExpiryTimeMillis(existingTokenBean);
-                    if (isExistingTokenValid(existingTokenBean, expireTime)) {
-                        tokReqMsgCtx.addProperty(EXISTING_TOKEN_ISSUED, true);
-                        return createResponseWithTokenBean(existingTokenBean, expireTime, scope);
-                    }
+        TokenIssuanceLockService lockService = TokenIssuanceLockServiceFactory.getLockService();
+        // A database lock holds a connection until the token is issued. The token is then persisted in a unit of work
+        // on that connection, which the unit of work of storeAccessToken joins, instead of on a second connection.
+        UnitOfWork unitOfWork = lockService.isDatabaseLock() ? UnitOfWork.begin() : null;
+        try {
+            try (TokenIssuanceLock issuanceLock = lockService.acquire(consumerKey, authorizedUser, scope)) {
+                OAuth2AccessTokenRespDTO tokenRespDTO = issueUnderLock(tokReqMsgCtx, scope, consumerKey,
+                        authorizedUser);
+                if (unitOfWork != null) {
+                    // Committing releases the row lock, once the token is visible to the requests waiting for it.
+                    unitOfWork.commit();
                 }
-                // Issuing new access token.
-                if (log.isDebugEnabled()) {
-                    log.debug("No active access token found for client Id: " + consumerKey +
-                            ", user: " + authorizedUser + " and scope: " + scope +
-                            ". Therefore issuing new token");
+                return tokenRespDTO;
+            }
+        } finally {
+            if (unitOfWork != null) {
+                unitOfWork.close();
+            }
+        }
+    }
+
+    private OAuth2AccessTokenRespDTO issueUnderLock(OAuthTokenReqMessageContext tokReqMsgCtx, String scope,
+                                                    String consumerKey, String authorizedUser)
+            throws IdentityOAuth2Exception {
+
+        AccessTokenDO existingTokenBean = null;
+        if (isHashDisabled) {
+            existingTokenBean = getExistingToken(tokReqMsgCtx,
+                    getOAuthCacheKey(scope, consumerKey, authorizedUser));
+        }
+        // Return a new access token in each request when JWTTokenIssuer is used.
+        if (accessTokenNotRenewedPerRequest()) {
+            if (existingTokenBean != null) {
+                long expireTime = getAccessTokenExpiryTimeMillis(existingTokenBean);
+                if (isExistingTokenValid(existingTokenBean, expireTime)) {
+                    tokReqMsgCtx.addProperty(EXISTING_TOKEN_ISSUED, true);
+                    return createResponseWithTokenBean(existingTokenBean, expireTime, scope);
                 }
             }
-            return generateNewAccessTokenResponse(tokReqMsgCtx, scope, consumerKey, existingTokenBean);
+            // Issuing new access token.
+            if (log.isDebugEnabled()) {
+                log.debug("No active access token found for client Id: " + consumerKey +
+                        ", user: " + authorizedUser + " and scope: " + scope +
+                        ". Therefore issuing new token");
+            }
         }
+        return generateNewAccessTokenResponse(tokReqMsgCtx, scope, consumerKey, existingTokenBean);
     }
 
     @Override
@@ -234,6 +261,25 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
                 OAuthConstants.UserType.APPLICATION_USER : OAuthConstants.UserType.APPLICATION;
     }
 
+    /**
+     * Persist a newly issued access token. Grant handlers which need to change other data together with the token can
+     * override this method.
+     *
+     * @param tokReqMsgCtx      token request message context
+     * @param userStoreDomain   user store domain of the token partition
+     * @param newTokenBean      new access token
+     * @param newAccessToken    new access token value
+     * @param existingTokenBean latest token of the same client, user and scope, if any
+     * @throws IdentityOAuth2Exception if an error occurs while persisting the access token
+     */
+    protected void storeAccessToken(OAuthTokenReqMessageContext tokReqMsgCtx, String userStoreDomain,
+                                    AccessTokenDO newTokenBean, String newAccessToken,
+                                    AccessTokenDO existingTokenBean) throws IdentityOAuth2Exception {
+
+        storeAccessToken(tokReqMsgCtx.getOauth2AccessTokenReqDTO(), userStoreDomain, newTokenBean, newAccessToken,
+                existingTokenBean);
+    }
+
     protected void storeAccessToken(OAuth2AccessTokenReqDTO oAuth2AccessTokenReqDTO, String userStoreDomain,
                                     AccessTokenDO newTokenBean, String newAccessToken, AccessTokenDO
                                             existingTokenBean) throws IdentityOAuth2Exception {
@@ -287,7 +333,7 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         } else {
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Access token(hashed) " + DigestUtils.sha256Hex(existingTokenBean
+                    log.debug("Access token(hashed) " + HashingUtil.sha256Hex(existingTokenBean
                             .getAccessToken()) + " is not valid anymore");
                 } else {
                     log.debug("Latest access token in the database for client: " +
@@ -342,8 +388,8 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
                                         AccessTokenDO newTokenBean, Timestamp timestamp, String newAccessToken)
             throws IdentityOAuth2Exception {
         OAuth2AccessTokenReqDTO tokenReq = tokReqMsgCtx.getOauth2AccessTokenReqDTO();
-        storeAccessToken(tokenReq, getUserStoreDomain(tokReqMsgCtx.getAuthorizedUser()), newTokenBean, newAccessToken,
-                existingTokenBean);
+        storeAccessToken(tokReqMsgCtx, getUserStoreDomain(tokReqMsgCtx.getAuthorizedUser()), newTokenBean,
+                newAccessToken, existingTokenBean);
         if (log.isDebugEnabled()) {
             log.debug("Persisted Access Token for " +
                     "Client ID: " + tokenReq.getClientId() +
@@ -367,7 +413,7 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
                 log.debug("Access token was added to OAuthCache for cache key : " + cacheKey.getCacheKeyString());
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                     log.debug("Access token was added to OAuthCache for cache key(hashed) : "
-                            + DigestUtils.sha256Hex(accessTokenCacheKey.getCacheKeyString()));
+                            + HashingUtil.sha256Hex(accessTokenCacheKey.getCacheKeyString()));
                 }
             }
         }
@@ -522,12 +568,12 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
                 if (expireTimeMillis > 0) {
-                    log.debug("Access Token(hashed): " + DigestUtils.sha256Hex(existingAccessTokenDO
+                    log.debug("Access Token(hashed): " + HashingUtil.sha256Hex(existingAccessTokenDO
                             .getAccessToken()) + " is still valid. Remaining time: " +
                             expireTimeMillis + "ms");
                 } else {
                     log.debug("Infinite lifetime Access Token(hashed) "
-                            + DigestUtils.sha256Hex(existingAccessTokenDO
+                            + HashingUtil.sha256Hex(existingAccessTokenDO
                             .getAccessToken()) + " found");
                 }
             } else {
@@ -642,7 +688,7 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         if (existingToken != null) {
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Retrieved latest access token(hashed): " + DigestUtils.sha256Hex
+                    log.debug("Retrieved latest access token(hashed): " + HashingUtil.sha256Hex
                             (existingToken.getAccessToken()) + " in the state: " + existingToken.getTokenState() +
                             " for client Id: " + tokenReq.getClientId() + " user: " + tokenMsgCtx.getAuthorizedUser() +
                             " and scope: " + scope + " from db");
@@ -668,7 +714,7 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         if (cacheEntry != null && cacheEntry instanceof AccessTokenDO) {
             existingToken = (AccessTokenDO) cacheEntry;
             if (log.isDebugEnabled() && IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Retrieved active access token(hashed): " + DigestUtils.sha256Hex
+                log.debug("Retrieved active access token(hashed): " + HashingUtil.sha256Hex
                         (existingToken.getAccessToken()) + " in the state: " + existingToken.getTokenState() +
                         " for client Id " + consumerKey + ", user " + authorizedUser +
                         " and scope " + scope + " from cache");
@@ -685,7 +731,7 @@ public abstract class AbstractAuthorizationGrantHandler implements Authorization
         oauthCache.clearCacheEntry(cacheKey);
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Access token(hashed) " + DigestUtils.sha256Hex(existingAccessTokenDO
+                log.debug("Access token(hashed) " + HashingUtil.sha256Hex(existingAccessTokenDO
                         .getAccessToken()) + " is expired. Therefore cleared it from cache and marked" +
                         " it as expired in database");
             } else {
@@ -18,7 +18,6 @@
 
 package org.wso2.carbon.identity.oauth2.token.handlers.grant;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,11 +33,13 @@ import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.AuthorizationCodeValidationResult;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.dao.UnitOfWork;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenReqDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
 import static org.wso2.carbon.identity.oauth2.util.OAuth2Util.buildCacheKeyStringForToken;
@@ -53,6 +54,7 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
 
     // This is used to keep the pre processed authorization code in the OAuthTokenReqMessageContext.
     private static final String AUTHZ_CODE = "AuthorizationCode";
+    private static final String AUTHZ_CODE_REDEEMED = "AuthorizationCodeRedeemed";
     private static final int ALLOWED_MINIMUM_VALIDITY_PERIOD = 1000;
     private static Log log = LogFactory.getLog(AuthorizationCodeGrantHandler.class);
 
@@ -60,7 +62,7 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
     public boolean validateGrant(OAuthTokenReqMessageContext tokReqMsgCtx) throws IdentityOAuth2Exception {
         super.validateGrant(tokReqMsgCtx);
         OAuth2AccessTokenReqDTO tokenReq = tokReqMsgCtx.getOauth2AccessTokenReqDTO();
-        AuthzCodeDO authzCodeBean = getPersistedAuthzCode(tokenReq);
+        AuthzCodeDO authzCodeBean = getPersistedAuthzCode(tokReqMsgCtx, tokenReq);
 
         validateAuthzCodeFromRequest(authzCodeBean, tokenReq.getClientId(), tokenReq.getAuthorizationCode());
         try {
@@ -73,7 +75,7 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
             // After validating grant, authorization code is revoked. This is done to stop repetitive usage of
             // same authorization code in erroneous token requests.
             tokReqMsgCtx.addProperty(CODE_ID, authzCodeBean.getAuthzCodeId());
-            revokeAuthorizationCode(authzCodeBean);
+            revokeAuthorizationCode(tokReqMsgCtx, authzCodeBean);
         }
         if (log.isDebugEnabled()) {
             log.debug("Found Authorization Code for Client : " + tokenReq.getClientId() +
@@ -87,14 +89,34 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
     @Override
     public OAuth2AccessTokenRespDTO issue(OAuthTokenReqMessageContext tokReqMsgCtx)
             throws IdentityOAuth2Exception {
-        OAuth2AccessTokenRespDTO tokenResp = super.issue(tokReqMsgCtx);
         String authzCode = retrieveAuthzCode(tokReqMsgCtx);
-
-        deactivateAuthzCode(tokReqMsgCtx, tokenResp.getTokenId(), authzCode);
+        OAuth2AccessTokenRespDTO tokenResp = super.issue(tokReqMsgCtx);
+        if (isExistingTokenUsed(tokReqMsgCtx)) {
+            // No token was persisted, hence the code was not deactivated together with it.
+            deactivateAuthzCode(tokReqMsgCtx, tokenResp.getTokenId(), authzCode);
+        }
         clearAuthzCodeCache(tokReqMsgCtx, authzCode);
         return tokenResp;
     }
 
+    @Override
+    protected void storeAccessToken(OAuthTokenReqMessageContext tokReqMsgCtx, String userStoreDomain,
+                                    AccessTokenDO newTokenBean, String newAccessToken,
+                                    AccessTokenDO existingTokenBean) throws IdentityOAuth2Exception {
+
+        // Persist the token and deactivate the code on one connection, so that neither is committed without the other.
+        // Only the database operations run in the unit of work, hence the connection is not held while the token is
+        // generated.
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            super.storeAccessToken(tokReqMsgCtx, userStoreDomain, newTokenBean, newAccessToken, existingTokenBean);
+            deactivateAuthzCode(tokReqMsgCtx, newTokenBean.getTokenId(), retrieveAuthzCode(tokReqMsgCtx));
+            unitOfWork.commit();
+        } finally {
+            unitOfWork.close();
+        }
+    }
+
     private void setPropertiesForTokenGeneration(OAuthTokenReqMessageContext tokReqMsgCtx,
                                                  OAuth2AccessTokenReqDTO tokenReq, AuthzCodeDO authzCodeBean) {
         tokReqMsgCtx.setAuthorizedUser(authzCodeBean.getAuthorizedUser());
@@ -222,12 +244,15 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
     }
 
     /**
-     * Provides authorization code request details saved in cache or DB
+     * Provides authorization code request details saved in cache or DB. The code is redeemed with a conditional
+     * update, so that when the same code is used concurrently only one request gets it in the ACTIVE state.
+     * @param tokReqMsgCtx
      * @param tokenReqDTO
      * @return
      * @throws IdentityOAuth2Exception
      */
-    private AuthzCodeDO getPersistedAuthzCode(OAuth2AccessTokenReqDTO tokenReqDTO) throws IdentityOAuth2Exception {
+    private AuthzCodeDO getPersistedAuthzCode(OAuthTokenReqMessageContext tokReqMsgCtx,
+                                              OAuth2AccessTokenReqDTO tokenReqDTO) throws IdentityOAuth2Exception {
 
         AuthzCodeDO authzCodeDO;
         // If cache is enabled, check in the cache first.
@@ -236,7 +261,15 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
                     tokenReqDTO.getClientId(), tokenReqDTO.getAuthorizationCode()));
             authzCodeDO = (AuthzCodeDO) OAuthCache.getInstance().getValueFromCache(cacheKey);
             if (authzCodeDO != null) {
-                return authzCodeDO;
+                if (OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO()
+                        .revokeActiveAuthorizationCode(tokenReqDTO.getClientId(), tokenReqDTO.getAuthorizationCode())) {
+                    tokReqMsgCtx.addProperty(AUTHZ_CODE_REDEEMED, true);
+                    return authzCodeDO;
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Authorization Code found in cache for client id : " + tokenReqDTO.getClientId() +
+                            " is not active in db");
+                }
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Authorization Code Info was not available in cache for client id : "
@@ -249,10 +282,12 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
         }
 
         AuthorizationCodeValidationResult validationResult = OAuthTokenPersistenceFactory.getInstance()
-                .getAuthorizationCodeDAO().validateAuthorizationCode(tokenReqDTO.getClientId(),
+                .getAuthorizationCodeDAO().redeemAuthorizationCode(tokenReqDTO.getClientId(),
                         tokenReqDTO.getAuthorizationCode());
         if (validationResult != null) {
-            if (!validationResult.isActiveCode()) {
+            if (validationResult.isActiveCode()) {
+                tokReqMsgCtx.addProperty(AUTHZ_CODE_REDEEMED, true);
+            } else {
                 //revoking access token issued for authorization code as per RFC 6749 Section 4.1.2
                 revokeExistingAccessTokens(validationResult.getTokenId(), validationResult.getAuthzCodeDO());
             }
@@ -270,7 +305,7 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
 
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.AUTHORIZATION_CODE)) {
-                log.debug("Validated authorization code(hashed): " + DigestUtils.sha256Hex(authzCodeDO
+                log.debug("Validated authorization code(hashed): " + HashingUtil.sha256Hex(authzCodeDO
                         .getAuthorizationCode()) + " for client: " + authzCodeDO.getConsumerKey() + " is not active. " +
                         "So revoking the access tokens issued for the authorization code.");
             } else {
@@ -412,9 +447,13 @@ public class AuthorizationCodeGrantHandler extends AbstractAuthorizationGrantHan
         return true;
     }
 
-    private void revokeAuthorizationCode(AuthzCodeDO authzCodeBean) throws IdentityOAuth2Exception {
-        OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO().updateAuthorizationCodeState(
-                authzCodeBean.getAuthorizationCode(), OAuthConstants.AuthorizationCodeState.REVOKED);
+    private void revokeAuthorizationCode(OAuthTokenReqMessageContext tokReqMsgCtx, AuthzCodeDO authzCodeBean)
+            throws IdentityOAuth2Exception {
+        // A code redeemed by this request is already revoked in the db.
+        if (!Boolean.TRUE.equals(tokReqMsgCtx.getProperty(AUTHZ_CODE_REDEEMED))) {
+            OAuthTokenPersistenceFactory.getInstance().getAuthorizationCodeDAO().updateAuthorizationCodeState(
+                    authzCodeBean.getAuthorizationCode(), OAuthConstants.AuthorizationCodeState.REVOKED);
+        }
         if (log.isDebugEnabled()) {
             log.debug("Changed state of authorization code : " + authzCodeBean.getAuthorizationCode() + " to revoked");
         }
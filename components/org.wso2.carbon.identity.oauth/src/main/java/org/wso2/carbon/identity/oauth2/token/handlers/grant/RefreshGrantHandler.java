@@ -19,7 +19,6 @@
 package org.wso2.carbon.identity.oauth2.token.handlers.grant;
 
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -46,6 +45,7 @@ import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 
 import java.sql.Timestamp;
@@ -275,7 +275,7 @@ public class RefreshGrantHandler extends AbstractAuthorizationGrantHandler {
                 (RefreshTokenValidationDataDO) tokReqMsgCtx.getProperty(PREV_ACCESS_TOKEN);
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                log.debug("Previous access token (hashed): " + DigestUtils.sha256Hex(oldAccessToken.getAccessToken()));
+                log.debug("Previous access token (hashed): " + HashingUtil.sha256Hex(oldAccessToken.getAccessToken()));
             }
         }
         // set the previous access token state to "INACTIVE" and store new access token in single db connection
@@ -430,8 +430,8 @@ public class RefreshGrantHandler extends AbstractAuthorizationGrantHandler {
 
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("New access token (hashed): " + DigestUtils.sha256Hex(accessToken) +
-                            " & new refresh token (hashed): " + DigestUtils.sha256Hex(refreshToken));
+                    log.debug("New access token (hashed): " + HashingUtil.sha256Hex(accessToken) +
+                            " & new refresh token (hashed): " + HashingUtil.sha256Hex(refreshToken));
                 } else {
                     log.debug("Access token and refresh token generated.");
                 }
@@ -454,8 +454,8 @@ public class RefreshGrantHandler extends AbstractAuthorizationGrantHandler {
             accessTokenDO.setRefreshToken(refreshToken);
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Encoded access token (hashed): " + DigestUtils.sha256Hex(accessToken) +
-                            " & encoded refresh token (hashed): " + DigestUtils.sha256Hex(refreshToken));
+                    log.debug("Encoded access token (hashed): " + HashingUtil.sha256Hex(accessToken) +
+                            " & encoded refresh token (hashed): " + HashingUtil.sha256Hex(refreshToken));
                 } else {
                     log.debug("Access token and refresh token encoded using Base64 encoding.");
                 }
@@ -32,7 +32,6 @@ import org.wso2.carbon.base.MultitenantConstants;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
 import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
-import org.wso2.carbon.identity.application.common.model.ClaimConfig;
 import org.wso2.carbon.identity.application.common.model.ClaimMapping;
 import org.wso2.carbon.identity.application.common.model.IdentityProvider;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
@@ -45,6 +44,8 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCache;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheEntry;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthSPClaimMappingCache;
+import org.wso2.carbon.identity.oauth.cache.SPClaimMappingCacheEntry;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
@@ -52,7 +53,6 @@ import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
 import org.wso2.carbon.identity.openidconnect.OIDCConstants;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -112,24 +112,51 @@ public class ClaimsUtil {
     }
 
     /**
-     * To get the relevant Service Provider.
+     * To get the claim mappings of the relevant Service Provider.
      *
      * @param requestMsgCtx Token Request Message Context.
-     * @return Relevant Service Provider.
+     * @return Claim mappings of the relevant Service Provider, or null if the Service Provider cannot be found.
      * @throws IdentityApplicationManagementException Identity Application Management Exception.
      */
-    private static ServiceProvider getServiceProvider(OAuthTokenReqMessageContext requestMsgCtx)
+    private static SPClaimMappingCacheEntry getServiceProviderClaimMappings(OAuthTokenReqMessageContext requestMsgCtx)
             throws IdentityApplicationManagementException {
 
         String spTenantDomain = requestMsgCtx.getOauth2AccessTokenReqDTO().getTenantDomain();
         if (StringUtils.isBlank(spTenantDomain)) {
             spTenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
-        ApplicationManagementService applicationMgtService = OAuth2ServiceComponentHolder.getApplicationMgtService();
-        String spName = applicationMgtService
-                .getServiceProviderNameByClientId(requestMsgCtx.getOauth2AccessTokenReqDTO().getClientId(),
-                        INBOUND_AUTH2_TYPE, spTenantDomain);
-        return applicationMgtService.getApplicationExcludingFileBasedSPs(spName, spTenantDomain);
+        return getServiceProviderClaimMappings(requestMsgCtx.getOauth2AccessTokenReqDTO().getClientId(),
+                spTenantDomain);
+    }
+
+    /**
+     * To get the claim mappings of the Service Provider of an OAuth application. The claim mappings are compiled
+     * once and cached until the Service Provider is updated.
+     *
+     * @param clientId       Client id of the OAuth application.
+     * @param spTenantDomain Tenant domain of the Service Provider.
+     * @return Claim mappings of the Service Provider, or null if the Service Provider cannot be found.
+     * @throws IdentityApplicationManagementException Identity Application Management Exception.
+     */
+    public static SPClaimMappingCacheEntry getServiceProviderClaimMappings(String clientId, String spTenantDomain)
+            throws IdentityApplicationManagementException {
+
+        OAuthSPClaimMappingCache claimMappingCache = OAuthSPClaimMappingCache.getInstance();
+        SPClaimMappingCacheEntry spClaimMappings = claimMappingCache.getClaimMappings(clientId, spTenantDomain);
+        if (spClaimMappings == null) {
+            ApplicationManagementService applicationMgtService =
+                    OAuth2ServiceComponentHolder.getApplicationMgtService();
+            String spName = applicationMgtService.getServiceProviderNameByClientId(clientId, INBOUND_AUTH2_TYPE,
+                    spTenantDomain);
+            ServiceProvider serviceProvider = applicationMgtService.getApplicationExcludingFileBasedSPs(spName,
+                    spTenantDomain);
+            if (serviceProvider == null) {
+                return null;
+            }
+            spClaimMappings = new SPClaimMappingCacheEntry(serviceProvider);
+            claimMappingCache.addClaimMappings(clientId, spTenantDomain, spClaimMappings);
+        }
+        return spClaimMappings;
     }
 
     public static Map<String, String> convertClaimsToOIDCDialect(OAuthTokenReqMessageContext requestMsgCtx,
@@ -153,28 +180,13 @@ public class ClaimsUtil {
             spTenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
 
-        ApplicationManagementService applicationMgtService = OAuth2ServiceComponentHolder.getApplicationMgtService();
-        String spName = applicationMgtService
-                .getServiceProviderNameByClientId(requestMsgCtx.getOauth2AccessTokenReqDTO().getClientId(),
-                        INBOUND_AUTH2_TYPE, spTenantDomain);
-        ServiceProvider serviceProvider = applicationMgtService.getApplicationExcludingFileBasedSPs(spName,
-                spTenantDomain);
-        if (serviceProvider == null) {
+        SPClaimMappingCacheEntry spClaimMappings = getServiceProviderClaimMappings(
+                requestMsgCtx.getOauth2AccessTokenReqDTO().getClientId(), spTenantDomain);
+        if (spClaimMappings == null) {
             return mappedAppClaims;
         }
-        ClaimMapping[] spClaimMappings = serviceProvider.getClaimConfig().getClaimMappings();
-        if (spClaimMappings == null || !(spClaimMappings.length > 0)) {
-            spClaimMappings = new ClaimMapping[0];
-        }
-
-        List<String> requestedLocalClaims = new ArrayList<>();
-        for (ClaimMapping mapping : spClaimMappings) {
-            if (mapping.isRequested()) {
-                requestedLocalClaims.add(mapping.getLocalClaim().getClaimUri());
-            }
-        }
         if (log.isDebugEnabled()) {
-            log.debug("Requested number of local claims: " + requestedLocalClaims.size());
+            log.debug("Requested number of local claims: " + spClaimMappings.getRequestedLocalClaims().size());
         }
 
         Map<String, String> spToLocalClaimMappings = ClaimMetadataHandler.getInstance()
@@ -182,7 +194,7 @@ public class ClaimsUtil {
 
         for (Map.Entry<String, String> oidcToLocalClaimMapping : spToLocalClaimMappings.entrySet()) {
             String value = userClaims.get(oidcToLocalClaimMapping.getValue());
-            if (value != null && requestedLocalClaims.contains(oidcToLocalClaimMapping.getValue())) {
+            if (value != null && spClaimMappings.isRequestedLocalClaim(oidcToLocalClaimMapping.getValue())) {
                 mappedAppClaims.put(oidcToLocalClaimMapping.getKey(), value);
                 if (log.isDebugEnabled() &&
                         IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.USER_CLAIMS)) {
@@ -229,7 +241,7 @@ public class ClaimsUtil {
         ClaimMapping[] idPClaimMappings = identityProvider.getClaimConfig().getClaimMappings();
         Map<String, String> claimsAfterIdpMapping;
         Map<String, String> claimsAfterSPMapping = new HashMap<>();
-        ServiceProvider serviceProvider = getServiceProvider(tokenReqMsgCtx);
+        SPClaimMappingCacheEntry spClaimMappings = getServiceProviderClaimMappings(tokenReqMsgCtx);
 
         if (ArrayUtils.isNotEmpty(idPClaimMappings)) {
             if (log.isDebugEnabled()) {
@@ -252,8 +264,8 @@ public class ClaimsUtil {
                 if (isUserClaimsInTokenLoggable()) {
                     if (log.isDebugEnabled()) {
                         log.debug("IDP claims exists, SP claims does not exist, for the identity provider "
-                                + identityProvider.getIdentityProviderName() + ", service provider " + serviceProvider
-                                .getApplicationName() + ", hence cannot do claim mapping");
+                                + identityProvider.getIdentityProviderName() + ", service provider "
+                                + getApplicationName(spClaimMappings) + ", hence cannot do claim mapping");
                     }
                 }
             }
@@ -273,7 +285,7 @@ public class ClaimsUtil {
                     if (log.isDebugEnabled()) {
                         log.debug("IDP claims do not exist but SP Claim mappings exists for, identity provider, "
                                 + identityProvider.getIdentityProviderName() + ", and Service Provider, "
-                                + serviceProvider.getApplicationName() + ", claims after SP mapping, "
+                                + getApplicationName(spClaimMappings) + ", claims after SP mapping, "
                                 + claimsAfterSPMapping.toString());
                     }
                 }
@@ -286,7 +298,7 @@ public class ClaimsUtil {
                     if (log.isDebugEnabled()) {
                         log.debug("IDP claims and SP Claim mappings do not exists for, identity provider, "
                                 + identityProvider.getIdentityProviderName() + ", and Service Provider, "
-                                + serviceProvider.getApplicationName() + ", hence claims are proxied, "
+                                + getApplicationName(spClaimMappings) + ", hence claims are proxied, "
                                 + claimsAfterSPMapping.toString());
                     }
                 }
@@ -323,20 +335,10 @@ public class ClaimsUtil {
     private static boolean isSPRequestedClaimsExist(OAuthTokenReqMessageContext tokenReqMsgCtx)
             throws IdentityApplicationManagementException {
 
-        boolean isSPClaimMappingExist = false;
-        ServiceProvider serviceProvider = getServiceProvider(tokenReqMsgCtx);
-        ClaimConfig claimConfig = serviceProvider.getClaimConfig();
-        ClaimMapping[] claimMappings = claimConfig.getClaimMappings();
-        if (claimMappings != null) {
-            for (ClaimMapping claimMapping : claimMappings) {
-                if (claimMapping.isRequested()) {
-                    isSPClaimMappingExist = true;
-                    break;
-                }
-            }
-        }
+        SPClaimMappingCacheEntry spClaimMappings = getServiceProviderClaimMappings(tokenReqMsgCtx);
+        boolean isSPClaimMappingExist = spClaimMappings != null && spClaimMappings.hasRequestedClaims();
         if (isSPClaimMappingExist && log.isDebugEnabled()) {
-            log.debug("Service provider " + serviceProvider.getApplicationName() + " has requested claim mappings");
+            log.debug("Service provider " + spClaimMappings.getApplicationName() + " has requested claim mappings");
         }
         return isSPClaimMappingExist;
     }
@@ -394,26 +396,25 @@ public class ClaimsUtil {
             ClaimMapping[] idPClaimMappings) throws IdentityApplicationManagementException {
 
         boolean isUserClaimsLoggable = isUserClaimsInTokenLoggable();
-        ServiceProvider serviceProvider = getServiceProvider(tokenReqMsgCtx);
-        ClaimConfig serviceProviderClaimConfig = serviceProvider.getClaimConfig();
+        SPClaimMappingCacheEntry spClaimMappings = getServiceProviderClaimMappings(tokenReqMsgCtx);
         AuthenticatedUser authenticatedUser = tokenReqMsgCtx.getAuthorizedUser();
 
-        userAttributes.forEach((key, value) -> {
-            boolean foundMatching = false;
-            String localClaimUri = null;
+        // Index the IDP claim mappings by the remote claim, so that each attribute is mapped with a lookup.
+        Map<String, String> idPRemoteToLocalClaims = new HashMap<>();
+        if (ArrayUtils.isNotEmpty(idPClaimMappings)) {
+            for (ClaimMapping claimMapping : idPClaimMappings) {
+                String remoteClaimUri = claimMapping.getRemoteClaim().getClaimUri();
+                if (!idPRemoteToLocalClaims.containsKey(remoteClaimUri)) {
+                    idPRemoteToLocalClaims.put(remoteClaimUri, claimMapping.getLocalClaim().getClaimUri());
+                }
+            }
+        }
 
+        userAttributes.forEach((key, value) -> {
             // If IDP Claim mapping is not empty.
             if (ArrayUtils.isNotEmpty(idPClaimMappings)) {
-                // Go through the claim mappings to identify the missed attributes in IDP level claim mapping.
-                for (ClaimMapping claimMapping : idPClaimMappings) {
-                    if (claimMapping.getRemoteClaim().getClaimUri().equals(key)) {
-                        localClaimUri = claimMapping.getLocalClaim().getClaimUri();
-                        foundMatching = true;
-                        break;
-                    }
-                }
                 // If the relevant attribute is not mapped in IDP, add that.
-                if (!foundMatching) {
+                if (!idPRemoteToLocalClaims.containsKey(key)) {
                     if (isUserClaimsLoggable) {
                         if (log.isDebugEnabled()) {
                             log.debug("IDP Claim mapping does not exist for " + key + ", hence adding value " + value
@@ -421,47 +422,26 @@ public class ClaimsUtil {
                         }
                     }
                     claimsAfterIDPandSPMapping.put(key, value);
-                } else {
-                    // If the relevant attribute has mapping in IDP level, check for SP level mapping.
-                    foundMatching = false;
-                    ClaimMapping[] spClaimMapping = serviceProviderClaimConfig.getClaimMappings();
-                    for (ClaimMapping claimMapping : spClaimMapping) {
-                        if (claimMapping.getLocalClaim().getClaimUri().equals(localClaimUri) && claimMapping
-                                .isRequested()) {
-                            foundMatching = true;
-                            break;
-                        }
-                    }
+                } else if (!isRequestedLocalClaim(spClaimMappings, idPRemoteToLocalClaims.get(key))) {
                     // If the relevant attribute has IDP level mapping but not SP level mapping, add it.
-                    if (!foundMatching) {
-                        if (isUserClaimsLoggable) {
-                            if (log.isDebugEnabled()) {
-                                log.debug("IDP Claim mapping exist, but SP Claim mapping does not exist for " + key
-                                        + ", hence adding value " + value + " for the user : " + authenticatedUser);
-                            }
+                    if (isUserClaimsLoggable) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("IDP Claim mapping exist, but SP Claim mapping does not exist for " + key
+                                    + ", hence adding value " + value + " for the user : " + authenticatedUser);
                         }
-                        claimsAfterIDPandSPMapping.put(key, value);
                     }
+                    claimsAfterIDPandSPMapping.put(key, value);
                 }
-            } else {
+            } else if (!isRequestedLocalClaim(spClaimMappings, key)) {
                 // If the IDP level mapping is not there, all the claims coming from IDP are assumed to be local claim.
-                ClaimMapping[] spClaimMapping = serviceProviderClaimConfig.getClaimMappings();
-                for (ClaimMapping claimMapping : spClaimMapping) {
-                    if (claimMapping.getLocalClaim().getClaimUri().equals(key) && claimMapping.isRequested()) {
-                        foundMatching = true;
-                        break;
-                    }
-                }
                 // If the attribute does not have the specific mapping in SP level, add the mapping.
-                if (!foundMatching) {
-                    if (isUserClaimsLoggable) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("SP Claim mapping does not exist for " + key + ", hence adding value " + value
-                                    + " for the user : " + authenticatedUser);
-                        }
+                if (isUserClaimsLoggable) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("SP Claim mapping does not exist for " + key + ", hence adding value " + value
+                                + " for the user : " + authenticatedUser);
                     }
-                    claimsAfterIDPandSPMapping.put(key, value);
                 }
+                claimsAfterIDPandSPMapping.put(key, value);
             }
         });
         if (isUserClaimsLoggable) {
@@ -473,6 +453,16 @@ public class ClaimsUtil {
         return claimsAfterIDPandSPMapping;
     }
 
+    private static boolean isRequestedLocalClaim(SPClaimMappingCacheEntry spClaimMappings, String localClaimUri) {
+
+        return spClaimMappings != null && spClaimMappings.isRequestedLocalClaim(localClaimUri);
+    }
+
+    private static String getApplicationName(SPClaimMappingCacheEntry spClaimMappings) {
+
+        return spClaimMappings != null ? spClaimMappings.getApplicationName() : null;
+    }
+
     /**
      * To check whether relevant identity provider is resident identity provider.
      *
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hashing functions used for tokens, authorization codes, client secrets and scopes. MessageDigest instances are
+ * created once per thread and algorithm and reused, values are always encoded in UTF-8, and digests are encoded to
+ * lower case hex with a lookup table.
+ */
+public class HashingUtil {
+
+    public static final String SHA_256 = "SHA-256";
+    public static final String MD5 = "MD5";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Map<String, MessageDigest>> MESSAGE_DIGESTS =
+            new ThreadLocal<Map<String, MessageDigest>>() {
+                @Override
+                protected Map<String, MessageDigest> initialValue() {
+                    return new HashMap<>();
+                }
+            };
+
+    private HashingUtil() {
+
+    }
+
+    /**
+     * Hash the UTF-8 bytes of the given value.
+     *
+     * @param algorithm hash algorithm
+     * @param value     value to be hashed
+     * @return hash of the value, encoded in lower case hex
+     * @throws NoSuchAlgorithmException if the hash algorithm is not supported
+     */
+    public static String hashToHex(String algorithm, String value) throws NoSuchAlgorithmException {
+
+        return toHex(getMessageDigest(algorithm).digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Same as DigestUtils.sha256Hex(String), without creating a MessageDigest for every call.
+     *
+     * @param value value to be hashed
+     * @return SHA-256 hash of the value, encoded in lower case hex
+     */
+    public static String sha256Hex(String value) {
+
+        return hashToHexWithStandardAlgorithm(SHA_256, value);
+    }
+
+    /**
+     * Same as DigestUtils.md5Hex(String), without creating a MessageDigest for every call.
+     *
+     * @param value value to be hashed
+     * @return MD5 hash of the value, encoded in lower case hex
+     */
+    public static String md5Hex(String value) {
+
+        return hashToHexWithStandardAlgorithm(MD5, value);
+    }
+
+    /**
+     * @param bytes bytes to be encoded
+     * @return lower case hex representation of the bytes
+     */
+    public static String toHex(byte[] bytes) {
+
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static String hashToHexWithStandardAlgorithm(String algorithm, String value) {
+
+        try {
+            return hashToHex(algorithm, value);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support MD5 and SHA-256.
+            throw new IllegalStateException(algorithm + " is not supported by the platform", e);
+        }
+    }
+
+    private static MessageDigest getMessageDigest(String algorithm) throws NoSuchAlgorithmException {
+
+        Map<String, MessageDigest> messageDigests = MESSAGE_DIGESTS.get();
+        MessageDigest messageDigest = messageDigests.get(algorithm);
+        if (messageDigest == null) {
+            messageDigest = MessageDigest.getInstance(algorithm);
+            messageDigests.put(algorithm, messageDigest);
+        } else {
+            messageDigest.reset();
+        }
+        return messageDigest;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+/**
+ * Reads numeric OAuth properties from identity.xml. Blank values resolve to the default, and values that cannot be
+ * parsed or are below the allowed minimum resolve to the default with a warning.
+ */
+public class OAuth2ConfigUtil {
+
+    private static final Log log = LogFactory.getLog(OAuth2ConfigUtil.class);
+
+    private OAuth2ConfigUtil() {
+
+    }
+
+    /**
+     * @param property     identity.xml property
+     * @param minValue     smallest allowed value
+     * @param defaultValue value used when the property is not set or is invalid
+     * @return configured value of the property
+     */
+    public static int getIntProperty(String property, int minValue, int defaultValue) {
+
+        return (int) getProperty(property, minValue, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * @param property     identity.xml property
+     * @param minValue     smallest allowed value
+     * @param defaultValue value used when the property is not set or is invalid
+     * @return configured value of the property
+     */
+    public static long getLongProperty(String property, long minValue, long defaultValue) {
+
+        return getProperty(property, minValue, Long.MAX_VALUE, defaultValue);
+    }
+
+    private static long getProperty(String property, long minValue, long maxValue, long defaultValue) {
+
+        String value = IdentityUtil.getProperty(property);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            long parsedValue = Long.parseLong(value.trim());
+            if (parsedValue >= minValue && parsedValue <= maxValue) {
+                return parsedValue;
+            }
+        } catch (NumberFormatException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while parsing " + property, e);
+            }
+        }
+        log.warn("Invalid value configured for " + property + ". Using default value: " + defaultValue);
+        return defaultValue;
+    }
+}
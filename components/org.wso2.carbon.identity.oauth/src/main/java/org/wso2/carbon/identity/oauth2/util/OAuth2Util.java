@@ -26,10 +26,8 @@ import com.nimbusds.jose.JWEEncrypter;
 import com.nimbusds.jose.JWEHeader;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.RSAEncrypter;
-import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.EncryptedJWT;
@@ -40,7 +38,6 @@ import org.apache.axiom.om.OMElement;
 import org.apache.axiom.om.impl.builder.StAXOMBuilder;
 import org.apache.axiom.util.base64.Base64Utils;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.lang.StringUtils;
@@ -67,6 +64,11 @@ import org.wso2.carbon.identity.oauth.cache.AppInfoCache;
 import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientAuthenticationCache;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientCredentialCache;
+import org.wso2.carbon.identity.oauth.cache.OAuthInvalidTokenCache;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCache;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCacheEntry;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.common.exception.InvalidOAuthClientException;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
@@ -77,7 +79,9 @@ import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
 import org.wso2.carbon.identity.oauth2.config.SpOAuth2ExpiryTimeConfiguration;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.dao.ReadReplicaRouter;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.ClientCredentialDO;
@@ -103,27 +107,27 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.security.Key;
-import java.security.KeyStore;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
-import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.namespace.QName;
@@ -231,8 +235,6 @@ public class OAuth2Util {
     //Precompile PKCE Regex pattern for performance improvement
     private static Pattern pkceCodeVerifierPattern = Pattern.compile("[\\w\\-\\._~]+");
 
-    private static Map<Integer, Certificate> publicCerts = new ConcurrentHashMap<Integer, Certificate>();
-    private static Map<Integer, Key> privateKeys = new ConcurrentHashMap<Integer, Key>();
 
     // Supported Signature Algorithms
     private static final String NONE = "NONE";
@@ -245,6 +247,9 @@ public class OAuth2Util {
     private static final String SHA256_WITH_EC = "SHA256withEC";
     private static final String SHA384_WITH_EC = "SHA384withEC";
     private static final String SHA512_WITH_EC = "SHA512withEC";
+    private static final List<String> JWS_SIGNATURE_ALGORITHMS = Arrays.asList(JWSAlgorithm.RS256.getName(),
+            JWSAlgorithm.RS384.getName(), JWSAlgorithm.RS512.getName(), JWSAlgorithm.ES256.getName(),
+            JWSAlgorithm.ES384.getName(), JWSAlgorithm.ES512.getName());
     private static final String SHA256 = "SHA-256";
     private static final String SHA384 = "SHA-384";
     private static final String SHA512 = "SHA-512";
@@ -383,9 +388,9 @@ public class OAuth2Util {
         String clientSecret = null;
 
         // Check the cache first.
-        CacheEntry cacheResult = OAuthCache.getInstance().getValueFromCache(new OAuthCacheKey(clientId));
-        if (cacheResult != null && cacheResult instanceof ClientCredentialDO) {
-            ClientCredentialDO clientCredentialDO = (ClientCredentialDO) cacheResult;
+        ClientCredentialDO clientCredentialDO =
+                OAuthClientCredentialCache.getInstance().getValueFromCache(new OAuthCacheKey(clientId));
+        if (clientCredentialDO != null) {
             clientSecret = clientCredentialDO.getClientSecret();
             cacheHit = true;
             if (log.isDebugEnabled()) {
@@ -422,14 +427,32 @@ public class OAuth2Util {
                 return false;
             }
         } else {
-            // Check whether the provided consumerKey, consumerSecret combination is exist or not in the database.
-            if (!oAuthConsumerDAO.isConsumerSecretExist(clientId, clientSecretProvided)) {
+            // Check whether the provided consumerKey, consumerSecret combination is exist or not in the database,
+            // unless the same secret was authenticated before.
+            OAuthClientAuthenticationCache authenticationCache = OAuthClientAuthenticationCache.getInstance();
+            if (authenticationCache.isVerifiedSecret(clientId, clientSecretProvided)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Client secret was verified from the cache for client id : " + clientId);
+                }
+            } else if (!oAuthConsumerDAO.isConsumerSecretExist(clientId, clientSecretProvided)) {
                 if (log.isDebugEnabled()) {
                     log.debug("Provided the Client ID : " + clientId +
                             " and Client Secret do not match with the issued credentials.");
                 }
 
                 return false;
+            } else {
+                authenticationCache.addVerifiedSecret(clientId, clientSecretProvided);
+                // The secret may have been regenerated, and the cache cleared, after it was checked and before it
+                // was cached. Check it again, so that the secret is not kept as verified after it was replaced.
+                if (!oAuthConsumerDAO.isConsumerSecretExist(clientId, clientSecretProvided)) {
+                    authenticationCache.clearVerifiedSecret(clientId);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Client secret of client id : " + clientId + " was changed while it was " +
+                                "authenticated.");
+                    }
+                    return false;
+                }
             }
         }
 
@@ -439,7 +462,8 @@ public class OAuth2Util {
 
         if (!cacheHit) {
 
-            OAuthCache.getInstance().addToCache(new OAuthCacheKey(clientId), new ClientCredentialDO(clientSecret));
+            OAuthClientCredentialCache.getInstance().addToCache(new OAuthCacheKey(clientId),
+                    new ClientCredentialDO(clientSecret));
             if (log.isDebugEnabled()) {
                 log.debug("Client credentials were added to the cache for client id : " + clientId);
             }
@@ -481,11 +505,11 @@ public class OAuth2Util {
 
         if (OAuth2Util.authenticateClient(clientId, clientSecretProvided)) {
 
-            CacheEntry cacheResult =
-                    OAuthCache.getInstance().getValueFromCache(new OAuthCacheKey(clientId + ":" + username));
-            if (cacheResult != null && cacheResult instanceof ClientCredentialDO) {
+            ClientCredentialDO cacheResult = OAuthClientCredentialCache.getInstance()
+                    .getValueFromCache(new OAuthCacheKey(clientId + ":" + username));
+            if (cacheResult != null) {
                 // Ugh. This is fugly. Have to have a generic way of caching a key:value pair
-                username = ((ClientCredentialDO) cacheResult).getClientSecret();
+                username = cacheResult.getClientSecret();
                 cacheHit = true;
                 if (log.isDebugEnabled()) {
                     log.debug("Username was available in the cache : " + username);
@@ -510,10 +534,11 @@ public class OAuth2Util {
                   to have a generalized way of caching a key:value pair
                  */
                 if (isUsernameCaseSensitive) {
-                    OAuthCache.getInstance()
+                    OAuthClientCredentialCache.getInstance()
                             .addToCache(new OAuthCacheKey(clientId + ":" + username), new ClientCredentialDO(username));
                 } else {
-                    OAuthCache.getInstance().addToCache(new OAuthCacheKey(clientId + ":" + username.toLowerCase()),
+                    OAuthClientCredentialCache.getInstance().addToCache(
+                            new OAuthCacheKey(clientId + ":" + username.toLowerCase()),
                             new ClientCredentialDO(username));
                 }
                 if (log.isDebugEnabled()) {
@@ -873,7 +898,7 @@ public class OAuth2Util {
         if (validityPeriodMillis < 0) {
             if (log.isDebugEnabled()) {
                 if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                    log.debug("Access Token(hashed) : " + DigestUtils.sha256Hex(accessTokenDO.getAccessToken()) +
+                    log.debug("Access Token(hashed) : " + HashingUtil.sha256Hex(accessTokenDO.getAccessToken()) +
                             " has infinite lifetime");
                 } else {
                     log.debug("Access Token has infinite lifetime");
@@ -935,13 +960,13 @@ public class OAuth2Util {
     }
 
     public static String hashScopes(String[] scope) {
-        return DigestUtils.md5Hex(OAuth2Util.buildScopeString(scope));
+        return HashingUtil.md5Hex(OAuth2Util.buildScopeString(scope));
     }
 
     public static String hashScopes(String scope) {
         if (scope != null) {
             //first converted to an array to sort the scopes
-            return DigestUtils.md5Hex(OAuth2Util.buildScopeString(buildScopeArray(scope)));
+            return HashingUtil.md5Hex(OAuth2Util.buildScopeString(buildScopeArray(scope)));
         } else {
             return null;
         }
@@ -1239,10 +1264,11 @@ public class OAuth2Util {
             Map<String, String> scopes = loadScopeConfigFile();
             Registry registry = OAuth2ServiceComponentHolder.getRegistryService().getConfigSystemRegistry(tenantId);
 
+            Resource resource;
             if (!registry
                     .resourceExists(OAuthConstants.SCOPE_RESOURCE_PATH)) {
 
-                Resource resource = registry.newResource();
+                resource = registry.newResource();
                 if (scopes.size() > 0) {
                     for (Map.Entry<String, String> entry : scopes.entrySet()) {
                         resource.setProperty(entry.getKey(), entry.getValue());
@@ -1250,7 +1276,11 @@ public class OAuth2Util {
                 }
 
                 registry.put(OAuthConstants.SCOPE_RESOURCE_PATH, resource);
+            } else {
+                resource = registry.get(OAuthConstants.SCOPE_RESOURCE_PATH);
             }
+            // Seed the OIDC scope claim mapping of the tenant, so that the first ID token does not read the registry.
+            OIDCScopeClaimCache.getInstance().addScopeClaimMapping(tenantId, new OIDCScopeClaimCacheEntry(resource));
         } catch (RegistryException e) {
             log.error("Error while creating registry collection for :" + OAuthConstants.SCOPE_RESOURCE_PATH, e);
         }
@@ -1292,10 +1322,18 @@ public class OAuth2Util {
             cacheHit = true;
         }
 
-        // cache miss, load the access token info from the database.
+        // cache miss, load the access token info from the database unless the token is already known to be invalid.
         if (accessTokenDO == null) {
-            accessTokenDO = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO()
-                    .getAccessToken(accessTokenIdentifier, false);
+            OAuthInvalidTokenCache invalidTokenCache = OAuthInvalidTokenCache.getInstance();
+            if (invalidTokenCache.isInvalidToken(accessTokenIdentifier)) {
+                throw new IllegalArgumentException("Invalid Access Token. Access token is not ACTIVE.");
+            }
+            AccessTokenDAO accessTokenDAO = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO();
+            accessTokenDO = accessTokenDAO.getAccessToken(accessTokenIdentifier, false);
+            if (accessTokenDO == null) {
+                accessTokenDO = cacheInvalidAccessTokens(accessTokenDAO, Collections.singleton(accessTokenIdentifier))
+                        .get(accessTokenIdentifier);
+            }
         }
 
         if (accessTokenDO == null) {
@@ -1316,6 +1354,97 @@ public class OAuth2Util {
     }
 
 
+    /**
+     * Returns the access tokens of the given identifiers, as {@link #getAccessTokenDOfromTokenIdentifier(String)}
+     * would for each identifier. Tokens which are not in the cache are retrieved from the database together.
+     *
+     * @param accessTokenIdentifiers access token identifiers
+     * @return access tokens mapped by their identifiers. Identifiers of tokens which are not active are mapped to null.
+     * @throws IdentityOAuth2Exception if an error occurs while retrieving the access tokens
+     */
+    public static Map<String, AccessTokenDO> getAccessTokenDOsFromTokenIdentifiers(
+            Collection<String> accessTokenIdentifiers) throws IdentityOAuth2Exception {
+
+        Map<String, AccessTokenDO> accessTokens = new HashMap<>();
+        Set<String> cacheMisses = new LinkedHashSet<>();
+        OAuthInvalidTokenCache invalidTokenCache = OAuthInvalidTokenCache.getInstance();
+        for (String accessTokenIdentifier : accessTokenIdentifiers) {
+            CacheEntry result = OAuthCache.getInstance().getValueFromCache(new OAuthCacheKey(accessTokenIdentifier));
+            if (result instanceof AccessTokenDO) {
+                accessTokens.put(accessTokenIdentifier, (AccessTokenDO) result);
+            } else if (invalidTokenCache.isInvalidToken(accessTokenIdentifier)) {
+                accessTokens.put(accessTokenIdentifier, null);
+            } else {
+                cacheMisses.add(accessTokenIdentifier);
+            }
+        }
+
+        if (!cacheMisses.isEmpty()) {
+            AccessTokenDAO accessTokenDAO = OAuthTokenPersistenceFactory.getInstance().getAccessTokenDAO();
+            Map<String, AccessTokenDO> retrievedTokens = new HashMap<>(accessTokenDAO.getActiveAccessTokens(
+                    cacheMisses));
+            Set<String> invalidTokens = new LinkedHashSet<>(cacheMisses);
+            invalidTokens.removeAll(retrievedTokens.keySet());
+            if (!invalidTokens.isEmpty()) {
+                retrievedTokens.putAll(cacheInvalidAccessTokens(accessTokenDAO, invalidTokens));
+            }
+            for (String accessTokenIdentifier : cacheMisses) {
+                AccessTokenDO accessTokenDO = retrievedTokens.get(accessTokenIdentifier);
+                if (accessTokenDO != null) {
+                    OAuthCache.getInstance().addToCache(new OAuthCacheKey(accessTokenIdentifier), accessTokenDO);
+                }
+                accessTokens.put(accessTokenIdentifier, accessTokenDO);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(retrievedTokens.size() + " of " + cacheMisses.size() + " access tokens missing in the " +
+                        "cache were retrieved from the database.");
+            }
+        }
+        return accessTokens;
+    }
+
+    /**
+     * Marks access tokens, which were not found active in the database, as invalid in the invalid token cache. A token
+     * may be persisted, and its invalid token cache entry cleared, after it was looked up and before the entry is
+     * added. Hence the tokens are looked up again on the primary database once the entries are added, and the entries
+     * of the tokens found are cleared. Tokens which were only looked up on a read replica are confirmed on the primary
+     * before they are marked, since they may not have been replicated yet.
+     *
+     * @param accessTokenDAO         DAO used to look up the tokens
+     * @param accessTokenIdentifiers identifiers of the tokens which were not found active
+     * @return tokens which were found on the primary database, mapped by their identifiers
+     * @throws IdentityOAuth2Exception if an error occurs while retrieving the access tokens
+     */
+    public static Map<String, AccessTokenDO> cacheInvalidAccessTokens(AccessTokenDAO accessTokenDAO,
+                                                                      Collection<String> accessTokenIdentifiers)
+            throws IdentityOAuth2Exception {
+
+        Map<String, AccessTokenDO> persistedTokens = new HashMap<>();
+        Set<String> invalidTokens = new LinkedHashSet<>(accessTokenIdentifiers);
+        if (ReadReplicaRouter.isReplicaInUse() && !ReadReplicaRouter.isPrimaryFallbackEnabled()) {
+            persistedTokens.putAll(accessTokenDAO.getActiveAccessTokensFromPrimary(invalidTokens));
+            invalidTokens.removeAll(persistedTokens.keySet());
+        }
+        if (invalidTokens.isEmpty()) {
+            return persistedTokens;
+        }
+
+        OAuthInvalidTokenCache invalidTokenCache = OAuthInvalidTokenCache.getInstance();
+        for (String accessTokenIdentifier : invalidTokens) {
+            invalidTokenCache.addInvalidToken(accessTokenIdentifier, OAuthInvalidTokenCache.TOKEN_NOT_ACTIVE);
+        }
+        Map<String, AccessTokenDO> recentTokens = accessTokenDAO.getActiveAccessTokensFromPrimary(invalidTokens);
+        for (String accessTokenIdentifier : recentTokens.keySet()) {
+            invalidTokenCache.clearInvalidToken(accessTokenIdentifier);
+        }
+        if (log.isDebugEnabled() && !recentTokens.isEmpty()) {
+            log.debug(recentTokens.size() + " access tokens were persisted while they were being marked as " +
+                    "invalid.");
+        }
+        persistedTokens.putAll(recentTokens);
+        return persistedTokens;
+    }
+
     public static String getClientIdForAccessToken(String accessTokenIdentifier) throws IdentityOAuth2Exception {
         AccessTokenDO accessTokenDO = getAccessTokenDOfromTokenIdentifier(accessTokenIdentifier);
         return accessTokenDO.getConsumerKey();
@@ -1639,6 +1768,9 @@ public class OAuth2Util {
             return JWSAlgorithm.ES384;
         } else if (SHA512_WITH_EC.equals(signatureAlgorithm)) {
             return JWSAlgorithm.ES512;
+        } else if (JWS_SIGNATURE_ALGORITHMS.contains(signatureAlgorithm)) {
+            // Algorithms selected by clients use the JWS names, as advertised in the discovery document.
+            return JWSAlgorithm.parse(signatureAlgorithm);
         } else {
             log.error("Unsupported Signature Algorithm in identity.xml");
             throw new IdentityOAuth2Exception("Unsupported Signature Algorithm in identity.xml");
@@ -1857,13 +1989,26 @@ public class OAuth2Util {
             // return signWithHMAC(jwtClaimsSet,jwsAlgorithm,request); implementation need to be done
             throw new RuntimeException("Provided signature algorithm: " + signatureAlgorithm +
                     " is not supported");
+        } else if (isECDSAAlgorithm(signatureAlgorithm)) {
+            return signJWTWithECDSA(jwtClaimsSet, signatureAlgorithm, tenantDomain);
         } else {
-            // return signWithEC(jwtClaimsSet,jwsAlgorithm,request); implementation need to be done
             throw new RuntimeException("Provided signature algorithm: " + signatureAlgorithm +
                     " is not supported");
         }
     }
 
+    /**
+     * Checks whether the given signature algorithm is one of the ECDSA algorithms.
+     *
+     * @param signatureAlgorithm JWT signing algorithm
+     * @return true if the algorithm is ES256, ES384 or ES512
+     */
+    public static boolean isECDSAAlgorithm(JWSAlgorithm signatureAlgorithm) {
+
+        return JWSAlgorithm.ES256.equals(signatureAlgorithm) || JWSAlgorithm.ES384.equals(signatureAlgorithm) ||
+                JWSAlgorithm.ES512.equals(signatureAlgorithm);
+    }
+
     /**
      * sign JWT token from RSA algorithm
      *
@@ -1876,6 +2021,27 @@ public class OAuth2Util {
     //TODO: Can make this private after removing deprecated "signJWTWithRSA" methods in DefaultIDTokenBuilder
     public static JWT signJWTWithRSA(JWTClaimsSet jwtClaimsSet, JWSAlgorithm signatureAlgorithm, String tenantDomain)
             throws IdentityOAuth2Exception {
+
+        return signJWTWithKey(jwtClaimsSet, signatureAlgorithm, tenantDomain);
+    }
+
+    /**
+     * sign JWT token from ECDSA algorithm, using the elliptic curve key configured for the tenant
+     *
+     * @param jwtClaimsSet contains JWT body
+     * @param signatureAlgorithm JWT signing algorithm
+     * @param tenantDomain tenant domain
+     * @return signed JWT token
+     * @throws IdentityOAuth2Exception
+     */
+    public static JWT signJWTWithECDSA(JWTClaimsSet jwtClaimsSet, JWSAlgorithm signatureAlgorithm,
+                                       String tenantDomain) throws IdentityOAuth2Exception {
+
+        return signJWTWithKey(jwtClaimsSet, signatureAlgorithm, tenantDomain);
+    }
+
+    private static JWT signJWTWithKey(JWTClaimsSet jwtClaimsSet, JWSAlgorithm signatureAlgorithm, String tenantDomain)
+            throws IdentityOAuth2Exception {
         try {
             if (StringUtils.isBlank(tenantDomain)) {
                 tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
@@ -1890,55 +2056,73 @@ public class OAuth2Util {
             }
 
             int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-            Key privateKey = getPrivateKey(tenantDomain, tenantId);
-            JWSSigner signer = new RSASSASigner((RSAPrivateKey) privateKey);
-            JWSHeader.Builder headerBuilder = new JWSHeader.Builder((JWSAlgorithm) signatureAlgorithm);
-            headerBuilder.keyID(getThumbPrint(tenantDomain, tenantId));
-            headerBuilder.x509CertThumbprint(new Base64URL(getThumbPrint(tenantDomain, tenantId)));
+            SigningKeyMaterial signingKey =
+                    SigningKeyRegistry.getInstance().getSigningKey(tenantDomain, tenantId, signatureAlgorithm);
+            JWSHeader.Builder headerBuilder = new JWSHeader.Builder(signatureAlgorithm);
+            headerBuilder.keyID(signingKey.getKeyId());
+            headerBuilder.x509CertThumbprint(signingKey.getX509CertThumbprint());
             SignedJWT signedJWT = new SignedJWT(headerBuilder.build(), jwtClaimsSet);
-            signedJWT.sign(signer);
+            signedJWT.sign(signingKey.getSigner());
             return signedJWT;
         } catch (JOSEException e) {
             throw new IdentityOAuth2Exception("Error occurred while signing JWT", e);
         }
     }
 
-    public static Key getPrivateKey(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
-        Key privateKey;
-        if (!(privateKeys.containsKey(tenantId))) {
-
-            try {
-                IdentityTenantUtil.initializeRegistry(tenantId, tenantDomain);
-            } catch (IdentityException e) {
-                throw new IdentityOAuth2Exception("Error occurred while loading registry for tenant " + tenantDomain,
-                        e);
-            }
-
-            // get tenant's key store manager
-            KeyStoreManager tenantKSM = KeyStoreManager.getInstance(tenantId);
+    /**
+     * Returns the ID token signature algorithms supported by the tenant. The server default algorithm is listed
+     * first, followed by the RSA algorithms and the algorithm of the elliptic curve signing key of the tenant when
+     * one is configured and the key store of the tenant has the key.
+     *
+     * @param tenantDomain tenant domain
+     * @return names of the supported ID token signature algorithms
+     * @throws IdentityOAuth2Exception if the server default algorithm is not supported
+     */
+    public static List<String> getSupportedIdTokenSigningAlgorithms(String tenantDomain)
+            throws IdentityOAuth2Exception {
 
-            if (!tenantDomain.equals(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-                // derive key store name
-                String ksName = tenantDomain.trim().replace(".", "-");
-                String jksName = ksName + ".jks";
-                // obtain private key
-                privateKey = tenantKSM.getPrivateKey(jksName, tenantDomain);
+        Set<String> algorithms = new LinkedHashSet<>();
+        String defaultAlgorithm = OAuthServerConfiguration.getInstance().getIdTokenSignatureAlgorithm();
+        if (StringUtils.isNotBlank(defaultAlgorithm)) {
+            algorithms.add(mapSignatureAlgorithmForJWSAlgorithm(defaultAlgorithm).getName());
+        }
+        algorithms.add(JWSAlgorithm.RS256.getName());
+        algorithms.add(JWSAlgorithm.RS384.getName());
+        algorithms.add(JWSAlgorithm.RS512.getName());
 
-            } else {
-                try {
-                    privateKey = tenantKSM.getDefaultPrivateKey();
-                } catch (Exception e) {
-                    throw new IdentityOAuth2Exception("Error while obtaining private key for super tenant", e);
+        if (SigningKeyRegistry.getECSigningKeyAlias() != null) {
+            if (StringUtils.isBlank(tenantDomain)) {
+                tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+            }
+            try {
+                SigningKeyMaterial ecSigningKey = SigningKeyRegistry.getInstance()
+                        .getECSigningKey(tenantDomain, IdentityTenantUtil.getTenantId(tenantDomain));
+                for (JWSAlgorithm algorithm : ecSigningKey.getSupportedAlgorithms()) {
+                    algorithms.add(algorithm.getName());
+                }
+            } catch (IdentityOAuth2Exception e) {
+                // The key store of a tenant may not have the elliptic curve key, e.g. a tenant created before the
+                // alias was configured. The tenant can still sign with its RSA key.
+                if (log.isDebugEnabled()) {
+                    log.debug("Elliptic curve signing key is not available in tenant: " + tenantDomain +
+                            ". Elliptic curve signature algorithms are not supported in the tenant.", e);
                 }
             }
-            //privateKey will not be null always
-            privateKeys.put(tenantId, privateKey);
-        } else {
-            //privateKey will not be null because containsKey() true says given key is exist and ConcurrentHashMap
-            // does not allow to store null values
-            privateKey = privateKeys.get(tenantId);
         }
-        return privateKey;
+        return new ArrayList<>(algorithms);
+    }
+
+    /**
+     * Returns the signing key of the tenant from the {@link SigningKeyRegistry}.
+     *
+     * @param tenantDomain tenant domain
+     * @param tenantId     tenant id
+     * @return private key of the tenant
+     * @throws IdentityOAuth2Exception
+     */
+    public static Key getPrivateKey(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
+
+        return SigningKeyRegistry.getInstance().getSigningKey(tenantDomain, tenantId).getPrivateKey();
     }
 
     /**
@@ -1950,21 +2134,20 @@ public class OAuth2Util {
      */
     public static String getThumbPrint(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
 
-        try {
-
-            Certificate certificate = getCertificate(tenantDomain, tenantId);
-
-            // TODO: maintain a hashmap with tenants' pubkey thumbprints after first initialization
-            return getThumbPrint(certificate);
-
-
-        } catch (Exception e) {
-            String error = "Error in obtaining certificate for tenant " + tenantDomain;
-            throw new IdentityOAuth2Exception(error, e);
-        }
+        return SigningKeyRegistry.getInstance().getSigningKey(tenantDomain, tenantId).getKeyId();
     }
 
-    private static String getThumbPrint(Certificate certificate) throws NoSuchAlgorithmException, CertificateEncodingException {
+    /**
+     * Generates the thumbprint used as the key id of the given certificate.
+     *
+     * @param certificate certificate
+     * @return base64url encoded SHA-1 thumbprint of the certificate
+     * @throws NoSuchAlgorithmException    if SHA-1 is not available
+     * @throws CertificateEncodingException if the certificate cannot be encoded
+     */
+    public static String getThumbPrint(Certificate certificate)
+            throws NoSuchAlgorithmException, CertificateEncodingException {
+
         // Generate the SHA-1 thumbprint of the certificate.
         MessageDigest digestValue = MessageDigest.getInstance("SHA-1");
         byte[] der = certificate.getEncoded();
@@ -1981,39 +2164,6 @@ public class OAuth2Util {
                 JWEAlgorithm.RSA_OAEP_256.equals(algorithm));
     }
 
-    private static Certificate getCertificate(String tenantDomain, int tenantId) throws Exception {
-        Certificate publicCert = null;
-
-        if (!(publicCerts.containsKey(tenantId))) {
-
-            try {
-                IdentityTenantUtil.initializeRegistry(tenantId, tenantDomain);
-            } catch (IdentityException e) {
-                throw new IdentityOAuth2Exception("Error occurred while loading registry for tenant " + tenantDomain, e);
-            }
-
-            // get tenant's key store manager
-            KeyStoreManager tenantKSM = KeyStoreManager.getInstance(tenantId);
-
-            KeyStore keyStore = null;
-            if (!tenantDomain.equals(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-                // derive key store name
-                String ksName = tenantDomain.trim().replace(".", "-");
-                String jksName = ksName + ".jks";
-                keyStore = tenantKSM.getKeyStore(jksName);
-                publicCert = keyStore.getCertificate(tenantDomain);
-            } else {
-                publicCert = tenantKSM.getDefaultPrimaryCertificate();
-            }
-            if (publicCert != null) {
-                publicCerts.put(tenantId, publicCert);
-            }
-        } else {
-            publicCert = publicCerts.get(tenantId);
-        }
-        return publicCert;
-    }
-
     /**
      * Helper method to hexify a byte array.
      * TODO:need to verify the logic
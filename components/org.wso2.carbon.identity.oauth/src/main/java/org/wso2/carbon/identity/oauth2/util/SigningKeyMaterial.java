@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+import java.security.Key;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Signing key material of a tenant. The signer, key id and certificate thumbprint are computed once when the key
+ * material is loaded, so that they can be reused for every token signed with the key.
+ */
+public class SigningKeyMaterial {
+
+    private final String tenantDomain;
+    private final int tenantId;
+    private final Key privateKey;
+    private final Certificate certificate;
+    private final String keyId;
+    private final Base64URL x509CertThumbprint;
+    private final JWSSigner signer;
+    private final JWK publicJwk;
+
+    public SigningKeyMaterial(String tenantDomain, int tenantId, Key privateKey, Certificate certificate)
+            throws IdentityOAuth2Exception {
+
+        if (privateKey == null || certificate == null) {
+            throw new IdentityOAuth2Exception("Signing key or certificate not found for tenant: " + tenantDomain);
+        }
+        this.tenantDomain = tenantDomain;
+        this.tenantId = tenantId;
+        this.privateKey = privateKey;
+        this.certificate = certificate;
+        try {
+            this.keyId = OAuth2Util.getThumbPrint(certificate);
+        } catch (Exception e) {
+            throw new IdentityOAuth2Exception("Error while generating the thumbprint of the certificate of tenant: "
+                    + tenantDomain, e);
+        }
+        this.x509CertThumbprint = new Base64URL(keyId);
+        this.signer = buildSigner(tenantDomain, privateKey);
+        this.publicJwk = toPublicJwk(certificate, keyId);
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public Key getPrivateKey() {
+
+        return privateKey;
+    }
+
+    public Certificate getCertificate() {
+
+        return certificate;
+    }
+
+    /**
+     * Returns the key id published in the JWT header and the JWKS of the tenant.
+     *
+     * @return key id
+     */
+    public String getKeyId() {
+
+        return keyId;
+    }
+
+    public Base64URL getX509CertThumbprint() {
+
+        return x509CertThumbprint;
+    }
+
+    /**
+     * Returns the signer of the key. The signer is thread safe and is shared by every token signed with the key.
+     *
+     * @return signer
+     * @throws IdentityOAuth2Exception if the key type is not supported for signing
+     */
+    public JWSSigner getSigner() throws IdentityOAuth2Exception {
+
+        if (signer == null) {
+            throw new IdentityOAuth2Exception("Signing key of tenant " + tenantDomain + " is not supported for " +
+                    "signing");
+        }
+        return signer;
+    }
+
+    /**
+     * Returns the JWS algorithms the key can sign with. An elliptic curve key only supports the algorithm of its
+     * curve.
+     *
+     * @return supported JWS algorithms
+     */
+    public Set<JWSAlgorithm> getSupportedAlgorithms() {
+
+        if (signer == null) {
+            return Collections.emptySet();
+        }
+        return signer.supportedJWSAlgorithms();
+    }
+
+    public boolean isEllipticCurveKey() {
+
+        return privateKey instanceof ECPrivateKey;
+    }
+
+    /**
+     * Returns the public part of the key as a JWK, or null if the key type is not supported.
+     *
+     * @return public JWK
+     */
+    public JWK getPublicJwk() {
+
+        return publicJwk;
+    }
+
+    /**
+     * Builds the public JWK of a signing certificate, as published in the JWKS of the tenant.
+     *
+     * @param certificate signing certificate
+     * @param keyId       key id of the certificate
+     * @return public JWK, or null if the key type or curve of the certificate is not supported
+     */
+    public static JWK toPublicJwk(Certificate certificate, String keyId) {
+
+        if (certificate.getPublicKey() instanceof RSAPublicKey) {
+            return new RSAKey.Builder((RSAPublicKey) certificate.getPublicKey())
+                    .keyID(keyId)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .x509CertThumbprint(new Base64URL(keyId))
+                    .build();
+        } else if (certificate.getPublicKey() instanceof ECPublicKey) {
+            ECPublicKey publicKey = (ECPublicKey) certificate.getPublicKey();
+            Curve curve = Curve.forECParameterSpec(publicKey.getParams());
+            JWSAlgorithm algorithm = getECAlgorithm(curve);
+            if (algorithm == null) {
+                return null;
+            }
+            return new ECKey.Builder(curve, publicKey)
+                    .keyID(keyId)
+                    .algorithm(algorithm)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .x509CertThumbprint(new Base64URL(keyId))
+                    .build();
+        }
+        return null;
+    }
+
+    private static JWSAlgorithm getECAlgorithm(Curve curve) {
+
+        if (Curve.P_256.equals(curve)) {
+            return JWSAlgorithm.ES256;
+        } else if (Curve.P_384.equals(curve)) {
+            return JWSAlgorithm.ES384;
+        } else if (Curve.P_521.equals(curve)) {
+            return JWSAlgorithm.ES512;
+        }
+        return null;
+    }
+
+    private static JWSSigner buildSigner(String tenantDomain, Key privateKey) throws IdentityOAuth2Exception {
+
+        if (privateKey instanceof RSAPrivateKey) {
+            return new RSASSASigner((RSAPrivateKey) privateKey);
+        } else if (privateKey instanceof ECPrivateKey) {
+            try {
+                return new ECDSASigner((ECPrivateKey) privateKey);
+            } catch (JOSEException e) {
+                throw new IdentityOAuth2Exception("Unsupported elliptic curve in the signing key of tenant: " +
+                        tenantDomain, e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.core.util.KeyStoreManager;
+import org.wso2.carbon.identity.base.IdentityException;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the signing key material of each tenant. The key material of a tenant is loaded from its keystore the
+ * first time it is needed, under a lock of the tenant so that concurrent requests of a cold tenant load it only once.
+ * <p>
+ * Besides the primary key of the tenant, an elliptic curve key can be configured with the
+ * {@code OAuth.ECSigningKeyAlias} property. It is loaded from the keystore of each tenant and used for the ECDSA
+ * (ES256, ES384, ES512) signature algorithms.
+ */
+public class SigningKeyRegistry {
+
+    private static final Log log = LogFactory.getLog(SigningKeyRegistry.class);
+    private static final String KEY_STORE_EXTENSION = ".jks";
+    private static final String EC_SIGNING_KEY_ALIAS = "OAuth.ECSigningKeyAlias";
+    private static final String SECURITY_KEY_STORE_KEY_PASSWORD = "Security.KeyStore.KeyPassword";
+
+    private static final SigningKeyRegistry instance = new SigningKeyRegistry();
+
+    private final Map<Integer, SigningKeyMaterial> signingKeys = new ConcurrentHashMap<>();
+    private final Map<Integer, SigningKeyMaterial> ecSigningKeys = new ConcurrentHashMap<>();
+    private final Map<Integer, Object> tenantLocks = new ConcurrentHashMap<>();
+
+    private SigningKeyRegistry() {
+
+    }
+
+    public static SigningKeyRegistry getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns the alias of the elliptic curve signing key in the tenant keystores.
+     *
+     * @return alias of the elliptic curve signing key, or null if it is not configured
+     */
+    public static String getECSigningKeyAlias() {
+
+        String alias = IdentityUtil.getProperty(EC_SIGNING_KEY_ALIAS);
+        return StringUtils.isBlank(alias) ? null : alias.trim();
+    }
+
+    /**
+     * Returns the signing key material of the tenant, loading it from the keystore of the tenant if needed.
+     *
+     * @param tenantDomain tenant domain
+     * @param tenantId     tenant id
+     * @return signing key material of the tenant
+     * @throws IdentityOAuth2Exception if the key material cannot be loaded
+     */
+    public SigningKeyMaterial getSigningKey(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
+
+        return getSigningKey(signingKeys, tenantDomain, tenantId, false);
+    }
+
+    /**
+     * Returns the signing key material of the tenant to sign with the given algorithm.
+     *
+     * @param tenantDomain tenant domain
+     * @param tenantId     tenant id
+     * @param algorithm    JWS algorithm
+     * @return signing key material of the tenant supporting the algorithm
+     * @throws IdentityOAuth2Exception if the key material cannot be loaded or does not support the algorithm
+     */
+    public SigningKeyMaterial getSigningKey(String tenantDomain, int tenantId, JWSAlgorithm algorithm)
+            throws IdentityOAuth2Exception {
+
+        SigningKeyMaterial signingKey;
+        if (OAuth2Util.isECDSAAlgorithm(algorithm)) {
+            signingKey = getECSigningKey(tenantDomain, tenantId);
+            if (signingKey == null) {
+                throw new IdentityOAuth2Exception("No elliptic curve signing key is configured to sign with " +
+                        algorithm);
+            }
+        } else {
+            signingKey = getSigningKey(tenantDomain, tenantId);
+        }
+        if (!signingKey.getSupportedAlgorithms().contains(algorithm)) {
+            throw new IdentityOAuth2Exception("Signing key of tenant " + tenantDomain + " does not support the " +
+                    "signature algorithm " + algorithm);
+        }
+        return signingKey;
+    }
+
+    /**
+     * Returns the elliptic curve signing key material of the tenant, loading it from the keystore of the tenant if
+     * needed.
+     *
+     * @param tenantDomain tenant domain
+     * @param tenantId     tenant id
+     * @return elliptic curve signing key material of the tenant, or null if no elliptic curve key is configured
+     * @throws IdentityOAuth2Exception if the key material cannot be loaded
+     */
+    public SigningKeyMaterial getECSigningKey(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
+
+        SigningKeyMaterial signingKey = ecSigningKeys.get(tenantId);
+        if (signingKey != null || getECSigningKeyAlias() == null) {
+            return signingKey;
+        }
+        return getSigningKey(ecSigningKeys, tenantDomain, tenantId, true);
+    }
+
+    /**
+     * Loads the signing key material of the tenant again from its keystore and replaces the registered one. Tokens
+     * being signed while the key is reloaded keep using the previous key material. The elliptic curve key of the
+     * tenant is loaded again when it is next needed.
+     *
+     * @param tenantDomain tenant domain
+     * @param tenantId     tenant id
+     * @return reloaded signing key material of the tenant
+     * @throws IdentityOAuth2Exception if the key material cannot be loaded
+     */
+    public SigningKeyMaterial reload(String tenantDomain, int tenantId) throws IdentityOAuth2Exception {
+
+        synchronized (getTenantLock(tenantId)) {
+            SigningKeyMaterial signingKey = loadSigningKey(tenantDomain, tenantId, false);
+            signingKeys.put(tenantId, signingKey);
+            ecSigningKeys.remove(tenantId);
+            if (log.isDebugEnabled()) {
+                log.debug("Reloaded the signing key of tenant: " + tenantDomain + " with key id: " +
+                        signingKey.getKeyId());
+            }
+            return signingKey;
+        }
+    }
+
+    /**
+     * Registers the given signing key material for its tenant, replacing the registered one.
+     *
+     * @param signingKey signing key material
+     */
+    public void register(SigningKeyMaterial signingKey) {
+
+        if (signingKey.isEllipticCurveKey()) {
+            ecSigningKeys.put(signingKey.getTenantId(), signingKey);
+        } else {
+            signingKeys.put(signingKey.getTenantId(), signingKey);
+        }
+    }
+
+    /**
+     * Removes the signing key material of the tenant, so that it is loaded again when it is next needed.
+     *
+     * @param tenantId tenant id
+     */
+    public void remove(int tenantId) {
+
+        signingKeys.remove(tenantId);
+        ecSigningKeys.remove(tenantId);
+    }
+
+    private SigningKeyMaterial getSigningKey(Map<Integer, SigningKeyMaterial> registeredKeys, String tenantDomain,
+                                             int tenantId, boolean ellipticCurveKey)
+            throws IdentityOAuth2Exception {
+
+        SigningKeyMaterial signingKey = registeredKeys.get(tenantId);
+        if (signingKey != null) {
+            return signingKey;
+        }
+        synchronized (getTenantLock(tenantId)) {
+            signingKey = registeredKeys.get(tenantId);
+            if (signingKey == null) {
+                signingKey = loadSigningKey(tenantDomain, tenantId, ellipticCurveKey);
+                registeredKeys.put(tenantId, signingKey);
+            }
+            return signingKey;
+        }
+    }
+
+    private Object getTenantLock(int tenantId) {
+
+        return tenantLocks.computeIfAbsent(tenantId, id -> new Object());
+    }
+
+    private SigningKeyMaterial loadSigningKey(String tenantDomain, int tenantId, boolean ellipticCurveKey)
+            throws IdentityOAuth2Exception {
+
+        if (StringUtils.isBlank(tenantDomain)) {
+            tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+        }
+        try {
+            IdentityTenantUtil.initializeRegistry(tenantId, tenantDomain);
+        } catch (IdentityException e) {
+            throw new IdentityOAuth2Exception("Error occurred while loading registry for tenant " + tenantDomain, e);
+        }
+
+        // Get tenant's key store manager.
+        KeyStoreManager tenantKSM = KeyStoreManager.getInstance(tenantId);
+        String ecKeyAlias = getECSigningKeyAlias();
+        Key privateKey;
+        Certificate certificate;
+        try {
+            if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
+                if (ellipticCurveKey) {
+                    KeyStore keyStore = tenantKSM.getPrimaryKeyStore();
+                    String keyPassword = CarbonUtils.getServerConfiguration()
+                            .getFirstProperty(SECURITY_KEY_STORE_KEY_PASSWORD);
+                    privateKey = keyStore.getKey(ecKeyAlias, keyPassword.toCharArray());
+                    certificate = keyStore.getCertificate(ecKeyAlias);
+                } else {
+                    privateKey = tenantKSM.getDefaultPrivateKey();
+                    certificate = tenantKSM.getDefaultPrimaryCertificate();
+                }
+            } else {
+                // Derive key store name.
+                String jksName = tenantDomain.trim().replace(".", "-") + KEY_STORE_EXTENSION;
+                String alias = ellipticCurveKey ? ecKeyAlias : tenantDomain;
+                privateKey = tenantKSM.getPrivateKey(jksName, alias);
+                certificate = tenantKSM.getKeyStore(jksName).getCertificate(alias);
+            }
+        } catch (Exception e) {
+            throw new IdentityOAuth2Exception("Error while obtaining the signing key of tenant " + tenantDomain, e);
+        }
+
+        SigningKeyMaterial signingKey = new SigningKeyMaterial(tenantDomain, tenantId, privateKey, certificate);
+        if (ellipticCurveKey && !signingKey.isEllipticCurveKey()) {
+            throw new IdentityOAuth2Exception("Key " + ecKeyAlias + " of tenant " + tenantDomain + " is not an " +
+                    "elliptic curve key");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Loaded the " + (ellipticCurveKey ? "elliptic curve " : "") + "signing key of tenant: " +
+                    tenantDomain);
+        }
+        return signingKey;
+    }
+}
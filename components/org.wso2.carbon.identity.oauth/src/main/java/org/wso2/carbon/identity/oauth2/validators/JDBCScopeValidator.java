@@ -27,9 +27,8 @@ import org.wso2.carbon.identity.application.common.model.User;
 import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
-import org.wso2.carbon.identity.oauth.cache.CacheEntry;
-import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthResourceScopeCache;
 import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
@@ -82,12 +81,12 @@ public class JDBCScopeValidator extends OAuth2ScopeValidator {
         boolean cacheHit = false;
         // Check the cache, if caching is enabled.
         OAuthCacheKey cacheKey = new OAuthCacheKey(resource);
-        CacheEntry result = OAuthCache.getInstance().getValueFromCache(cacheKey);
+        ResourceScopeCacheEntry result = OAuthResourceScopeCache.getInstance().getValueFromCache(cacheKey);
 
         //Cache hit
-        if (result !=  null && result instanceof ResourceScopeCacheEntry) {
-            resourceScope = ((ResourceScopeCacheEntry) result).getScope();
-            resourceTenantId = ((ResourceScopeCacheEntry) result).getTenantId();
+        if (result != null) {
+            resourceScope = result.getScope();
+            resourceTenantId = result.getTenantId();
             cacheHit = true;
         }
 
@@ -107,7 +106,7 @@ public class JDBCScopeValidator extends OAuth2ScopeValidator {
             cacheEntry.setTenantId(resourceTenantId);
             //Store resourceScope in cache even if it is null (to avoid database calls when accessing resources for
             //which scopes haven't been defined).
-            OAuthCache.getInstance().addToCache(cacheKey, cacheEntry);
+            OAuthResourceScopeCache.getInstance().addToCache(cacheKey, cacheEntry);
 
         }
 
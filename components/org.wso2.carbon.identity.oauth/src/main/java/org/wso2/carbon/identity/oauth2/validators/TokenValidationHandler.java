@@ -40,7 +40,11 @@ import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.token.OauthTokenIssuer;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -214,6 +218,58 @@ public class TokenValidationHandler {
     public OAuth2IntrospectionResponseDTO buildIntrospectionResponse(OAuth2TokenValidationRequestDTO validationRequest)
             throws IdentityOAuth2Exception {
 
+        return buildIntrospectionResponse(validationRequest, Collections.<String, AccessTokenDO>emptyMap());
+    }
+
+    /**
+     * Retrieves the access tokens of the given bearer token validation requests together, so that a batch of
+     * introspection requests does not query the tokens one by one. The result is passed on to
+     * {@link #buildIntrospectionResponse(OAuth2TokenValidationRequestDTO, Map)}.
+     *
+     * @param validationRequests token validation requests
+     * @return retrieved access tokens. Tokens which are not active are mapped to null.
+     * @throws IdentityOAuth2Exception if an error occurs while retrieving the access tokens
+     */
+    public Map<String, AccessTokenDO> findAccessTokens(List<OAuth2TokenValidationRequestDTO> validationRequests)
+            throws IdentityOAuth2Exception {
+
+        Set<String> tokenLookupKeys = new LinkedHashSet<>();
+        for (OAuth2TokenValidationRequestDTO validationRequest : validationRequests) {
+            OAuth2TokenValidationRequestDTO.OAuth2AccessToken accessToken = validationRequest.getAccessToken();
+            // Only the tokens of the default validator are always looked up in the database.
+            if (accessToken == null || accessToken.getIdentifier() == null ||
+                    tokenValidators.get(accessToken.getTokenType()) == null ||
+                    tokenValidators.get(accessToken.getTokenType()).getClass() != DefaultOAuth2TokenValidator.class) {
+                continue;
+            }
+            try {
+                tokenLookupKeys.add(getTokenLookupKey(accessToken.getIdentifier()));
+            } catch (IdentityOAuth2Exception e) {
+                // The token is looked up on its own, failing the same way as a single introspection.
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while getting the lookup key of an access token of the batch.", e);
+                }
+            }
+        }
+        if (tokenLookupKeys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return OAuth2Util.getAccessTokenDOsFromTokenIdentifiers(tokenLookupKeys);
+    }
+
+    /**
+     * Returns the introspection response, using the access tokens retrieved ahead with
+     * {@link #findAccessTokens(List)} when available.
+     *
+     * @param validationRequest token validation request
+     * @param retrievedTokens   access tokens retrieved ahead
+     * @return introspection response
+     * @throws IdentityOAuth2Exception if an error occurs while building the response
+     */
+    public OAuth2IntrospectionResponseDTO buildIntrospectionResponse(OAuth2TokenValidationRequestDTO validationRequest,
+                                                                     Map<String, AccessTokenDO> retrievedTokens)
+            throws IdentityOAuth2Exception {
+
         OAuth2TokenValidationResponseDTO responseDTO = new OAuth2TokenValidationResponseDTO();
         OAuth2IntrospectionResponseDTO introResp = new OAuth2IntrospectionResponseDTO();
 
@@ -264,7 +320,7 @@ public class TokenValidationHandler {
         } else {
 
             try {
-                accessTokenDO = findAccessToken(validationRequest.getAccessToken().getIdentifier());
+                accessTokenDO = findAccessToken(validationRequest.getAccessToken().getIdentifier(), retrievedTokens);
             } catch (IllegalArgumentException e) {
                 // access token not found in the system.
                 return buildIntrospectionErrorResponse(e.getMessage());
@@ -484,11 +540,30 @@ public class TokenValidationHandler {
      * @throws IdentityOAuth2Exception
      */
     private AccessTokenDO findAccessToken(String tokenIdentifier) throws IdentityOAuth2Exception {
+
+        return OAuth2Util.getAccessTokenDOfromTokenIdentifier(getTokenLookupKey(tokenIdentifier));
+    }
+
+    private AccessTokenDO findAccessToken(String tokenIdentifier, Map<String, AccessTokenDO> retrievedTokens)
+            throws IdentityOAuth2Exception {
+
+        String tokenLookupKey = getTokenLookupKey(tokenIdentifier);
+        if (retrievedTokens.containsKey(tokenLookupKey)) {
+            AccessTokenDO accessTokenDO = retrievedTokens.get(tokenLookupKey);
+            if (accessTokenDO == null) {
+                throw new IllegalArgumentException("Invalid Access Token. Access token is not ACTIVE.");
+            }
+            return accessTokenDO;
+        }
+        return OAuth2Util.getAccessTokenDOfromTokenIdentifier(tokenLookupKey);
+    }
+
+    private String getTokenLookupKey(String tokenIdentifier) throws IdentityOAuth2Exception {
         try {
             if (usePersistedAccessTokenAlias) {
-                return OAuth2Util.getAccessTokenDOfromTokenIdentifier(oauthIssuerImpl.getAccessTokenHash(tokenIdentifier));
+                return oauthIssuerImpl.getAccessTokenHash(tokenIdentifier);
             } else {
-                return OAuth2Util.getAccessTokenDOfromTokenIdentifier(tokenIdentifier);
+                return tokenIdentifier;
             }
         } catch (OAuthSystemException e) {
             if (log.isDebugEnabled()) {
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.validators.jwt;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.RemoteKeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JWK source of a jwks_uri which keeps the retrieved key set in memory.
+ * <p>
+ * The key set is fetched once when it is first needed, by a single thread while concurrent callers wait for it.
+ * Once the time to live of the key set has passed, it keeps being served while a fresh copy is fetched in the
+ * background, so that validations do not block on the jwks_uri while a cached key set is usable. The key set is
+ * fetched synchronously only when it has no key matching a token, at most once per minimum refresh interval, to pick
+ * up rolled over keys. After a failed fetch, further fetches fail fast with the same error until the minimum refresh
+ * interval has passed, so that an unreachable jwks_uri is not retried by every request.
+ */
+public class CachingJWKSource implements JWKSource<SecurityContext> {
+
+    private static final Log log = LogFactory.getLog(CachingJWKSource.class);
+
+    private final URL jwksUrl;
+    private final ResourceRetriever resourceRetriever;
+    private final long timeToLive;
+    private final long minRefreshInterval;
+    private final Executor refreshExecutor;
+    private final Object loadLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile CachedJWKSet cachedJWKSet;
+    private KeySourceException lastFailure;
+    private long lastFailureTime;
+
+    /**
+     * @param jwksUrl            jwks_uri of the identity provider
+     * @param resourceRetriever  retriever used to fetch the key set
+     * @param timeToLive         time in milliseconds after which the key set is refreshed in the background
+     * @param minRefreshInterval minimum time in milliseconds between fetches triggered by unknown keys
+     * @param refreshExecutor    executor running the background refreshes
+     */
+    public CachingJWKSource(URL jwksUrl, ResourceRetriever resourceRetriever, long timeToLive,
+                            long minRefreshInterval, Executor refreshExecutor) {
+
+        this.jwksUrl = jwksUrl;
+        this.resourceRetriever = resourceRetriever;
+        this.timeToLive = timeToLive;
+        this.minRefreshInterval = minRefreshInterval;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+
+        CachedJWKSet cached = cachedJWKSet;
+        if (cached == null) {
+            cached = load(null);
+        } else if (cached.isExpired(System.currentTimeMillis())) {
+            refreshInBackground(cached);
+        }
+
+        List<JWK> matches = jwkSelector.select(cached.getJWKSet());
+        if (matches.isEmpty() && System.currentTimeMillis() - cached.getCheckedTime() >= minRefreshInterval) {
+            // The identity provider may have rolled over its keys since the key set was fetched.
+            if (log.isDebugEnabled()) {
+                log.debug("No matching key found in the cached key set of jwks_uri: " + jwksUrl + ". Refreshing it.");
+            }
+            try {
+                matches = jwkSelector.select(load(cached).getJWKSet());
+            } catch (KeySourceException e) {
+                postponeRefresh(cached);
+                throw e;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Fetches the key set from the jwks_uri, unless another thread is already doing so, and replaces the cached one.
+     *
+     * @throws KeySourceException if the key set cannot be fetched
+     */
+    public void refresh() throws KeySourceException {
+
+        load(cachedJWKSet);
+    }
+
+    /**
+     * Returns the cached key set.
+     *
+     * @return cached key set, or null if it has not been fetched yet
+     */
+    public JWKSet getCachedJWKSet() {
+
+        CachedJWKSet cached = cachedJWKSet;
+        return cached == null ? null : cached.getJWKSet();
+    }
+
+    /**
+     * Fetches the key set unless the given stale copy has already been replaced by another thread, or the last fetch
+     * failed less than the minimum refresh interval ago.
+     */
+    private CachedJWKSet load(CachedJWKSet stale) throws KeySourceException {
+
+        synchronized (loadLock) {
+            CachedJWKSet current = cachedJWKSet;
+            if (current != null && current != stale) {
+                return current;
+            }
+            long currentTime = System.currentTimeMillis();
+            if (lastFailure != null && currentTime - lastFailureTime < minRefreshInterval) {
+                throw new RemoteKeySourceException("Retrieving the key set from jwks_uri: " + jwksUrl + " failed " +
+                        "recently. It will not be retried before the minimum refresh interval has passed.",
+                        lastFailure);
+            }
+            try {
+                current = fetch();
+            } catch (KeySourceException e) {
+                lastFailure = e;
+                lastFailureTime = currentTime;
+                throw e;
+            }
+            lastFailure = null;
+            cachedJWKSet = current;
+            return current;
+        }
+    }
+
+    private void refreshInBackground(final CachedJWKSet stale) {
+
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        load(stale);
+                    } catch (KeySourceException e) {
+                        log.warn("Error while refreshing the key set of jwks_uri: " + jwksUrl + ". The cached key " +
+                                "set will be used until it can be refreshed.", e);
+                        postponeRefresh(stale);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+            log.warn("Could not schedule the refresh of the key set of jwks_uri: " + jwksUrl, e);
+        }
+    }
+
+    /**
+     * Keeps serving the stale key set without retrying the jwks_uri until the minimum refresh interval has passed.
+     */
+    private void postponeRefresh(CachedJWKSet stale) {
+
+        synchronized (loadLock) {
+            if (cachedJWKSet == stale) {
+                long currentTime = System.currentTimeMillis();
+                cachedJWKSet = new CachedJWKSet(stale.getJWKSet(), currentTime, currentTime + minRefreshInterval);
+            }
+        }
+    }
+
+    private CachedJWKSet fetch() throws KeySourceException {
+
+        try {
+            Resource resource = resourceRetriever.retrieveResource(jwksUrl);
+            JWKSet jwkSet = JWKSet.parse(resource.getContent());
+            long checkedTime = System.currentTimeMillis();
+            if (log.isDebugEnabled()) {
+                log.debug("Fetched " + jwkSet.getKeys().size() + " keys from jwks_uri: " + jwksUrl);
+            }
+            return new CachedJWKSet(jwkSet, checkedTime, checkedTime + timeToLive);
+        } catch (IOException e) {
+            throw new RemoteKeySourceException("Couldn't retrieve the key set from jwks_uri: " + jwksUrl, e);
+        } catch (ParseException e) {
+            throw new RemoteKeySourceException("Couldn't parse the key set of jwks_uri: " + jwksUrl, e);
+        }
+    }
+
+    /**
+     * Key set along with the time the jwks_uri was last checked and the time after which it should be refreshed.
+     */
+    private static class CachedJWKSet {
+
+        private final JWKSet jwkSet;
+        private final long checkedTime;
+        private final long refreshTime;
+
+        CachedJWKSet(JWKSet jwkSet, long checkedTime, long refreshTime) {
+
+            this.jwkSet = jwkSet;
+            this.checkedTime = checkedTime;
+            this.refreshTime = refreshTime;
+        }
+
+        JWKSet getJWKSet() {
+
+            return jwkSet;
+        }
+
+        long getCheckedTime() {
+
+            return checkedTime;
+        }
+
+        boolean isExpired(long currentTime) {
+
+            return currentTime >= refreshTime;
+        }
+    }
+}
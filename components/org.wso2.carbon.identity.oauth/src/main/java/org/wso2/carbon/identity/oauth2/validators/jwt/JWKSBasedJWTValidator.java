@@ -41,6 +41,7 @@ import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import java.net.MalformedURLException;
 import java.text.ParseException;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validate JWT using Identity Provider's jwks_uri.
@@ -48,13 +49,10 @@ import java.util.Map;
 public class JWKSBasedJWTValidator implements JWTValidator {
 
     private static final Log log = LogFactory.getLog(JWKSBasedJWTValidator.class);
-    private ConfigurableJWTProcessor<SecurityContext> jwtProcessor;
+    private static final String PROCESSOR_KEY_SEPARATOR = " ";
 
-    public JWKSBasedJWTValidator() {
-        /* Set up a JWT processor to parse the tokens and then check their signature and validity time window
-        (bounded by the "iat", "nbf" and "exp" claims). */
-        this.jwtProcessor = new DefaultJWTProcessor<>();
-    }
+    // JWT processors are configured once for each jwks_uri and algorithm, and only read afterwards.
+    private final Map<String, ConfigurableJWTProcessor<SecurityContext>> jwtProcessors = new ConcurrentHashMap<>();
 
     @Override
     public boolean validateSignature(String jwtString, String jwksUri, String algorithm, Map<String, Object> opts)
@@ -78,8 +76,8 @@ public class JWKSBasedJWTValidator implements JWTValidator {
                     algorithm);
         }
         try {
-            // set the Key Selector for the jwks_uri.
-            setJWKeySelector(jwksUri, algorithm);
+            // Get the JWT processor with the Key Selector for the jwks_uri.
+            ConfigurableJWTProcessor<SecurityContext> jwtProcessor = getJWTProcessor(jwksUri, algorithm);
 
             // Process the token, set optional context parameters.
             SecurityContext securityContext = null;
@@ -109,19 +107,32 @@ public class JWKSBasedJWTValidator implements JWTValidator {
     }
 
 
-    private void setJWKeySelector(String jwksUri, String algorithm) throws MalformedURLException {
+    private ConfigurableJWTProcessor<SecurityContext> getJWTProcessor(String jwksUri, String algorithm)
+            throws MalformedURLException {
+
+        String processorKey = jwksUri + PROCESSOR_KEY_SEPARATOR + algorithm;
+        ConfigurableJWTProcessor<SecurityContext> jwtProcessor = jwtProcessors.get(processorKey);
+        if (jwtProcessor != null) {
+            return jwtProcessor;
+        }
 
         /* The public RSA keys to validate the signatures will be sourced from the OAuth 2.0 server's JWK set,
-        published at a well-known URL. The RemoteJWKSet object caches the retrieved keys to speed up subsequent
-        look-ups and can also gracefully handle key-rollover. */
+        published at a well-known URL. The JWK source caches the retrieved keys to speed up subsequent
+        look-ups, refreshes them in the background and can also gracefully handle key-rollover. */
         JWKSource<SecurityContext> keySource = JWKSourceDataProvider.getInstance().getJWKSource(jwksUri);
 
         // The expected JWS algorithm of the access tokens (agreed out-of-band).
         JWSAlgorithm expectedJWSAlg = JWSAlgorithm.parse(algorithm);
 
-        /* Configure the JWT processor with a key selector to feed matching public RSA keys sourced from the JWK set
-        URL. */
+        /* Set up a JWT processor to parse the tokens and then check their signature and validity time window
+        (bounded by the "iat", "nbf" and "exp" claims), with a key selector to feed matching public RSA keys sourced
+        from the JWK set URL. */
         JWSKeySelector<SecurityContext> keySelector = new JWSVerificationKeySelector<>(expectedJWSAlg, keySource);
+        jwtProcessor = new DefaultJWTProcessor<>();
         jwtProcessor.setJWSKeySelector(keySelector);
+
+        ConfigurableJWTProcessor<SecurityContext> existingProcessor =
+                jwtProcessors.putIfAbsent(processorKey, jwtProcessor);
+        return existingProcessor != null ? existingProcessor : jwtProcessor;
     }
 }
@@ -18,8 +18,8 @@
 
 package org.wso2.carbon.identity.oauth2.validators.jwt;
 
+import com.nimbusds.jose.KeySourceException;
 import com.nimbusds.jose.jwk.source.RemoteJWKSet;
-import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.util.DefaultResourceRetriever;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -31,6 +31,11 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provides JWK sources for JWT validation.
@@ -45,13 +50,32 @@ public class JWKSourceDataProvider {
             ".HTTPReadTimeout";
     private static final String HTTP_SIZE_LIMIT_XPATH = "JWTValidatorConfigs.JWKSEndpoint" +
             ".HTTPSizeLimit";
+    private static final String CACHE_TIME_TO_LIVE_XPATH = "JWTValidatorConfigs.JWKSEndpoint" +
+            ".CacheTimeToLive";
+    private static final String MIN_REFRESH_INTERVAL_XPATH = "JWTValidatorConfigs.JWKSEndpoint" +
+            ".MinRefreshInterval";
+    private static final int DEFAULT_CACHE_TIME_TO_LIVE = 15 * 60 * 1000;
+    private static final int DEFAULT_MIN_REFRESH_INTERVAL = 30 * 1000;
     private static final Log log = LogFactory.getLog(JWKSourceDataProvider.class);
 
     private static JWKSourceDataProvider jwkSourceDataProvider = new JWKSourceDataProvider();
-    private Map<String, RemoteJWKSet<SecurityContext>> jwkSourceMap = new ConcurrentHashMap<>();
+    private Map<String, CachingJWKSource> jwkSourceMap = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
 
     private JWKSourceDataProvider() {
 
+        // A single daemon thread refreshes expired key sets in the background.
+        final AtomicInteger threadCount = new AtomicInteger();
+        refreshExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "JWKSRefresh-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        refreshExecutor.allowCoreThreadTimeOut(true);
     }
 
     /**
@@ -65,24 +89,24 @@ public class JWKSourceDataProvider {
     }
 
     /**
-     * Get cached JWKSet for the jwks_uri.
+     * Get cached JWKSet for the jwks_uri. A single JWK source is created for each jwks_uri, so concurrent callers
+     * share the key set it fetches.
      *
      * @param jwksUri Identity provider's JWKS endpoint.
-     * @return RemoteJWKSet.
+     * @return JWK source of the jwks_uri.
      * @throws MalformedURLException for invalid URL.
      */
-    public RemoteJWKSet<SecurityContext> getJWKSource(String jwksUri) throws MalformedURLException {
+    public CachingJWKSource getJWKSource(String jwksUri) throws MalformedURLException {
 
-        RemoteJWKSet<SecurityContext> jwkSet = jwkSourceMap.get(jwksUri);
-
-        if (jwkSet == null) {
-            jwkSet = retrieveJWKSFromJWKSEndpoint(jwksUri);
-            jwkSourceMap.put(jwksUri, jwkSet);
+        CachingJWKSource jwkSource = jwkSourceMap.get(jwksUri);
+        if (jwkSource != null) {
+            return jwkSource;
         }
-        return jwkSet;
+        final URL jwksUrl = new URL(jwksUri);
+        return jwkSourceMap.computeIfAbsent(jwksUri, uri -> retrieveJWKSFromJWKSEndpoint(jwksUrl));
     }
 
-    public Map<String, RemoteJWKSet<SecurityContext>> getJwkSourceMap() {
+    public Map<String, CachingJWKSource> getJwkSourceMap() {
 
         return jwkSourceMap;
     }
@@ -91,32 +115,33 @@ public class JWKSourceDataProvider {
      * Retrieve the new-keyset from the JWKS endpoint in case of signature validation failure.
      *
      * @param jwksUri Identity providers jwks_uri.
-     * @throws IdentityOAuth2Exception for invalid/malformed URL.
+     * @throws IdentityOAuth2Exception for invalid/malformed URL or if the key set cannot be retrieved.
      */
     public void refreshJWKSResource(String jwksUri) throws IdentityOAuth2Exception {
 
         try {
-            jwkSourceMap.remove(jwksUri);
-            RemoteJWKSet<SecurityContext> jwkSet = retrieveJWKSFromJWKSEndpoint(jwksUri);
-            jwkSourceMap.put(jwksUri, jwkSet);
+            getJWKSource(jwksUri).refresh();
         } catch (MalformedURLException e) {
             throw new IdentityOAuth2Exception("Provided URI is malformed. jwks_uri: " + jwksUri, e);
+        } catch (KeySourceException e) {
+            throw new IdentityOAuth2Exception("Error while retrieving the key set of jwks_uri: " + jwksUri, e);
         }
     }
 
     /**
-     * Retrieve JWKS from jwks_uri.
+     * Create the JWK source of a jwks_uri. The key set is fetched when it is first needed.
      *
-     * @param jwksUri Identity provider's jwks_uri.
-     * @return RemoteJWKSet
-     * @throws MalformedURLException for invalid URL.
+     * @param jwksUrl Identity provider's jwks_uri.
+     * @return JWK source of the jwks_uri.
      */
-    private RemoteJWKSet<SecurityContext> retrieveJWKSFromJWKSEndpoint(String jwksUri) throws MalformedURLException {
+    private CachingJWKSource retrieveJWKSFromJWKSEndpoint(URL jwksUrl) {
 
         // Retrieve HTTP endpoint configurations.
         int connectionTimeout = readHTTPConnectionConfigValue(HTTP_CONNECTION_TIMEOUT_XPATH);
         int readTimeout = readHTTPConnectionConfigValue(HTTP_READ_TIMEOUT_XPATH);
         int sizeLimit = readHTTPConnectionConfigValue(HTTP_SIZE_LIMIT_XPATH);
+        int timeToLive = readHTTPConnectionConfigValue(CACHE_TIME_TO_LIVE_XPATH);
+        int minRefreshInterval = readHTTPConnectionConfigValue(MIN_REFRESH_INTERVAL_XPATH);
 
         if (connectionTimeout <= 0) {
             connectionTimeout = DEFAULT_HTTP_CONNECTION_TIMEOUT;
@@ -127,12 +152,18 @@ public class JWKSourceDataProvider {
         if (sizeLimit <= 0) {
             sizeLimit = RemoteJWKSet.DEFAULT_HTTP_SIZE_LIMIT;
         }
+        if (timeToLive <= 0) {
+            timeToLive = DEFAULT_CACHE_TIME_TO_LIVE;
+        }
+        if (minRefreshInterval <= 0) {
+            minRefreshInterval = DEFAULT_MIN_REFRESH_INTERVAL;
+        }
         DefaultResourceRetriever resourceRetriever = new DefaultResourceRetriever(
                 connectionTimeout,
                 readTimeout,
                 sizeLimit);
 
-        return new RemoteJWKSet<>(new URL(jwksUri), resourceRetriever);
+        return new CachingJWKSource(jwksUrl, resourceRetriever, timeToLive, minRefreshInterval, refreshExecutor);
     }
 
     /**
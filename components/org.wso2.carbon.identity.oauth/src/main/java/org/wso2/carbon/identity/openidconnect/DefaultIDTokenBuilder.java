@@ -307,10 +307,23 @@ public class DefaultIDTokenBuilder implements org.wso2.carbon.identity.openidcon
             return OAuth2Util.encryptJWT(jwtClaimsSet, encryptionAlgorithm, encryptionMethod, spTenantDomain,
                     clientId).serialize();
         } else {
-            return OAuth2Util.signJWT(jwtClaimsSet, signatureAlgorithm, signingTenantDomain).serialize();
+            return OAuth2Util.signJWT(jwtClaimsSet, getSignatureAlgorithm(oAuthAppDO), signingTenantDomain)
+                    .serialize();
         }
     }
 
+    /**
+     * Returns the ID token signature algorithm of the application, falling back to the server default when the
+     * application has not selected one.
+     */
+    private JWSAlgorithm getSignatureAlgorithm(OAuthAppDO oAuthAppDO) throws IdentityOAuth2Exception {
+
+        if (StringUtils.isBlank(oAuthAppDO.getIdTokenSignatureAlgorithm())) {
+            return signatureAlgorithm;
+        }
+        return OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(oAuthAppDO.getIdTokenSignatureAlgorithm());
+    }
+
     protected String getSubjectClaim(OAuthTokenReqMessageContext tokenReqMessageContext,
                                      OAuth2AccessTokenRespDTO tokenRespDTO,
                                      String clientId,
@@ -17,7 +17,6 @@ package org.wso2.carbon.identity.openidconnect;
 
 import com.nimbusds.jwt.JWTClaimsSet;
 import net.minidev.json.JSONArray;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +38,7 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCache;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheEntry;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheKey;
+import org.wso2.carbon.identity.oauth.cache.SPClaimMappingCacheEntry;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.RequestObjectException;
@@ -47,13 +47,13 @@ import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
 import org.wso2.carbon.identity.oauth2.token.handlers.grant.RefreshGrantHandler;
+import org.wso2.carbon.identity.oauth2.util.ClaimsUtil;
 import org.wso2.carbon.identity.openidconnect.internal.OpenIDConnectServiceComponentHolder;
 import org.wso2.carbon.identity.openidconnect.model.RequestedClaim;
 import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -384,17 +384,17 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
             throws IdentityApplicationManagementException, IdentityException, UserStoreException {
 
         Map<String, Object> userClaimsMappedToOIDCDialect = new HashMap<>();
-        ServiceProvider serviceProvider = getServiceProvider(spTenantDomain, clientId);
-        if (serviceProvider == null) {
+        SPClaimMappingCacheEntry spClaimMappings = ClaimsUtil.getServiceProviderClaimMappings(clientId,
+                spTenantDomain);
+        if (spClaimMappings == null) {
             log.warn("Unable to find a service provider associated with client_id: " + clientId + " in tenantDomain: " +
                     spTenantDomain + ". Returning empty claim map for user.");
             return userClaimsMappedToOIDCDialect;
         }
 
-        ClaimMapping[] requestClaimMappings = getRequestedClaimMappings(serviceProvider);
-        if (ArrayUtils.isEmpty(requestClaimMappings)) {
+        if (!spClaimMappings.hasRequestedClaims()) {
             if (log.isDebugEnabled()) {
-                String spName = serviceProvider.getApplicationName();
+                String spName = spClaimMappings.getApplicationName();
                 log.debug("No requested claims configured for service provider: " + spName + " of tenantDomain: "
                         + spTenantDomain + ". No claims returned for user: " + authenticatedUser);
             }
@@ -410,7 +410,7 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
             return userClaimsMappedToOIDCDialect;
         }
 
-        List<String> requestedClaimUris = getRequestedClaimUris(requestClaimMappings);
+        List<String> requestedClaimUris = spClaimMappings.getRequestedLocalClaims();
         Map<String, String> userClaims = getUserClaimsInLocalDialect(fullQualifiedUsername, realm, requestedClaimUris);
 
         if (isEmpty(userClaims)) {
@@ -424,7 +424,7 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
                 log.debug("Number of user claims retrieved for " + fullQualifiedUsername + " from user store: " + userClaims.size());
             }
             // Map the local roles to SP defined roles.
-            handleServiceProviderRoleMappings(serviceProvider, ATTRIBUTE_SEPARATOR, userClaims);
+            handleServiceProviderRoleMappings(spTenantDomain, clientId, ATTRIBUTE_SEPARATOR, userClaims);
 
             // Get the user claims in oidc dialect to be returned in the id_token.
             Map<String, Object> userClaimsInOIDCDialect = getUserClaimsInOIDCDialect(spTenantDomain, userClaims);
@@ -434,13 +434,6 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
         return userClaimsMappedToOIDCDialect;
     }
 
-    private ClaimMapping[] getRequestedClaimMappings(ServiceProvider serviceProvider) {
-        if (serviceProvider.getClaimConfig() == null) {
-            return new ClaimMapping[0];
-        }
-        return serviceProvider.getClaimConfig().getClaimMappings();
-    }
-
     private Map<String, Object> getUserClaimsInOIDCDialect(String spTenantDomain,
                                                            Map<String, String> userClaims) throws ClaimMetadataException {
         // Retrieve OIDC to Local Claim Mappings.
@@ -460,10 +453,16 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
                         null);
     }
 
-    private void handleServiceProviderRoleMappings(ServiceProvider serviceProvider,
+    private void handleServiceProviderRoleMappings(String spTenantDomain,
+                                                   String clientId,
                                                    String claimSeparator,
-                                                   Map<String, String> userClaims) throws FrameworkException {
+                                                   Map<String, String> userClaims)
+            throws FrameworkException, IdentityApplicationManagementException {
         if (isNotEmpty(userClaims) && userClaims.containsKey(LOCAL_ROLE_CLAIM_URI)) {
+            ServiceProvider serviceProvider = getServiceProvider(spTenantDomain, clientId);
+            if (serviceProvider == null) {
+                return;
+            }
             String roleClaim = userClaims.get(LOCAL_ROLE_CLAIM_URI);
             List<String> rolesList = Arrays.asList(roleClaim.split(Pattern.quote(claimSeparator)));
             String spMappedRoleClaim =
@@ -490,16 +489,6 @@ public class DefaultOIDCClaimsCallbackHandler implements CustomClaimsCallbackHan
         return spTenantDomain;
     }
 
-    private List<String> getRequestedClaimUris(ClaimMapping[] requestedLocalClaimMap) {
-        List<String> claimURIList = new ArrayList<>();
-        for (ClaimMapping mapping : requestedLocalClaimMap) {
-            if (mapping.isRequested()) {
-                claimURIList.add(mapping.getLocalClaim().getClaimUri());
-            }
-        }
-        return claimURIList;
-    }
-
     private ServiceProvider getServiceProvider(String spTenantDomain,
                                                String clientId) throws IdentityApplicationManagementException {
         ApplicationManagementService applicationMgtService = OAuth2ServiceComponentHolder.getApplicationMgtService();
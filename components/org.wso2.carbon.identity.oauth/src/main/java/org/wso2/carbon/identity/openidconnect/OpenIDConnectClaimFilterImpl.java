@@ -31,6 +31,8 @@ import org.wso2.carbon.identity.claim.metadata.mgt.exception.ClaimMetadataExcept
 import org.wso2.carbon.identity.claim.metadata.mgt.model.Claim;
 import org.wso2.carbon.identity.claim.metadata.mgt.model.ExternalClaim;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCache;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCacheEntry;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
@@ -41,7 +43,6 @@ import org.wso2.carbon.registry.api.Resource;
 import org.wso2.carbon.registry.core.service.RegistryService;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -66,12 +67,12 @@ import static org.wso2.carbon.identity.oauth.common.OAuthConstants.SCOPE_RESOURC
  * is requested then we will return the claim to be sent in id_token and user info.
  * <p>
  * In our current implementation this scope --> claim uris mapping is maintained in the registry /_system/config/oidc
+ * and cached per tenant in {@link OIDCScopeClaimCache}.
  */
 public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
 
     private static final String ADDRESS_PREFIX = "address.";
     private static final String ADDRESS_SCOPE = "address";
-    private static final String OIDC_SCOPE_CLAIM_SEPARATOR = ",";
 
     private static final Log log = LogFactory.getLog(OpenIDConnectClaimFilterImpl.class);
     private static final int DEFAULT_PRIORITY = 100;
@@ -91,21 +92,21 @@ public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
         Map<String, Object> claimsToBeReturned = new HashMap<>();
         Map<String, Object> addressScopeClaims = new HashMap<>();
 
-        // Map<"openid", "first_name,last_name,username">
-        Properties oidcScopeProperties = getOIDCScopeProperties(spTenantDomain);
-        if (isNotEmpty(oidcScopeProperties)) {
-            List<String> addressScopeClaimUris = getAddressScopeClaimUris(oidcScopeProperties);
+        // Map<"openid", ["first_name", "last_name", "username"]>
+        OIDCScopeClaimCacheEntry oidcScopeClaims = getOIDCScopeClaims(spTenantDomain);
+        if (!oidcScopeClaims.isEmpty()) {
+            List<String> addressScopeClaimUris = oidcScopeClaims.getClaims(ADDRESS_SCOPE);
             // Iterate through scopes requested in the OAuth2/OIDC request to filter claims
             for (String requestedScope : requestedScopes) {
                 // Check if requested scope is a supported OIDC scope value
-                if (oidcScopeProperties.containsKey(requestedScope)) {
+                if (oidcScopeClaims.containsScope(requestedScope)) {
                     if (log.isDebugEnabled()) {
                         log.debug("Requested scope: " + requestedScope + " is a defined OIDC Scope in tenantDomain: " +
                                 spTenantDomain + ". Filtering claims based on the permitted claims in the scope.");
                     }
                     // Requested scope is an registered OIDC scope. Filter and return the claims belonging to the scope.
                     Map<String, Object> filteredClaims =
-                            handleRequestedOIDCScope(userClaims, addressScopeClaims, oidcScopeProperties,
+                            handleRequestedOIDCScope(userClaims, addressScopeClaims, oidcScopeClaims,
                                     addressScopeClaimUris, requestedScope);
                     claimsToBeReturned.putAll(filteredClaims);
                 } else {
@@ -217,11 +218,16 @@ public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
         return essentialClaims;
     }
 
-    private Properties getOIDCScopeProperties(String spTenantDomain) {
+    private OIDCScopeClaimCacheEntry getOIDCScopeClaims(String spTenantDomain) {
+
+        int tenantId = IdentityTenantUtil.getTenantId(spTenantDomain);
+        OIDCScopeClaimCacheEntry oidcScopeClaims = OIDCScopeClaimCache.getInstance().getScopeClaimMapping(tenantId);
+        if (oidcScopeClaims != null) {
+            return oidcScopeClaims;
+        }
 
         Resource oidcScopesResource = null;
         try {
-            int tenantId = IdentityTenantUtil.getTenantId(spTenantDomain);
             startTenantFlow(spTenantDomain, tenantId);
 
             RegistryService registryService = OAuth2ServiceComponentHolder.getRegistryService();
@@ -237,27 +243,24 @@ public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
             PrivilegedCarbonContext.endTenantFlow();
         }
 
-        Properties propertiesToReturn = new Properties();
         if (oidcScopesResource != null) {
-            for (Object scopeProperty : oidcScopesResource.getProperties().keySet()) {
-                String propertyKey = (String) scopeProperty;
-                propertiesToReturn.setProperty(propertyKey, oidcScopesResource.getProperty(propertyKey));
-            }
-        } else {
-            log.error("OIDC scope resource cannot be found at " + SCOPE_RESOURCE_PATH + " for tenantDomain: "
-                    + spTenantDomain);
+            oidcScopeClaims = new OIDCScopeClaimCacheEntry(oidcScopesResource);
+            OIDCScopeClaimCache.getInstance().addScopeClaimMapping(tenantId, oidcScopeClaims);
+            return oidcScopeClaims;
         }
-        return propertiesToReturn;
+        log.error("OIDC scope resource cannot be found at " + SCOPE_RESOURCE_PATH + " for tenantDomain: "
+                + spTenantDomain);
+        return new OIDCScopeClaimCacheEntry(new Properties());
     }
 
     private Map<String, Object> handleRequestedOIDCScope(Map<String, Object> userClaimsInOIDCDialect,
                                                          Map<String, Object> addressScopeClaims,
-                                                         Properties oidcScopeProperties,
+                                                         OIDCScopeClaimCacheEntry oidcScopeClaims,
                                                          List<String> addressScopeClaimUris,
                                                          String oidcScope) {
 
         Map<String, Object> filteredClaims = new HashMap<>();
-        List<String> claimUrisInRequestedScope = getClaimUrisInSupportedOidcScope(oidcScopeProperties, oidcScope);
+        List<String> claimUrisInRequestedScope = oidcScopeClaims.getClaims(oidcScope);
         for (String scopeClaim : claimUrisInRequestedScope) {
             String oidcClaimUri = scopeClaim;
             boolean isAddressClaim = false;
@@ -317,29 +320,11 @@ public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
         }
     }
 
-    private List<String> getAddressScopeClaimUris(Properties oidcProperties) {
-
-        return getClaimUrisInSupportedOidcScope(oidcProperties, ADDRESS_SCOPE);
-    }
-
     private boolean isAddressClaim(String scopeClaim, List<String> addressScopeClaims) {
 
         return StringUtils.startsWith(scopeClaim, ADDRESS_PREFIX) || addressScopeClaims.contains(scopeClaim);
     }
 
-    private List<String> getClaimUrisInSupportedOidcScope(Properties properties, String requestedScope) {
-
-        String[] requestedScopeClaimsArray;
-        List<String> requestedScopeClaimsList = new ArrayList<>();
-        if (StringUtils.isNotBlank(properties.getProperty(requestedScope))) {
-            requestedScopeClaimsArray = properties.getProperty(requestedScope).split(OIDC_SCOPE_CLAIM_SEPARATOR);
-            for (String requestedScopeClaim : requestedScopeClaimsArray) {
-                requestedScopeClaimsList.add(requestedScopeClaim.trim());
-            }
-        }
-        return requestedScopeClaimsList;
-    }
-
     private void handleUpdateAtClaim(Map<String, Object> returnClaims) {
 
         if (returnClaims.containsKey(UPDATED_AT) && returnClaims.get(UPDATED_AT) != null &&
@@ -391,11 +376,6 @@ public class OpenIDConnectClaimFilterImpl implements OpenIDConnectClaimFilter {
         return claimsToBeReturned != null && !claimsToBeReturned.isEmpty();
     }
 
-    private boolean isNotEmpty(Properties properties) {
-
-        return properties != null && !properties.isEmpty();
-    }
-
     /**
      * Return a Date object if the given string is a valid date string.
      *
@@ -18,9 +18,12 @@ package org.wso2.carbon.identity.openidconnect;
 import com.nimbusds.jose.JWSAlgorithm;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.Charsets;
+import org.apache.commons.lang.StringUtils;
 import org.apache.oltu.oauth2.common.message.types.ResponseType;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth.common.exception.InvalidOAuthClientException;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenRespDTO;
@@ -43,12 +46,12 @@ import static org.wso2.carbon.identity.oauth.common.OAuthConstants.OIDCClaims.C_
 public class OpenIDConnectSystemClaimImpl implements ClaimProvider {
     private static final String SHA384 = "SHA-384";
     private static final String SHA512 = "SHA-512";
-    private JWSAlgorithm signatureAlgorithm = null;
 
     @Override
     public Map<String, Object> getAdditionalClaims(OAuthAuthzReqMessageContext authAuthzReqMessageContext, OAuth2AuthorizeRespDTO authorizeRespDTO) throws IdentityOAuth2Exception {
-        //First set the signature Algorithm
-        setSignatureAlgorithm();
+        // The hashes use the algorithm which signs the ID token of the application.
+        JWSAlgorithm signatureAlgorithm =
+                getSignatureAlgorithm(authAuthzReqMessageContext.getAuthorizationReqDTO().getConsumerKey());
 
         Map<String, Object> oidcSystemClaims = new HashMap<>();
 
@@ -56,13 +59,15 @@ public class OpenIDConnectSystemClaimImpl implements ClaimProvider {
         String authorizationCode = authorizeRespDTO.getAuthorizationCode();
         String accessToken = authorizeRespDTO.getAccessToken();
 
-        if (isIDTokenSigned() && isAccessTokenHashApplicable(responseType) && isNotBlank(accessToken)) {
-            String atHash = getHashValue(accessToken);
+        if (isIDTokenSigned(signatureAlgorithm) && isAccessTokenHashApplicable(responseType) &&
+                isNotBlank(accessToken)) {
+            String atHash = getHashValue(accessToken, signatureAlgorithm);
             oidcSystemClaims.put(AT_HASH, atHash);
         }
 
-        if (isIDTokenSigned() && isCodeHashApplicable(responseType) && isNotBlank(authorizationCode)) {
-            String cHash = getHashValue(authorizationCode);
+        if (isIDTokenSigned(signatureAlgorithm) && isCodeHashApplicable(responseType) &&
+                isNotBlank(authorizationCode)) {
+            String cHash = getHashValue(authorizationCode, signatureAlgorithm);
             oidcSystemClaims.put(C_HASH, cHash);
         }
         return oidcSystemClaims;
@@ -70,31 +75,46 @@ public class OpenIDConnectSystemClaimImpl implements ClaimProvider {
 
     @Override
     public Map<String, Object> getAdditionalClaims(OAuthTokenReqMessageContext tokenReqMessageContext, OAuth2AccessTokenRespDTO tokenRespDTO) throws IdentityOAuth2Exception {
-        //First set the signature Algorithm
-        setSignatureAlgorithm();
+        // The hashes use the algorithm which signs the ID token of the application.
+        JWSAlgorithm signatureAlgorithm =
+                getSignatureAlgorithm(tokenReqMessageContext.getOauth2AccessTokenReqDTO().getClientId());
 
         Map<String, Object> oidcSystemClaims = new HashMap<>();
 
         String authorizationCode = tokenReqMessageContext.getOauth2AccessTokenReqDTO().getAuthorizationCode();
         String accessToken = tokenRespDTO.getAccessToken();
 
-        if (isIDTokenSigned() && isNotBlank(accessToken)) {
-            String atHash = getHashValue(accessToken);
+        if (isIDTokenSigned(signatureAlgorithm) && isNotBlank(accessToken)) {
+            String atHash = getHashValue(accessToken, signatureAlgorithm);
             oidcSystemClaims.put(AT_HASH, atHash);
         }
-        if (isIDTokenSigned() && isNotBlank(authorizationCode)) {
-            String cHash = getHashValue(authorizationCode);
+        if (isIDTokenSigned(signatureAlgorithm) && isNotBlank(authorizationCode)) {
+            String cHash = getHashValue(authorizationCode, signatureAlgorithm);
             oidcSystemClaims.put(C_HASH, cHash);
         }
         return oidcSystemClaims;
     }
 
-    private void setSignatureAlgorithm() throws IdentityOAuth2Exception {
-        signatureAlgorithm = OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(
-                OAuthServerConfiguration.getInstance().getIdTokenSignatureAlgorithm());
+    /**
+     * Returns the ID token signature algorithm of the application, falling back to the server default when the
+     * application has not selected one, as the ID token builder does.
+     */
+    private JWSAlgorithm getSignatureAlgorithm(String clientId) throws IdentityOAuth2Exception {
+        OAuthAppDO oAuthAppDO;
+        try {
+            oAuthAppDO = OAuth2Util.getAppInformationByClientId(clientId);
+        } catch (InvalidOAuthClientException e) {
+            throw new IdentityOAuth2Exception("Error occurred while getting app information for client_id: " +
+                    clientId, e);
+        }
+        if (StringUtils.isBlank(oAuthAppDO.getIdTokenSignatureAlgorithm())) {
+            return OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(
+                    OAuthServerConfiguration.getInstance().getIdTokenSignatureAlgorithm());
+        }
+        return OAuth2Util.mapSignatureAlgorithmForJWSAlgorithm(oAuthAppDO.getIdTokenSignatureAlgorithm());
     }
 
-    private boolean isIDTokenSigned() {
+    private boolean isIDTokenSigned(JWSAlgorithm signatureAlgorithm) {
         return !JWSAlgorithm.NONE.getName().equals(signatureAlgorithm.getName());
     }
 
@@ -106,10 +126,11 @@ public class OpenIDConnectSystemClaimImpl implements ClaimProvider {
      * This method generate both c_hash and at_hash values when value is given as authorization code and access token
      * respectively.
      * @param value
+     * @param signatureAlgorithm signature algorithm of the ID token
      * @return at_hash or c_hash value
      * @throws IdentityOAuth2Exception
      */
-    private String getHashValue(String value) throws IdentityOAuth2Exception {
+    private String getHashValue(String value, JWSAlgorithm signatureAlgorithm) throws IdentityOAuth2Exception {
         String digAlg = OAuth2Util.mapDigestAlgorithm(signatureAlgorithm);
         MessageDigest md;
         try {
@@ -31,6 +31,7 @@ import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.dao.AuthorizationCodeDAOImpl;
 
 import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.dao.UnitOfWork;
 import org.wso2.carbon.identity.openidconnect.OIDCConstants;
 import org.wso2.carbon.identity.openidconnect.model.RequestedClaim;
 import org.wso2.carbon.utils.DBUtils;
@@ -359,7 +360,7 @@ public class RequestObjectDAOImpl implements RequestObjectDAO {
         Connection connection = null;
         PreparedStatement ps = null;
         try {
-            connection = IdentityDatabaseUtil.getDBConnection();
+            connection = UnitOfWork.getConnection();
             deleteRequestObjectReferenceforCode(tokenId);
             String sql = SQLQueries.UPDATE_REQUEST_OBJECT_TOKEN_FOR_CODE;
             ps = connection.prepareStatement(sql);
@@ -381,7 +382,7 @@ public class RequestObjectDAOImpl implements RequestObjectDAO {
 
     private void deleteRequestObjectReferenceforCode(String tokenId) throws IdentityOAuthAdminException {
 
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement prepStmt = connection.prepareStatement(SQLQueries.DELETE_REQ_OBJECT_TOKEN_FOR_CODE)) {
             prepStmt.setString(1, tokenId);
             prepStmt.execute();
@@ -405,7 +406,7 @@ public class RequestObjectDAOImpl implements RequestObjectDAO {
 
     public void deleteRequestObjectReferenceByCode(String codeId) throws IdentityOAuthAdminException {
 
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection();
+        try (Connection connection = UnitOfWork.getConnection();
              PreparedStatement prepStmt = connection.prepareStatement(SQLQueries.DELETE_REQ_OBJECT_BY_CODE_ID)) {
             prepStmt.setString(1, codeId);
             prepStmt.execute();
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.openidconnect.handlers;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCache;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.jdbc.handlers.Handler;
+import org.wso2.carbon.registry.core.jdbc.handlers.RequestContext;
+import org.wso2.carbon.registry.core.jdbc.handlers.filters.URLMatcher;
+import org.wso2.carbon.registry.core.session.CurrentSession;
+
+/**
+ * Registry handler which removes the cached OIDC scope to claim mapping of a tenant when the OIDC scope resource of
+ * the tenant is changed, so that the mapping is loaded again from the registry on the next use.
+ * <p>
+ * The handler is registered for the commit phase of the registry, so it runs only after the change is committed and a
+ * lookup can not cache the previous mapping again. It does not take part in writing the change.
+ */
+public class OIDCScopeResourceHandler extends Handler {
+
+    private static final Log log = LogFactory.getLog(OIDCScopeResourceHandler.class);
+
+    /**
+     * @return filter which matches the changes to the OIDC scope resource
+     */
+    public static URLMatcher getOIDCScopeResourceMatcher() {
+
+        String scopeResourcePath = RegistryConstants.CONFIG_REGISTRY_BASE_PATH + OAuthConstants.SCOPE_RESOURCE_PATH;
+        URLMatcher urlMatcher = new URLMatcher();
+        urlMatcher.setPutPattern(scopeResourcePath);
+        urlMatcher.setDeletePattern(scopeResourcePath);
+        urlMatcher.setRenamePattern(scopeResourcePath);
+        urlMatcher.setMovePattern(scopeResourcePath);
+        return urlMatcher;
+    }
+
+    @Override
+    public void put(RequestContext requestContext) throws RegistryException {
+
+        clearScopeClaimMapping();
+    }
+
+    @Override
+    public void delete(RequestContext requestContext) throws RegistryException {
+
+        clearScopeClaimMapping();
+    }
+
+    @Override
+    public String rename(RequestContext requestContext) throws RegistryException {
+
+        clearScopeClaimMapping();
+        return null;
+    }
+
+    @Override
+    public String move(RequestContext requestContext) throws RegistryException {
+
+        clearScopeClaimMapping();
+        return null;
+    }
+
+    private void clearScopeClaimMapping() {
+
+        int tenantId = CurrentSession.getTenantId();
+        if (log.isDebugEnabled()) {
+            log.debug("OIDC scope resource changed in tenant: " + tenantId + ". Clearing the cached OIDC scope " +
+                    "claim mapping.");
+        }
+        OIDCScopeClaimCache.getInstance().clearScopeClaimMapping(tenantId);
+    }
+}
@@ -362,6 +362,27 @@ public class OAuthAdminServiceTest extends PowerMockIdentityBaseTest {
         Assert.assertNull(updatedOAuthConsumerApp.getUsername(), "Application update should not set username.");
     }
 
+    @Test(expectedExceptions = IdentityOAuthAdminException.class,
+            expectedExceptionsMessageRegExp = "Invalid ID token signature algorithm: unsupported-algorithm")
+    public void testUpdateConsumerApplicationWithUnsupportedSignatureAlgorithm() throws Exception {
+        String consumerKey = "some-consumer-key";
+
+        OAuthAppDO app = getDummyOAuthApp("some-user-name");
+        when(oAtuhAppDAO.getAppInformation(consumerKey)).thenReturn(app);
+        whenNew(OAuthAppDAO.class).withAnyArguments().thenReturn(oAtuhAppDAO);
+
+        OAuthAdminService oAuthAdminService = new OAuthAdminService();
+        OAuthConsumerAppDTO consumerAppDTO = new OAuthConsumerAppDTO();
+        consumerAppDTO.setApplicationName("new-application-name");
+        consumerAppDTO.setCallbackUrl("http://new-call-back-url.com");
+        consumerAppDTO.setOauthConsumerKey(consumerKey);
+        consumerAppDTO.setOauthConsumerSecret("some-consumer-secret");
+        consumerAppDTO.setOAuthVersion(OAuthConstants.OAuthVersions.VERSION_2);
+        consumerAppDTO.setGrantTypes("");
+        consumerAppDTO.setIdTokenSignatureAlgorithm("unsupported-algorithm");
+        oAuthAdminService.updateConsumerApplication(consumerAppDTO);
+    }
+
     @Test
     public void testGetOauthApplicationState() throws Exception {
 
@@ -28,6 +28,8 @@ import org.wso2.carbon.identity.common.testng.WithRealmService;
 import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientCredentialCache;
+import org.wso2.carbon.identity.oauth2.model.ClientCredentialDO;
 
 import java.nio.file.Paths;
 
@@ -147,6 +149,26 @@ public class OAuthUtilTest {
         oAuthCache.clear();
     }
 
+    @Test
+    public void testClearOAuthCacheKeepsClientCredentials() throws Exception {
+
+        String consumerKey = "consumer-key";
+        OAuthCacheKey consumerCacheKey = new OAuthCacheKey(consumerKey);
+        getOAuthCache(new OAuthCacheKey(consumerKey + ":authorized-user"));
+        OAuthClientCredentialCache clientCredentialCache = OAuthClientCredentialCache.getInstance();
+        clientCredentialCache.addToCache(consumerCacheKey, new ClientCredentialDO("secret"));
+
+        OAuthUtil.clearOAuthCache(consumerKey, "authorized-user");
+        OAuthUtil.clearOAuthCache(consumerKey, "authorized-user", "scope");
+        OAuthUtil.clearOAuthCache(consumerKey);
+        assertNotNull(clientCredentialCache.getValueFromCache(consumerCacheKey),
+                "Should not clear the cached client credentials when clearing token entries.");
+
+        // Clear all the cached values to make sure no side effect on other tests.
+        clientCredentialCache.clearCacheEntry(consumerCacheKey);
+        OAuthCache.getInstance().clear();
+    }
+
     @Test(dataProvider = "testGetAuthenticatedUser")
     public void testGetAuthenticatedUser(String fullQualifiedName, String username) throws Exception {
         assertEquals(OAuthUtil.getAuthenticatedUser(fullQualifiedName).getUserName(), username,
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.IObjectFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.store.SessionDataStore;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
+import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+
+import java.util.HashMap;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Unit tests for AuthorizationGrantCache.
+ */
+@WithCarbonHome
+@PrepareForTest({OAuthTokenPersistenceFactory.class, SessionDataStore.class})
+public class AuthorizationGrantCacheTest extends PowerMockTestCase {
+
+    private static final String CACHE_NAME = "AuthorizationGrantCache";
+
+    private AccessTokenDAO accessTokenDAO;
+    private SessionDataStore sessionDataStore;
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        accessTokenDAO = mock(AccessTokenDAO.class);
+        OAuthTokenPersistenceFactory persistenceFactory = mock(OAuthTokenPersistenceFactory.class);
+        when(persistenceFactory.getAccessTokenDAO()).thenReturn(accessTokenDAO);
+        mockStatic(OAuthTokenPersistenceFactory.class);
+        when(OAuthTokenPersistenceFactory.getInstance()).thenReturn(persistenceFactory);
+
+        sessionDataStore = mock(SessionDataStore.class);
+        mockStatic(SessionDataStore.class);
+        when(SessionDataStore.getInstance()).thenReturn(sessionDataStore);
+    }
+
+    @Test
+    public void testGetFromSessionStoreWithRememberedTokenId() throws Exception {
+        AuthorizationGrantCache cache = AuthorizationGrantCache.getInstance();
+        AuthorizationGrantCacheEntry entry = new AuthorizationGrantCacheEntry(new HashMap<>());
+        entry.setTokenId("token-id-1");
+        cache.addToCacheByToken(new AuthorizationGrantCacheKey("access-token-1"), entry);
+        // Only the session data store has the entry now.
+        cache.clearCacheEntry(new AuthorizationGrantCacheKey("access-token-1"));
+        when(sessionDataStore.getSessionData("token-id-1", CACHE_NAME)).thenReturn(entry);
+
+        assertSame(cache.getValueFromCacheByToken(new AuthorizationGrantCacheKey("access-token-1")), entry);
+        verify(accessTokenDAO, never()).getTokenIdByAccessToken(anyString());
+    }
+
+    @Test
+    public void testTokenIdCarriedWithKey() throws Exception {
+        AuthorizationGrantCacheKey key = new AuthorizationGrantCacheKey("access-token-2");
+        key.setTokenId("token-id-2");
+
+        AuthorizationGrantCache.getInstance().clearCacheEntryByToken(key);
+
+        verify(sessionDataStore).clearSessionData("token-id-2", CACHE_NAME);
+        verify(accessTokenDAO, never()).getTokenIdByAccessToken(anyString());
+    }
+
+    @Test
+    public void testTokenIdResolvedFromDatabaseOnce() throws Exception {
+        when(accessTokenDAO.getTokenIdByAccessToken("access-token-3")).thenReturn("token-id-3");
+        AuthorizationGrantCache cache = AuthorizationGrantCache.getInstance();
+
+        AuthorizationGrantCacheKey key = new AuthorizationGrantCacheKey("access-token-3");
+        cache.getValueFromCacheByToken(key);
+        assertEquals(key.getTokenId(), "token-id-3");
+        cache.getValueFromCacheByToken(new AuthorizationGrantCacheKey("access-token-3"));
+
+        verify(sessionDataStore, times(2)).getSessionData("token-id-3", CACHE_NAME);
+        verify(accessTokenDAO, times(1)).getTokenIdByAccessToken("access-token-3");
+    }
+}
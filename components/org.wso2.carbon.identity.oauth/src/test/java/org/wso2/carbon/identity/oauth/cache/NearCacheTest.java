@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for NearCache.
+ */
+public class NearCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+
+        NearCache<String, String> nearCache = new NearCache<>(100, 60000);
+        assertNull(nearCache.get("key"));
+
+        nearCache.put("key", "value");
+        assertEquals(nearCache.get("key"), "value");
+        assertEquals(nearCache.getHitCount(), 1);
+        assertEquals(nearCache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+
+        NearCache<String, String> nearCache = new NearCache<>(100, 60000);
+        nearCache.put("key1", "value1");
+        nearCache.put("key2", "value2");
+
+        nearCache.remove("key1");
+        assertNull(nearCache.get("key1"));
+        assertEquals(nearCache.get("key2"), "value2");
+
+        nearCache.clear();
+        assertNull(nearCache.get("key2"));
+        assertEquals(nearCache.size(), 0);
+    }
+
+    @Test
+    public void testPutIf() {
+
+        NearCache<String, String> nearCache = new NearCache<>(100, 60000);
+
+        assertFalse(nearCache.putIf("key", "value", () -> false));
+        assertNull(nearCache.get("key"));
+
+        assertTrue(nearCache.putIf("key", "value", () -> true));
+        assertEquals(nearCache.get("key"), "value");
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+
+        NearCache<String, String> nearCache = new NearCache<>(100, 50);
+        nearCache.put("key", "value");
+        Thread.sleep(100);
+
+        assertNull(nearCache.get("key"), "Entry should expire after the time to live.");
+        assertEquals(nearCache.size(), 0);
+    }
+
+    @Test
+    public void testSizeBound() {
+
+        NearCache<Integer, Integer> nearCache = new NearCache<>(32, 60000);
+        for (int i = 0; i < 1000; i++) {
+            nearCache.put(i, i);
+        }
+        assertTrue(nearCache.size() <= 32, "Near cache should not grow beyond its capacity.");
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+
+        // A single entry per segment, so that keys of the same segment evict each other.
+        NearCache<Integer, Integer> nearCache = new NearCache<>(16, 60000);
+        nearCache.put(0, 0);
+        nearCache.put(16, 16);
+
+        assertNull(nearCache.get(0));
+        assertEquals(nearCache.get(16), Integer.valueOf(16));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.powermock.reflect.Whitebox;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.core.util.IdentityConfigParser;
+import org.wso2.carbon.identity.oauth2.model.ClientCredentialDO;
+import org.wso2.carbon.identity.oauth2.model.ResourceScopeCacheEntry;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Unit tests for the typed OAuth cache regions.
+ */
+@WithCarbonHome
+public class OAuthCacheRegionTest {
+
+    private static final OAuthCacheKey CACHE_KEY = new OAuthCacheKey("region-test-key");
+    private static final String OAUTH_CACHE_NEAR_CACHE_ENABLE = "OAuth.OAuthCache.NearCache.Enable";
+
+    @AfterMethod
+    public void tearDown() {
+        OAuthClientCredentialCache.getInstance().clear();
+        OAuthResourceScopeCache.getInstance().clear();
+        OAuthCache.getInstance().clearCacheEntry(CACHE_KEY);
+    }
+
+    @Test
+    public void testTypedLookup() throws Exception {
+        OAuthClientCredentialCache clientCredentialCache = OAuthClientCredentialCache.getInstance();
+        clientCredentialCache.addToCache(CACHE_KEY, new ClientCredentialDO("secret"));
+
+        ClientCredentialDO clientCredentialDO = clientCredentialCache.getValueFromCache(CACHE_KEY);
+        assertEquals(clientCredentialDO.getClientSecret(), "secret");
+    }
+
+    @Test
+    public void testRegionsAreSeparate() throws Exception {
+        OAuthClientCredentialCache.getInstance().addToCache(CACHE_KEY, new ClientCredentialDO("secret"));
+
+        assertNull(OAuthResourceScopeCache.getInstance().getValueFromCache(CACHE_KEY),
+                "An entry of one region should not be visible in another region.");
+
+        OAuthResourceScopeCache.getInstance().addToCache(CACHE_KEY, new ResourceScopeCacheEntry("scope"));
+        assertEquals(OAuthClientCredentialCache.getInstance().getValueFromCache(CACHE_KEY).getClientSecret(),
+                "secret");
+    }
+
+    @Test
+    public void testHitAndMissCount() throws Exception {
+        OAuthResourceScopeCache cache = OAuthResourceScopeCache.getInstance();
+        long hitCount = cache.getHitCount();
+        long missCount = cache.getMissCount();
+
+        cache.getValueFromCache(CACHE_KEY);
+        cache.addToCache(CACHE_KEY, new ResourceScopeCacheEntry("scope"));
+        cache.getValueFromCache(CACHE_KEY);
+
+        assertEquals(cache.getHitCount(), hitCount + 1);
+        assertEquals(cache.getMissCount(), missCount + 1);
+    }
+
+    @Test
+    public void testClearCacheEntry() throws Exception {
+        OAuthClientCredentialCache cache = OAuthClientCredentialCache.getInstance();
+        cache.addToCache(CACHE_KEY, new ClientCredentialDO("secret"));
+        cache.clearCacheEntry(CACHE_KEY);
+
+        assertNull(cache.getValueFromCache(CACHE_KEY));
+    }
+
+    @Test
+    public void testNearCacheOfOAuthCache() throws Exception {
+        OAuthCache oauthCache = OAuthCache.getInstance();
+
+        // A second instance with the near cache enabled stands in for another node, which shares the distributed
+        // cache with the default instance.
+        Map<String, Object> configuration = IdentityConfigParser.getInstance().getConfiguration();
+        OAuthCache nearCachedOAuthCache;
+        configuration.put(OAUTH_CACHE_NEAR_CACHE_ENABLE, "true");
+        try {
+            nearCachedOAuthCache = Whitebox.invokeConstructor(OAuthCache.class);
+        } finally {
+            configuration.remove(OAUTH_CACHE_NEAR_CACHE_ENABLE);
+        }
+
+        oauthCache.addToCache(CACHE_KEY, new ClientCredentialDO("secret-1"));
+        assertEquals(getClientSecret(nearCachedOAuthCache), "secret-1");
+        long nearCacheHitCount = nearCachedOAuthCache.getNearCacheHitCount();
+        assertEquals(getClientSecret(nearCachedOAuthCache), "secret-1");
+        assertEquals(nearCachedOAuthCache.getNearCacheHitCount(), nearCacheHitCount + 1,
+                "A repeated lookup should be served by the near cache.");
+
+        oauthCache.addToCache(CACHE_KEY, new ClientCredentialDO("secret-2"));
+        assertEquals(getClientSecret(nearCachedOAuthCache), "secret-2",
+                "An update of the distributed cache should invalidate the near cache entry.");
+
+        nearCachedOAuthCache.addToCache(CACHE_KEY, new ClientCredentialDO("secret-3"));
+        assertEquals(getClientSecret(nearCachedOAuthCache), "secret-3");
+        assertEquals(getClientSecret(oauthCache), "secret-3");
+
+        oauthCache.clearCacheEntry(CACHE_KEY);
+        assertNull(nearCachedOAuthCache.getValueFromCache(CACHE_KEY),
+                "A removal from the distributed cache should invalidate the near cache entry.");
+    }
+
+    private String getClientSecret(OAuthCache cache) {
+        return ((ClientCredentialDO) cache.getValueFromCache(CACHE_KEY)).getClientSecret();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
+
+import java.nio.charset.StandardCharsets;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for OAuthClientAuthenticationCache.
+ */
+@WithCarbonHome
+public class OAuthClientAuthenticationCacheTest {
+
+    private static final String CLIENT_ID = "verifier-test-client";
+    private static final String CLIENT_SECRET = "verifier-test-secret";
+
+    @AfterMethod
+    public void tearDown() {
+        OAuthClientAuthenticationCache.getInstance().clear();
+    }
+
+    @Test
+    public void testVerifiedSecret() throws Exception {
+        OAuthClientAuthenticationCache cache = OAuthClientAuthenticationCache.getInstance();
+        assertFalse(cache.isVerifiedSecret(CLIENT_ID, CLIENT_SECRET));
+
+        cache.addVerifiedSecret(CLIENT_ID, CLIENT_SECRET);
+        assertTrue(cache.isVerifiedSecret(CLIENT_ID, CLIENT_SECRET));
+        assertFalse(cache.isVerifiedSecret(CLIENT_ID, "other-secret"), "A different secret should not be verified.");
+        assertFalse(cache.isVerifiedSecret("other-client", CLIENT_SECRET),
+                "The secret should not be verified for a different client.");
+    }
+
+    @Test
+    public void testSecretIsNotCached() throws Exception {
+        OAuthClientAuthenticationCache cache = OAuthClientAuthenticationCache.getInstance();
+        cache.addVerifiedSecret(CLIENT_ID, CLIENT_SECRET);
+
+        ClientSecretVerifierCacheEntry entry = cache.getValueFromCache(new OAuthCacheKey(CLIENT_ID));
+        assertNotEquals(entry.getVerifier(), CLIENT_SECRET);
+    }
+
+    @Test
+    public void testClearVerifiedSecret() throws Exception {
+        OAuthClientAuthenticationCache cache = OAuthClientAuthenticationCache.getInstance();
+        cache.addVerifiedSecret(CLIENT_ID, CLIENT_SECRET);
+        cache.clearVerifiedSecret(CLIENT_ID);
+
+        assertFalse(cache.isVerifiedSecret(CLIENT_ID, CLIENT_SECRET));
+    }
+
+    @Test
+    public void testVerifierIsNotKeyedWithClientId() throws Exception {
+        OAuthClientAuthenticationCache cache = OAuthClientAuthenticationCache.getInstance();
+        cache.addVerifiedSecret(CLIENT_ID, CLIENT_SECRET);
+
+        // The client id is public, so a verifier keyed with it could be used to guess the secret offline.
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CLIENT_ID.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String publicVerifier = HashingUtil.toHex(mac.doFinal(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8)));
+
+        ClientSecretVerifierCacheEntry entry = cache.getValueFromCache(new OAuthCacheKey(CLIENT_ID));
+        assertNotEquals(entry.getVerifier(), publicVerifier);
+        assertTrue(cache.isVerifiedSecret(CLIENT_ID, CLIENT_SECRET));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for OAuthInvalidTokenCache.
+ */
+@WithCarbonHome
+public class OAuthInvalidTokenCacheTest {
+
+    private static final String TOKEN_IDENTIFIER = "invalid-token-identifier";
+    private static final String PERSISTED_TOKEN_IDENTIFIER = "persisted-token-identifier";
+
+    @AfterMethod
+    public void tearDown() {
+        OAuthInvalidTokenCache.getInstance().clear();
+    }
+
+    @Test
+    public void testAddInvalidToken() throws Exception {
+        OAuthInvalidTokenCache cache = OAuthInvalidTokenCache.getInstance();
+        long missCount = cache.getMissCount();
+        long hitCount = cache.getHitCount();
+
+        assertFalse(cache.isInvalidToken(TOKEN_IDENTIFIER), "Token should not be invalid before it is added.");
+        cache.addInvalidToken(TOKEN_IDENTIFIER, OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
+        assertTrue(cache.isInvalidToken(TOKEN_IDENTIFIER), "Token should be invalid once it is added.");
+
+        assertEquals(cache.getMissCount(), missCount + 1);
+        assertEquals(cache.getHitCount(), hitCount + 1);
+    }
+
+    @Test
+    public void testClearInvalidToken() throws Exception {
+        OAuthInvalidTokenCache cache = OAuthInvalidTokenCache.getInstance();
+        cache.addInvalidToken(TOKEN_IDENTIFIER, OAuthInvalidTokenCache.TOKEN_NOT_ACTIVE);
+        cache.clearInvalidToken(TOKEN_IDENTIFIER);
+
+        assertFalse(cache.isInvalidToken(TOKEN_IDENTIFIER), "Token should not be invalid once it is cleared.");
+    }
+
+    @Test
+    public void testExpiredInvalidToken() throws Exception {
+        OAuthInvalidTokenCache cache = OAuthInvalidTokenCache.getInstance();
+        Object timeout = Whitebox.getInternalState(cache, "timeout");
+        try {
+            Whitebox.setInternalState(cache, "timeout", -1L);
+            cache.addInvalidToken(TOKEN_IDENTIFIER, OAuthInvalidTokenCache.TOKEN_NOT_ACTIVE);
+
+            assertFalse(cache.isInvalidToken(TOKEN_IDENTIFIER), "Token should not be invalid once the entry expired.");
+        } finally {
+            Whitebox.setInternalState(cache, "timeout", timeout);
+        }
+    }
+
+    @Test
+    public void testTokenPersistedWhileMarkedInvalid() throws Exception {
+        final OAuthInvalidTokenCache cache = OAuthInvalidTokenCache.getInstance();
+        final AccessTokenDO persistedToken = new AccessTokenDO();
+        AccessTokenDAO accessTokenDAO = mock(AccessTokenDAO.class);
+        // The token is persisted, and its entry is cleared, after the first lookup of the validation missed it.
+        when(accessTokenDAO.getActiveAccessTokensFromPrimary(anyCollectionOf(String.class))).thenAnswer(
+                new Answer<Map<String, AccessTokenDO>>() {
+                    @Override
+                    public Map<String, AccessTokenDO> answer(InvocationOnMock invocation) {
+                        cache.clearInvalidToken(PERSISTED_TOKEN_IDENTIFIER);
+                        return Collections.singletonMap(PERSISTED_TOKEN_IDENTIFIER, persistedToken);
+                    }
+                });
+
+        Collection<String> identifiers = Arrays.asList(TOKEN_IDENTIFIER, PERSISTED_TOKEN_IDENTIFIER);
+        Map<String, AccessTokenDO> persistedTokens = OAuth2Util.cacheInvalidAccessTokens(accessTokenDAO, identifiers);
+
+        assertNotNull(persistedTokens.get(PERSISTED_TOKEN_IDENTIFIER));
+        assertFalse(cache.isInvalidToken(PERSISTED_TOKEN_IDENTIFIER), "Persisted token should not be invalid.");
+        assertTrue(cache.isInvalidToken(TOKEN_IDENTIFIER), "Token which was not persisted should be invalid.");
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for OIDCScopeClaimCacheEntry.
+ */
+public class OIDCScopeClaimCacheEntryTest {
+
+    @Test
+    public void testScopeClaims() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("openid", "sub, email ,username");
+        properties.setProperty("empty", "");
+        OIDCScopeClaimCacheEntry entry = new OIDCScopeClaimCacheEntry(properties);
+
+        assertEquals(entry.getClaims("openid"), Arrays.asList("sub", "email", "username"));
+        assertTrue(entry.containsScope("empty"));
+        assertEquals(entry.getClaims("empty"), Collections.emptyList());
+        assertFalse(entry.containsScope("profile"));
+        assertEquals(entry.getClaims("profile"), Collections.emptyList());
+    }
+
+    @Test
+    public void testScopeClaimsFromResource() throws Exception {
+        Resource resource = new ResourceImpl();
+        resource.setProperty("address", "address.country,address.street");
+        OIDCScopeClaimCacheEntry entry = new OIDCScopeClaimCacheEntry(resource);
+
+        assertEquals(entry.getClaims("address"), Arrays.asList("address.country", "address.street"));
+        assertEquals(entry.getScopeClaims().size(), 1);
+    }
+
+    @Test
+    public void testEmptyScopeClaims() throws Exception {
+        assertTrue(new OIDCScopeClaimCacheEntry(new Properties()).isEmpty());
+    }
+}
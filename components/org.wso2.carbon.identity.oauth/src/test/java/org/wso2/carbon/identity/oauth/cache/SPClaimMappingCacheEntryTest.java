@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.ClaimConfig;
+import org.wso2.carbon.identity.application.common.model.ClaimMapping;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for SPClaimMappingCacheEntry.
+ */
+public class SPClaimMappingCacheEntryTest {
+
+    private static final String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
+    private static final String ROLE_CLAIM = "http://wso2.org/claims/role";
+    private static final String COUNTRY_CLAIM = "http://wso2.org/claims/country";
+
+    @Test
+    public void testRequestedClaims() throws Exception {
+        ClaimConfig claimConfig = new ClaimConfig();
+        claimConfig.setClaimMappings(new ClaimMapping[]{
+                ClaimMapping.build(EMAIL_CLAIM, "email", null, true),
+                ClaimMapping.build(COUNTRY_CLAIM, "country", null, false),
+                ClaimMapping.build(ROLE_CLAIM, "role", null, true),
+                ClaimMapping.build(EMAIL_CLAIM, "mail", null, true)});
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setApplicationName("testApp");
+        serviceProvider.setClaimConfig(claimConfig);
+
+        SPClaimMappingCacheEntry entry = new SPClaimMappingCacheEntry(serviceProvider);
+
+        assertEquals(entry.getApplicationName(), "testApp");
+        assertTrue(entry.hasRequestedClaims());
+        assertEquals(entry.getRequestedLocalClaims(), Arrays.asList(EMAIL_CLAIM, ROLE_CLAIM));
+        assertTrue(entry.isRequestedLocalClaim(ROLE_CLAIM));
+        assertFalse(entry.isRequestedLocalClaim(COUNTRY_CLAIM), "A claim which is not requested was indexed.");
+    }
+
+    @Test
+    public void testWithoutClaimConfig() throws Exception {
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setApplicationName("testApp");
+
+        SPClaimMappingCacheEntry entry = new SPClaimMappingCacheEntry(serviceProvider);
+
+        assertFalse(entry.hasRequestedClaims());
+        assertTrue(entry.getRequestedLocalClaims().isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth.tokenvaluegenerator;
+
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for SecureRandomValueGenerator.
+ */
+public class SecureRandomValueGeneratorTest {
+
+    private static final Executor SAME_THREAD_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void testGenerateValue() throws Exception {
+
+        SecureRandomValueGenerator generator =
+                new SecureRandomValueGenerator(SecureRandomValueGenerator.DEFAULT_TOKEN_LENGTH, 0);
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String value = generator.generateValue();
+            assertEquals(value.length(), 43, "256 bits should be encoded as 43 base64url characters.");
+            assertTrue(value.matches("[A-Za-z0-9_-]+"), "Token value should be base64url encoded: " + value);
+            values.add(value);
+        }
+        assertEquals(values.size(), 100, "Generated token values should be unique.");
+        assertEquals(generator.getPooledCount(), 0);
+    }
+
+    @Test
+    public void testGenerateValueFromPool() throws Exception {
+
+        SecureRandomValueGenerator generator = new SecureRandomValueGenerator(32, 10, SAME_THREAD_EXECUTOR);
+        assertEquals(generator.getPooledCount(), 10, "Pool should be filled on creation.");
+
+        for (int i = 0; i < 5; i++) {
+            generator.generateValue();
+        }
+        assertEquals(generator.getPooledCount(), 10, "Pool should be refilled once half of it is consumed.");
+    }
+
+    @Test
+    public void testGenerateValueWhenPoolIsEmpty() throws Exception {
+
+        Executor noOpExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+            }
+        };
+        SecureRandomValueGenerator generator = new SecureRandomValueGenerator(32, 10, noOpExecutor);
+        assertEquals(generator.getPooledCount(), 0);
+        assertEquals(generator.generateValue().length(), 43, "Token value should be generated inline.");
+    }
+
+    @Test
+    public void testGenerateValueFromString() throws Exception {
+
+        SecureRandomValueGenerator generator = new SecureRandomValueGenerator(32, 0);
+        assertEquals(generator.generateValue("value"), generator.generateValue("value"));
+    }
+
+    @Test(expectedExceptions = OAuthSystemException.class)
+    public void testGenerateValueException() throws Exception {
+
+        new SecureRandomValueGenerator(32, 0).generateValue(null);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidTokenLength() {
+
+        new SecureRandomValueGenerator(8, 0);
+    }
+}
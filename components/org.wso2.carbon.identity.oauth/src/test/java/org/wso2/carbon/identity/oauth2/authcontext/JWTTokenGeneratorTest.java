@@ -35,20 +35,16 @@ import org.wso2.carbon.identity.oauth.util.ClaimCache;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationRequestDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationResponseDTO;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
-import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyMaterial;
+import org.wso2.carbon.identity.oauth2.util.SigningKeyRegistry;
 import org.wso2.carbon.identity.oauth2.validators.DefaultOAuth2TokenValidator;
 import org.wso2.carbon.identity.oauth2.validators.OAuth2TokenValidationMessageContext;
 import org.wso2.carbon.identity.testutil.ReadCertStoreSampleUtil;
 import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.security.Key;
-import java.security.cert.Certificate;
+import java.security.KeyStore;
 import java.sql.Timestamp;
-import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.mockito.Mockito.mock;
 
@@ -126,14 +122,10 @@ public class JWTTokenGeneratorTest extends PowerMockIdentityBaseTest {
         addSampleOauth2Application();
         ClaimCache claimsLocalCache = ClaimCache.getInstance();
         Whitebox.setInternalState(jwtTokenGenerator, "claimsLocalCache", claimsLocalCache);
-        Map<Integer, Certificate> publicCerts = new ConcurrentHashMap<>();
-        publicCerts.put(-1234, ReadCertStoreSampleUtil.createKeyStore(getClass())
-                                                      .getCertificate("wso2carbon"));
-        setFinalStatic(OAuth2Util.class.getDeclaredField("publicCerts"), publicCerts);
-        Map<Integer, Key> privateKeys = new ConcurrentHashMap<>();
-        privateKeys.put(-1234, ReadCertStoreSampleUtil.createKeyStore(getClass())
-                                                      .getKey("wso2carbon", "wso2carbon".toCharArray()));
-        setFinalStatic(OAuth2Util.class.getDeclaredField("privateKeys"), privateKeys);
+        KeyStore keyStore = ReadCertStoreSampleUtil.createKeyStore(getClass());
+        SigningKeyRegistry.getInstance().register(new SigningKeyMaterial(
+                MultitenantConstants.SUPER_TENANT_DOMAIN_NAME, MultitenantConstants.SUPER_TENANT_ID,
+                keyStore.getKey("wso2carbon", "wso2carbon".toCharArray()), keyStore.getCertificate("wso2carbon")));
         jwtTokenGenerator.generateToken(oAuth2TokenValidationMessageContext);
 
         Assert.assertNotNull(oAuth2TokenValidationMessageContext.getResponseDTO().getAuthorizationContextToken()
@@ -202,12 +194,4 @@ public class JWTTokenGeneratorTest extends PowerMockIdentityBaseTest {
         authAppDAO.addOAuthApplication(oAuthAppDO);
         authAppDAO.getConsumerAppState("sampleConsumerKey");
     }
-
-    private void setFinalStatic(Field field, Object newValue) throws Exception {
-        field.setAccessible(true);
-        Field modifiersField = Field.class.getDeclaredField("modifiers");
-        modifiersField.setAccessible(true);
-        modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
-        field.set(null, newValue);
-    }
 }
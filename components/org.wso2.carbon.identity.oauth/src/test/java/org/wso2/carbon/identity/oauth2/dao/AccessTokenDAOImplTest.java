@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.application.common.model.LocalAndOutboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
+import org.wso2.carbon.identity.oauth.tokenprocessor.PlainTextPersistenceProcessor;
+import org.wso2.carbon.identity.oauth2.dao.util.DAOUtils;
+import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.HashingUtil;
+import org.wso2.carbon.identity.testutil.IdentityBaseTest;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for AccessTokenDAOImpl.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class, IdentityUtil.class, OAuthServerConfiguration.class})
+public class AccessTokenDAOImplTest extends IdentityBaseTest {
+
+    private static final String DB_NAME = "ACCESS_TOKEN_DAO_DB";
+    private static final int TENANT_ID = 7001;
+    private static final String TENANT_DOMAIN = "scan.com";
+    private static final String USER_STORE_DOMAIN = "PRIMARY";
+    // More scope rows than a single page of the token scan holds.
+    private static final int SCANNED_TOKEN_COUNT = 700;
+    private static final int REVOKE_TENANT_ID = 7002;
+    private static final String REVOKE_TENANT_DOMAIN = "revoke.com";
+    private static final String REPLICA_DB_NAME = "ACCESS_TOKEN_DAO_REPLICA_DB";
+    private static final int BATCH_TENANT_ID = 7003;
+    private static final String BATCH_TENANT_DOMAIN = "batch.com";
+    // One more token than a single IN list of the batched token retrieval holds.
+    private static final int BATCH_TOKEN_COUNT = 501;
+    private static final String PARTITION_DOMAINS = "A:FOO";
+    // Access tokens which carry the user, so that they are mapped to the token partitions.
+    private static final String PRIMARY_PARTITION_TOKEN = encodeUser("batch-client:partition-user");
+    private static final String FOO_PARTITION_TOKEN = encodeUser("batch-client:FOO/partition-user");
+
+    private static final String INSERT_APP = "INSERT INTO IDN_OAUTH_CONSUMER_APPS (ID, CONSUMER_KEY, " +
+            "CONSUMER_SECRET, USERNAME, TENANT_ID, USER_DOMAIN, APP_NAME, OAUTH_VERSION) VALUES (?, ?, 'secret', " +
+            "'admin', ?, 'PRIMARY', ?, 'OAuth-2.0')";
+    private static final String INSERT_TOKEN = "INSERT INTO IDN_OAUTH2_ACCESS_TOKEN%s (TOKEN_ID, ACCESS_TOKEN, " +
+            "REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, USER_TYPE, TIME_CREATED, " +
+            "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, " +
+            "TOKEN_STATE, TOKEN_STATE_ID, ACCESS_TOKEN_HASH) VALUES (?, ?, ?, ?, ?, ?, ?, 'APPLICATION_USER', ?, ?, " +
+            "3600000, 84600000, ?, 'ACTIVE', 'NONE', ?)";
+    private static final String INSERT_TOKEN_SCOPE = "INSERT INTO IDN_OAUTH2_ACCESS_TOKEN_SCOPE%s (TOKEN_ID, " +
+            "TOKEN_SCOPE, TENANT_ID) VALUES (?, ?, ?)";
+    private static final String CREATE_PARTITION = "CREATE TABLE %s_A AS SELECT * FROM %s WHERE 1 = 0";
+    private static final String GET_TOKEN_STATE = "SELECT TOKEN_STATE FROM IDN_OAUTH2_ACCESS_TOKEN WHERE " +
+            "TOKEN_ID = ?";
+    private static final String REVOKE_TOKEN = "UPDATE IDN_OAUTH2_ACCESS_TOKEN SET TOKEN_STATE = 'REVOKED', " +
+            "TOKEN_STATE_ID = TOKEN_ID WHERE TOKEN_ID = ?";
+
+    private AccessTokenDAOImpl accessTokenDAO;
+
+    @Mock
+    private OAuthServerConfiguration mockedOAuthServerConfiguration;
+
+    @Mock
+    private RealmService mockedRealmService;
+
+    @Mock
+    private TenantManager mockedTenantManager;
+
+    @Mock
+    private ApplicationManagementService mockedApplicationManagementService;
+
+    @Mock
+    private ServiceProvider mockedServiceProvider;
+
+    @Mock
+    private LocalAndOutboundAuthenticationConfig mockedLocalAndOutboundAuthenticationConfig;
+
+    @BeforeClass
+    public void initTest() throws Exception {
+
+        DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("token.sql"));
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            insertApplication(connection, 7001, "scan-client");
+            for (int i = 0; i < SCANNED_TOKEN_COUNT; i++) {
+                insertToken(connection, "scan-token-" + i, 7001, "user" + i, TENANT_ID, USER_STORE_DOMAIN,
+                        "openid", "profile");
+            }
+            insertToken(connection, "revoke-token-1", 7001, "revoke-user", REVOKE_TENANT_ID, USER_STORE_DOMAIN,
+                    "openid", "profile");
+            insertToken(connection, "revoke-token-2", 7001, "revoke-user", REVOKE_TENANT_ID, USER_STORE_DOMAIN,
+                    "openid");
+            insertToken(connection, "revoke-token-other", 7001, "other-user", REVOKE_TENANT_ID, USER_STORE_DOMAIN,
+                    "openid");
+
+            for (int i = 0; i < BATCH_TOKEN_COUNT; i++) {
+                insertToken(connection, "batch-token-" + i, 7001, "batch-user" + i, BATCH_TENANT_ID,
+                        USER_STORE_DOMAIN, "openid", "profile");
+            }
+            insertToken(connection, "batch-token-revoked", 7001, "batch-user", BATCH_TENANT_ID, USER_STORE_DOMAIN,
+                    "openid");
+            try (PreparedStatement prepStmt = connection.prepareStatement(REVOKE_TOKEN)) {
+                prepStmt.setString(1, "batch-token-revoked");
+                prepStmt.execute();
+            }
+
+            for (String table : Arrays.asList("IDN_OAUTH2_ACCESS_TOKEN", "IDN_OAUTH2_ACCESS_TOKEN_SCOPE")) {
+                try (PreparedStatement prepStmt = connection.prepareStatement(String.format(CREATE_PARTITION,
+                        table, table))) {
+                    prepStmt.execute();
+                }
+            }
+            insertToken(connection, "", "partition-token-primary", PRIMARY_PARTITION_TOKEN, 7001,
+                    "partition-user", BATCH_TENANT_ID, USER_STORE_DOMAIN, "openid");
+            insertToken(connection, "_A", "partition-token-foo", FOO_PARTITION_TOKEN, 7001, "partition-user",
+                    BATCH_TENANT_ID, "FOO", "openid", "profile");
+            connection.commit();
+        }
+
+        // A replica which has received only the first batch token, with other scopes than on the primary.
+        DAOUtils.initializeDataSource(REPLICA_DB_NAME, DAOUtils.getFilePath("token.sql"));
+        try (Connection connection = DAOUtils.getConnection(REPLICA_DB_NAME)) {
+            insertApplication(connection, 7001, "scan-client");
+            insertToken(connection, "batch-token-0", 7001, "batch-user0", BATCH_TENANT_ID, USER_STORE_DOMAIN,
+                    "replica_scope");
+            connection.commit();
+        }
+    }
+
+    @BeforeMethod
+    public void mockStaticMethods() throws Exception {
+
+        mockStatic(OAuthServerConfiguration.class);
+        when(OAuthServerConfiguration.getInstance()).thenReturn(mockedOAuthServerConfiguration);
+        when(mockedOAuthServerConfiguration.getPersistenceProcessor()).thenReturn(new PlainTextPersistenceProcessor());
+        when(mockedOAuthServerConfiguration.getHashAlgorithm()).thenReturn("SHA-256");
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.getPrimaryDomainName()).thenReturn(USER_STORE_DOMAIN);
+
+        OAuthComponentServiceHolder.getInstance().setRealmService(mockedRealmService);
+        when(mockedRealmService.getTenantManager()).thenReturn(mockedTenantManager);
+        when(mockedTenantManager.getDomain(TENANT_ID)).thenReturn(TENANT_DOMAIN);
+        when(mockedTenantManager.getTenantId(REVOKE_TENANT_DOMAIN)).thenReturn(REVOKE_TENANT_ID);
+        when(mockedTenantManager.getDomain(BATCH_TENANT_ID)).thenReturn(BATCH_TENANT_DOMAIN);
+
+        when(mockedApplicationManagementService.getServiceProviderByClientId(anyString(), anyString(), anyString()))
+                .thenReturn(mockedServiceProvider);
+        when(mockedServiceProvider.getLocalAndOutBoundAuthenticationConfig())
+                .thenReturn(mockedLocalAndOutboundAuthenticationConfig);
+        OAuth2ServiceComponentHolder.setApplicationMgtService(mockedApplicationManagementService);
+
+        accessTokenDAO = new AccessTokenDAOImpl();
+    }
+
+    @Test
+    public void testVisitAccessTokensOfUserStoreAcrossPages() throws Exception {
+
+        final Map<String, AccessTokenDO> visitedTokens = new HashMap<>();
+        try (final Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            accessTokenDAO.visitAccessTokensOfUserStore(TENANT_ID, USER_STORE_DOMAIN, new AccessTokenVisitor() {
+                @Override
+                public void visit(AccessTokenDO accessTokenDO) {
+
+                    assertNull(visitedTokens.put(accessTokenDO.getTokenId(), accessTokenDO),
+                            "Token visited more than once: " + accessTokenDO.getTokenId());
+                    // The visitor may update the tokens, since no result set is open while it is called.
+                    try (PreparedStatement prepStmt = connection.prepareStatement(REVOKE_TOKEN)) {
+                        prepStmt.setString(1, accessTokenDO.getTokenId());
+                        prepStmt.execute();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+
+        assertEquals(visitedTokens.size(), SCANNED_TOKEN_COUNT);
+        for (AccessTokenDO accessTokenDO : visitedTokens.values()) {
+            assertEquals(accessTokenDO.getScope().length, 2, "Scopes of " + accessTokenDO.getTokenId() +
+                    " were split across pages.");
+            assertEquals(accessTokenDO.getConsumerKey(), "scan-client");
+            assertEquals(accessTokenDO.getAuthzUser().getTenantDomain(), TENANT_DOMAIN);
+        }
+    }
+
+    @Test
+    public void testRevokeAccessTokensOfUser() throws Exception {
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setUserName("Revoke-User");
+        authenticatedUser.setTenantDomain(REVOKE_TENANT_DOMAIN);
+        // The user store domain is sanitized before it is matched with the stored one.
+        authenticatedUser.setUserStoreDomain("primary");
+
+        Map<String, AccessTokenDO> revokedTokens = new HashMap<>();
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            for (AccessTokenDO accessTokenDO : accessTokenDAO.revokeAccessTokensOfUser(authenticatedUser)) {
+                revokedTokens.put(accessTokenDO.getTokenId(), accessTokenDO);
+            }
+            assertTrue(accessTokenDAO.revokeAccessTokensOfUser(authenticatedUser).isEmpty(),
+                    "Tokens which are already revoked were returned again.");
+
+            assertEquals(getTokenState(connection, "revoke-token-1"), "REVOKED");
+            assertEquals(getTokenState(connection, "revoke-token-2"), "REVOKED");
+            assertEquals(getTokenState(connection, "revoke-token-other"), "ACTIVE");
+        }
+
+        assertEquals(revokedTokens.keySet(), new HashSet<>(Arrays.asList("revoke-token-1", "revoke-token-2")));
+        assertEquals(revokedTokens.get("revoke-token-1").getScope().length, 2);
+        assertEquals(revokedTokens.get("revoke-token-1").getAccessToken(), "revoke-token-1-access");
+        assertEquals(revokedTokens.get("revoke-token-1").getConsumerKey(), "scan-client");
+        assertEquals(revokedTokens.get("revoke-token-2").getScope().length, 1);
+    }
+
+    @Test
+    public void testGetActiveAccessTokensInChunks() throws Exception {
+
+        List<String> accessTokenIdentifiers = new ArrayList<>();
+        for (int i = 0; i < BATCH_TOKEN_COUNT; i++) {
+            accessTokenIdentifiers.add("batch-token-" + i + "-access");
+        }
+        accessTokenIdentifiers.add("batch-token-revoked-access");
+        accessTokenIdentifiers.add("batch-token-unknown-access");
+
+        Map<String, AccessTokenDO> accessTokens;
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        try (Connection realConnection = DAOUtils.getConnection(DB_NAME)) {
+            Connection connection = mock(Connection.class, delegatesTo(realConnection));
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            accessTokens = accessTokenDAO.getActiveAccessTokens(accessTokenIdentifiers);
+            verify(connection, times(2)).prepareStatement(sqlCaptor.capture());
+        }
+
+        // The identifiers are bound to an IN list of at most 500 parameters.
+        List<String> statements = sqlCaptor.getAllValues();
+        assertEquals(StringUtils.countMatches(statements.get(0), "?"), 500);
+        assertEquals(StringUtils.countMatches(statements.get(1), "?"), 3);
+
+        assertEquals(accessTokens.size(), BATCH_TOKEN_COUNT);
+        assertFalse(accessTokens.containsKey("batch-token-revoked-access"));
+        assertFalse(accessTokens.containsKey("batch-token-unknown-access"));
+        for (int i = 0; i < BATCH_TOKEN_COUNT; i++) {
+            AccessTokenDO accessTokenDO = accessTokens.get("batch-token-" + i + "-access");
+            assertEquals(accessTokenDO.getTokenId(), "batch-token-" + i);
+            // A token is returned in a row per scope.
+            assertEquals(new HashSet<>(Arrays.asList(accessTokenDO.getScope())),
+                    new HashSet<>(Arrays.asList("openid", "profile")));
+            assertEquals(accessTokenDO.getAuthzUser().getUserName(), "batch-user" + i);
+            assertEquals(accessTokenDO.getAuthzUser().getTenantDomain(), BATCH_TENANT_DOMAIN);
+            assertEquals(accessTokenDO.getConsumerKey(), "scan-client");
+        }
+    }
+
+    @Test
+    public void testGetActiveAccessTokensGroupedByPartition() throws Exception {
+
+        when(mockedOAuthServerConfiguration.isAccessTokenPartitioningEnabled()).thenReturn(true);
+        when(mockedOAuthServerConfiguration.isUserNameAssertionEnabled()).thenReturn(true);
+        when(mockedOAuthServerConfiguration.getAccessTokenPartitioningDomains()).thenReturn(PARTITION_DOMAINS);
+
+        Map<String, AccessTokenDO> accessTokens;
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        try (Connection realConnection = DAOUtils.getConnection(DB_NAME)) {
+            Connection connection = mock(Connection.class, delegatesTo(realConnection));
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            accessTokens = accessTokenDAO.getActiveAccessTokens(Arrays.asList(PRIMARY_PARTITION_TOKEN,
+                    FOO_PARTITION_TOKEN, PRIMARY_PARTITION_TOKEN));
+            verify(connection, times(2)).prepareStatement(sqlCaptor.capture());
+        }
+
+        Map<Boolean, String> statementsByPartition = new HashMap<>();
+        for (String sql : sqlCaptor.getAllValues()) {
+            statementsByPartition.put(sql.contains("IDN_OAUTH2_ACCESS_TOKEN_A "), sql);
+        }
+        assertEquals(statementsByPartition.size(), 2, "A statement should be executed per token partition.");
+        assertEquals(StringUtils.countMatches(statementsByPartition.get(false), "?"), 1);
+        assertTrue(statementsByPartition.get(true).contains("IDN_OAUTH2_ACCESS_TOKEN_SCOPE_A "));
+        assertEquals(StringUtils.countMatches(statementsByPartition.get(true), "?"), 1);
+
+        assertEquals(accessTokens.size(), 2);
+        assertEquals(accessTokens.get(PRIMARY_PARTITION_TOKEN).getTokenId(), "partition-token-primary");
+        assertEquals(accessTokens.get(PRIMARY_PARTITION_TOKEN).getScope().length, 1);
+        assertEquals(accessTokens.get(FOO_PARTITION_TOKEN).getTokenId(), "partition-token-foo");
+        assertEquals(accessTokens.get(FOO_PARTITION_TOKEN).getScope().length, 2);
+        assertEquals(accessTokens.get(FOO_PARTITION_TOKEN).getAuthzUser().getUserStoreDomain(), "FOO");
+    }
+
+    @Test
+    public void testGetActiveAccessTokensFallsBackToPrimary() throws Exception {
+
+        ReadReplicaRouter.setReplicaDataSource(DAOUtils.getDataSource(REPLICA_DB_NAME));
+        Map<String, AccessTokenDO> accessTokens;
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        try (Connection realConnection = DAOUtils.getConnection(DB_NAME)) {
+            Connection connection = mock(Connection.class, delegatesTo(realConnection));
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            accessTokens = accessTokenDAO.getActiveAccessTokens(Arrays.asList("batch-token-0-access",
+                    "batch-token-1-access", "batch-token-unknown-access"));
+            verify(connection).prepareStatement(sqlCaptor.capture());
+        } finally {
+            ReadReplicaRouter.setReplicaDataSource(null);
+        }
+
+        // Only the tokens which were not found on the replica are retrieved from the primary.
+        assertEquals(StringUtils.countMatches(sqlCaptor.getValue(), "?"), 2);
+        assertEquals(accessTokens.keySet(), new HashSet<>(Arrays.asList("batch-token-0-access",
+                "batch-token-1-access")));
+        assertEquals(accessTokens.get("batch-token-0-access").getScope(), new String[]{"replica_scope"});
+        assertEquals(accessTokens.get("batch-token-1-access").getScope().length, 2);
+    }
+
+    private String getTokenState(Connection connection, String tokenId) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(GET_TOKEN_STATE)) {
+            prepStmt.setString(1, tokenId);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private void insertApplication(Connection connection, int appId, String consumerKey) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_APP)) {
+            prepStmt.setInt(1, appId);
+            prepStmt.setString(2, consumerKey);
+            prepStmt.setInt(3, TENANT_ID);
+            prepStmt.setString(4, consumerKey + "-app");
+            prepStmt.execute();
+        }
+    }
+
+    private void insertToken(Connection connection, String tokenId, int appId, String user, int tenantId,
+                             String userStoreDomain, String... scopes) throws Exception {
+
+        insertToken(connection, "", tokenId, tokenId + "-access", appId, user, tenantId, userStoreDomain, scopes);
+    }
+
+    private void insertToken(Connection connection, String partition, String tokenId, String accessToken, int appId,
+                             String user, int tenantId, String userStoreDomain, String... scopes) throws Exception {
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement prepStmt = connection.prepareStatement(String.format(INSERT_TOKEN, partition))) {
+            prepStmt.setString(1, tokenId);
+            prepStmt.setString(2, accessToken);
+            prepStmt.setString(3, tokenId + "-refresh");
+            prepStmt.setInt(4, appId);
+            prepStmt.setString(5, user);
+            prepStmt.setInt(6, tenantId);
+            prepStmt.setString(7, userStoreDomain);
+            prepStmt.setTimestamp(8, now);
+            prepStmt.setTimestamp(9, now);
+            prepStmt.setString(10, tokenId);
+            prepStmt.setString(11, HashingUtil.sha256Hex(accessToken));
+            prepStmt.execute();
+        }
+        for (String scope : scopes) {
+            try (PreparedStatement prepStmt = connection.prepareStatement(String.format(INSERT_TOKEN_SCOPE,
+                    partition))) {
+                prepStmt.setString(1, tokenId);
+                prepStmt.setString(2, scope);
+                prepStmt.setInt(3, tenantId);
+                prepStmt.execute();
+            }
+        }
+    }
+
+    private static String encodeUser(String consumerKeyAndUser) {
+
+        return new String(Base64.encodeBase64(consumerKeyAndUser.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
+import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
+import org.wso2.carbon.identity.oauth.tokenprocessor.PlainTextPersistenceProcessor;
+import org.wso2.carbon.identity.oauth2.dao.util.DAOUtils;
+import org.wso2.carbon.identity.oauth2.model.AuthzCodeDO;
+import org.wso2.carbon.identity.testutil.IdentityBaseTest;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for AuthorizationCodeDAOImpl.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class, IdentityUtil.class, OAuthServerConfiguration.class})
+public class AuthorizationCodeDAOImplTest extends IdentityBaseTest {
+
+    private static final String DB_NAME = "AUTHORIZATION_CODE_DAO_DB";
+    private static final int TENANT_ID = 7101;
+    private static final String TENANT_DOMAIN = "codes.com";
+
+    private static final String INSERT_APP = "INSERT INTO IDN_OAUTH_CONSUMER_APPS (ID, CONSUMER_KEY, " +
+            "CONSUMER_SECRET, USERNAME, TENANT_ID, USER_DOMAIN, APP_NAME, OAUTH_VERSION) VALUES (?, ?, 'secret', " +
+            "'admin', ?, 'PRIMARY', ?, 'OAuth-2.0')";
+    private static final String INSERT_CODE = "INSERT INTO IDN_OAUTH2_AUTHORIZATION_CODE (CODE_ID, " +
+            "AUTHORIZATION_CODE, CONSUMER_KEY_ID, CALLBACK_URL, SCOPE, AUTHZ_USER, TENANT_ID, USER_DOMAIN, " +
+            "TIME_CREATED, VALIDITY_PERIOD, STATE) VALUES (?, ?, ?, 'https://localhost/callback', 'openid', ?, ?, " +
+            "'PRIMARY', ?, 300000, ?)";
+    private static final String GET_CODE_STATE = "SELECT STATE FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?";
+
+    private AuthorizationCodeDAOImpl authorizationCodeDAO;
+
+    @Mock
+    private OAuthServerConfiguration mockedOAuthServerConfiguration;
+
+    @Mock
+    private RealmService mockedRealmService;
+
+    @Mock
+    private TenantManager mockedTenantManager;
+
+    @BeforeClass
+    public void initTest() throws Exception {
+
+        DAOUtils.initializeDataSource(DB_NAME, DAOUtils.getFilePath("token.sql"));
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            insertApplication(connection, 7101, "code-client-1");
+            insertApplication(connection, 7102, "code-client-2");
+            insertCode(connection, "code-1", 7101, "code-user", "ACTIVE");
+            insertCode(connection, "code-2", 7102, "code-user", "ACTIVE");
+            insertCode(connection, "code-inactive", 7101, "code-user", "INACTIVE");
+            insertCode(connection, "code-other", 7101, "other-user", "ACTIVE");
+            connection.commit();
+        }
+    }
+
+    @BeforeMethod
+    public void mockStaticMethods() throws Exception {
+
+        mockStatic(OAuthServerConfiguration.class);
+        when(OAuthServerConfiguration.getInstance()).thenReturn(mockedOAuthServerConfiguration);
+        when(mockedOAuthServerConfiguration.getPersistenceProcessor()).thenReturn(new PlainTextPersistenceProcessor());
+        when(mockedOAuthServerConfiguration.getHashAlgorithm()).thenReturn("SHA-256");
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.getPrimaryDomainName()).thenReturn("PRIMARY");
+
+        OAuthComponentServiceHolder.getInstance().setRealmService(mockedRealmService);
+        when(mockedRealmService.getTenantManager()).thenReturn(mockedTenantManager);
+        when(mockedTenantManager.getTenantId(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+
+        authorizationCodeDAO = new AuthorizationCodeDAOImpl();
+    }
+
+    @Test
+    public void testRevokeAuthorizationCodesOfUser() throws Exception {
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setUserName("Code-User");
+        authenticatedUser.setTenantDomain(TENANT_DOMAIN);
+        // The user store domain is sanitized before it is matched with the stored one.
+        authenticatedUser.setUserStoreDomain("primary");
+
+        Map<String, AuthzCodeDO> revokedCodes = new HashMap<>();
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+
+            for (AuthzCodeDO authzCodeDO : authorizationCodeDAO.revokeAuthorizationCodesOfUser(authenticatedUser)) {
+                revokedCodes.put(authzCodeDO.getAuthzCodeId(), authzCodeDO);
+            }
+            assertTrue(authorizationCodeDAO.revokeAuthorizationCodesOfUser(authenticatedUser).isEmpty(),
+                    "Authorization codes which are already revoked were returned again.");
+
+            assertEquals(getCodeState(connection, "code-1"), "REVOKED");
+            assertEquals(getCodeState(connection, "code-2"), "REVOKED");
+            assertEquals(getCodeState(connection, "code-inactive"), "INACTIVE");
+            assertEquals(getCodeState(connection, "code-other"), "ACTIVE");
+        }
+
+        assertEquals(revokedCodes.size(), 2);
+        // The consumer key is needed to build the cache key of the authorization code.
+        assertEquals(revokedCodes.get("code-1").getConsumerKey(), "code-client-1");
+        assertEquals(revokedCodes.get("code-1").getAuthorizationCode(), "code-1-code");
+        assertEquals(revokedCodes.get("code-2").getConsumerKey(), "code-client-2");
+    }
+
+    private String getCodeState(Connection connection, String codeId) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(GET_CODE_STATE)) {
+            prepStmt.setString(1, codeId);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private void insertApplication(Connection connection, int appId, String consumerKey) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_APP)) {
+            prepStmt.setInt(1, appId);
+            prepStmt.setString(2, consumerKey);
+            prepStmt.setInt(3, TENANT_ID);
+            prepStmt.setString(4, consumerKey + "-app");
+            prepStmt.execute();
+        }
+    }
+
+    private void insertCode(Connection connection, String codeId, int appId, String user, String state)
+            throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+            prepStmt.setString(1, codeId);
+            prepStmt.setString(2, codeId + "-code");
+            prepStmt.setInt(3, appId);
+            prepStmt.setString(4, user);
+            prepStmt.setInt(5, TENANT_ID);
+            prepStmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+            prepStmt.setString(7, state);
+            prepStmt.execute();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.IObjectFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for PartitionedQueryExecutor.
+ */
+@WithCarbonHome
+@PrepareForTest({OAuth2Util.class, IdentityUtil.class})
+public class PartitionedQueryExecutorTest extends PowerMockTestCase {
+
+    private List<String> queriedPartitions;
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        queriedPartitions = new CopyOnWriteArrayList<>();
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.getPrimaryDomainName()).thenReturn("PRIMARY");
+        mockStatic(OAuth2Util.class);
+        when(OAuth2Util.checkAccessTokenPartitioningEnabled()).thenReturn(true);
+        when(OAuth2Util.checkUserNameAssertionEnabled()).thenReturn(true);
+        Map<String, String> domainMappings = new LinkedHashMap<>();
+        domainMappings.put("FOO", "A");
+        domainMappings.put("BAR", "B");
+        when(OAuth2Util.getAvailableUserStoreDomainMappings()).thenReturn(domainMappings);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        PartitionedQueryExecutor.shutdown();
+    }
+
+    @Test
+    public void testExecuteOnAllPartitions() throws Exception {
+        List<String> results = PartitionedQueryExecutor.executeOnAllPartitions(new EchoQuery(null));
+
+        assertEquals(results, Arrays.asList("PRIMARY", "FOO", "BAR"), "Results should be in partition order.");
+        assertEquals(queriedPartitions.size(), 3);
+    }
+
+    @Test
+    public void testExecuteOnPrimaryWhenPartitioningDisabled() throws Exception {
+        when(OAuth2Util.checkAccessTokenPartitioningEnabled()).thenReturn(false);
+
+        List<String> results = PartitionedQueryExecutor.executeOnAllPartitions(new EchoQuery(null));
+
+        assertEquals(results, Collections.singletonList("PRIMARY"));
+    }
+
+    @Test
+    public void testExecuteUntilFoundInPrimary() throws Exception {
+        assertEquals(PartitionedQueryExecutor.executeUntilFound(new EchoQuery("PRIMARY")), "PRIMARY");
+        assertEquals(queriedPartitions, Collections.singletonList("PRIMARY"),
+                "Partitions should not be queried when the primary table has the result.");
+    }
+
+    @Test
+    public void testExecuteUntilFoundInPartition() throws Exception {
+        assertEquals(PartitionedQueryExecutor.executeUntilFound(new EchoQuery("BAR")), "BAR");
+        assertNull(PartitionedQueryExecutor.executeUntilFound(new EchoQuery("BAZ")));
+    }
+
+    @Test(expectedExceptions = IdentityOAuth2Exception.class)
+    public void testExecuteOnAllPartitionsWithError() throws Exception {
+        PartitionedQueryExecutor.executeOnAllPartitions(new PartitionedQueryExecutor.PartitionQuery<String>() {
+            @Override
+            public String execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                if ("FOO".equals(userStoreDomain)) {
+                    throw new IdentityOAuth2Exception("Error while querying " + userStoreDomain);
+                }
+                return userStoreDomain;
+            }
+        });
+    }
+
+    @Test
+    public void testExecuteWithTenantOfCaller() throws Exception {
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain("foo.com");
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(5);
+            List<String> tenants = PartitionedQueryExecutor.executeOnAllPartitions(
+                    new PartitionedQueryExecutor.PartitionQuery<String>() {
+                        @Override
+                        public String execute(String userStoreDomain) {
+                            PrivilegedCarbonContext context = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                            return context.getTenantDomain() + ":" + context.getTenantId();
+                        }
+                    });
+            assertEquals(tenants, Arrays.asList("foo.com:5", "foo.com:5", "foo.com:5"));
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    @Test
+    public void testExecuteInCallerThreadWithinUnitOfWork() throws Exception {
+        final Thread caller = Thread.currentThread();
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            List<Boolean> inCallerThread = PartitionedQueryExecutor.executeOnAllPartitions(
+                    new PartitionedQueryExecutor.PartitionQuery<Boolean>() {
+                        @Override
+                        public Boolean execute(String userStoreDomain) {
+                            return Thread.currentThread() == caller;
+                        }
+                    });
+            assertEquals(inCallerThread, Arrays.asList(true, true, true));
+        } finally {
+            unitOfWork.close();
+        }
+    }
+
+    @Test
+    public void testRunningStatementsCancelledOnError() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final Statement statement = mock(Statement.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                cancelled.countDown();
+                return null;
+            }
+        }).when(statement).cancel();
+
+        try {
+            PartitionedQueryExecutor.executeOnAllPartitions(new PartitionedQueryExecutor.PartitionQuery<String>() {
+                @Override
+                public String execute(String userStoreDomain) throws IdentityOAuth2Exception {
+                    try {
+                        if ("FOO".equals(userStoreDomain)) {
+                            started.await(10, TimeUnit.SECONDS);
+                            throw new IdentityOAuth2Exception("Error while querying " + userStoreDomain);
+                        }
+                        if ("BAR".equals(userStoreDomain)) {
+                            PartitionedQueryExecutor.applyQueryTimeout(statement);
+                            started.countDown();
+                            // Stands for a long running statement, which only a cancel stops.
+                            cancelled.await(10, TimeUnit.SECONDS);
+                        }
+                    } catch (InterruptedException | SQLException e) {
+                        throw new IdentityOAuth2Exception("Error while querying " + userStoreDomain, e);
+                    }
+                    return userStoreDomain;
+                }
+            });
+        } catch (IdentityOAuth2Exception e) {
+            // Expected, the FOO partition fails.
+        }
+
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS), "Running statement should be cancelled.");
+        verify(statement).setQueryTimeout(30);
+        verify(statement).cancel();
+    }
+
+    /**
+     * Returns the queried user store domain. If a domain to be found is given, returns null for other domains.
+     */
+    private class EchoQuery implements PartitionedQueryExecutor.PartitionQuery<String> {
+
+        private String domainToFind;
+
+        EchoQuery(String domainToFind) {
+            this.domainToFind = domainToFind;
+        }
+
+        @Override
+        public String execute(String userStoreDomain) {
+            queriedPartitions.add(userStoreDomain);
+            if (domainToFind == null || domainToFind.equals(userStoreDomain)) {
+                return userStoreDomain;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithH2Database;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth.cache.OAuthInvalidTokenCache;
+import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
+import org.wso2.carbon.identity.oauth.tokenprocessor.HashingPersistenceProcessor;
+import org.wso2.carbon.identity.oauth2.dao.util.DAOUtils;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for ReadReplicaRouter, with two H2 databases as the primary and the read replica.
+ */
+@WithCarbonHome
+@WithH2Database(jndiName = "jdbc/WSO2IdentityDB",
+        files = {"dbScripts/h2_with_application_and_token.sql", "dbScripts/identity.sql"})
+public class ReadReplicaRouterTest {
+
+    private static final String REPLICA_DB_NAME = "testReadReplica";
+    private static final String TOKEN_REPLICA_DB_NAME = "testTokenReadReplica";
+    private static final String REPLICATED_TOKEN = "replica-test-replicated-token";
+    private static final String UNKNOWN_TOKEN = "replica-test-unknown-token";
+    private static final String SCOPE_NAME = "replicaTestScope";
+    private static final int TENANT_ID = -1234;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        DAOUtils.initializeDataSource(REPLICA_DB_NAME, DAOUtils.getFilePath("scope.sql"));
+        try (Connection connection = DAOUtils.getConnection(REPLICA_DB_NAME)) {
+            addScope(connection, "replica_role");
+        }
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+            addScope(connection, "primary_role");
+        }
+        // A replica which has not received the tokens of the primary yet.
+        DAOUtils.initializeDataSource(TOKEN_REPLICA_DB_NAME, DAOUtils.getFilePath("token.sql"));
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        ReadReplicaRouter.setReplicaDataSource(null);
+    }
+
+    @Test
+    public void testReadsGoToPrimaryWithoutReplica() throws Exception {
+
+        ReadReplicaRouter.setReplicaDataSource(null);
+
+        assertFalse(ReadReplicaRouter.isPrimaryFallbackEnabled());
+        assertEquals(new OAuthScopeDAOImpl().getBindingsOfScopeByScopeName(SCOPE_NAME, TENANT_ID),
+                Collections.singleton("primary_role"));
+    }
+
+    @Test
+    public void testReadsGoToReplica() throws Exception {
+
+        ReadReplicaRouter.setReplicaDataSource(DAOUtils.getDataSource(REPLICA_DB_NAME));
+
+        assertTrue(ReadReplicaRouter.isPrimaryFallbackEnabled(), "Primary fallback should be enabled by default.");
+        assertEquals(new OAuthScopeDAOImpl().getBindingsOfScopeByScopeName(SCOPE_NAME, TENANT_ID),
+                Collections.singleton("replica_role"));
+    }
+
+    @Test
+    public void testReadsInUnitOfWorkGoToPrimary() throws Exception {
+
+        ReadReplicaRouter.setReplicaDataSource(DAOUtils.getDataSource(REPLICA_DB_NAME));
+
+        Set<String> bindings;
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            assertFalse(ReadReplicaRouter.isPrimaryFallbackEnabled());
+            bindings = new OAuthScopeDAOImpl().getBindingsOfScopeByScopeName(SCOPE_NAME, TENANT_ID);
+        } finally {
+            unitOfWork.close();
+        }
+        assertEquals(bindings, Collections.singleton("primary_role"),
+                "Reads in a unit of work should see the changes made on the primary.");
+    }
+
+    @Test
+    public void testTokenReadYourWrites() throws Exception {
+
+        ReadReplicaRouter.setReplicaDataSource(DAOUtils.getDataSource(TOKEN_REPLICA_DB_NAME));
+        RealmService realmService = OAuthComponentServiceHolder.getInstance().getRealmService();
+        RealmService mockedRealmService = mock(RealmService.class);
+        TenantManager mockedTenantManager = mock(TenantManager.class);
+        when(mockedRealmService.getTenantManager()).thenReturn(mockedTenantManager);
+        when(mockedTenantManager.getDomain(TENANT_ID)).thenReturn("carbon.super");
+        OAuthComponentServiceHolder.getInstance().setRealmService(mockedRealmService);
+        try {
+            try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+                addToken(connection, REPLICATED_TOKEN);
+            }
+            AccessTokenDAOImpl accessTokenDAO = new AccessTokenDAOImpl();
+
+            assertNotNull(accessTokenDAO.getAccessToken(REPLICATED_TOKEN, false),
+                    "A token which is not replicated yet should be read from the primary.");
+            assertTrue(accessTokenDAO.getActiveAccessTokens(Collections.singleton(REPLICATED_TOKEN))
+                    .containsKey(REPLICATED_TOKEN), "Tokens which are not replicated yet should be read from the " +
+                    "primary.");
+
+            Map<String, AccessTokenDO> persistedTokens = OAuth2Util.cacheInvalidAccessTokens(accessTokenDAO,
+                    Arrays.asList(REPLICATED_TOKEN, UNKNOWN_TOKEN));
+            assertTrue(persistedTokens.containsKey(REPLICATED_TOKEN));
+            assertFalse(OAuthInvalidTokenCache.getInstance().isInvalidToken(REPLICATED_TOKEN),
+                    "A token which is on the primary should not be remembered as invalid.");
+            assertTrue(OAuthInvalidTokenCache.getInstance().isInvalidToken(UNKNOWN_TOKEN));
+        } finally {
+            OAuthInvalidTokenCache.getInstance().clear();
+            OAuthComponentServiceHolder.getInstance().setRealmService(realmService);
+        }
+    }
+
+    private void addToken(Connection connection, String accessToken) throws Exception {
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_OAUTH2_ACCESS_TOKEN " +
+                "(TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, " +
+                "USER_TYPE, GRANT_TYPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, " +
+                "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, TOKEN_STATE_ID, ACCESS_TOKEN_HASH) " +
+                "VALUES (?, ?, ?, 1, 'user1', ?, 'PRIMARY', 'APPLICATION_USER', 'password', ?, ?, 3600000, " +
+                "84600000, ?, 'ACTIVE', 'NONE', ?)")) {
+            prepStmt.setString(1, accessToken + "-id");
+            prepStmt.setString(2, accessToken);
+            prepStmt.setString(3, accessToken + "-refresh");
+            prepStmt.setInt(4, TENANT_ID);
+            prepStmt.setTimestamp(5, now);
+            prepStmt.setTimestamp(6, now);
+            prepStmt.setString(7, accessToken + "-scope");
+            prepStmt.setString(8, new HashingPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
+            prepStmt.execute();
+        }
+        connection.commit();
+    }
+
+    private void addScope(Connection connection, String binding) throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_OAUTH2_SCOPE (SCOPE_ID, " +
+                "NAME, DISPLAY_NAME, TENANT_ID) VALUES (9001, ?, ?, ?)")) {
+            prepStmt.setString(1, SCOPE_NAME);
+            prepStmt.setString(2, SCOPE_NAME);
+            prepStmt.setInt(3, TENANT_ID);
+            prepStmt.execute();
+        }
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_OAUTH2_SCOPE_BINDING " +
+                "(SCOPE_ID, SCOPE_BINDING) VALUES (9001, ?)")) {
+            prepStmt.setString(1, binding);
+            prepStmt.execute();
+        }
+        connection.commit();
+    }
+}
@@ -66,6 +66,8 @@ import java.util.UUID;
 import static org.mockito.Matchers.anyString;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -517,6 +519,32 @@ public class TokenMgtDAOTest extends IdentityBaseTest {
         }
     }
 
+    @Test(dataProvider = "validateAuthorizationCodeDataProvider")
+    public void testRedeemAuthorizationCode(String callbackUrl, String tenantDomain, int tenantId, String
+            userStoreDomain) throws Exception {
+
+        String consumerKey = UUID.randomUUID().toString();
+        String authzCode = UUID.randomUUID().toString();
+        persistAuthorizationCode(consumerKey, UUID.randomUUID().toString(), authzCode, callbackUrl, tenantDomain,
+                tenantId, userStoreDomain, true, OAuthConstants.AuthorizationCodeState.ACTIVE);
+
+        try (Connection connection = DAOUtils.getConnection(DB_NAME)) {
+            mockStatic(IdentityDatabaseUtil.class);
+            when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+            AuthorizationCodeDAO authorizationCodeDAO = new AuthorizationCodeDAOImpl();
+
+            AuthorizationCodeValidationResult result = authorizationCodeDAO.redeemAuthorizationCode(consumerKey,
+                    authzCode);
+            assertTrue(result != null && result.isActiveCode(), "Failed to redeem authorization code.");
+
+            result = authorizationCodeDAO.redeemAuthorizationCode(consumerKey, authzCode);
+            assertTrue(result != null && !result.isActiveCode(), "Authorization code should be redeemed only once.");
+            assertEquals(result.getAuthzCodeDO().getState(), OAuthConstants.AuthorizationCodeState.REVOKED);
+            assertFalse(authorizationCodeDAO.revokeActiveAuthorizationCode(consumerKey, authzCode),
+                    "Redeemed authorization code should not be revoked again.");
+        }
+    }
+
     @DataProvider(name = "changeAuthzCodeStateDataProvider")
     public Object[][] changeAuthzCodeStateData() {
         /*
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.mockito.ArgumentCaptor;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.IObjectFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.ObjectFactory;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for TokenPersistenceTask.
+ */
+@PrepareForTest({OAuthTokenPersistenceFactory.class, IdentityUtil.class})
+public class TokenPersistenceTaskTest extends PowerMockTestCase {
+
+    private AccessTokenDAO accessTokenDAO;
+
+    @ObjectFactory
+    public IObjectFactory getObjectFactory() {
+        return new org.powermock.modules.testng.PowerMockObjectFactory();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        accessTokenDAO = mock(AccessTokenDAO.class);
+        OAuthTokenPersistenceFactory persistenceFactory = mock(OAuthTokenPersistenceFactory.class);
+        when(persistenceFactory.getAccessTokenDAO()).thenReturn(accessTokenDAO);
+        mockStatic(OAuthTokenPersistenceFactory.class);
+        when(OAuthTokenPersistenceFactory.getInstance()).thenReturn(persistenceFactory);
+        mockStatic(IdentityUtil.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushInBatches() throws Exception {
+        BlockingDeque<AccessContextTokenDO> queue = createQueue(5);
+
+        new TokenPersistenceTask(queue, 2, 0).flush();
+
+        ArgumentCaptor<List> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(accessTokenDAO, times(2)).insertAccessTokens(batchCaptor.capture());
+        assertEquals(batchCaptor.getAllValues().get(0).size(), 2);
+        assertEquals(batchCaptor.getAllValues().get(1).size(), 2);
+        // The last token is persisted individually.
+        verify(accessTokenDAO, times(1)).insertAccessToken(anyString(), anyString(), any(AccessTokenDO.class),
+                any(AccessTokenDO.class), anyString());
+        assertTrue(queue.isEmpty(), "Access token queue is not flushed.");
+    }
+
+    @Test
+    public void testRunFlushesQueueWhenInterrupted() throws Exception {
+        BlockingDeque<AccessContextTokenDO> queue = createQueue(3);
+
+        Thread consumer = new Thread(new TokenPersistenceTask(queue, 10, 50));
+        consumer.start();
+
+        // The first batch is persisted once the linger time elapses. Interrupt the idle consumer afterwards.
+        Thread.sleep(500);
+        consumer.interrupt();
+        consumer.join(5000);
+
+        verify(accessTokenDAO, times(1)).insertAccessTokens(anyListOf(AccessContextTokenDO.class));
+        verify(accessTokenDAO, never()).insertAccessToken(anyString(), anyString(), any(AccessTokenDO.class),
+                any(AccessTokenDO.class), anyString());
+        assertTrue(queue.isEmpty(), "Access token queue is not flushed.");
+    }
+
+    @Test
+    public void testEngineRejectsTokensAfterShutdown() throws Exception {
+        TokenPersistenceEngine engine = TokenPersistenceEngine.start(1);
+        try {
+            assertTrue(engine.offer(new AccessContextTokenDO("accessToken", "consumerKey", new AccessTokenDO(), null,
+                    "PRIMARY")));
+        } finally {
+            TokenPersistenceEngine.shutdown();
+        }
+
+        assertNull(TokenPersistenceEngine.getInstance());
+        // The queued token is persisted before the engine stops, and later tokens are left to the caller.
+        verify(accessTokenDAO, times(1)).insertAccessToken(anyString(), anyString(), any(AccessTokenDO.class),
+                any(AccessTokenDO.class), anyString());
+        assertEquals(engine.getPersistedTokenCount(), 1);
+        assertFalse(engine.offer(new AccessContextTokenDO("accessToken", "consumerKey", new AccessTokenDO(), null,
+                "PRIMARY")));
+        assertEquals(engine.getRejectedTokenCount(), 1);
+        assertEquals(engine.getQueueDepth(), 0);
+    }
+
+    private BlockingDeque<AccessContextTokenDO> createQueue(int size) {
+        BlockingDeque<AccessContextTokenDO> queue = new LinkedBlockingDeque<>();
+        for (int i = 0; i < size; i++) {
+            queue.add(new AccessContextTokenDO("accessToken" + i, "consumerKey", new AccessTokenDO(), null,
+                    "PRIMARY"));
+        }
+        return queue;
+    }
+}
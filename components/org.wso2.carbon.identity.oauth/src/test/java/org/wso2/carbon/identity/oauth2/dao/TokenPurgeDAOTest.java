@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithH2Database;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for TokenPurgeDAO.
+ */
+@WithCarbonHome
+@WithH2Database(jndiName = "jdbc/WSO2IdentityDB",
+        files = {"dbScripts/h2_with_application_and_token.sql", "dbScripts/identity.sql"})
+public class TokenPurgeDAOTest {
+
+    private static final String INSERT_TOKEN = "INSERT INTO IDN_OAUTH2_ACCESS_TOKEN (TOKEN_ID, ACCESS_TOKEN, " +
+            "CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, USER_TYPE, TIME_CREATED, " +
+            "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_STATE, " +
+            "TOKEN_STATE_ID) VALUES (?, ?, 1, 'user1', 1234, 'PRIMARY', 'APPLICATION_USER', ?, ?, 3600, ?, ?, ?)";
+    private static final String INSERT_TOKEN_SCOPE = "INSERT INTO IDN_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, " +
+            "TOKEN_SCOPE, TENANT_ID) VALUES (?, 'default', 1234)";
+    private static final String INSERT_CODE = "INSERT INTO IDN_OAUTH2_AUTHORIZATION_CODE (CODE_ID, " +
+            "AUTHORIZATION_CODE, CONSUMER_KEY_ID, TENANT_ID, TIME_CREATED, VALIDITY_PERIOD, STATE) VALUES " +
+            "(?, ?, 1, 1234, ?, 300000, ?)";
+
+    private static final String REVOKED_TOKEN_ID = "purge-revoked-token";
+    private static final String EXPIRED_TOKEN_ID = "purge-expired-token";
+    private static final String REFRESHABLE_TOKEN_ID = "purge-refreshable-token";
+    private static final String INACTIVE_CODE_ID = "purge-inactive-code";
+    private static final String ACTIVE_CODE_ID = "purge-active-code";
+
+    private TokenPurgeDAO tokenPurgeDAO = new TokenPurgeDAO();
+
+    private long cutoffTime;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        cutoffTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+        Timestamp oldTime = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+            insertToken(connection, REVOKED_TOKEN_ID, oldTime, 14400, "REVOKED");
+            insertToken(connection, EXPIRED_TOKEN_ID, oldTime, 14400, "EXPIRED");
+            insertToken(connection, REFRESHABLE_TOKEN_ID, oldTime, TimeUnit.DAYS.toMillis(30), "EXPIRED");
+            insertCode(connection, INACTIVE_CODE_ID, oldTime, "INACTIVE");
+            insertCode(connection, ACTIVE_CODE_ID, oldTime, "ACTIVE");
+            connection.commit();
+        }
+    }
+
+    @Test
+    public void testPurgeAccessTokens() throws Exception {
+
+        assertEquals(tokenPurgeDAO.purgeAccessTokens("PRIMARY", cutoffTime, 1, true), 2);
+
+        assertFalse(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID = ?", REVOKED_TOKEN_ID));
+        assertFalse(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE WHERE TOKEN_ID = ?", REVOKED_TOKEN_ID));
+        assertFalse(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID = ?", EXPIRED_TOKEN_ID));
+        assertTrue(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID = ?", REFRESHABLE_TOKEN_ID),
+                "Expired access token with a valid refresh token should not be purged.");
+        assertTrue(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN WHERE TOKEN_ID = ?",
+                "2sa9a678f890877856y66e75f605d456"), "Active access token should not be purged.");
+
+        assertTrue(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN_ARCHIVE WHERE TOKEN_ID = ?", REVOKED_TOKEN_ID),
+                "Purged access token should be archived.");
+        assertTrue(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN_SCOPE_ARCHIVE WHERE TOKEN_ID = ?",
+                REVOKED_TOKEN_ID), "Scopes of the purged access token should be archived.");
+        assertFalse(exists("SELECT 1 FROM IDN_OAUTH2_ACCESS_TOKEN_ARCHIVE WHERE TOKEN_ID = ?",
+                REFRESHABLE_TOKEN_ID));
+    }
+
+    @Test
+    public void testPurgeAuthorizationCodes() throws Exception {
+
+        assertEquals(tokenPurgeDAO.purgeAuthorizationCodes(cutoffTime, 10, false), 1);
+
+        assertFalse(exists("SELECT 1 FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?", INACTIVE_CODE_ID));
+        assertTrue(exists("SELECT 1 FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?", ACTIVE_CODE_ID),
+                "Active authorization code should not be purged.");
+    }
+
+    private void insertToken(Connection connection, String tokenId, Timestamp timeCreated,
+                             long refreshTokenValidityPeriod, String tokenState) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_TOKEN)) {
+            prepStmt.setString(1, tokenId);
+            prepStmt.setString(2, tokenId + "-value");
+            prepStmt.setTimestamp(3, timeCreated);
+            prepStmt.setTimestamp(4, timeCreated);
+            prepStmt.setLong(5, refreshTokenValidityPeriod);
+            prepStmt.setString(6, tokenState);
+            prepStmt.setString(7, tokenId);
+            prepStmt.execute();
+        }
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_TOKEN_SCOPE)) {
+            prepStmt.setString(1, tokenId);
+            prepStmt.execute();
+        }
+    }
+
+    private void insertCode(Connection connection, String codeId, Timestamp timeCreated, String state)
+            throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+            prepStmt.setString(1, codeId);
+            prepStmt.setString(2, codeId + "-value");
+            prepStmt.setTimestamp(3, timeCreated);
+            prepStmt.setString(4, state);
+            prepStmt.execute();
+        }
+    }
+
+    private boolean exists(String sql, String id) throws Exception {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection();
+             PreparedStatement prepStmt = connection.prepareStatement(sql)) {
+            prepStmt.setString(1, id);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+}
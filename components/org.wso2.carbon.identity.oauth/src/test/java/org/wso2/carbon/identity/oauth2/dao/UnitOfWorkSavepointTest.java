@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+/**
+ * Unit tests for the savepoints which UnitOfWork issues on the shared connection.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class})
+public class UnitOfWorkSavepointTest extends PowerMockIdentityBaseTest {
+
+    private static final String SQL = "UPDATE IDN_OAUTH2_AUTHORIZATION_CODE SET STATE = ?";
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement prepStmt;
+
+    @Mock
+    private Savepoint savepoint;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockStatic(IdentityDatabaseUtil.class);
+        when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(prepStmt);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+    }
+
+    @Test
+    public void testStatementsPerExchange() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            // Storing the token and deactivating the code, as in the authorization code exchange.
+            runDAOMethod();
+            runDAOMethod();
+            unitOfWork.commit();
+        } finally {
+            unitOfWork.close();
+        }
+
+        // One savepoint per DAO method, released by its commit, and a single commit of the unit of work.
+        verify(connection, times(2)).setSavepoint();
+        verify(connection, times(2)).releaseSavepoint(savepoint);
+        verify(connection, times(1)).commit();
+    }
+
+    @Test
+    public void testNoSavepointWithoutStatement() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            Connection participant = UnitOfWork.getConnection();
+            participant.commit();
+            participant.close();
+        } finally {
+            unitOfWork.close();
+        }
+
+        verify(connection, times(0)).setSavepoint();
+        verify(connection, times(0)).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    public void testSavepointAfterCommitOfParticipant() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            Connection participant = UnitOfWork.getConnection();
+            participant.prepareStatement(SQL).executeUpdate();
+            participant.commit();
+            participant.prepareStatement(SQL).executeUpdate();
+            participant.rollback();
+            participant.close();
+        } finally {
+            unitOfWork.close();
+        }
+
+        // The changes made after the commit start from a new savepoint, which the rollback goes back to.
+        verify(connection, times(2)).setSavepoint();
+        verify(connection, times(1)).rollback(savepoint);
+        verify(connection, times(2)).releaseSavepoint(savepoint);
+    }
+
+    private void runDAOMethod() throws SQLException {
+
+        Connection participant = UnitOfWork.getConnection();
+        try {
+            PreparedStatement statement = participant.prepareStatement(SQL);
+            statement.executeUpdate();
+            participant.commit();
+        } finally {
+            participant.close();
+        }
+    }
+}
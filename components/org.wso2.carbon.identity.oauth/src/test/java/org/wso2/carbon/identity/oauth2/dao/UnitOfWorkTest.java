@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.dao;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithH2Database;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for UnitOfWork.
+ */
+@WithCarbonHome
+@WithH2Database(jndiName = "jdbc/WSO2IdentityDB",
+        files = {"dbScripts/h2_with_application_and_token.sql", "dbScripts/identity.sql"})
+public class UnitOfWorkTest {
+
+    private static final String INSERT_CODE = "INSERT INTO IDN_OAUTH2_AUTHORIZATION_CODE (CODE_ID, " +
+            "AUTHORIZATION_CODE, CONSUMER_KEY_ID, TENANT_ID, TIME_CREATED, VALIDITY_PERIOD, STATE) VALUES " +
+            "(?, ?, 1, 1234, ?, 300000, 'ACTIVE')";
+
+    @Test
+    public void testCommit() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            insertCode("uow-commit-code-1");
+            insertCode("uow-commit-code-2");
+            unitOfWork.commit();
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertTrue(exists("uow-commit-code-1"));
+        assertTrue(exists("uow-commit-code-2"));
+    }
+
+    @Test
+    public void testCloseWithoutCommit() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            insertCode("uow-rollback-code");
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertFalse(exists("uow-rollback-code"), "Changes which are not committed should be rolled back.");
+    }
+
+    @Test
+    public void testRollbackOfParticipant() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            insertCode("uow-kept-code");
+
+            Connection connection = UnitOfWork.getConnection();
+            try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+                setCodeParameters(prepStmt, "uow-discarded-code");
+                prepStmt.execute();
+                connection.rollback();
+            } finally {
+                connection.close();
+            }
+            unitOfWork.commit();
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertTrue(exists("uow-kept-code"), "Rollback of a DAO method should not discard earlier changes.");
+        assertFalse(exists("uow-discarded-code"), "Rollback of a DAO method should discard its own changes.");
+    }
+
+    @Test
+    public void testRollbackAfterCommitOfParticipant() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            Connection connection = UnitOfWork.getConnection();
+            try {
+                try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+                    setCodeParameters(prepStmt, "uow-committed-code");
+                    prepStmt.execute();
+                }
+                connection.commit();
+                try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+                    setCodeParameters(prepStmt, "uow-after-commit-code");
+                    prepStmt.execute();
+                }
+                connection.rollback();
+            } finally {
+                connection.close();
+            }
+            // The savepoint of the closed participant is released, hence closing it again is harmless.
+            connection.close();
+            unitOfWork.commit();
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertTrue(exists("uow-committed-code"), "Rollback should not discard changes which were committed.");
+        assertFalse(exists("uow-after-commit-code"), "Rollback should discard changes made after the commit.");
+    }
+
+    @Test
+    public void testNestedUnitOfWork() throws Exception {
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            UnitOfWork nestedUnitOfWork = UnitOfWork.begin();
+            assertNotSame(nestedUnitOfWork, unitOfWork);
+            try {
+                insertCode("uow-nested-code");
+                nestedUnitOfWork.commit();
+            } finally {
+                nestedUnitOfWork.close();
+            }
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertFalse(exists("uow-nested-code"), "Outer unit of work should decide the outcome of nested changes.");
+    }
+
+    private void insertCode(String codeId) throws SQLException {
+
+        Connection connection = UnitOfWork.getConnection();
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+            setCodeParameters(prepStmt, codeId);
+            prepStmt.execute();
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void setCodeParameters(PreparedStatement prepStmt, String codeId) throws SQLException {
+
+        prepStmt.setString(1, codeId);
+        prepStmt.setString(2, codeId + "-value");
+        prepStmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+    }
+
+    private boolean exists(String codeId) throws Exception {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection();
+             PreparedStatement prepStmt = connection.prepareStatement(
+                     "SELECT 1 FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?")) {
+            prepStmt.setString(1, codeId);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+}
@@ -54,6 +54,13 @@ public class DAOUtils {
         throw new RuntimeException("Invalid datasource.");
     }
 
+    public static BasicDataSource getDataSource(String database) {
+        if (dataSourceMap.get(database) != null) {
+            return dataSourceMap.get(database);
+        }
+        throw new RuntimeException("Invalid datasource.");
+    }
+
     public static String getFilePath(String fileName) {
         if (StringUtils.isNotBlank(fileName)) {
             return Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "dbScripts", fileName)
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.internal;
+
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.oauth.OAuthUtil;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
+import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+
+@PrepareForTest({OAuthTokenPersistenceFactory.class, OAuthUtil.class})
+public class RevokingAccessTokenVisitorTest extends PowerMockIdentityBaseTest {
+
+    @Mock
+    private OAuthTokenPersistenceFactory persistenceFactory;
+
+    @Mock
+    private AccessTokenDAO accessTokenDAO;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        initMocks(this);
+        mockStatic(OAuthTokenPersistenceFactory.class);
+        when(OAuthTokenPersistenceFactory.getInstance()).thenReturn(persistenceFactory);
+        when(persistenceFactory.getAccessTokenDAO()).thenReturn(accessTokenDAO);
+        mockStatic(OAuthUtil.class);
+    }
+
+    @Test
+    public void testRevokesInBatches() throws Exception {
+
+        RevokingAccessTokenVisitor visitor = new RevokingAccessTokenVisitor(2);
+        visitor.visit(getAccessTokenDO("token1"));
+        verify(accessTokenDAO, never()).revokeAccessTokens(any(String[].class));
+
+        visitor.visit(getAccessTokenDO("token2"));
+        verify(accessTokenDAO).revokeAccessTokens(new String[]{"token1", "token2"});
+
+        visitor.visit(getAccessTokenDO("token3"));
+        visitor.flush();
+        verify(accessTokenDAO).revokeAccessTokens(new String[]{"token3"});
+
+        // Nothing is left to revoke.
+        visitor.flush();
+        verify(accessTokenDAO).revokeAccessTokens(new String[]{"token3"});
+    }
+
+    @Test
+    public void testClearsCacheOfRevokedTokens() throws Exception {
+
+        RevokingAccessTokenVisitor visitor = new RevokingAccessTokenVisitor(1);
+        visitor.visit(getAccessTokenDO("token1"));
+
+        verify(accessTokenDAO).revokeAccessTokens(new String[]{"token1"});
+        verifyStatic();
+        OAuthUtil.clearOAuthCache("token1");
+    }
+
+    @Test
+    public void testSkipsRevocationOfHashedTokens() throws Exception {
+
+        RevokingAccessTokenVisitor visitor = new RevokingAccessTokenVisitor(1);
+        visitor.visit(getAccessTokenDO(null));
+
+        verify(accessTokenDAO, never()).revokeAccessTokens(any(String[].class));
+    }
+
+    private AccessTokenDO getAccessTokenDO(String accessToken) {
+
+        AccessTokenDO accessTokenDO = new AccessTokenDO();
+        accessTokenDO.setConsumerKey("consumerKey");
+        accessTokenDO.setAuthzUser(new AuthenticatedUser());
+        accessTokenDO.setScope(new String[]{"openid"});
+        accessTokenDO.setAccessToken(accessToken);
+        return accessTokenDO;
+    }
+}
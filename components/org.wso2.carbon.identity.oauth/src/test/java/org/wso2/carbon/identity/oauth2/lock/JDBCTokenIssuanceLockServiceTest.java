@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+import org.wso2.carbon.identity.common.testng.WithH2Database;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth2.dao.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for JDBCTokenIssuanceLockService.
+ */
+@WithCarbonHome
+@WithH2Database(jndiName = "jdbc/WSO2IdentityDB",
+        files = {"dbScripts/h2_with_application_and_token.sql", "dbScripts/identity.sql"})
+public class JDBCTokenIssuanceLockServiceTest {
+
+    private static final String CONSUMER_KEY = "ca19a540f544777860e44e75f605d927";
+    private static final String INSERT_CODE = "INSERT INTO IDN_OAUTH2_AUTHORIZATION_CODE (CODE_ID, " +
+            "AUTHORIZATION_CODE, CONSUMER_KEY_ID, TENANT_ID, TIME_CREATED, VALIDITY_PERIOD, STATE) VALUES " +
+            "(?, ?, 1, 1234, ?, 300000, 'ACTIVE')";
+
+    @Test
+    public void testLockInUnitOfWorkKeepsChangesMadeUnderIt() throws Exception {
+
+        JDBCTokenIssuanceLockService lockService = new JDBCTokenIssuanceLockService();
+        assertTrue(lockService.isDatabaseLock());
+
+        UnitOfWork unitOfWork = UnitOfWork.begin();
+        try {
+            try (TokenIssuanceLock issuanceLock = lockService.acquire(CONSUMER_KEY, "admin@carbon.super", "openid")) {
+                insertCode("jdbc-lock-code");
+                unitOfWork.commit();
+            }
+        } finally {
+            unitOfWork.close();
+        }
+
+        assertTrue(exists("jdbc-lock-code"), "Releasing the lock should not discard the changes of the unit of work.");
+    }
+
+    @Test
+    public void testLockWithoutUnitOfWork() throws Exception {
+
+        JDBCTokenIssuanceLockService lockService = new JDBCTokenIssuanceLockService();
+        try (TokenIssuanceLock issuanceLock = lockService.acquire(CONSUMER_KEY, "admin@carbon.super", "openid")) {
+            insertCode("jdbc-lock-standalone-code");
+        }
+
+        assertTrue(exists("jdbc-lock-standalone-code"));
+    }
+
+    private void insertCode(String codeId) throws SQLException {
+
+        Connection connection = UnitOfWork.getConnection();
+        try (PreparedStatement prepStmt = connection.prepareStatement(INSERT_CODE)) {
+            prepStmt.setString(1, codeId);
+            prepStmt.setString(2, codeId + "-value");
+            prepStmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            prepStmt.execute();
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private boolean exists(String codeId) throws Exception {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection();
+             PreparedStatement prepStmt = connection.prepareStatement(
+                     "SELECT 1 FROM IDN_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ?")) {
+            prepStmt.setString(1, codeId);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+}
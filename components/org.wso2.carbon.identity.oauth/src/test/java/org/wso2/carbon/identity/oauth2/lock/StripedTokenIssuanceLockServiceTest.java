@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.lock;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for StripedTokenIssuanceLockService.
+ */
+public class StripedTokenIssuanceLockServiceTest {
+
+    @Test
+    public void testStripeCountIsRoundedToPowerOfTwo() {
+
+        assertEquals(new StripedTokenIssuanceLockService(1000).getStripeCount(), 1024);
+        assertEquals(new StripedTokenIssuanceLockService(1).getStripeCount(), 1);
+    }
+
+    @Test
+    public void testStripeIndex() {
+
+        StripedTokenIssuanceLockService lockService = new StripedTokenIssuanceLockService(64);
+        int index = lockService.getStripeIndex("clientId", "admin@carbon.super", "openid");
+
+        assertEquals(lockService.getStripeIndex("clientId", "admin@carbon.super", "openid"), index);
+        assertTrue(index >= 0 && index < 64);
+        int nullIndex = lockService.getStripeIndex(null, null, null);
+        assertTrue(nullIndex >= 0 && nullIndex < 64);
+    }
+
+    @Test
+    public void testLockSerializesIssuance() throws Exception {
+
+        final StripedTokenIssuanceLockService lockService = new StripedTokenIssuanceLockService(16);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waitingIssuance;
+            try (TokenIssuanceLock issuanceLock = lockService.acquire("clientId", "admin", "openid")) {
+                waitingIssuance = executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        try (TokenIssuanceLock lock = lockService.acquire("clientId", "admin", "openid")) {
+                            return true;
+                        }
+                    }
+                });
+                try {
+                    waitingIssuance.get(200, TimeUnit.MILLISECONDS);
+                    fail("Lock was acquired while it was held by another thread.");
+                } catch (TimeoutException e) {
+                    assertFalse(waitingIssuance.isDone());
+                }
+            }
+            assertTrue(waitingIssuance.get(5, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(lockService.getAcquiredCount(), 2);
+        assertTrue(lockService.getMaxWaitTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(200),
+                "Wait time of the blocked issuance is not recorded.");
+        assertTrue(lockService.getAverageWaitTimeNanos() <= lockService.getMaxWaitTimeNanos());
+    }
+}
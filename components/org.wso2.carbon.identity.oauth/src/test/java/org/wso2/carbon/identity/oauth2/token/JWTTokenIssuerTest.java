@@ -298,10 +298,10 @@ public class JWTTokenIssuerTest extends PowerMockIdentityBaseTest {
         when(oAuthServerConfiguration.getSignatureAlgorithm()).thenReturn(SHA256_WITH_EC);
         try {
             new JWTTokenIssuer().signJWTWithECDSA(null, null, null);
-            fail("Looks like someone has implemented this method. Need to modify this testcase");
+            fail("Signing without a token or authorization context should fail.");
         } catch (IdentityOAuth2Exception ex) {
-            assertTrue(ex.getMessage() != null && ex.getMessage().contains("is not supported"),
-                    "Looks like someone has implemented this method. Need to modify this testcase");
+            assertTrue(ex.getMessage() != null && ex.getMessage().contains("Cannot resolve the tenant domain"),
+                    "Signing key of the user's tenant should be resolved from the request context.");
         }
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Unit tests for HashingUtil.
+ */
+public class HashingUtilTest {
+
+    @DataProvider(name = "valuesToHash")
+    public Object[][] getValuesToHash() {
+
+        return new Object[][]{
+                {""},
+                {"openid"},
+                {UUID.randomUUID().toString()},
+                {"\u00e9l\u00e8ve \u4f60\u597d"}
+        };
+    }
+
+    @Test(dataProvider = "valuesToHash")
+    public void testSha256Hex(String value) {
+
+        assertEquals(HashingUtil.sha256Hex(value), DigestUtils.sha256Hex(value));
+    }
+
+    @Test(dataProvider = "valuesToHash")
+    public void testMd5Hex(String value) {
+
+        assertEquals(HashingUtil.md5Hex(value), DigestUtils.md5Hex(value));
+    }
+
+    @Test(dataProvider = "valuesToHash")
+    public void testHashToHex(String value) throws Exception {
+
+        assertEquals(HashingUtil.hashToHex("SHA-512", value), DigestUtils.sha512Hex(value));
+    }
+
+    @Test
+    public void testToHex() {
+
+        assertEquals(HashingUtil.toHex(new byte[]{0x00, 0x0f, 0x10, (byte) 0xab, (byte) 0xff}), "000f10abff");
+    }
+
+    @Test(expectedExceptions = NoSuchAlgorithmException.class)
+    public void testHashToHexWithInvalidAlgorithm() throws Exception {
+
+        HashingUtil.hashToHex("INVALID", "value");
+    }
+
+    @Test
+    public void testConcurrentHashing() throws Exception {
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        for (int j = 0; j < 500; j++) {
+                            String value = UUID.randomUUID().toString();
+                            if (!DigestUtils.sha256Hex(value).equals(HashingUtil.sha256Hex(value))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertEquals(result.get(), Boolean.TRUE, "Hash computed concurrently does not match.");
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Unit tests for OAuth2ConfigUtil.
+ */
+@PrepareForTest({IdentityUtil.class})
+public class OAuth2ConfigUtilTest extends PowerMockIdentityBaseTest {
+
+    private static final String PROPERTY = "OAuth.Test.Property";
+
+    @BeforeMethod
+    public void setUp() {
+        mockStatic(IdentityUtil.class);
+    }
+
+    @DataProvider(name = "intPropertyDataProvider")
+    public Object[][] intPropertyDataProvider() {
+        return new Object[][]{
+                {null, 10},
+                {" ", 10},
+                {" 25 ", 25},
+                {"1", 1},
+                {"0", 10},
+                {"-5", 10},
+                {"abc", 10},
+                {"3000000000", 10}
+        };
+    }
+
+    @Test(dataProvider = "intPropertyDataProvider")
+    public void testGetIntProperty(String value, int expected) {
+        when(IdentityUtil.getProperty(PROPERTY)).thenReturn(value);
+        assertEquals(OAuth2ConfigUtil.getIntProperty(PROPERTY, 1, 10), expected);
+    }
+
+    @Test
+    public void testGetLongProperty() {
+        when(IdentityUtil.getProperty(PROPERTY)).thenReturn("3000000000");
+        assertEquals(OAuth2ConfigUtil.getLongProperty(PROPERTY, 1, 10), 3000000000L);
+
+        when(IdentityUtil.getProperty(PROPERTY)).thenReturn("0");
+        assertEquals(OAuth2ConfigUtil.getLongProperty(PROPERTY, 0, 10), 0L);
+        assertEquals(OAuth2ConfigUtil.getLongProperty(PROPERTY, 1, 10), 10L);
+    }
+}
@@ -19,6 +19,7 @@
 package org.wso2.carbon.identity.oauth2.util;
 
 import org.apache.commons.codec.digest.DigestUtils;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.testng.annotations.AfterMethod;
@@ -32,6 +33,9 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.cache.CacheEntry;
 import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientAuthenticationCache;
+import org.wso2.carbon.identity.oauth.cache.OAuthClientCredentialCache;
+import org.wso2.carbon.identity.oauth.cache.OAuthInvalidTokenCache;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthConsumerDAO;
@@ -40,6 +44,8 @@ import org.wso2.carbon.identity.oauth.tokenprocessor.HashingPersistenceProcessor
 import org.wso2.carbon.identity.oauth.tokenprocessor.TokenPersistenceProcessor;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
+import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
+import org.wso2.carbon.identity.oauth2.dao.OAuthTokenPersistenceFactory;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.ClientCredentialDO;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
@@ -49,7 +55,10 @@ import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.tenant.TenantManager;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
@@ -59,6 +68,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -70,7 +81,8 @@ import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 @PrepareForTest({OAuthServerConfiguration.class, OAuthCache.class, IdentityUtil.class, OAuthConsumerDAO.class,
-        OAuth2Util.class, OAuthComponentServiceHolder.class})
+        OAuth2Util.class, OAuthComponentServiceHolder.class, OAuthClientCredentialCache.class,
+        OAuthClientAuthenticationCache.class, OAuthInvalidTokenCache.class, OAuthTokenPersistenceFactory.class})
 public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
 
     private String[] scopeArraySorted = new String[]{"scope1", "scope2", "scope3"};
@@ -98,7 +110,7 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
     private OAuthTokenReqMessageContext oAuthTokenReqMessageContextMock;
 
     @Mock
-    private OAuthCache oAuthCacheMock;
+    private OAuthClientCredentialCache clientCredentialCacheMock;
 
     @Mock
     private CacheEntry cacheEntryMock;
@@ -140,12 +152,12 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
 
     @Test
     public void testAuthenticateClientCacheHit() throws Exception {
-        OAuthCache mockOAuthCache = mock(OAuthCache.class);
+        OAuthClientCredentialCache mockClientCredentialCache = mock(OAuthClientCredentialCache.class);
         ClientCredentialDO mockCacheEntry = mock(ClientCredentialDO.class);
         when(mockCacheEntry.getClientSecret()).thenReturn(clientSecret);
-        when(mockOAuthCache.getValueFromCache(any(OAuthCacheKey.class))).thenReturn(mockCacheEntry);
-        mockStatic(OAuthCache.class);
-        when(OAuthCache.getInstance()).thenReturn(mockOAuthCache);
+        when(mockClientCredentialCache.getValueFromCache(any(OAuthCacheKey.class))).thenReturn(mockCacheEntry);
+        mockStatic(OAuthClientCredentialCache.class);
+        when(OAuthClientCredentialCache.getInstance()).thenReturn(mockClientCredentialCache);
 
         assertTrue(OAuth2Util.authenticateClient(clientId, clientSecret));
     }
@@ -275,9 +287,7 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
     @Test(dataProvider = "AuthenticateClient")
     public void testAuthenticateClient(Object cacheResult, String dummyClientSecret, boolean expectedResult)
             throws Exception {
-        mockStatic(OAuthCache.class);
-        when(OAuthCache.getInstance()).thenReturn(oAuthCacheMock);
-        when(oAuthCacheMock.getValueFromCache(any(OAuthCacheKey.class))).thenReturn((CacheEntry) cacheResult);
+        mockClientCredentialCache(cacheResult);
         OAuthConsumerDAO oAuthConsumerDAO = mock(OAuthConsumerDAO.class);
         when(oauthServerConfigurationMock.getPersistenceProcessor()).thenReturn(tokenPersistenceProcessorMock);
         whenNew(OAuthConsumerDAO.class).withNoArguments().thenReturn(oAuthConsumerDAO);
@@ -289,9 +299,7 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
     @Test(dataProvider = "AuthenticateClient")
     public void testAuthenticateClientWithHashPersistenceProcessor(Object cacheResult, String dummyClientSecret,
                                                                         boolean expectedResult) throws Exception {
-        mockStatic(OAuthCache.class);
-        when(OAuthCache.getInstance()).thenReturn(oAuthCacheMock);
-        when(oAuthCacheMock.getValueFromCache(any(OAuthCacheKey.class))).thenReturn((CacheEntry) cacheResult);
+        mockClientCredentialCache(cacheResult);
         OAuthConsumerDAO oAuthConsumerDAO = mock(OAuthConsumerDAO.class);
         tokenHashPersistenceProcessorMock = new HashingPersistenceProcessor();
         when(oauthServerConfigurationMock.getPersistenceProcessor()).thenReturn(tokenHashPersistenceProcessorMock);
@@ -301,6 +309,23 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
         assertEquals(OAuth2Util.authenticateClient(clientId, clientSecret), expectedResult);
     }
 
+    @Test
+    public void testAuthenticateClientWhenSecretChangesDuringAuthentication() throws Exception {
+        mockClientCredentialCache(null);
+        OAuthClientAuthenticationCache authenticationCache = mock(OAuthClientAuthenticationCache.class);
+        mockStatic(OAuthClientAuthenticationCache.class);
+        when(OAuthClientAuthenticationCache.getInstance()).thenReturn(authenticationCache);
+        when(oauthServerConfigurationMock.isClientSecretHashEnabled()).thenReturn(true);
+        OAuthConsumerDAO oAuthConsumerDAO = mock(OAuthConsumerDAO.class);
+        whenNew(OAuthConsumerDAO.class).withNoArguments().thenReturn(oAuthConsumerDAO);
+        // The secret is regenerated after the first check and before the secret is cached as verified.
+        when(oAuthConsumerDAO.isConsumerSecretExist(clientId, clientSecret)).thenReturn(true, false);
+
+        assertFalse(OAuth2Util.authenticateClient(clientId, clientSecret));
+        verify(authenticationCache).addVerifiedSecret(clientId, clientSecret);
+        verify(authenticationCache).clearVerifiedSecret(clientId);
+    }
+
     @Test
     public void testIsHashDisabled() {
         when(OAuthServerConfiguration.getInstance().isClientSecretHashEnabled()).thenReturn(true);
@@ -333,13 +358,10 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
     @Test(dataProvider = "AuthenticateUsername")
     public void testGetAuthenticatedUsername(boolean isUsernameCaseSensitive, Object cacheResult, String
             dummyClientSecret, String dummyUserName, String expectedResult) throws Exception {
-        mockStatic(OAuthCache.class);
-
         mockStatic(IdentityUtil.class);
         when(IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString())).thenReturn(isUsernameCaseSensitive);
 
-        when(OAuthCache.getInstance()).thenReturn(oAuthCacheMock);
-        when(oAuthCacheMock.getValueFromCache(any(OAuthCacheKey.class))).thenReturn((CacheEntry) cacheResult);
+        mockClientCredentialCache(cacheResult);
         OAuthConsumerDAO oAuthConsumerDAO = mock(OAuthConsumerDAO.class);
         when(oauthServerConfigurationMock.getPersistenceProcessor()).thenReturn(tokenPersistenceProcessorMock);
         whenNew(OAuthConsumerDAO.class).withNoArguments().thenReturn(oAuthConsumerDAO);
@@ -1099,4 +1121,79 @@ public class OAuth2UtilTest extends PowerMockIdentityBaseTest {
         AuthenticatedUser authzUser = OAuth2Util.getAuthenticatedUser(accessTokenDO);
         assertEquals(authzUser.isFederatedUser(), expectedIsFederatedValue);
     }
+
+    @Test
+    public void testGetAccessTokenDOsFromTokenIdentifiers() throws Exception {
+
+        AccessTokenDO cachedToken = new AccessTokenDO();
+        AccessTokenDO retrievedToken = new AccessTokenDO();
+        OAuthCache oAuthCacheMock = mock(OAuthCache.class);
+        mockStatic(OAuthCache.class);
+        when(OAuthCache.getInstance()).thenReturn(oAuthCacheMock);
+        when(oAuthCacheMock.getValueFromCache(new OAuthCacheKey("cached-token"))).thenReturn(cachedToken);
+        OAuthInvalidTokenCache invalidTokenCacheMock = mock(OAuthInvalidTokenCache.class);
+        mockStatic(OAuthInvalidTokenCache.class);
+        when(OAuthInvalidTokenCache.getInstance()).thenReturn(invalidTokenCacheMock);
+        when(invalidTokenCacheMock.isInvalidToken("invalid-token")).thenReturn(true);
+        AccessTokenDAO accessTokenDAOMock = mockAccessTokenDAO();
+        when(accessTokenDAOMock.getActiveAccessTokens(any(Collection.class)))
+                .thenReturn(Collections.singletonMap("retrieved-token", retrievedToken));
+
+        Map<String, AccessTokenDO> accessTokens = OAuth2Util.getAccessTokenDOsFromTokenIdentifiers(
+                Arrays.asList("cached-token", "invalid-token", "retrieved-token", "inactive-token"));
+
+        assertEquals(accessTokens.size(), 4);
+        assertEquals(accessTokens.get("cached-token"), cachedToken);
+        assertNull(accessTokens.get("invalid-token"));
+        assertEquals(accessTokens.get("retrieved-token"), retrievedToken);
+        assertNull(accessTokens.get("inactive-token"));
+
+        // Only the cache misses are retrieved from the database, together.
+        ArgumentCaptor<Collection> identifiersCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(accessTokenDAOMock).getActiveAccessTokens(identifiersCaptor.capture());
+        assertEquals(new ArrayList<>(identifiersCaptor.getValue()), Arrays.asList("retrieved-token",
+                "inactive-token"));
+        verify(oAuthCacheMock).addToCache(new OAuthCacheKey("retrieved-token"), retrievedToken);
+        verify(invalidTokenCacheMock).addInvalidToken("inactive-token", OAuthInvalidTokenCache.TOKEN_NOT_ACTIVE);
+        verify(invalidTokenCacheMock, never()).addInvalidToken("retrieved-token",
+                OAuthInvalidTokenCache.TOKEN_NOT_ACTIVE);
+    }
+
+    @Test
+    public void testGetAccessTokenDOsFromTokenIdentifiersWithoutCacheMisses() throws Exception {
+
+        AccessTokenDO cachedToken = new AccessTokenDO();
+        OAuthCache oAuthCacheMock = mock(OAuthCache.class);
+        mockStatic(OAuthCache.class);
+        when(OAuthCache.getInstance()).thenReturn(oAuthCacheMock);
+        when(oAuthCacheMock.getValueFromCache(new OAuthCacheKey("cached-token"))).thenReturn(cachedToken);
+        mockStatic(OAuthInvalidTokenCache.class);
+        when(OAuthInvalidTokenCache.getInstance()).thenReturn(mock(OAuthInvalidTokenCache.class));
+        AccessTokenDAO accessTokenDAOMock = mockAccessTokenDAO();
+
+        Map<String, AccessTokenDO> accessTokens = OAuth2Util.getAccessTokenDOsFromTokenIdentifiers(
+                Collections.singletonList("cached-token"));
+
+        assertEquals(accessTokens, Collections.singletonMap("cached-token", cachedToken));
+        verify(accessTokenDAOMock, never()).getActiveAccessTokens(any(Collection.class));
+    }
+
+    private AccessTokenDAO mockAccessTokenDAO() {
+
+        OAuthTokenPersistenceFactory persistenceFactoryMock = mock(OAuthTokenPersistenceFactory.class);
+        mockStatic(OAuthTokenPersistenceFactory.class);
+        when(OAuthTokenPersistenceFactory.getInstance()).thenReturn(persistenceFactoryMock);
+        AccessTokenDAO accessTokenDAOMock = mock(AccessTokenDAO.class);
+        when(persistenceFactoryMock.getAccessTokenDAO()).thenReturn(accessTokenDAOMock);
+        return accessTokenDAOMock;
+    }
+
+    private void mockClientCredentialCache(Object cacheResult) {
+        mockStatic(OAuthClientCredentialCache.class);
+        when(OAuthClientCredentialCache.getInstance()).thenReturn(clientCredentialCacheMock);
+        // Entries of other types can not be in the typed client credential cache, hence they are looked up as misses.
+        ClientCredentialDO clientCredentialDO =
+                cacheResult instanceof ClientCredentialDO ? (ClientCredentialDO) cacheResult : null;
+        when(clientCredentialCacheMock.getValueFromCache(any(OAuthCacheKey.class))).thenReturn(clientCredentialDO);
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oauth2.util;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.CarbonBaseConstants;
+import org.wso2.carbon.core.util.KeyStoreManager;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import java.nio.file.Paths;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.wso2.carbon.identity.openidconnect.util.TestUtils.getKeyStoreFromFile;
+
+/**
+ * Unit tests for SigningKeyRegistry.
+ */
+@PrepareForTest({IdentityTenantUtil.class, KeyStoreManager.class})
+public class SigningKeyRegistryTest extends PowerMockIdentityBaseTest {
+
+    private static final String TENANT_DOMAIN = "foo.com";
+    private static final String KEY_STORE_NAME = "foo-com.jks";
+    private static final int TENANT_ID = 1;
+
+    @Mock
+    private KeyStoreManager keyStoreManager;
+
+    private Key privateKey;
+    private Certificate certificate;
+    private KeyStore tenantKeyStore;
+
+    @BeforeClass
+    public void setUpClass() throws Exception {
+        System.setProperty(CarbonBaseConstants.CARBON_HOME,
+                Paths.get(System.getProperty("user.dir"), "src", "test", "resources").toString());
+        KeyStore wso2KeyStore = getKeyStoreFromFile("wso2carbon.jks", "wso2carbon",
+                System.getProperty(CarbonBaseConstants.CARBON_HOME));
+        privateKey = wso2KeyStore.getKey("wso2carbon", "wso2carbon".toCharArray());
+        certificate = wso2KeyStore.getCertificate("wso2carbon");
+
+        tenantKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        tenantKeyStore.load(null, null);
+        tenantKeyStore.setCertificateEntry(TENANT_DOMAIN, certificate);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        mockStatic(IdentityTenantUtil.class);
+        mockStatic(KeyStoreManager.class);
+        when(KeyStoreManager.getInstance(TENANT_ID)).thenReturn(keyStoreManager);
+        when(keyStoreManager.getPrivateKey(KEY_STORE_NAME, TENANT_DOMAIN)).thenReturn(privateKey);
+        when(keyStoreManager.getKeyStore(KEY_STORE_NAME)).thenReturn(tenantKeyStore);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        SigningKeyRegistry.getInstance().remove(TENANT_ID);
+    }
+
+    @Test
+    public void testGetSigningKey() throws Exception {
+        SigningKeyMaterial signingKey = SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID);
+
+        assertSame(signingKey.getPrivateKey(), privateKey);
+        assertEquals(signingKey.getCertificate(), certificate);
+        assertEquals(signingKey.getKeyId(), OAuth2Util.getThumbPrint(certificate));
+        assertEquals(signingKey.getX509CertThumbprint().toString(), signingKey.getKeyId());
+        assertNotNull(signingKey.getSigner());
+        assertEquals(signingKey.getPublicJwk().getKeyID(), signingKey.getKeyId());
+
+        assertSame(SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID), signingKey,
+                "Signing key is not served from the registry.");
+        verify(keyStoreManager, times(1)).getPrivateKey(KEY_STORE_NAME, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testConcurrentLoadOfColdTenant() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SigningKeyMaterial>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executorService.submit(new Callable<SigningKeyMaterial>() {
+                    @Override
+                    public SigningKeyMaterial call() throws Exception {
+                        return SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID);
+                    }
+                }));
+            }
+            SigningKeyMaterial signingKey = futures.get(0).get();
+            for (Future<SigningKeyMaterial> future : futures) {
+                assertSame(future.get(), signingKey);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verify(keyStoreManager, times(1)).getPrivateKey(KEY_STORE_NAME, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        SigningKeyMaterial signingKey = SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID);
+        SigningKeyMaterial reloadedSigningKey = SigningKeyRegistry.getInstance().reload(TENANT_DOMAIN, TENANT_ID);
+
+        assertNotSame(reloadedSigningKey, signingKey);
+        assertSame(SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID), reloadedSigningKey);
+        verify(keyStoreManager, times(2)).getPrivateKey(KEY_STORE_NAME, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testGetECSigningKey() throws Exception {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        Certificate ecCertificate = mock(Certificate.class);
+        when(ecCertificate.getPublicKey()).thenReturn(keyPair.getPublic());
+        when(ecCertificate.getEncoded()).thenReturn(keyPair.getPublic().getEncoded());
+
+        SigningKeyMaterial ecSigningKey =
+                new SigningKeyMaterial(TENANT_DOMAIN, TENANT_ID, keyPair.getPrivate(), ecCertificate);
+        SigningKeyRegistry.getInstance().register(ecSigningKey);
+
+        assertTrue(ecSigningKey.isEllipticCurveKey());
+        assertEquals(ecSigningKey.getSupportedAlgorithms(), Collections.singleton(JWSAlgorithm.ES256));
+        assertEquals(ecSigningKey.getPublicJwk().getAlgorithm(), JWSAlgorithm.ES256);
+        assertSame(SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID, JWSAlgorithm.ES256),
+                ecSigningKey);
+        assertFalse(SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID, JWSAlgorithm.RS256)
+                .isEllipticCurveKey(), "RSA algorithms should use the primary key of the tenant.");
+
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.ES256), new Payload("payload"));
+        jwsObject.sign(ecSigningKey.getSigner());
+        assertTrue(jwsObject.verify(new ECDSAVerifier((ECPublicKey) keyPair.getPublic())));
+    }
+
+    @Test(expectedExceptions = IdentityOAuth2Exception.class)
+    public void testGetSigningKeyWithUnsupportedAlgorithm() throws Exception {
+        SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID, JWSAlgorithm.ES384);
+    }
+
+    @Test(expectedExceptions = IdentityOAuth2Exception.class)
+    public void testGetSigningKeyWithoutCertificate() throws Exception {
+        when(keyStoreManager.getKeyStore(KEY_STORE_NAME)).thenReturn(getKeyStoreFromFile("wso2carbon.jks",
+                "wso2carbon", System.getProperty(CarbonBaseConstants.CARBON_HOME)));
+        SigningKeyRegistry.getInstance().getSigningKey(TENANT_DOMAIN, TENANT_ID);
+    }
+}
@@ -25,8 +25,8 @@ import org.testng.annotations.Test;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.common.testng.WithCarbonHome;
 import org.wso2.carbon.identity.common.testng.WithH2Database;
-import org.wso2.carbon.identity.oauth.cache.OAuthCache;
 import org.wso2.carbon.identity.oauth.cache.OAuthCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthResourceScopeCache;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
 import org.wso2.carbon.identity.oauth2.model.ResourceScopeCacheEntry;
 import org.wso2.carbon.identity.testutil.IdentityBaseTest;
@@ -73,7 +73,7 @@ public class JDBCScopeValidatorTest extends IdentityBaseTest {
         accessTokenDO.setAuthzUser(new AuthenticatedUser());
         ResourceScopeCacheEntry result = new ResourceScopeCacheEntry(scope);
         result.setTenantId(1);
-        OAuthCache oAuthCache = OAuthCache.getInstance();
+        OAuthResourceScopeCache oAuthCache = OAuthResourceScopeCache.getInstance();
         OAuthCacheKey oAuthCacheKey;
         if (StringUtils.isNotEmpty(resource)) {
             oAuthCacheKey = new OAuthCacheKey(resource);
@@ -24,22 +24,42 @@ import org.testng.annotations.Test;
 import org.wso2.carbon.base.MultitenantConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.application.common.model.LocalAndOutboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
 import org.wso2.carbon.identity.common.testng.WithAxisConfiguration;
 import org.wso2.carbon.identity.common.testng.WithCarbonHome;
 import org.wso2.carbon.identity.common.testng.WithH2Database;
 import org.wso2.carbon.identity.common.testng.WithRealmService;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.oauth.internal.OAuthComponentServiceHolder;
+import org.wso2.carbon.identity.oauth.tokenprocessor.HashingPersistenceProcessor;
 import org.wso2.carbon.identity.oauth2.dao.TokenMgtDAO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2ClientApplicationDTO;
+import org.wso2.carbon.identity.oauth2.dto.OAuth2IntrospectionResponseDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationRequestDTO;
 import org.wso2.carbon.identity.oauth2.dto.OAuth2TokenValidationResponseDTO;
+import org.wso2.carbon.identity.oauth2.internal.OAuth2ServiceComponentHolder;
 import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.core.service.RealmService;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
-
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 import static org.wso2.carbon.utils.multitenancy.MultitenantConstants.SUPER_TENANT_ID;
 
 @WithCarbonHome
@@ -125,4 +145,110 @@ public class TokenValidationHandlerTest {
         assertNotNull(tokenValidationHandler.buildIntrospectionResponse(oAuth2TokenValidationRequestDTO));
     }
 
+    @Test
+    public void testBuildIntrospectionResponseWithRetrievedTokens() throws Exception {
+
+        OAuthComponentServiceHolder.getInstance().setRealmService(IdentityTenantUtil.getRealmService());
+        ApplicationManagementService applicationMgtService = OAuth2ServiceComponentHolder.getApplicationMgtService();
+        ApplicationManagementService mockedApplicationMgtService = mock(ApplicationManagementService.class);
+        ServiceProvider serviceProvider = mock(ServiceProvider.class);
+        when(serviceProvider.getLocalAndOutBoundAuthenticationConfig())
+                .thenReturn(mock(LocalAndOutboundAuthenticationConfig.class));
+        when(mockedApplicationMgtService.getServiceProviderByClientId(anyString(), anyString(), anyString()))
+                .thenReturn(serviceProvider);
+        OAuth2ServiceComponentHolder.setApplicationMgtService(mockedApplicationMgtService);
+
+        OAuth2TokenValidator prefetchValidator = mock(OAuth2TokenValidator.class);
+        when(prefetchValidator.validateAccessToken(any(OAuth2TokenValidationMessageContext.class))).thenReturn(true);
+        when(prefetchValidator.validateAccessDelegation(any(OAuth2TokenValidationMessageContext.class)))
+                .thenReturn(true);
+        when(prefetchValidator.validateScope(any(OAuth2TokenValidationMessageContext.class))).thenReturn(true);
+        tokenValidationHandler.addTokenValidator("prefetch", prefetchValidator);
+        try {
+            try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+                addToken(connection, "prefetchAccessToken", "scope1", "scope2");
+            }
+            for (String token : Arrays.asList("prefetchAccessToken", "unknownPrefetchAccessToken")) {
+                OAuth2TokenValidationRequestDTO validationRequest = new OAuth2TokenValidationRequestDTO();
+                OAuth2TokenValidationRequestDTO.OAuth2AccessToken accessToken = validationRequest.new
+                        OAuth2AccessToken();
+                accessToken.setIdentifier(token);
+                accessToken.setTokenType("prefetch");
+                validationRequest.setAccessToken(accessToken);
+
+                OAuth2IntrospectionResponseDTO expected =
+                        tokenValidationHandler.buildIntrospectionResponse(validationRequest);
+                // Retrieved as findAccessTokens does for the tokens of the default validator.
+                Map<String, AccessTokenDO> retrievedTokens =
+                        OAuth2Util.getAccessTokenDOsFromTokenIdentifiers(Arrays.asList(token));
+                assertTrue(retrievedTokens.containsKey(token));
+                OAuth2IntrospectionResponseDTO actual =
+                        tokenValidationHandler.buildIntrospectionResponse(validationRequest, retrievedTokens);
+
+                assertEquals(actual.isActive(), expected.isActive());
+                assertEquals(actual.getError(), expected.getError());
+                assertEquals(actual.getClientId(), expected.getClientId());
+                assertEquals(actual.getUsername(), expected.getUsername());
+                assertEquals(actual.getExp(), expected.getExp());
+                assertEquals(actual.getIat(), expected.getIat());
+                if (expected.getScope() != null) {
+                    assertEquals(new HashSet<>(Arrays.asList(actual.getScope().split(" "))),
+                            new HashSet<>(Arrays.asList(expected.getScope().split(" "))));
+                }
+            }
+        } finally {
+            OAuth2ServiceComponentHolder.setApplicationMgtService(applicationMgtService);
+        }
+    }
+
+    @Test
+    public void testFindAccessTokensSkipsOtherValidators() throws Exception {
+
+        OAuth2TokenValidationRequestDTO validationRequest = new OAuth2TokenValidationRequestDTO();
+        OAuth2TokenValidationRequestDTO.OAuth2AccessToken accessToken = validationRequest.new OAuth2AccessToken();
+        accessToken.setIdentifier("testIdentifier");
+        accessToken.setTokenType("prefetch");
+        validationRequest.setAccessToken(accessToken);
+        tokenValidationHandler.addTokenValidator("prefetch", mock(OAuth2TokenValidator.class));
+
+        // Only the tokens of the default validator are looked up in the database ahead.
+        assertFalse(tokenValidationHandler.findAccessTokens(Arrays.asList(validationRequest,
+                new OAuth2TokenValidationRequestDTO())).containsKey("testIdentifier"));
+    }
+
+    private void addToken(Connection connection, String accessToken, String... scopes) throws Exception {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_OAUTH_CONSUMER_APPS (ID, " +
+                "CONSUMER_KEY, CONSUMER_SECRET, USERNAME, TENANT_ID, USER_DOMAIN, APP_NAME, OAUTH_VERSION) VALUES " +
+                "(9101, 'prefetchConsumerKey', 'secret', 'admin', ?, 'PRIMARY', 'prefetchApp', 'OAuth-2.0')")) {
+            prepStmt.setInt(1, SUPER_TENANT_ID);
+            prepStmt.execute();
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_OAUTH2_ACCESS_TOKEN " +
+                "(TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TENANT_ID, USER_DOMAIN, " +
+                "USER_TYPE, GRANT_TYPE, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, " +
+                "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, TOKEN_STATE_ID, ACCESS_TOKEN_HASH) " +
+                "VALUES (?, ?, ?, 9101, 'prefetchUser', ?, 'PRIMARY', 'APPLICATION_USER', 'password', ?, ?, " +
+                "3600000, 84600000, 'prefetchScopeHash', 'ACTIVE', 'NONE', ?)")) {
+            prepStmt.setString(1, accessToken + "-id");
+            prepStmt.setString(2, accessToken);
+            prepStmt.setString(3, accessToken + "-refresh");
+            prepStmt.setInt(4, SUPER_TENANT_ID);
+            prepStmt.setTimestamp(5, now);
+            prepStmt.setTimestamp(6, now);
+            prepStmt.setString(7, new HashingPersistenceProcessor().getProcessedAccessTokenIdentifier(accessToken));
+            prepStmt.execute();
+        }
+        for (String scope : scopes) {
+            try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO " +
+                    "IDN_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, TOKEN_SCOPE, TENANT_ID) VALUES (?, ?, ?)")) {
+                prepStmt.setString(1, accessToken + "-id");
+                prepStmt.setString(2, scope);
+                prepStmt.setInt(3, SUPER_TENANT_ID);
+                prepStmt.execute();
+            }
+        }
+        connection.commit();
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oauth2.validators.jwt;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for CachingJWKSource.
+ */
+public class CachingJWKSourceTest {
+
+    private static final String JWKS_URI = "https://localhost:9443/oauth2/jwks";
+
+    private URL jwksUrl;
+    private ResourceRetriever resourceRetriever;
+    private List<Runnable> refreshTasks;
+    private Executor refreshExecutor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        jwksUrl = new URL(JWKS_URI);
+        resourceRetriever = mock(ResourceRetriever.class);
+        refreshTasks = new ArrayList<>();
+        refreshExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                refreshTasks.add(command);
+            }
+        };
+    }
+
+    @Test
+    public void testConcurrentLoadFetchesOnce() throws Exception {
+
+        final Resource resource = getJWKSResource("key1");
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenAnswer(new Answer<Resource>() {
+            @Override
+            public Resource answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(100);
+                return resource;
+            }
+        });
+        final CachingJWKSource jwkSource =
+                new CachingJWKSource(jwksUrl, resourceRetriever, 60000, 60000, refreshExecutor);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<JWK>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executorService.submit(new Callable<List<JWK>>() {
+                    @Override
+                    public List<JWK> call() throws Exception {
+                        return jwkSource.get(getSelector("key1"), null);
+                    }
+                }));
+            }
+            for (Future<List<JWK>> future : futures) {
+                assertEquals(future.get().size(), 1);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verify(resourceRetriever, times(1)).retrieveResource(jwksUrl);
+    }
+
+    @Test
+    public void testExpiredKeySetIsRefreshedInBackground() throws Exception {
+
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenReturn(getJWKSResource("key1"),
+                getJWKSResource("key2"));
+        CachingJWKSource jwkSource = new CachingJWKSource(jwksUrl, resourceRetriever, 0, 60000, refreshExecutor);
+
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        // The expired key set keeps being served while a single refresh is scheduled.
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        assertEquals(refreshTasks.size(), 1, "Expected a single background refresh.");
+        verify(resourceRetriever, times(1)).retrieveResource(jwksUrl);
+
+        refreshTasks.get(0).run();
+        assertEquals(jwkSource.getCachedJWKSet().getKeys().get(0).getKeyID(), "key2");
+        verify(resourceRetriever, times(2)).retrieveResource(jwksUrl);
+    }
+
+    @Test
+    public void testUnknownKeyRefreshesKeySet() throws Exception {
+
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenReturn(getJWKSResource("key1"),
+                getJWKSResource("key2"));
+        CachingJWKSource jwkSource = new CachingJWKSource(jwksUrl, resourceRetriever, 60000, 0, refreshExecutor);
+
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        assertEquals(jwkSource.get(getSelector("key2"), null).size(), 1);
+        verify(resourceRetriever, times(2)).retrieveResource(jwksUrl);
+    }
+
+    @Test
+    public void testUnknownKeyRefreshIsRateLimited() throws Exception {
+
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenReturn(getJWKSResource("key1"));
+        CachingJWKSource jwkSource =
+                new CachingJWKSource(jwksUrl, resourceRetriever, 60000, 60000, refreshExecutor);
+
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        assertTrue(jwkSource.get(getSelector("unknown"), null).isEmpty());
+        assertTrue(jwkSource.get(getSelector("unknown"), null).isEmpty());
+        verify(resourceRetriever, times(1)).retrieveResource(jwksUrl);
+    }
+
+    @Test
+    public void testFailedLoadIsNotRetriedWithinMinRefreshInterval() throws Exception {
+
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenThrow(new IOException("Connection refused"));
+        CachingJWKSource jwkSource =
+                new CachingJWKSource(jwksUrl, resourceRetriever, 60000, 60000, refreshExecutor);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                jwkSource.get(getSelector("key1"), null);
+                fail("Expected the key set retrieval to fail.");
+            } catch (KeySourceException e) {
+                // Expected.
+            }
+        }
+        verify(resourceRetriever, times(1)).retrieveResource(jwksUrl);
+    }
+
+    @Test
+    public void testFailedLoadIsRetriedAfterMinRefreshInterval() throws Exception {
+
+        when(resourceRetriever.retrieveResource(jwksUrl)).thenThrow(new IOException("Connection refused"))
+                .thenReturn(getJWKSResource("key1"));
+        CachingJWKSource jwkSource = new CachingJWKSource(jwksUrl, resourceRetriever, 60000, 0, refreshExecutor);
+
+        try {
+            jwkSource.get(getSelector("key1"), null);
+            fail("Expected the key set retrieval to fail.");
+        } catch (KeySourceException e) {
+            // Expected.
+        }
+        assertEquals(jwkSource.get(getSelector("key1"), null).size(), 1);
+        verify(resourceRetriever, times(2)).retrieveResource(jwksUrl);
+    }
+
+    private JWKSelector getSelector(String keyId) {
+
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+
+    private Resource getJWKSResource(String keyId) throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RSAKey jwk = new RSAKey.Builder((RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic())
+                .keyID(keyId)
+                .build();
+        return new Resource(new JWKSet(jwk).toString(), "application/json");
+    }
+}
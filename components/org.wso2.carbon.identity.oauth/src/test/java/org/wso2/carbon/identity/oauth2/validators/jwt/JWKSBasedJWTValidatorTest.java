@@ -19,8 +19,8 @@
 package org.wso2.carbon.identity.oauth2.validators.jwt;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.jwk.source.RemoteJWKSet;
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
@@ -41,6 +41,8 @@ import java.util.Map;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static org.powermock.api.mockito.PowerMockito.doReturn;
 import static org.powermock.api.mockito.PowerMockito.doThrow;
@@ -70,7 +72,7 @@ public class JWKSBasedJWTValidatorTest extends PowerMockIdentityBaseTest {
     @Mock
     private JWKSourceDataProvider dataProvider;
     @Mock
-    private RemoteJWKSet<SecurityContext> jwkSet;
+    private CachingJWKSource jwkSet;
 
     @BeforeMethod
     public void setUp() {
@@ -122,6 +124,23 @@ public class JWKSBasedJWTValidatorTest extends PowerMockIdentityBaseTest {
         }
     }
 
+    @Test
+    public void testJWTProcessorIsReused() throws Exception {
+
+        mockStatic(JWKSourceDataProvider.class);
+        when(JWKSourceDataProvider.getInstance()).thenReturn(dataProvider);
+        when(dataProvider.getJWKSource(anyString())).thenReturn(jwkSet);
+        whenNew(DefaultJWTProcessor.class).withNoArguments().thenReturn(jwtProcessor);
+        validator = new JWKSBasedJWTValidator();
+
+        String jwksUri = "https://localhost:9444/oauth2/jwks";
+        assertTrue(validator.validateSignature(jwtString, jwksUri, "RS256", null));
+        assertTrue(validator.validateSignature(jwtString, jwksUri, "RS256", null));
+
+        verify(dataProvider, times(1)).getJWKSource(jwksUri);
+        verify(jwtProcessor, times(1)).setJWSKeySelector(any(JWSKeySelector.class));
+    }
+
     @DataProvider(name = "validateDataForException")
     public Object[][] provideValidateDataForException() {
 
@@ -57,6 +57,8 @@ import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCache;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheEntry;
 import org.wso2.carbon.identity.oauth.cache.AuthorizationGrantCacheKey;
+import org.wso2.carbon.identity.oauth.cache.OAuthSPClaimMappingCache;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCache;
 import org.wso2.carbon.identity.oauth.common.OAuthConstants;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth2.TestConstants;
@@ -910,6 +912,7 @@ public class DefaultOIDCClaimsCallbackHandlerTest {
     }
 
     private void mockOIDCScopeResource() throws Exception {
+        OIDCScopeClaimCache.getInstance().clearScopeClaimMapping(TENANT_ID);
         when(registryService.getConfigSystemRegistry(TENANT_ID)).thenReturn(userRegistry);
         Resource resource = spy(new ResourceImpl());
         when(userRegistry.get(OAuthConstants.SCOPE_RESOURCE_PATH)).thenReturn(resource);
@@ -917,6 +920,7 @@ public class DefaultOIDCClaimsCallbackHandlerTest {
     }
 
     private void mockOIDCScopeResource(Properties properties) throws Exception {
+        OIDCScopeClaimCache.getInstance().clearScopeClaimMapping(TENANT_ID);
         when(registryService.getConfigSystemRegistry(TENANT_ID)).thenReturn(userRegistry);
         Resource resource = spy(new ResourceImpl());
         for (Map.Entry<Object, Object> propertyEntry : properties.entrySet()) {
@@ -961,6 +965,7 @@ public class DefaultOIDCClaimsCallbackHandlerTest {
     }
 
     private void mockApplicationManagementService() throws Exception {
+        OAuthSPClaimMappingCache.getInstance().clear();
         when(applicationManagementService.getServiceProviderNameByClientId(anyString(), anyString(), anyString()))
                 .thenReturn(SERVICE_PROVIDER_NAME);
         setStaticField(OAuth2ServiceComponentHolder.class, "applicationMgtService", applicationManagementService);
@@ -1022,6 +1027,7 @@ public class DefaultOIDCClaimsCallbackHandlerTest {
 
     private void getMockOIDCScopeResource() throws RegistryException {
         System.setProperty(CarbonBaseConstants.CARBON_HOME, CARBON_HOME);
+        OIDCScopeClaimCache.getInstance().clearScopeClaimMapping(TENANT_ID);
 
         mockStatic(IdentityTenantUtil.class);
         when(IdentityTenantUtil.getTenantId(anyString())).thenReturn(TENANT_ID);
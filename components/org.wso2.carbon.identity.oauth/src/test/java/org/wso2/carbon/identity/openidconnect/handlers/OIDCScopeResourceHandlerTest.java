@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.openidconnect.handlers;
+
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.oauth.cache.OIDCScopeClaimCache;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+import org.wso2.carbon.registry.core.jdbc.handlers.RequestContext;
+import org.wso2.carbon.registry.core.session.CurrentSession;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Unit tests for OIDCScopeResourceHandler.
+ */
+@PrepareForTest({OIDCScopeClaimCache.class, CurrentSession.class})
+public class OIDCScopeResourceHandlerTest extends PowerMockIdentityBaseTest {
+
+    private static final int TENANT_ID = 1;
+
+    @Mock
+    private RequestContext requestContext;
+
+    @Mock
+    private OIDCScopeClaimCache oidcScopeClaimCache;
+
+    private OIDCScopeResourceHandler handler = new OIDCScopeResourceHandler();
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockStatic(OIDCScopeClaimCache.class);
+        when(OIDCScopeClaimCache.getInstance()).thenReturn(oidcScopeClaimCache);
+        mockStatic(CurrentSession.class);
+        when(CurrentSession.getTenantId()).thenReturn(TENANT_ID);
+    }
+
+    @Test
+    public void testPut() throws Exception {
+
+        handler.put(requestContext);
+        verifyClearedWithoutWriting();
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+
+        handler.delete(requestContext);
+        verifyClearedWithoutWriting();
+    }
+
+    @Test
+    public void testRename() throws Exception {
+
+        assertNull(handler.rename(requestContext));
+        verifyClearedWithoutWriting();
+    }
+
+    @Test
+    public void testMove() throws Exception {
+
+        assertNull(handler.move(requestContext));
+        verifyClearedWithoutWriting();
+    }
+
+    private void verifyClearedWithoutWriting() {
+
+        // The handler runs in the commit phase, so it must not write the change or stop the other handlers.
+        verify(oidcScopeClaimCache).clearScopeClaimMapping(TENANT_ID);
+        verifyZeroInteractions(requestContext);
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.oidc.session.backChannelLogout;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.wso2.carbon.identity.base.IdentityConstants;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.util.OAuth2ConfigUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers back-channel logout tokens to the logout endpoints of relying parties.
+ * <p>
+ * All requests share a pooled HTTP client, and every request is bounded by a timeout. The number of concurrent requests
+ * to a single relying party is limited by a semaphore of the relying party, which matches the per-route limit of the
+ * pool. A worker picking a request to a relying party which has no free permit parks it with the relying party instead
+ * of waiting, so that a slow relying party does not hold the workers or the queue slots needed by the others. A parked
+ * request is queued again when a permit of its relying party is released, holding that permit. Requests are queued in a
+ * bounded queue served by a fixed set of workers, and are rejected, logged and counted once the queue, or the parked
+ * requests of their relying party, are full. Failed
+ * deliveries (I/O errors, 5xx and 429 responses) are retried with an exponential backoff with full jitter. Retries are
+ * scheduled on a separate timer so the workers are not blocked while waiting.
+ */
+public class BackChannelLogoutDispatcher {
+
+    private static final Log log = LogFactory.getLog(BackChannelLogoutDispatcher.class);
+    private static final String LOGOUT_TOKEN = "logoutToken";
+    private static final String CONFIG_PREFIX = "OAuth.BackChannelLogout.";
+
+    private final Config config;
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledThreadPoolExecutor retryScheduler;
+    // Relying parties are the registered applications, hence they are kept for the life of the dispatcher.
+    private final ConcurrentMap<String, RelyingParty> relyingParties = new ConcurrentHashMap<>();
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong parkedCount = new AtomicLong();
+
+    public BackChannelLogoutDispatcher(Config config) {
+
+        this.config = config;
+        connectionManager = new PoolingHttpClientConnectionManager(createSocketFactoryRegistry(config));
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRP());
+        connectionManager.setMaxTotal(Math.max(config.getWorkers(), config.getMaxConnectionsPerRP()));
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getTimeout())
+                .setSocketTimeout(config.getTimeout())
+                .setConnectionRequestTimeout(config.getTimeout())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableAutomaticRetries()
+                .build();
+        workers = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(config.getQueueCapacity()), new DaemonThreadFactory("BCLogout-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+        retryScheduler = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("BCLogoutRetry-"));
+        retryScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues a logout token to be posted to the back-channel logout URL of a relying party.
+     *
+     * @param logoutToken         logout token
+     * @param backChannelLogoutUrl back-channel logout URL of the relying party
+     * @return true if the request was queued, false if it was rejected because the queue is full
+     */
+    public boolean dispatch(String logoutToken, String backChannelLogoutUrl) {
+
+        submittedCount.incrementAndGet();
+        if (submit(new DeliveryTask(logoutToken, backChannelLogoutUrl))) {
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        log.warn("Back-channel logout request to: " + backChannelLogoutUrl + " is rejected since the dispatch " +
+                "queue is full. Rejected requests: " + rejectedCount.get());
+        return false;
+    }
+
+    /**
+     * Stops accepting requests and releases the HTTP connections. Queued requests are discarded.
+     */
+    public void shutdown() {
+
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error("Error while closing the back-channel logout HTTP client.", e);
+        }
+    }
+
+    public long getSubmittedCount() {
+
+        return submittedCount.get();
+    }
+
+    public long getDeliveredCount() {
+
+        return deliveredCount.get();
+    }
+
+    public long getRetriedCount() {
+
+        return retriedCount.get();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.get();
+    }
+
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    public long getParkedCount() {
+
+        return parkedCount.get();
+    }
+
+    public int getQueuedCount() {
+
+        return workers.getQueue().size();
+    }
+
+    private boolean submit(DeliveryTask task) {
+
+        try {
+            workers.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Posts the logout token and returns whether the delivery should be retried.
+     */
+    private boolean deliver(DeliveryTask task) {
+
+        HttpPost httpPost = new HttpPost(task.backChannelLogoutUrl);
+        List<NameValuePair> logoutReqParams =
+                Collections.<NameValuePair>singletonList(new BasicNameValuePair(LOGOUT_TOKEN, task.logoutToken));
+        httpPost.setEntity(new UrlEncodedFormEntity(logoutReqParams, StandardCharsets.UTF_8));
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            EntityUtils.consumeQuietly(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode >= 200 && statusCode < 300) {
+                deliveredCount.incrementAndGet();
+                if (log.isDebugEnabled()) {
+                    log.debug("Back-channel logout request is delivered to: " + task.backChannelLogoutUrl);
+                }
+                return false;
+            }
+            if (statusCode >= 500 || statusCode == 429) {
+                log.warn("Back-channel logout endpoint: " + task.backChannelLogoutUrl + " responded with status: " +
+                        statusCode + ". Attempt: " + task.attempt);
+                return true;
+            }
+            failedCount.incrementAndGet();
+            log.error("Back-channel logout endpoint: " + task.backChannelLogoutUrl + " rejected the logout " +
+                    "request with status: " + statusCode);
+            return false;
+        } catch (IOException e) {
+            log.warn("Error sending logout request to: " + task.backChannelLogoutUrl + ". Attempt: " + task.attempt,
+                    e);
+            return true;
+        }
+    }
+
+    private void scheduleRetry(final DeliveryTask task) {
+
+        if (task.attempt > config.getMaxRetries()) {
+            failedCount.incrementAndGet();
+            log.error("Giving up sending logout request to: " + task.backChannelLogoutUrl + " after " +
+                    task.attempt + " attempts.");
+            return;
+        }
+        retriedCount.incrementAndGet();
+        long delay = getRetryDelay(task.attempt);
+        try {
+            retryScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (!submit(task)) {
+                        rejectedCount.incrementAndGet();
+                        failedCount.incrementAndGet();
+                        log.warn("Retry of the back-channel logout request to: " + task.backChannelLogoutUrl +
+                                " is rejected since the dispatch queue is full.");
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failedCount.incrementAndGet();
+            log.warn("Unable to schedule a retry of the back-channel logout request to: " +
+                    task.backChannelLogoutUrl, e);
+        }
+    }
+
+    /**
+     * Parks the task with its relying party, since all permits of the relying party are in use.
+     */
+    private void park(RelyingParty relyingParty, DeliveryTask task) {
+
+        if (!relyingParty.waitingTasks.offer(task)) {
+            rejectedCount.incrementAndGet();
+            failedCount.incrementAndGet();
+            log.warn("Back-channel logout request to: " + task.backChannelLogoutUrl + " is rejected since too many " +
+                    "requests are waiting for the relying party.");
+            return;
+        }
+        parkedCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Maximum concurrent back-channel logout requests to: " + task.backChannelLogoutUrl +
+                    " are in progress. Parking the request.");
+        }
+        // A permit may have been released after the task failed to acquire one.
+        resumeWaitingTasks(relyingParty);
+    }
+
+    private void releasePermit(RelyingParty relyingParty) {
+
+        relyingParty.permits.release();
+        resumeWaitingTasks(relyingParty);
+    }
+
+    /**
+     * Queues the parked tasks of the relying party for as long as it has free permits. Each queued task holds the
+     * permit it was given, so that another request can not take it before the task runs.
+     */
+    private void resumeWaitingTasks(RelyingParty relyingParty) {
+
+        while (!relyingParty.waitingTasks.isEmpty() && relyingParty.permits.tryAcquire()) {
+            DeliveryTask task = relyingParty.waitingTasks.poll();
+            if (task == null) {
+                relyingParty.permits.release();
+                continue;
+            }
+            task.permitHeld = true;
+            if (!submit(task)) {
+                task.permitHeld = false;
+                relyingParty.permits.release();
+                rejectedCount.incrementAndGet();
+                failedCount.incrementAndGet();
+                log.warn("Back-channel logout request to: " + task.backChannelLogoutUrl + " could not be queued " +
+                        "again since the dispatch queue is full.");
+            }
+        }
+    }
+
+    /**
+     * Returns the relying party of the given URL, which is identified by the scheme, host and port as the routes of
+     * the connection pool are.
+     */
+    RelyingParty getRelyingParty(String backChannelLogoutUrl) {
+
+        String relyingParty = backChannelLogoutUrl;
+        try {
+            URI uri = URI.create(backChannelLogoutUrl);
+            if (uri.getHost() != null) {
+                int port = uri.getPort();
+                if (port == -1) {
+                    port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+                }
+                relyingParty = uri.getScheme() + "://" + uri.getHost() + ":" + port;
+            }
+        } catch (IllegalArgumentException e) {
+            // The request fails when it is sent, limit it by the URL until then.
+            if (log.isDebugEnabled()) {
+                log.debug("Invalid back-channel logout URL: " + backChannelLogoutUrl, e);
+            }
+        }
+        RelyingParty party = relyingParties.get(relyingParty);
+        if (party == null) {
+            RelyingParty newParty = new RelyingParty(config.getMaxConnectionsPerRP(), config.getQueueCapacity());
+            party = relyingParties.putIfAbsent(relyingParty, newParty);
+            if (party == null) {
+                party = newParty;
+            }
+        }
+        return party;
+    }
+
+    /**
+     * Returns a random delay between zero and the exponential backoff of the given attempt.
+     */
+    long getRetryDelay(int attempt) {
+
+        long backoff = config.getRetryBackoff() << Math.min(attempt - 1, 16);
+        backoff = Math.min(backoff, config.getMaxRetryBackoff());
+        return ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    private static Registry<ConnectionSocketFactory> createSocketFactoryRegistry(Config config) {
+
+        SSLConnectionSocketFactory sslSocketFactory;
+        if (config.isHostNameVerificationEnabled()) {
+            sslSocketFactory = new SSLConnectionSocketFactory(SSLContexts.createDefault(),
+                    SSLConnectionSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+        } else {
+            sslSocketFactory = new SSLConnectionSocketFactory(SSLContexts.createDefault(),
+                    SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+        }
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+    }
+
+    /**
+     * Permits limiting the concurrent requests to a relying party, and the requests waiting for a permit.
+     */
+    static class RelyingParty {
+
+        final Semaphore permits;
+        final BlockingQueue<DeliveryTask> waitingTasks;
+
+        RelyingParty(int maxConnections, int maxWaitingTasks) {
+
+            permits = new Semaphore(maxConnections);
+            waitingTasks = new LinkedBlockingQueue<>(maxWaitingTasks);
+        }
+    }
+
+    /**
+     * A single delivery of a logout token, including its retries.
+     */
+    private class DeliveryTask implements Runnable {
+
+        private final String logoutToken;
+        private final String backChannelLogoutUrl;
+        private int attempt;
+        // Set when the task was queued with a permit of its relying party.
+        private boolean permitHeld;
+
+        DeliveryTask(String logoutToken, String backChannelLogoutUrl) {
+
+            this.logoutToken = logoutToken;
+            this.backChannelLogoutUrl = backChannelLogoutUrl;
+        }
+
+        @Override
+        public void run() {
+
+            RelyingParty relyingParty = getRelyingParty(backChannelLogoutUrl);
+            if (!permitHeld && !relyingParty.permits.tryAcquire()) {
+                park(relyingParty, this);
+                return;
+            }
+            permitHeld = false;
+            boolean retry;
+            try {
+                attempt++;
+                retry = deliver(this);
+            } finally {
+                releasePermit(relyingParty);
+            }
+            if (retry) {
+                scheduleRetry(this);
+            }
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        DaemonThreadFactory(String namePrefix) {
+
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Configuration of the back-channel logout dispatcher.
+     */
+    public static class Config {
+
+        private int workers = 4;
+        private int queueCapacity = 1000;
+        private int maxConnectionsPerRP = 2;
+        private int timeout = 5000;
+        private int maxRetries = 3;
+        private long retryBackoff = 500;
+        private long maxRetryBackoff = 10000;
+        private boolean hostNameVerificationEnabled = true;
+
+        /**
+         * Reads the configuration from the {@code OAuth.BackChannelLogout} element of identity.xml.
+         *
+         * @return dispatcher configuration
+         */
+        public static Config fromServerConfiguration() {
+
+            Config config = new Config();
+            config.workers = OAuth2ConfigUtil.getIntProperty(CONFIG_PREFIX + "Workers", 1, config.workers);
+            config.queueCapacity = OAuth2ConfigUtil.getIntProperty(CONFIG_PREFIX + "QueueCapacity", 1,
+                    config.queueCapacity);
+            config.maxConnectionsPerRP = OAuth2ConfigUtil.getIntProperty(CONFIG_PREFIX + "MaxConnectionsPerRP", 1,
+                    config.maxConnectionsPerRP);
+            config.timeout = OAuth2ConfigUtil.getIntProperty(CONFIG_PREFIX + "Timeout", 1, config.timeout);
+            config.maxRetries = OAuth2ConfigUtil.getIntProperty(CONFIG_PREFIX + "MaxRetries", 0, config.maxRetries);
+            config.retryBackoff = OAuth2ConfigUtil.getLongProperty(CONFIG_PREFIX + "RetryBackoff", 1,
+                    config.retryBackoff);
+            config.maxRetryBackoff = OAuth2ConfigUtil.getLongProperty(CONFIG_PREFIX + "MaxRetryBackoff", 1,
+                    config.maxRetryBackoff);
+            config.hostNameVerificationEnabled = !"false".equalsIgnoreCase(
+                    IdentityUtil.getProperty(IdentityConstants.ServerConfig.SLO_HOST_NAME_VERIFICATION_ENABLED));
+            return config;
+        }
+
+        public int getWorkers() {
+
+            return workers;
+        }
+
+        public Config setWorkers(int workers) {
+
+            this.workers = workers;
+            return this;
+        }
+
+        public int getQueueCapacity() {
+
+            return queueCapacity;
+        }
+
+        public Config setQueueCapacity(int queueCapacity) {
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public int getMaxConnectionsPerRP() {
+
+            return maxConnectionsPerRP;
+        }
+
+        public Config setMaxConnectionsPerRP(int maxConnectionsPerRP) {
+
+            this.maxConnectionsPerRP = maxConnectionsPerRP;
+            return this;
+        }
+
+        public int getTimeout() {
+
+            return timeout;
+        }
+
+        public Config setTimeout(int timeout) {
+
+            this.timeout = timeout;
+            return this;
+        }
+
+        public int getMaxRetries() {
+
+            return maxRetries;
+        }
+
+        public Config setMaxRetries(int maxRetries) {
+
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public long getRetryBackoff() {
+
+            return retryBackoff;
+        }
+
+        public Config setRetryBackoff(long retryBackoff) {
+
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
+        public long getMaxRetryBackoff() {
+
+            return maxRetryBackoff;
+        }
+
+        public Config setMaxRetryBackoff(long maxRetryBackoff) {
+
+            this.maxRetryBackoff = maxRetryBackoff;
+            return this;
+        }
+
+        public boolean isHostNameVerificationEnabled() {
+
+            return hostNameVerificationEnabled;
+        }
+
+        public Config setHostNameVerificationEnabled(boolean hostNameVerificationEnabled) {
+
+            this.hostNameVerificationEnabled = hostNameVerificationEnabled;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.oidc.session.backChannelLogout;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for BackChannelLogoutDispatcher, run against a local stub logout endpoint.
+ */
+public class BackChannelLogoutDispatcherTest {
+
+    private static final String LOGOUT_PATH = "/logout";
+
+    private HttpServer server;
+    private String logoutUrl;
+    private BackChannelLogoutDispatcher dispatcher;
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private volatile StubResponder responder;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        receivedBodies.clear();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(LOGOUT_PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                receivedBodies.add(readBody(exchange.getRequestBody()));
+                int status = responder.respond();
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        logoutUrl = "http://127.0.0.1:" + server.getAddress().getPort() + LOGOUT_PATH;
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+
+        final CountDownLatch delivered = new CountDownLatch(1);
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                delivered.countDown();
+                return 200;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config());
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        waitFor(dispatcher, 1, 0);
+        assertEquals(receivedBodies.get(0), "logoutToken=token1");
+        assertEquals(dispatcher.getRetriedCount(), 0);
+    }
+
+    @Test
+    public void testDispatchRetriesOnServerError() throws Exception {
+
+        final AtomicInteger requestCount = new AtomicInteger();
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                return requestCount.incrementAndGet() < 3 ? 503 : 200;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config().setRetryBackoff(10));
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        waitFor(dispatcher, 1, 0);
+        assertEquals(requestCount.get(), 3);
+        assertEquals(dispatcher.getRetriedCount(), 2);
+    }
+
+    @Test
+    public void testDispatchGivesUpAfterMaxRetries() throws Exception {
+
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                return 500;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setRetryBackoff(10).setMaxRetries(2));
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        waitFor(dispatcher, 0, 1);
+        assertEquals(receivedBodies.size(), 3, "The request should be sent once and retried twice.");
+    }
+
+    @Test
+    public void testDispatchDoesNotRetryClientError() throws Exception {
+
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                return 400;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config());
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        waitFor(dispatcher, 0, 1);
+        assertEquals(receivedBodies.size(), 1);
+        assertEquals(dispatcher.getRetriedCount(), 0);
+    }
+
+    @Test
+    public void testDispatchRejectedWhenQueueIsFull() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                received.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 200;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setWorkers(1).setQueueCapacity(1));
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        assertTrue(received.await(5, TimeUnit.SECONDS), "The first request should be in flight.");
+        assertTrue(dispatcher.dispatch("token2", logoutUrl));
+        assertFalse(dispatcher.dispatch("token3", logoutUrl), "The request should be rejected.");
+        assertEquals(dispatcher.getRejectedCount(), 1);
+        assertEquals(dispatcher.getSubmittedCount(), 3);
+
+        release.countDown();
+        waitFor(dispatcher, 2, 0);
+    }
+
+    @Test
+    public void testDispatchParksWhenRelyingPartyIsBusy() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                received.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 200;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setWorkers(2).setMaxConnectionsPerRP(1));
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        assertTrue(received.await(5, TimeUnit.SECONDS), "The first request should be in flight.");
+        assertTrue(dispatcher.dispatch("token2", logoutUrl));
+        waitForParked(dispatcher, 1);
+        assertEquals(dispatcher.getParkedCount(), 1, "The second request should be parked, not wait.");
+        assertEquals(receivedBodies.size(), 1, "Only one request should be sent to the relying party at a time.");
+
+        release.countDown();
+        waitFor(dispatcher, 2, 0);
+        assertEquals(receivedBodies.size(), 2);
+    }
+
+    @Test
+    public void testParkedRequestsDoNotHoldQueueSlots() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch received = new CountDownLatch(1);
+        final AtomicInteger requestCount = new AtomicInteger();
+        responder = new StubResponder() {
+            @Override
+            public int respond() {
+                if (requestCount.incrementAndGet() == 1) {
+                    received.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return 200;
+            }
+        };
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setWorkers(2).setQueueCapacity(2).setMaxConnectionsPerRP(1));
+
+        assertTrue(dispatcher.dispatch("token1", logoutUrl));
+        assertTrue(received.await(5, TimeUnit.SECONDS), "The first request should be in flight.");
+        assertTrue(dispatcher.dispatch("token2", logoutUrl));
+        waitForParked(dispatcher, 1);
+        assertTrue(dispatcher.dispatch("token3", logoutUrl));
+        waitForParked(dispatcher, 2);
+        assertEquals(dispatcher.getQueuedCount(), 0, "Parked requests should not be kept in the dispatch queue.");
+
+        // Another relying party is served while the requests of the busy one are parked.
+        String otherLogoutUrl = logoutUrl.replace("127.0.0.1", "localhost");
+        assertTrue(dispatcher.dispatch("token4", otherLogoutUrl));
+        waitFor(dispatcher, 1, 0);
+
+        release.countDown();
+        waitFor(dispatcher, 4, 0);
+        assertEquals(dispatcher.getRejectedCount(), 0);
+    }
+
+    @Test
+    public void testRelyingParty() {
+
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setMaxConnectionsPerRP(3));
+
+        assertTrue(dispatcher.getRelyingParty("https://rp.com/logout") ==
+                dispatcher.getRelyingParty("https://rp.com/other/logout"));
+        assertTrue(dispatcher.getRelyingParty("https://rp.com/logout") ==
+                dispatcher.getRelyingParty("https://rp.com:443/logout"));
+        assertFalse(dispatcher.getRelyingParty("https://rp.com/logout") ==
+                dispatcher.getRelyingParty("https://rp.com:8443/logout"));
+        assertEquals(dispatcher.getRelyingParty("https://rp.com/logout").permits.availablePermits(), 3);
+    }
+
+    @Test
+    public void testRetryDelayIsBounded() {
+
+        dispatcher = new BackChannelLogoutDispatcher(new BackChannelLogoutDispatcher.Config()
+                .setRetryBackoff(100).setMaxRetryBackoff(1000));
+        for (int attempt = 1; attempt < 20; attempt++) {
+            long delay = dispatcher.getRetryDelay(attempt);
+            assertTrue(delay >= 0 && delay <= Math.min(100L << (attempt - 1), 1000L), "Delay: " + delay);
+        }
+    }
+
+    private void waitForParked(BackChannelLogoutDispatcher dispatcher, long parked) throws Exception {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getParkedCount() < parked && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void waitFor(BackChannelLogoutDispatcher dispatcher, long delivered, long failed) throws Exception {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((dispatcher.getDeliveredCount() != delivered || dispatcher.getFailedCount() != failed)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(dispatcher.getDeliveredCount(), delivered);
+        assertEquals(dispatcher.getFailedCount(), failed);
+    }
+
+    private static String readBody(InputStream inputStream) throws IOException {
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private interface StubResponder {
+
+        int respond();
+    }
+}
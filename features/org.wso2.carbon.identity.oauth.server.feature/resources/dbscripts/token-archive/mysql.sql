@@ -0,0 +1,53 @@
+-- Archive tables used by the token purge task when OAuth.TokenCleanup.EnableArchive is enabled.
+-- The tables have no foreign keys or unique constraints so that rows of deleted applications and
+-- users can still be archived.
+
+CREATE TABLE IF NOT EXISTS IDN_OAUTH2_ACCESS_TOKEN_ARCHIVE (
+            TOKEN_ID VARCHAR (255),
+            ACCESS_TOKEN VARCHAR (2048),
+            REFRESH_TOKEN VARCHAR (2048),
+            CONSUMER_KEY_ID INTEGER,
+            AUTHZ_USER VARCHAR (100),
+            TENANT_ID INTEGER,
+            USER_DOMAIN VARCHAR (50),
+            USER_TYPE VARCHAR (25),
+            GRANT_TYPE VARCHAR (50),
+            TIME_CREATED TIMESTAMP NULL,
+            REFRESH_TOKEN_TIME_CREATED TIMESTAMP NULL,
+            VALIDITY_PERIOD BIGINT,
+            REFRESH_TOKEN_VALIDITY_PERIOD BIGINT,
+            TOKEN_SCOPE_HASH VARCHAR (32),
+            TOKEN_STATE VARCHAR (25),
+            TOKEN_STATE_ID VARCHAR (128),
+            SUBJECT_IDENTIFIER VARCHAR (255),
+            ACCESS_TOKEN_HASH VARCHAR (512),
+            REFRESH_TOKEN_HASH VARCHAR (512),
+            PRIMARY KEY (TOKEN_ID)
+) ENGINE INNODB;
+
+CREATE TABLE IF NOT EXISTS IDN_OAUTH2_ACCESS_TOKEN_SCOPE_ARCHIVE (
+            TOKEN_ID VARCHAR (255),
+            TOKEN_SCOPE VARCHAR (60),
+            TENANT_ID INTEGER,
+            PRIMARY KEY (TOKEN_ID, TOKEN_SCOPE)
+) ENGINE INNODB;
+
+CREATE TABLE IF NOT EXISTS IDN_OAUTH2_AUTHORIZATION_CODE_ARCHIVE (
+            CODE_ID VARCHAR (255),
+            AUTHORIZATION_CODE VARCHAR (2048),
+            CONSUMER_KEY_ID INTEGER,
+            CALLBACK_URL VARCHAR (2048),
+            SCOPE VARCHAR (2048),
+            AUTHZ_USER VARCHAR (100),
+            TENANT_ID INTEGER,
+            USER_DOMAIN VARCHAR (50),
+            TIME_CREATED TIMESTAMP NULL,
+            VALIDITY_PERIOD BIGINT,
+            STATE VARCHAR (25),
+            TOKEN_ID VARCHAR (255),
+            SUBJECT_IDENTIFIER VARCHAR (255),
+            PKCE_CODE_CHALLENGE VARCHAR (255),
+            PKCE_CODE_CHALLENGE_METHOD VARCHAR (128),
+            AUTHORIZATION_CODE_HASH VARCHAR (512),
+            PRIMARY KEY (CODE_ID)
+) ENGINE INNODB;
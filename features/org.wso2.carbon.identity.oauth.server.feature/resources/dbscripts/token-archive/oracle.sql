@@ -0,0 +1,53 @@
+-- Archive tables used by the token purge task when OAuth.TokenCleanup.EnableArchive is enabled.
+-- The tables have no foreign keys or unique constraints so that rows of deleted applications and
+-- users can still be archived.
+
+CREATE TABLE IDN_OAUTH2_ACCESS_TOKEN_ARCHIVE (
+            TOKEN_ID VARCHAR2 (255),
+            ACCESS_TOKEN VARCHAR2 (2048),
+            REFRESH_TOKEN VARCHAR2 (2048),
+            CONSUMER_KEY_ID INTEGER,
+            AUTHZ_USER VARCHAR2 (100),
+            TENANT_ID INTEGER,
+            USER_DOMAIN VARCHAR2 (50),
+            USER_TYPE VARCHAR2 (25),
+            GRANT_TYPE VARCHAR2 (50),
+            TIME_CREATED TIMESTAMP,
+            REFRESH_TOKEN_TIME_CREATED TIMESTAMP,
+            VALIDITY_PERIOD NUMBER(19),
+            REFRESH_TOKEN_VALIDITY_PERIOD NUMBER(19),
+            TOKEN_SCOPE_HASH VARCHAR2 (32),
+            TOKEN_STATE VARCHAR2 (25),
+            TOKEN_STATE_ID VARCHAR2 (128),
+            SUBJECT_IDENTIFIER VARCHAR2 (255),
+            ACCESS_TOKEN_HASH VARCHAR2 (512),
+            REFRESH_TOKEN_HASH VARCHAR2 (512),
+            PRIMARY KEY (TOKEN_ID))
+/
+
+CREATE TABLE IDN_OAUTH2_ACCESS_TOKEN_SCOPE_ARCHIVE (
+            TOKEN_ID VARCHAR2 (255),
+            TOKEN_SCOPE VARCHAR2 (60),
+            TENANT_ID INTEGER,
+            PRIMARY KEY (TOKEN_ID, TOKEN_SCOPE))
+/
+
+CREATE TABLE IDN_OAUTH2_AUTHORIZATION_CODE_ARCHIVE (
+            CODE_ID VARCHAR2 (255),
+            AUTHORIZATION_CODE VARCHAR2 (2048),
+            CONSUMER_KEY_ID INTEGER,
+            CALLBACK_URL VARCHAR2 (2048),
+            SCOPE VARCHAR2 (2048),
+            AUTHZ_USER VARCHAR2 (100),
+            TENANT_ID INTEGER,
+            USER_DOMAIN VARCHAR2 (50),
+            TIME_CREATED TIMESTAMP,
+            VALIDITY_PERIOD NUMBER(19),
+            STATE VARCHAR2 (25),
+            TOKEN_ID VARCHAR2 (255),
+            SUBJECT_IDENTIFIER VARCHAR2 (255),
+            PKCE_CODE_CHALLENGE VARCHAR2 (255),
+            PKCE_CODE_CHALLENGE_METHOD VARCHAR2 (128),
+            AUTHORIZATION_CODE_HASH VARCHAR2 (512),
+            PRIMARY KEY (CODE_ID))
+/